@@ -0,0 +1,97 @@
+/*   Copyright 2004 The Apache Software Foundation
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.xmlbeans.jmh;
+
+import org.apache.xmlbeans.SchemaTypeLoader;
+import org.apache.xmlbeans.XmlBeans;
+import org.apache.xmlbeans.XmlException;
+import org.apache.xmlbeans.XmlObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Schema validation of a document with wide choices and nested sequences - with the compiled
+ * content models and with the interpreter of the particles.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ContentModelBenchmark {
+    private static final String NS = "http://xmlbeans.apache.org/jmh/choices";
+    private static final int CHOICES = 40;
+    private static final int ITEMS = 5000;
+
+    private XmlObject document;
+
+    @Setup
+    public void setUp() throws XmlException {
+        StringBuilder xsd = new StringBuilder(
+            "<xs:schema xmlns:xs='http://www.w3.org/2001/XMLSchema' xmlns:c='" + NS + "' " +
+            "targetNamespace='" + NS + "' elementFormDefault='qualified'>" +
+            "<xs:element name='root'><xs:complexType>" +
+            "<xs:choice maxOccurs='unbounded'>");
+        for (int i = 0; i < CHOICES; i++) {
+            xsd.append("<xs:element name='e").append(i).append("' type='xs:string'/>");
+        }
+        // a nested group, so the interpreter has to descend into sequences and choices
+        xsd.append("<xs:sequence><xs:element name='head' type='xs:string'/>" +
+            "<xs:choice minOccurs='0' maxOccurs='3'>" +
+            "<xs:element name='x' type='xs:string'/><xs:element name='y' type='xs:string'/>" +
+            "</xs:choice><xs:element name='tail' type='xs:string' minOccurs='0'/></xs:sequence>" +
+            "</xs:choice></xs:complexType></xs:element></xs:schema>");
+
+        SchemaTypeLoader loader = XmlBeans.compileXsd(new XmlObject[]{XmlObject.Factory.parse(xsd.toString())},
+            XmlBeans.getBuiltinTypeSystem(), null);
+
+        Random random = new Random(42);
+        StringBuilder xml = new StringBuilder("<root xmlns='" + NS + "'>");
+        for (int i = 0; i < ITEMS; i++) {
+            if (random.nextInt(8) == 0) {
+                xml.append("<head>h</head><x>x</x><y>y</y><tail>t</tail>");
+            } else {
+                String name = "e" + random.nextInt(CHOICES);
+                xml.append('<').append(name).append(">v</").append(name).append('>');
+            }
+        }
+        xml.append("</root>");
+        document = loader.parse(xml.toString(), null, null);
+    }
+
+    @Benchmark
+    public boolean compiled() {
+        return document.validate();
+    }
+
+    @Benchmark
+    @Fork(value = 2, jvmArgsAppend = "-Dxmlbean.contentmodel.automaton=false")
+    public boolean interpreted() {
+        return document.validate();
+    }
+}
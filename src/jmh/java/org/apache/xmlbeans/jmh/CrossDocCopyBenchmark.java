@@ -0,0 +1,78 @@
+/*   Copyright 2004 The Apache Software Foundation
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.xmlbeans.jmh;
+
+import org.apache.xmlbeans.XmlException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openuri.easypo.PurchaseOrderDocument;
+import org.openuri.easypo.PurchaseOrderDocument.PurchaseOrder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Concurrent copies of line items in both directions between two documents (CrossDocCopy),
+ * i.e. the contention of cross-document setters on the two document locks
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class CrossDocCopyBenchmark {
+
+    @State(Scope.Group)
+    public static class Documents {
+        PurchaseOrder left;
+        PurchaseOrder right;
+
+        @Setup
+        public void setUp() throws XmlException {
+            left = parse();
+            right = parse();
+        }
+
+        private static PurchaseOrder parse() throws XmlException {
+            return PurchaseOrderDocument.Factory.parse(PurchaseOrders.create(10).xmlText()).getPurchaseOrder();
+        }
+    }
+
+    @Benchmark
+    @Group("copy")
+    @GroupThreads(2)
+    public int leftToRight(Documents docs) {
+        docs.right.getLineItemArray(0).set(docs.left.getLineItemArray(1));
+        return docs.right.getLineItemArray(0).getQuantity();
+    }
+
+    @Benchmark
+    @Group("copy")
+    @GroupThreads(2)
+    public int rightToLeft(Documents docs) {
+        docs.left.getLineItemArray(0).set(docs.right.getLineItemArray(1));
+        return docs.left.getLineItemArray(0).getQuantity();
+    }
+}
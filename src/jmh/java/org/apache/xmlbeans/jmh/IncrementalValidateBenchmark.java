@@ -0,0 +1,74 @@
+/*   Copyright 2004 The Apache Software Foundation
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.xmlbeans.jmh;
+
+import org.apache.xmlbeans.XmlOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openuri.easypo.PurchaseOrderDocument;
+import org.openuri.easypo.PurchaseOrderDocument.PurchaseOrder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Revalidation of a document after a change of a single line item,
+ * with and without {@link XmlOptions#setValidateIncremental()}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class IncrementalValidateBenchmark {
+
+    private final XmlOptions incremental = new XmlOptions().setValidateIncremental();
+    private PurchaseOrder order;
+    private int item;
+
+    @Setup
+    public void setUp(PurchaseOrders po) {
+        // a copy, as the document is changed
+        PurchaseOrderDocument doc = (PurchaseOrderDocument) po.document.copy();
+        order = doc.getPurchaseOrder();
+        order.validate(incremental);
+    }
+
+    @Benchmark
+    public boolean full() {
+        change();
+        return order.validate();
+    }
+
+    @Benchmark
+    public boolean incremental() {
+        change();
+        return order.validate(incremental);
+    }
+
+    private void change() {
+        int size = order.sizeOfLineItemArray();
+        order.getLineItemArray(item++ % size).setQuantity(item);
+    }
+}
@@ -0,0 +1,87 @@
+/*   Copyright 2004 The Apache Software Foundation
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.xmlbeans.jmh;
+
+import org.apache.xmlbeans.XmlException;
+import org.apache.xmlbeans.XmlObject;
+import org.apache.xmlbeans.XmlOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openuri.easypo.PurchaseOrderDocument;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing into the store - typed and untyped (BisLoad, POLoadAlloc) and small SOAP like payloads (SmallDocLoad)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ParseBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class SmallDoc {
+        private static final String SMALL_DOC =
+            "<soap:Envelope xmlns:soap=\"http://schemas.xmlsoap.org/soap/envelope/\">" +
+            "<soap:Header><wsa:To xmlns:wsa=\"http://www.w3.org/2005/08/addressing\">urn:gateway</wsa:To></soap:Header>" +
+            "<soap:Body><po:getOrder xmlns:po=\"http://openuri.org/easypo\"><po:id>4711</po:id></po:getOrder></soap:Body>" +
+            "</soap:Envelope>";
+
+        @Param({"true", "false"})
+        public boolean pooled;
+
+        byte[] bytes;
+        XmlOptions options;
+
+        @Setup
+        public void setUp() {
+            bytes = SMALL_DOC.getBytes(StandardCharsets.UTF_8);
+            options = new XmlOptions();
+            if (!pooled) {
+                options.setLoadDisableXMLReaderPool();
+            }
+        }
+    }
+
+    @Benchmark
+    public PurchaseOrderDocument typed(PurchaseOrders po) throws XmlException, IOException {
+        return PurchaseOrderDocument.Factory.parse(new ByteArrayInputStream(po.bytes));
+    }
+
+    @Benchmark
+    public XmlObject untyped(PurchaseOrders po) throws XmlException, IOException {
+        return XmlObject.Factory.parse(new ByteArrayInputStream(po.bytes));
+    }
+
+    @Benchmark
+    public XmlObject smallDocument(SmallDoc doc) throws XmlException, IOException {
+        return XmlObject.Factory.parse(new ByteArrayInputStream(doc.bytes), doc.options);
+    }
+}
@@ -0,0 +1,103 @@
+/*   Copyright 2004 The Apache Software Foundation
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.xmlbeans.jmh;
+
+import org.apache.xmlbeans.XmlException;
+import org.apache.xmlbeans.XmlOptions;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openuri.easypo.Customer;
+import org.openuri.easypo.LineItem;
+import org.openuri.easypo.PurchaseOrderDocument;
+import org.openuri.easypo.PurchaseOrderDocument.PurchaseOrder;
+import org.openuri.easypo.Shipper;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Calendar;
+import java.util.GregorianCalendar;
+import java.util.TimeZone;
+
+/**
+ * The purchase-order documents of the former test/perf harness,
+ * with the number of line items as the document size parameter.
+ */
+@State(Scope.Benchmark)
+public class PurchaseOrders {
+    static final String PO_NS = "http://openuri.org/easypo";
+
+    private static final String CUSTOMER_NAME = "First Last";
+    private static final String CUSTOMER_ADDR = "123 Sesame St.";
+    private static final String LI_DESC = "line item description";
+    private static final BigDecimal LI_PUO = new BigDecimal("1.23");
+    private static final double LI_PRICE = 1.23;
+    private static final int LI_QUANTITY = 123;
+    private static final String SHIPPER_NAME = "Joe Shipper";
+    private static final BigDecimal SHIPPER_POR = new BigDecimal("4.56");
+
+    @Param({"10", "1000", "10000"})
+    public int lineItems;
+
+    /** the serialized document */
+    public byte[] bytes;
+
+    /** the parsed document, benchmarks must not modify it */
+    public PurchaseOrderDocument document;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, XmlException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        create(lineItems).save(bos, new XmlOptions().setSavePrettyPrint());
+        bytes = bos.toByteArray();
+        document = PurchaseOrderDocument.Factory.parse(new ByteArrayInputStream(bytes));
+    }
+
+    /**
+     * Builds a purchase order top-down via the generated setters
+     */
+    static PurchaseOrderDocument create(int lineItems) {
+        PurchaseOrderDocument doc = PurchaseOrderDocument.Factory.newInstance();
+        PurchaseOrder po = doc.addNewPurchaseOrder();
+
+        Customer customer = po.addNewCustomer();
+        customer.setName(CUSTOMER_NAME);
+        customer.setAddress(CUSTOMER_ADDR);
+
+        Calendar date = new GregorianCalendar(TimeZone.getTimeZone("GMT-05:00"));
+        date.clear();
+        date.set(2003, Calendar.JANUARY, 7, 14, 16, 0);
+        po.setDate(date);
+
+        for (int i = 0; i < lineItems; i++) {
+            LineItem li = po.addNewLineItem();
+            li.setDescription(LI_DESC);
+            li.setPerUnitOunces(LI_PUO);
+            li.setPrice(LI_PRICE);
+            li.setQuantity(LI_QUANTITY);
+        }
+
+        Shipper shipper = po.addNewShipper();
+        shipper.setName(SHIPPER_NAME);
+        shipper.setPerOunceRate(SHIPPER_POR);
+
+        return doc;
+    }
+}
@@ -0,0 +1,88 @@
+/*   Copyright 2004 The Apache Software Foundation
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.xmlbeans.jmh;
+
+import org.apache.xmlbeans.impl.regex.RegularExpression;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Matches pattern facets as found in typical schemas, with the expressions shared
+ * by all threads - like the pattern facets of a schema type.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class RegexBenchmark {
+
+    private static final String[][] PATTERNS = {
+        {"\\d{4}-\\d{2}-\\d{2}", "2004-11-23"},
+        {"[A-Z]{2}\\d{6}", "DE123456"},
+        {"\\d{5}(-\\d{4})?", "12345-6789"},
+        {"[^@]+@[^\\.]+\\..+", "someone@example.org"},
+        {"\\p{Lu}\\p{Ll}*( \\p{Lu}\\p{Ll}*)*", "Apache Software Foundation"},
+        {"[\\i-[:]][\\c-[:]]*", "line-item"},
+        {"(0|[1-9]\\d*)\\.\\d{2}", "4711.95"},
+    };
+
+    private RegularExpression[] expressions;
+    private String[] values;
+
+    @Setup
+    public void setUp() {
+        expressions = new RegularExpression[PATTERNS.length];
+        values = new String[PATTERNS.length];
+        for (int i = 0; i < PATTERNS.length; i++) {
+            expressions[i] = new RegularExpression(PATTERNS[i][0], "X");
+            values[i] = PATTERNS[i][1];
+        }
+    }
+
+    @Benchmark
+    public int singleThread() {
+        return matchAll();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public int allThreads() {
+        return matchAll();
+    }
+
+    private int matchAll() {
+        int matched = 0;
+        for (int i = 0; i < expressions.length; i++) {
+            if (expressions[i].matches(values[i])) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+}
@@ -0,0 +1,74 @@
+/*   Copyright 2004 The Apache Software Foundation
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.xmlbeans.jmh;
+
+import org.apache.xmlbeans.XmlObject;
+import org.apache.xmlbeans.XmlOptions;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * XPath selections and XQuery queries on a parsed document (POSelectLineItems)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SelectBenchmark {
+    private static final String LINE_ITEMS =
+        "declare namespace s='" + PurchaseOrders.PO_NS + "'; .//s:line-item";
+
+    private static final String QUANTITIES =
+        "declare namespace s='" + PurchaseOrders.PO_NS + "'; $this/s:purchase-order/s:line-item/s:quantity";
+
+    // predicates and functions are evaluated by Saxon
+    private static final String EXPENSIVE_ITEMS =
+        "declare namespace s='" + PurchaseOrders.PO_NS + "'; .//s:line-item[s:price > 1 and contains(s:description, 'item')]";
+
+    private static final String QUERY =
+        "declare namespace s='" + PurchaseOrders.PO_NS + "'; " +
+        "for $li in $this/s:purchase-order/s:line-item where $li/s:quantity > 100 return $li/s:price";
+
+    private static final XmlOptions SAXON = new XmlOptions().setXPathUseSaxon();
+
+    @Benchmark
+    public XmlObject[] descendants(PurchaseOrders po) {
+        return po.document.getPurchaseOrder().selectPath(LINE_ITEMS);
+    }
+
+    @Benchmark
+    public XmlObject[] path(PurchaseOrders po) {
+        return po.document.selectPath(QUANTITIES);
+    }
+
+    @Benchmark
+    public XmlObject[] saxonPath(PurchaseOrders po) {
+        return po.document.getPurchaseOrder().selectPath(EXPENSIVE_ITEMS, SAXON);
+    }
+
+    @Benchmark
+    public XmlObject[] query(PurchaseOrders po) {
+        return po.document.execQuery(QUERY);
+    }
+}
@@ -0,0 +1,77 @@
+/*   Copyright 2004 The Apache Software Foundation
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.xmlbeans.jmh;
+
+import org.apache.xmlbeans.SchemaTypeLoader;
+import org.apache.xmlbeans.XmlBeans;
+import org.apache.xmlbeans.XmlError;
+import org.apache.xmlbeans.impl.validator.ValidatingXMLStreamReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openuri.easypo.PurchaseOrderDocument;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streaming validation of the serialized purchase order through a {@link ValidatingXMLStreamReader}.
+ * <p>
+ * Run it with the allocation profiler ({@code -prof gc}) - the normalized allocation rate
+ * shows the garbage per document, which should mostly come from the StAX parser and the
+ * simple type values.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class StreamValidateBenchmark {
+
+    private final XMLInputFactory factory = XMLInputFactory.newInstance();
+    private final ValidatingXMLStreamReader reader = new ValidatingXMLStreamReader();
+    private final List<XmlError> errors = new ArrayList<>();
+    private SchemaTypeLoader loader;
+
+    @Setup
+    public void setUp() {
+        loader = XmlBeans.typeLoaderForClassLoader(PurchaseOrderDocument.class.getClassLoader());
+    }
+
+    @Benchmark
+    public boolean validate(PurchaseOrders po) throws XMLStreamException {
+        XMLStreamReader xsr = factory.createXMLStreamReader(new ByteArrayInputStream(po.bytes));
+        errors.clear();
+        reader.init(xsr, false, null, loader, null, errors);
+        while (reader.hasNext()) {
+            reader.next();
+        }
+        return reader.isValid();
+    }
+}
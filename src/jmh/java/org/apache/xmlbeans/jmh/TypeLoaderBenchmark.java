@@ -0,0 +1,100 @@
+/*   Copyright 2004 The Apache Software Foundation
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.xmlbeans.jmh;
+
+import org.apache.xmlbeans.SchemaTypeLoader;
+import org.apache.xmlbeans.XmlBeans;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openuri.easypo.PurchaseOrderDocument;
+
+import javax.xml.namespace.QName;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Component lookups of a type loader shared by all threads, as done for the document
+ * elements and xsi:type attributes while parsing - found and unknown names.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class TypeLoaderBenchmark {
+
+    private static final QName[] ELEMENTS = {
+        new QName(PurchaseOrders.PO_NS, "purchase-order"),
+        new QName(PurchaseOrders.PO_NS, "customer"),
+        new QName(PurchaseOrders.PO_NS, "unknown"),
+    };
+
+    private static final QName[] TYPES = {
+        new QName(PurchaseOrders.PO_NS, "customer"),
+        new QName(PurchaseOrders.PO_NS, "line-item"),
+        new QName(PurchaseOrders.PO_NS, "unknown"),
+    };
+
+    private SchemaTypeLoader loader;
+    private String classname;
+
+    @Setup
+    public void setUp() {
+        loader = XmlBeans.typeLoaderForClassLoader(PurchaseOrderDocument.class.getClassLoader());
+        classname = PurchaseOrderDocument.class.getName();
+    }
+
+    @Benchmark
+    public int singleThread() {
+        return lookupAll();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public int allThreads() {
+        return lookupAll();
+    }
+
+    private int lookupAll() {
+        int found = 0;
+        for (QName element : ELEMENTS) {
+            if (loader.findDocumentType(element) != null) {
+                found++;
+            }
+            if (loader.findElement(element) != null) {
+                found++;
+            }
+        }
+        for (QName type : TYPES) {
+            if (loader.findType(type) != null) {
+                found++;
+            }
+        }
+        if (loader.typeForClassname(classname) != null) {
+            found++;
+        }
+        return found;
+    }
+}
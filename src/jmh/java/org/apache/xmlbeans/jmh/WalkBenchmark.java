@@ -0,0 +1,116 @@
+/*   Copyright 2004 The Apache Software Foundation
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.xmlbeans.jmh;
+
+import org.apache.xmlbeans.XmlCursor;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openuri.easypo.LineItem;
+import org.openuri.easypo.PurchaseOrderDocument.PurchaseOrder;
+import org.w3c.dom.Node;
+import org.w3c.dom.NodeList;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Read-only traversals of a parsed document - via cursor (CursorWalk), DOM (DomWalk, DomWalkNL)
+ * and the generated getters (POReadAll)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class WalkBenchmark {
+
+    @Benchmark
+    public int cursor(PurchaseOrders po) {
+        int hash = 0;
+        try (XmlCursor c = po.document.newCursor()) {
+            while (c.hasNextToken()) {
+                if (c.isStart()) {
+                    hash += 17;
+                } else if (c.isContainer() || c.isAttr()) {
+                    hash += c.getTextValue().length();
+                } else if (c.isText()) {
+                    hash += c.getChars().length();
+                }
+                c.toNextToken();
+            }
+        }
+        return hash;
+    }
+
+    @Benchmark
+    public int dom(PurchaseOrders po) {
+        return walkSiblings(po.document.getDomNode());
+    }
+
+    @Benchmark
+    public int domNodeList(PurchaseOrders po) {
+        return walkNodeList(po.document.getDomNode());
+    }
+
+    @Benchmark
+    public void typed(PurchaseOrders po, Blackhole bh) {
+        PurchaseOrder order = po.document.getPurchaseOrder();
+        bh.consume(order.getCustomer().getName());
+        bh.consume(order.getCustomer().getAddress());
+        bh.consume(order.getDate());
+        for (LineItem li : order.getLineItemArray()) {
+            bh.consume(li.getDescription());
+            bh.consume(li.getPerUnitOunces());
+            bh.consume(li.getPrice());
+            bh.consume(li.getQuantity());
+        }
+        bh.consume(order.getShipper().getName());
+        bh.consume(order.getShipper().getPerOunceRate());
+    }
+
+    private static int walkSiblings(Node node) {
+        int hash = nodeHash(node);
+        for (Node child = node.getFirstChild(); child != null; child = child.getNextSibling()) {
+            hash += walkSiblings(child);
+        }
+        return hash;
+    }
+
+    private static int walkNodeList(Node node) {
+        int hash = nodeHash(node);
+        NodeList children = node.getChildNodes();
+        for (int i = 0, len = children.getLength(); i < len; i++) {
+            hash += walkNodeList(children.item(i));
+        }
+        return hash;
+    }
+
+    private static int nodeHash(Node node) {
+        switch (node.getNodeType()) {
+            case Node.ATTRIBUTE_NODE:
+            case Node.CDATA_SECTION_NODE:
+            case Node.TEXT_NODE:
+                return node.getNodeValue().length();
+            default:
+                return node.getNodeName().length();
+        }
+    }
+}
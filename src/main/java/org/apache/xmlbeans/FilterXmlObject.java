@@ -25,6 +25,7 @@ import javax.xml.stream.XMLStreamReader;
 import java.io.*;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.channels.WritableByteChannel;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.List;
@@ -199,6 +200,10 @@ public abstract class FilterXmlObject implements XmlObject, SimpleValue, Delegat
         underlyingXmlObject().save(os, options);
     }
 
+    public void save(WritableByteChannel channel, XmlOptions options) throws IOException {
+        underlyingXmlObject().save(channel, options);
+    }
+
     public void save(Writer w, XmlOptions options) throws IOException {
         underlyingXmlObject().save(w, options);
     }
@@ -18,21 +18,25 @@ package org.apache.xmlbeans;
 import javax.xml.namespace.QName;
 
 /**
- * A cache that can be used to pool QName instances.  Each thread has one.
+ * A cache that can be used to pool QName instances.  A single instance is shared
+ * by all threads, see {@link XmlBeans#getQNameCache()}.
+ * <p>
+ * The cache has a fixed size and doesn't need any locking: a name is looked up in two
+ * slots of the table and if it isn't found, a new QName is created and replaces one of
+ * the slots. Concurrent lookups of the same new name might therefore create distinct,
+ * but equal, instances - the first one stored wins for later lookups.
+ * As QNames are immutable, the unsynchronized table access is safe.
  */ 
 public final class QNameCache
 {
     private static final float DEFAULT_LOAD = 0.70f;
-    private final float loadFactor;
-    private int numEntries = 0;
-    private int threshold;
-    private int hashmask;
-    private QName[] table;
+    private final int hashmask;
+    private final QName[] table;
 
     /**
-     * Creates a QNameCache with the given initialCapacity and loadFactor.
+     * Creates a QNameCache with the given capacity and loadFactor.
      * 
-     * @param initialCapacity the number of entries to initially make space for
+     * @param initialCapacity the number of entries to make space for - the cache doesn't grow beyond this
      * @param loadFactor a number to control the density of the hashtable
      */ 
     public QNameCache(int initialCapacity, float loadFactor)
@@ -40,21 +44,19 @@ public final class QNameCache
         assert initialCapacity > 0;
         assert loadFactor > 0 && loadFactor < 1;
 
-        // Find a power of 2 >= initialCapacity
+        // Find a power of 2 which keeps initialCapacity entries below the load factor
         int capacity = 16;
-        while (capacity < initialCapacity) 
+        while (capacity * loadFactor < initialCapacity) 
             capacity <<= 1;
     
-        this.loadFactor = loadFactor;
         this.hashmask = capacity - 1;
-        threshold = (int)(capacity * loadFactor);
         table = new QName[capacity];
     }
 
     /**
-     * Creates a QNameCache with the given initialCapacity.
+     * Creates a QNameCache with the given capacity.
      * 
-     * @param initialCapacity the number of entries to initially make space for
+     * @param initialCapacity the number of entries to make space for
      */ 
     public QNameCache(int initialCapacity)
     {
@@ -77,58 +79,41 @@ public final class QNameCache
      */ 
     public QName getName(String uri, String localName, String prefix)
     {
-        /*
-        return new QName(uri, localName, prefix);
-        */
         assert localName != null;
         
         if (uri == null) uri = "";
         if (prefix == null) prefix = "";
 
+        final QName[] tab = table;
         int index = hash(uri, localName, prefix) & hashmask;
-        while (true) {
-            QName q = table[index];
-            if (q == null)
-            {
-                numEntries++;
-                if (numEntries >= threshold)
-                    rehash();
-
-                return table[index] = new QName(uri, localName, prefix);
-            }
-            else if (equals(q, uri, localName, prefix))
-                return q;
-            else 
-                index = (index-1) & hashmask;
-        }
+        QName q = tab[index];
+        if (q != null && equals(q, uri, localName, prefix))
+            return q;
+
+        int altIndex = (index - 1) & hashmask;
+        QName alt = tab[altIndex];
+        if (alt != null && equals(alt, uri, localName, prefix))
+            return alt;
+
+        QName name = new QName(uri, localName, prefix);
+
+        // use a free slot if there's one, otherwise evict the primary slot
+        if (q != null && alt == null)
+            tab[altIndex] = name;
+        else
+            tab[index] = name;
+
+        return name;
     }
 
-    private void rehash()
+    /**
+     * @return the maximum number of QNames held by this cache
+     */
+    public int getCapacity()
     {
-        int newLength = table.length * 2;
-        QName[] newTable = new QName[newLength];
-        int newHashmask = newLength - 1;
-
-        for (int i = 0 ; i < table.length ; i++)
-        {
-            QName q = table[i];
-            if (q != null)
-            {
-                int newIndex =
-                    hash( q.getNamespaceURI(), q.getLocalPart(), q.getPrefix() ) & newHashmask;
-                
-                while (newTable[newIndex] != null)
-                    newIndex = (newIndex - 1) & newHashmask;
-                
-                newTable[newIndex] = q;
-            }
-        }
-
-        table = newTable;
-        hashmask = newHashmask;
-        threshold = (int) (newLength * loadFactor);
+        return table.length;
     }
-    
+
     private static int hash(String uri, String localName, String prefix)
     {
         int h = 0;
@@ -137,7 +122,8 @@ public final class QNameCache
         h += uri.hashCode() << 5;
         h += localName.hashCode();
 
-        return h;
+        // spread the higher bits, as only the lower bits are used for indexing
+        return h ^ (h >>> 16);
     }
 
     private static boolean equals(QName q, String uri, String localName, String prefix)
@@ -16,6 +16,7 @@
 package org.apache.xmlbeans;
 
 import org.apache.xmlbeans.impl.common.SystemCache;
+import org.apache.xmlbeans.impl.regex.RegularExpression;
 import org.apache.xmlbeans.impl.schema.StscState;
 import org.apache.xmlbeans.impl.store.CharUtil;
 import org.apache.xmlbeans.impl.store.Locale;
@@ -37,6 +38,7 @@ public class ThreadLocalUtil {
         CharUtil.clearThreadLocals();
         Locale.clearThreadLocals();
         NamespaceContext.clearThreadLocals();
+        RegularExpression.clearThreadLocals();
 
         // SystemCache is not a singleton, but also creates ThreadLocals,
         // so we get the current instance and clean it out as well
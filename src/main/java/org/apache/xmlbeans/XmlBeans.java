@@ -15,18 +15,25 @@
 
 package org.apache.xmlbeans;
 
+import org.apache.xmlbeans.impl.common.StaxHelper;
 import org.apache.xmlbeans.impl.schema.BuiltinSchemaTypeSystem;
 import org.apache.xmlbeans.impl.schema.PathResourceLoader;
 import org.apache.xmlbeans.impl.schema.SchemaTypeLoaderImpl;
 import org.apache.xmlbeans.impl.schema.SchemaTypeSystemCompiler;
+import org.apache.xmlbeans.impl.store.ElementIterator;
 import org.apache.xmlbeans.impl.store.Locale;
 import org.w3c.dom.Node;
 
 import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
 import java.io.File;
-import java.lang.ref.SoftReference;
+import java.io.InputStream;
 import java.lang.reflect.Field;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Provides an assortment of utilities
@@ -78,44 +85,41 @@ public final class XmlBeans {
     }
 
     /**
-     * Thread local QName cache for general use
+     * Global QName cache for general use - the size can be set via the "xmlbean.qnamecache.size"
+     * system property and defaults to 4096 names
      */
-    private static final ThreadLocal _threadLocalLoaderQNameCache =
-        new ThreadLocal() {
-            protected Object initialValue() {
-                return new SoftReference(new QNameCache(32));
-            }
-        };
+    private static final QNameCache QNAME_CACHE = new QNameCache(initQNameCacheSize());
+
+    private static int initQNameCacheSize() {
+        String size = SystemProperties.getProperty("xmlbean.qnamecache.size");
+        try {
+            return size == null ? 4096 : Math.max(16, Integer.parseInt(size.trim()));
+        } catch (NumberFormatException e) {
+            return 4096;
+        }
+    }
 
     public static void clearThreadLocals() {
-        // clear thread local here
-        _threadLocalLoaderQNameCache.remove();
+        // the QName cache is shared between the threads, so there's nothing to clear here anymore
     }
 
     /**
-     * Returns a thread local QNameCache
+     * Returns the QNameCache, which is shared by all threads
      */
     public static QNameCache getQNameCache() {
-        SoftReference softRef = (SoftReference) _threadLocalLoaderQNameCache.get();
-        QNameCache qnameCache = (QNameCache) (softRef).get();
-        if (qnameCache == null) {
-            qnameCache = new QNameCache(32);
-            _threadLocalLoaderQNameCache.set(new SoftReference(qnameCache));
-        }
-        return qnameCache;
+        return QNAME_CACHE;
     }
 
     /**
-     * Obtains a name from the thread local QNameCache
+     * Obtains a name from the global QNameCache
      */
     public static QName getQName(String localPart) {
         return getQNameCache().getName("", localPart);
     }
 
     /**
-     * Obtains a name from the thread local QNameCache
+     * Obtains a name from the global QNameCache
      */
-
     public static QName getQName(String namespaceUri, String localPart) {
         return getQNameCache().getName(namespaceUri, localPart);
     }
@@ -224,6 +228,55 @@ public final class XmlBeans {
         return Locale.streamToNode(xs);
     }
 
+    /**
+     * Streams the elements with the given name of a - possibly huge - XML document as independent XmlObjects.
+     * <p>
+     * Each element is loaded into a document of its own when the stream advances,
+     * so the memory consumption is bounded by the largest element instead of the whole document.
+     * If the type is a document type, the returned objects are documents containing the element,
+     * otherwise the element content is typed with the given type, i.e. for a line item type,
+     * line item instances are returned. Without a type, the type is determined like for
+     * {@link org.apache.xmlbeans.impl.schema.XmlObjectFactory#parse(InputStream)}.
+     * <p>
+     * Closing the stream closes the underlying StAX reader, but not the input stream.
+     *
+     * @param is          the XML document
+     * @param elementName the name of the repeating element
+     * @param type        the requested type or null
+     */
+    public static Stream<XmlObject> streamElements(InputStream is, QName elementName, SchemaType type) throws XmlException {
+        return streamElements(is, elementName, type, null);
+    }
+
+    /**
+     * Streams the elements with the given name of a - possibly huge - XML document as independent XmlObjects.
+     *
+     * @see #streamElements(InputStream, QName, SchemaType)
+     */
+    public static Stream<XmlObject> streamElements(InputStream is, QName elementName, SchemaType type, XmlOptions options)
+        throws XmlException {
+        XMLStreamReader xsr;
+        try {
+            xsr = StaxHelper.newXMLInputFactory(XmlOptions.maskNull(options)).createXMLStreamReader(is);
+        } catch (XMLStreamException e) {
+            throw new XmlException(e.getMessage(), e);
+        }
+        return streamElements(xsr, elementName, type, options);
+    }
+
+    /**
+     * Streams the elements with the given name of a StAX reader as independent XmlObjects.
+     * The reader can be positioned anywhere in the document, only the following elements are returned.
+     *
+     * @see #streamElements(InputStream, QName, SchemaType)
+     */
+    public static Stream<XmlObject> streamElements(XMLStreamReader xsr, QName elementName, SchemaType type, XmlOptions options) {
+        SchemaTypeLoader stl = (type == null) ? getContextTypeLoader() : type.getTypeSystem();
+        ElementIterator it = new ElementIterator(stl, xsr, elementName, type, options);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(it, Spliterator.ORDERED | Spliterator.NONNULL), false)
+            .onClose(it::close);
+    }
+
     /**
      * Returns the SchemaTypeSystem that results from compiling the XML
      * schema definitions passed.
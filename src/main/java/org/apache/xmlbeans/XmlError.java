@@ -164,6 +164,13 @@ public class XmlError implements java.io.Serializable {
         this(XmlError.formattedMessage(code, args), code, severity, loc);
     }
 
+    /**
+     * Copies the given error and locates it at the cursor.
+     */
+    protected XmlError(XmlError src, XmlCursor cursor) {
+        this(src._message, src._code, src._severity, cursor);
+    }
+
     /**
      * Returns an XmlError for the given message, with no location and {@link #SEVERITY_ERROR}.
      *
@@ -490,6 +497,15 @@ public class XmlError implements java.io.Serializable {
         return _message;
     }
 
+    /**
+     * Returns a copy of this error, which is located at the given cursor.
+     * This is used for errors, which were found apart from the store and
+     * hence without a cursor, e.g. by a parallel validation.
+     */
+    public XmlError withCursor(XmlCursor cursor) {
+        return new XmlError(this, cursor);
+    }
+
     /**
      * Returns the error code or null. See {@link XmlErrorCodes}.
      */
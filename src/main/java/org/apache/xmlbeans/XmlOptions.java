@@ -64,7 +64,8 @@ import java.util.*;
  *   <td>{@code setDocumentType}<br>
  *       {@code setDocumentSourceName}<br>
  *       {@code setValidateOnSet}<br>
- *       {@code setUnsynchronized}</td>
+ *       {@code setUnsynchronized}<br>
+ *       {@code setUseReentrantLock}</td>
  *   <td>{@code setLoad***}<br>
  *       {@code setEntityResolver}</td>
  *   <td>{@code setErrorListener}<br>
@@ -120,6 +121,7 @@ public class XmlOptions implements java.io.Serializable {
         LOAD_MESSAGE_DIGEST,
         LOAD_USE_DEFAULT_RESOLVER,
         LOAD_USE_XMLREADER,
+        LOAD_DISABLE_XMLREADER_POOL,
         XQUERY_CURRENT_NODE_VAR,
         XQUERY_VARIABLE_MAP,
         CHARACTER_ENCODING,
@@ -136,11 +138,19 @@ public class XmlOptions implements java.io.Serializable {
         COMPILE_PARTIAL_TYPESYSTEM,
         COMPILE_PARTIAL_METHODS,
         COMPILE_ANNOTATION_JAVADOC,
+        COMPILE_CODEGEN_THREADS,
+        COMPILE_PACKED_ARCHIVE,
         VALIDATE_ON_SET,
         VALIDATE_TREAT_LAX_AS_SKIP,
         VALIDATE_STRICT,
         VALIDATE_TEXT_ONLY,
+        VALIDATE_PARALLEL,
+        VALIDATE_INCREMENTAL,
         UNSYNCHRONIZED,
+        USE_REENTRANT_LOCK,
+        LOAD_READ_ONLY,
+        LOAD_VALIDATE,
+        LOAD_VALIDATE_ERROR_LIMIT,
         ENTITY_RESOLVER,
         BASE_URI,
         SCHEMA_CODE_PRINTER,
@@ -911,6 +921,26 @@ public class XmlOptions implements java.io.Serializable {
         return (XMLReader) get(XmlOptionsKeys.LOAD_USE_XMLREADER);
     }
 
+    /**
+     * By default, XmlBeans borrows the JAXP parser from a pool of readers, which
+     * are configured with the same security relevant options.
+     * Use this option to create a new parser for each load instead.
+     *
+     * @see org.apache.xmlbeans.impl.common.XMLReaderPool
+     * @see org.apache.xmlbeans.impl.schema.XmlObjectFactory#parse(java.io.File, XmlOptions)
+     */
+    public XmlOptions setLoadDisableXMLReaderPool() {
+        return setLoadDisableXMLReaderPool(true);
+    }
+
+    public XmlOptions setLoadDisableXMLReaderPool(boolean b) {
+        return set(XmlOptionsKeys.LOAD_DISABLE_XMLREADER_POOL, b);
+    }
+
+    public boolean isLoadDisableXMLReaderPool() {
+        return hasOption(XmlOptionsKeys.LOAD_DISABLE_XMLREADER_POOL);
+    }
+
     /**
      * Sets the name of the variable that represents
      * the current node in a query expression.
@@ -1171,6 +1201,50 @@ public class XmlOptions implements java.io.Serializable {
         return hasOption(XmlOptionsKeys.VALIDATE_TEXT_ONLY);
     }
 
+    /**
+     * Validates the children of an element with many child elements in parallel,
+     * using the common {@link java.util.concurrent.ForkJoinPool}.
+     * <p>
+     * Elements, whose children are selected by a key, keyref or unique constraint,
+     * are still validated sequentially. Errors are reported in document order, apart
+     * from IDs which are duplicated across such children - these are reported at the
+     * end of the common parent element.
+     */
+    public XmlOptions setValidateParallel() {
+        return setValidateParallel(true);
+    }
+
+    public XmlOptions setValidateParallel(boolean b) {
+        return set(XmlOptionsKeys.VALIDATE_PARALLEL, b);
+    }
+
+    public boolean isValidateParallel() {
+        return hasOption(XmlOptionsKeys.VALIDATE_PARALLEL);
+    }
+
+    /**
+     * Records the subtrees of a document, which are found valid, and skips them when the
+     * document is validated again with this option - unless they have been changed since.
+     * The elements on the path from the validated object to a changed node are still
+     * checked against their content models, so a revalidation costs about the size of the
+     * changes instead of the size of the document.
+     * <p>
+     * Subtrees with IDs, IDREFs or identity constraints, and subtrees selected by a key, keyref
+     * or unique constraint, are always validated. The children of an element are not validated
+     * in parallel with this option, see {@link #setValidateParallel()}.
+     */
+    public XmlOptions setValidateIncremental() {
+        return setValidateIncremental(true);
+    }
+
+    public XmlOptions setValidateIncremental(boolean b) {
+        return set(XmlOptionsKeys.VALIDATE_INCREMENTAL, b);
+    }
+
+    public boolean isValidateIncremental() {
+        return hasOption(XmlOptionsKeys.VALIDATE_INCREMENTAL);
+    }
+
 
     /**
      * This option controls whether or not operations on XmlBeans are
@@ -1191,6 +1265,101 @@ public class XmlOptions implements java.io.Serializable {
         return hasOption(XmlOptionsKeys.UNSYNCHRONIZED);
     }
 
+    /**
+     * If this option is set when creating or parsing a document, the document is
+     * guarded by a {@link java.util.concurrent.locks.ReentrantLock} instead of the
+     * monitor of its {@link XmlObject#monitor()} object.
+     * <p>
+     * Blocking I/O while parsing or saving then doesn't pin the carrier thread of
+     * a virtual thread. Synchronizing on {@link XmlObject#monitor()} doesn't exclude
+     * other threads from accessing such a document, and types compiled with an
+     * earlier XmlBeans version only synchronize on the monitor.
+     * <p>
+     * The option can be enabled for all documents via the
+     * "xmlbean.locale.reentrantlock" system property.
+     * It has no effect in combination with {@link #setUnsynchronized()}.
+     */
+    public XmlOptions setUseReentrantLock() {
+        return setUseReentrantLock(true);
+    }
+
+    public XmlOptions setUseReentrantLock(boolean b) {
+        return set(XmlOptionsKeys.USE_REENTRANT_LOCK, b);
+    }
+
+    public boolean isUseReentrantLock() {
+        return hasOption(XmlOptionsKeys.USE_REENTRANT_LOCK);
+    }
+
+    /**
+     * If this option is set when parsing a document, the document is made read only
+     * once it's loaded. All its values are built upfront and any attempt to modify
+     * the document - via its XmlObjects, cursors or DOM - throws an
+     * {@link IllegalStateException}. A value, which doesn't match its type, fails the
+     * load with an {@link org.apache.xmlbeans.impl.values.XmlValueOutOfRangeException}.
+     * A locale shared via {@link #setUseSameLocale(Object)} must be guarded by a lock,
+     * see {@link #setUseReentrantLock()}.
+     * <p>
+     * The typed getters of a read only document don't lock the document, so it can
+     * be read by many threads in parallel. Cursors, XPath queries and saving still
+     * lock the document. The document must be passed safely to the reading threads,
+     * e.g. via a final or volatile field.
+     */
+    public XmlOptions setLoadReadOnly() {
+        return setLoadReadOnly(true);
+    }
+
+    public XmlOptions setLoadReadOnly(boolean b) {
+        return set(XmlOptionsKeys.LOAD_READ_ONLY, b);
+    }
+
+    public boolean isLoadReadOnly() {
+        return hasOption(XmlOptionsKeys.LOAD_READ_ONLY);
+    }
+
+    /**
+     * If this option is set when parsing a document, the document is validated while it's
+     * loaded, instead of walking the loaded document once more in {@link XmlObject#validate()}.
+     * The errors are added to the error listener of the options and the parse fails with an
+     * {@link XmlException} containing the errors, if the document is invalid.
+     * <p>
+     * Documents, which get another type than the one of their document element or which are
+     * loaded with whitespace stripping, a replaced document element or additional namespaces,
+     * are validated after the load - with the same result. DOM loads aren't typed and therefore
+     * not validated.
+     *
+     * @see #setLoadValidateErrorLimit(int)
+     */
+    public XmlOptions setLoadValidate() {
+        return setLoadValidate(true);
+    }
+
+    public XmlOptions setLoadValidate(boolean b) {
+        return set(XmlOptionsKeys.LOAD_VALIDATE, b);
+    }
+
+    public boolean isLoadValidate() {
+        return hasOption(XmlOptionsKeys.LOAD_VALIDATE);
+    }
+
+    /**
+     * Sets the number of validation errors, after which a load with {@link #setLoadValidate()}
+     * is aborted. The default is 0, i.e. the whole document is loaded and all errors are reported.
+     * <p>
+     * Documents, which are validated after the load, are loaded completely, but only the errors
+     * up to the limit are reported - the same as for a validation while loading.
+     *
+     * @param limit the number of errors, e.g. 1 to stop at the first error
+     */
+    public XmlOptions setLoadValidateErrorLimit(int limit) {
+        return set(XmlOptionsKeys.LOAD_VALIDATE_ERROR_LIMIT, limit);
+    }
+
+    public int getLoadValidateErrorLimit() {
+        Integer limit = (Integer) get(XmlOptionsKeys.LOAD_VALIDATE_ERROR_LIMIT);
+        return limit == null ? 0 : limit;
+    }
+
     /**
      * If this option is set when compiling a schema, then the given
      * EntityResolver will be consulted in order to resolve any
@@ -1432,6 +1601,40 @@ public class XmlOptions implements java.io.Serializable {
         return flag != null && flag;
     }
 
+    /**
+     * When generating the schema sources, print the sources of the types with the given
+     * number of threads. The files are still written in the same order as by a single thread.
+     * A custom {@link SchemaCodePrinter} is always called by a single thread.
+     *
+     * @param threads the number of threads - defaults to {@code 1}
+     */
+    public XmlOptions setCompileCodeGenThreads(int threads) {
+        return set(XmlOptionsKeys.COMPILE_CODEGEN_THREADS, threads);
+    }
+
+    public int getCompileCodeGenThreads() {
+        Integer threads = (Integer) get(XmlOptionsKeys.COMPILE_CODEGEN_THREADS);
+        return threads == null ? 1 : threads;
+    }
+
+    /**
+     * If this option is set, the compiled type system is saved as a single archive with
+     * a shared string pool instead of a .xsb file per schema component. The runtime maps
+     * the archive and decodes the components on their first use.
+     */
+    public XmlOptions setCompilePackedArchive() {
+        return setCompilePackedArchive(true);
+    }
+
+    public XmlOptions setCompilePackedArchive(boolean b) {
+        return set(XmlOptionsKeys.COMPILE_PACKED_ARCHIVE, b);
+    }
+
+    public boolean isCompilePackedArchive() {
+        Boolean flag = (Boolean) get(XmlOptionsKeys.COMPILE_PACKED_ARCHIVE);
+        return flag != null && flag;
+    }
+
     public XmlOptions setAttributeValidationCompatMode(boolean attributeValidationCompatMode) {
         return set(XmlOptionsKeys.ATTRIBUTE_VALIDATION_COMPAT_MODE, attributeValidationCompatMode);
     }
@@ -22,6 +22,8 @@ import org.xml.sax.ext.LexicalHandler;
 
 import javax.xml.stream.XMLStreamReader;
 import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 
 /**
  * Represents a holder of XML that can return an {@link XmlCursor}
@@ -336,6 +338,16 @@ public interface XmlTokenSource {
      */
     void save(OutputStream os, XmlOptions options) throws IOException;
 
+    /**
+     * Writes the XML represented by this source to the given channel.
+     * This method will save the XML declaration, including encoding information,
+     * with the XML. The store implementations encode UTF-8 straight into the bytes written
+     * to the channel.
+     */
+    default void save(WritableByteChannel channel, XmlOptions options) throws IOException {
+        save(Channels.newOutputStream(channel), options);
+    }
+
     /**
      * Writes the XML represented by this source to the given output.
      * Note that this method does not save the XML declaration, including the encoding information.
@@ -205,6 +205,22 @@ public class XmlValidationError extends XmlError
         setBadSchemaType(badSchemaType);
     }
 
+    /**
+     * The static factory methods should be used instead of
+     * this constructor.
+     */
+    private XmlValidationError(XmlValidationError src, XmlCursor cursor)
+    {
+        super(src, cursor);
+
+        setFieldQName(src._fieldQName);
+        setOffendingQName(src._offendingQName);
+        setExpectedSchemaType(src._expectedSchemaType);
+        setExpectedQNames(src._expectedQNames);
+        setErrorType(src._errorType);
+        setBadSchemaType(src._badSchemaType);
+    }
+
     public static XmlValidationError forCursorWithDetails( String message, String code, Object[] args, int severity,
        XmlCursor cursor, QName fieldQName, QName offendingQname, SchemaType expectedSchemaType,
        List<QName> expectedQNames, int errorType, SchemaType badSchemaType)
@@ -229,6 +245,12 @@ public class XmlValidationError extends XmlError
                 expectedSchemaType, expectedQNames, errorType, badSchemaType);
     }
 
+    @Override
+    public XmlValidationError withCursor(XmlCursor cursor)
+    {
+        return new XmlValidationError(this, cursor);
+    }
+
     public String getMessage()
     {
         if (_fieldQName != null)
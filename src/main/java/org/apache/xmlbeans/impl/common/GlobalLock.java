@@ -15,16 +15,80 @@
 
 package org.apache.xmlbeans.impl.common;
 
+import java.util.function.Supplier;
+
 /**
  * Whenever multiple locks must be acquired within the implementation of
- * XML Beans, this GlobalLock is acquired first, and then released when all
- * the acutally-needed locks have been acquired.  This prevents deadlocks.
- */ 
+ * XML Beans, they are acquired in a stable order via {@link #synchronizedOnBoth(Object, Object, Supplier)}.
+ * This prevents deadlocks without serializing all multi-lock operations of the JVM.
+ * The global mutex is only used as a tie breaker, if the identity hash codes of two monitors collide.
+ */
 public class GlobalLock
 {
     private static final Mutex GLOBAL_MUTEX = new Mutex();
-    
+
     public static void acquire() throws InterruptedException { GLOBAL_MUTEX.acquire(); }
     public static void tryToAcquire() { GLOBAL_MUTEX.tryToAcquire(); }
     public static void release() { GLOBAL_MUTEX.release(); }
+
+    /**
+     * Runs the action while holding the monitors of both objects.
+     * <p>
+     * The monitor with the lower identity hash code is entered first, so two threads
+     * working on the same pair in opposite directions can't deadlock each other.
+     * Only if both hash codes are equal, the global mutex is held while entering the monitors.
+     *
+     * @param first  the first monitor
+     * @param second the second monitor, may be the same as the first
+     * @param action the action to run
+     * @return the result of the action
+     * @throws InterruptedException if the thread was interrupted while waiting for the tie breaker
+     */
+    public static <T> T synchronizedOnBoth(Object first, Object second, Supplier<T> action)
+        throws InterruptedException
+    {
+        if (first == second) {
+            synchronized (first) {
+                return action.get();
+            }
+        }
+
+        int h1 = System.identityHashCode(first);
+        int h2 = System.identityHashCode(second);
+
+        if (h1 < h2) {
+            synchronized (first) {
+                synchronized (second) {
+                    return action.get();
+                }
+            }
+        }
+
+        if (h1 > h2) {
+            synchronized (second) {
+                synchronized (first) {
+                    return action.get();
+                }
+            }
+        }
+
+        boolean acquired = false;
+        try {
+            acquire();
+            acquired = true;
+
+            synchronized (first) {
+                synchronized (second) {
+                    release();
+                    acquired = false;
+
+                    return action.get();
+                }
+            }
+        } finally {
+            if (acquired) {
+                release();
+            }
+        }
+    }
 }
@@ -32,9 +32,14 @@ public class IdentityConstraint {
 
     private ConstraintState _constraintStack;
     private ElementState _elementStack;
+    private ElementState _freeElementStates;
     private final Collection<XmlError> _errorListener;
     private boolean _invalid;
     private final boolean _trackIdrefs; // We only track idrefs if validating from the root element
+    private IdState _ids;
+    private IdRefState _idRefs;
+    // counts the recorded IDs, IDREFs, constraints and errors
+    private long _modCount;
 
     public IdentityConstraint(Collection<XmlError> errorListener, boolean trackIdrefs) {
         _errorListener = errorListener;
@@ -68,7 +73,14 @@ public class IdentityConstraint {
             _constraintStack = _elementStack._savePoint;
         }
 
-        _elementStack = _elementStack._next;
+        ElementState st = _elementStack;
+        _elementStack = st._next;
+
+        // reuse the state for the next element
+        st._hasConstraints = false;
+        st._savePoint = null;
+        st._next = _freeElementStates;
+        _freeElementStates = st;
 
         // Dispatch the event
         for (ConstraintState cs = _constraintStack; cs != null; cs = cs._next) {
@@ -93,7 +105,64 @@ public class IdentityConstraint {
         return !_invalid;
     }
 
+    /**
+     * @return true, if a key, keyref or unique constraint is active, i.e. its selector is
+     * evaluated against the current element or its descendants
+     */
+    public boolean hasSelectors() {
+        for (ConstraintState cs = _constraintStack; cs != null; cs = cs._next) {
+            if (cs instanceof SelectorState) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return a number, which changes whenever an ID or IDREF is recorded, an identity constraint
+     * is declared or an error is found - if it's unchanged after a subtree, the subtree doesn't
+     * contribute to the identity constraints of the document
+     */
+    public long getModCount() {
+        return _modCount;
+    }
+
+    /**
+     * Creates an engine for validating subtrees of the current element apart from this one.
+     * The part collects the IDs and IDREFs of all its subtrees, which are checked against
+     * this engine by {@link #merge(IdentityConstraint, Event)}.
+     */
+    public IdentityConstraint newPart(Collection<XmlError> errorListener) {
+        IdentityConstraint part = new IdentityConstraint(errorListener, _trackIdrefs);
+        // an outermost element state, which outlives the subtrees
+        part.newState();
+        return part;
+    }
+
+    /**
+     * Merges the IDs and IDREFs of a part into this engine.
+     * IDs which are already known are reported as duplicates at the given event,
+     * the IDREFs are checked together with the ones of this engine.
+     */
+    public void merge(IdentityConstraint part, Event e) {
+        if (_ids == null || part._ids == null) {
+            return;
+        }
+
+        for (XmlObjectList id : part._ids._values) {
+            if (!_ids._values.add(id)) {
+                emitError(e, XmlErrorCodes.ID_VALID$DUPLICATE, new Object[]{id});
+            }
+        }
+
+        if (_idRefs != null && part._idRefs != null) {
+            _idRefs._values.addAll(part._idRefs._values);
+        }
+    }
+
     private void newConstraintState(SchemaIdentityConstraint ic, Event e, SchemaType st) {
+        _modCount++;
+
         if (ic.getConstraintCategory() == SchemaIdentityConstraint.CC_KEYREF) {
             new KeyrefState(ic, e, st);
         } else {
@@ -103,16 +172,21 @@ public class IdentityConstraint {
 
     private void buildIdStates() {
         // Construct states to hold the values for IDs and IDRefs
-        IdState ids = new IdState();
+        _ids = new IdState();
         if (_trackIdrefs) {
-            new IdRefState(ids);
+            _idRefs = new IdRefState(_ids);
         }
     }
 
     private void newState() {
         boolean firstTime = _elementStack == null;
 
-        ElementState st = new ElementState();
+        ElementState st = _freeElementStates;
+        if (st == null) {
+            st = new ElementState();
+        } else {
+            _freeElementStates = st._next;
+        }
         st._next = _elementStack;
         _elementStack = st;
 
@@ -123,6 +197,7 @@ public class IdentityConstraint {
 
     private void emitError(Event event, String code, Object[] args) {
         _invalid = true;
+        _modCount++;
 
         if (_errorListener != null) {
             assert event != null;
@@ -151,6 +226,7 @@ public class IdentityConstraint {
 
     private void emitError(Event event, String msg) {
         _invalid = true;
+        _modCount++;
 
         if (_errorListener != null) {
             assert event != null;
@@ -558,6 +634,7 @@ public class IdentityConstraint {
                     emitError(e, XmlErrorCodes.ID_VALID$DUPLICATE, new Object[]{value});
                 } else {
                     _values.add(xmlValue);
+                    _modCount++;
                 }
             }
         }
@@ -607,6 +684,7 @@ public class IdentityConstraint {
                     XmlObjectList xmlValue = new XmlObjectList(1);
                     xmlValue.set(o, 0);
                     _values.add(xmlValue);
+                    _modCount++;
                 }
             } else if (XmlIDREF.type.isAssignableFrom(st)) {
                 XmlObjectList xmlValue = new XmlObjectList(1);
@@ -619,6 +697,7 @@ public class IdentityConstraint {
 
                 xmlValue.set(idref, 0);
                 _values.add(xmlValue);
+                _modCount++;
             }
         }
 
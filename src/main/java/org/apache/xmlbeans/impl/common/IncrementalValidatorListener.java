@@ -0,0 +1,65 @@
+/*   Copyright 2004 The Apache Software Foundation
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.xmlbeans.impl.common;
+
+/**
+ * A {@link ValidatorListener}, which can skip the subtrees of elements, which have been found
+ * valid by a previous validation and haven't been changed since.
+ * <p>
+ * Before the BEGIN event of an element, whose subtree has been valid, the caller asks
+ * {@link #canSkip()}. If the subtree can be skipped, the caller invokes {@link #skip(Event, Object)}
+ * instead of sending the BEGIN event. If the element is skipped, no further events of its
+ * subtree are sent - otherwise the caller continues with the ATTR, ENDATTRS, ... END events.
+ * <p>
+ * The caller learns which subtrees are valid from the marks: if {@link #getMark()} is unchanged
+ * from before the BEGIN event until after the END event of an element, the subtree of the element
+ * is valid and can be skipped later with the key, which {@link #getSubtreeKey()} returns before
+ * the END event.
+ */
+public interface IncrementalValidatorListener extends ValidatorListener {
+    /**
+     * @return true, if the valid subtrees are to be recorded and skipped
+     */
+    boolean isIncremental();
+
+    /**
+     * @return true, if the subtrees of the current element can be skipped, i.e. they are not
+     * selected by a key, keyref or unique constraint
+     */
+    boolean canSkip();
+
+    /**
+     * Checks the element at the event against the content model of the current element and
+     * skips its subtree, if the element is validated the same way as before.
+     *
+     * @param event the BEGIN event of the element
+     * @param key the key of the subtree, when it has been valid
+     * @return true, if the subtree has been skipped - otherwise the element has been begun as with a BEGIN event
+     */
+    boolean skip(Event event, Object key);
+
+    /**
+     * @return a number, which changes whenever an error is found or the subtree contributes to
+     * the identity constraints of the document
+     */
+    long getMark();
+
+    /**
+     * @return a key, which identifies how the current element is validated, or null if the subtree
+     * of the current element isn't validated
+     */
+    Object getSubtreeKey();
+}
@@ -88,6 +88,7 @@ public class NameUtil {
     private final static Set<String> extraWords = new HashSet<>(Arrays.asList(
         "i",          // used for indexes
         "target",     // used for parameter
+        "lock",       // used for the store lock
         "org",        // used for package names
         "com"        // used for package names
     ));
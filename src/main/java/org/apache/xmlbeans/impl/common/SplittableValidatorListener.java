@@ -0,0 +1,78 @@
+/*   Copyright 2004 The Apache Software Foundation
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.xmlbeans.impl.common;
+
+import org.apache.xmlbeans.XmlError;
+
+import java.util.Collection;
+
+/**
+ * A {@link ValidatorListener}, which can validate the child elements of an element
+ * apart from the main event stream, e.g. on other threads.
+ * <p>
+ * After the ENDATTRS event of an element, the caller asks {@link #canSplit()}. If the children
+ * can be split, the caller invokes {@link #split(Event, Collection)} instead of sending the BEGIN
+ * event of each child element and skips its subtree. Text events of the element itself are
+ * still sent in between. The subtrees are then validated by listeners obtained from
+ * {@link #newPart(Collection)}, each starting with {@link #beginPart(Object, Event)} followed by
+ * the ATTR, ENDATTRS, ... END events of a subtree. Finally, before the END event of the
+ * element, the parts are handed back via {@link #join(SplittableValidatorListener, Collection, Event)}
+ * in document order.
+ * <p>
+ * Only the split methods, i.e. {@link #split(Event, Collection)} and {@link #join(SplittableValidatorListener, Collection, Event)},
+ * are called on this listener - the parts may be fed concurrently.
+ */
+public interface SplittableValidatorListener extends ValidatorListener {
+    /**
+     * @return true, if the children of the current element can be validated apart from this listener
+     */
+    boolean canSplit();
+
+    /**
+     * Checks the child element at the event against the content model of the current element.
+     *
+     * @param event the BEGIN event of the child element
+     * @param errorListener receives the errors found for the child element, instead of the
+     *                      error listener of this listener
+     * @return the split, which is passed to {@link #beginPart(Object, Event)} for validating the subtree,
+     * or null if the subtree is not to be validated
+     */
+    Object split(Event event, Collection<XmlError> errorListener);
+
+    /**
+     * @param errorListener receives the errors of the subtrees, which are validated by the part
+     * @return a new listener for validating subtrees of the current element
+     */
+    SplittableValidatorListener newPart(Collection<XmlError> errorListener);
+
+    /**
+     * Starts the validation of a subtree with a part listener - instead of a BEGIN event
+     *
+     * @param split the result of {@link #split(Event, Collection)} for the subtree
+     * @param event the event located at the root of the subtree
+     */
+    void beginPart(Object split, Event event);
+
+    /**
+     * Merges the results of a part listener into this listener.
+     *
+     * @param part the part listener, after the END events of all its subtrees
+     * @param errors the errors of the part in document order, which are reported to the
+     *               error listener of this listener
+     * @param event the event at the end of the current element
+     */
+    void join(SplittableValidatorListener part, Collection<XmlError> errors, Event event);
+}
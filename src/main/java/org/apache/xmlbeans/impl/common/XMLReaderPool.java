@@ -0,0 +1,231 @@
+/*   Copyright 2004 The Apache Software Foundation
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.xmlbeans.impl.common;
+
+import org.apache.xmlbeans.SystemProperties;
+import org.apache.xmlbeans.XmlOptions;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.ext.DefaultHandler2;
+
+import javax.xml.parsers.ParserConfigurationException;
+import java.util.Queue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A bounded, thread-safe pool of pre-configured SAX {@link XMLReader}s.
+ * <p>
+ * Creating a reader via {@link SAXHelper#newXMLReader(XmlOptions)} involves a new
+ * {@code SAXParserFactory}, {@code SAXParser} and a reflectively created security manager,
+ * which for small documents is more expensive than the parse itself.
+ * Readers are therefore kept per combination of the security relevant options
+ * (entity expansion limit, DTD grammar / external DTD loading and doctype disallowance)
+ * and handed out again to callers asking for the same configuration.
+ * <p>
+ * The number of idle readers per configuration can be set with the
+ * "xmlbean.xmlreaderpool.size" system property - a value of 0 disables pooling.
+ * Pooling can also be switched off per call via {@link XmlOptions#setLoadDisableXMLReaderPool()}.
+ */
+public final class XMLReaderPool {
+    public static final String POOL_SIZE_PROPERTY = "xmlbean.xmlreaderpool.size";
+
+    private static final int DEFAULT_POOL_SIZE = 16;
+
+    /** upper limit of distinct option combinations, to not grow unbounded with arbitrary expansion limits */
+    private static final int MAX_KEYS = 32;
+
+    /** handler used to drop the references to the last SaxLoader, when a reader is returned */
+    private static final DefaultHandler2 NOOP_HANDLER = new DefaultHandler2();
+
+    private static final XMLReaderPool INSTANCE = new XMLReaderPool(initPoolSize());
+
+    private final int _maxIdle;
+    private final ConcurrentHashMap<Key, Queue<XMLReader>> _pools = new ConcurrentHashMap<>();
+
+    private final LongAdder _created = new LongAdder();
+    private final LongAdder _reused = new LongAdder();
+    private final LongAdder _returned = new LongAdder();
+    private final LongAdder _discarded = new LongAdder();
+
+    XMLReaderPool(int maxIdle) {
+        _maxIdle = Math.max(0, maxIdle);
+    }
+
+    public static XMLReaderPool getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * Borrows a reader configured for the given options.
+     * The reader needs to be handed back via {@link #release(XmlOptions, XMLReader)} if it's
+     * in a clean state after parsing, or via {@link #discard(XMLReader)} otherwise.
+     */
+    public XMLReader borrow(XmlOptions options) throws SAXException, ParserConfigurationException {
+        options = XmlOptions.maskNull(options);
+        Queue<XMLReader> pool = getPool(new Key(options), false);
+        XMLReader xr = (pool == null) ? null : pool.poll();
+        if (xr != null) {
+            _reused.increment();
+            return xr;
+        }
+        _created.increment();
+        return SAXHelper.newXMLReader(new XmlOptions(options));
+    }
+
+    /**
+     * Returns a reader, which was previously borrowed with the same options.
+     * If the pool for the options is already full, the reader is dropped.
+     */
+    public void release(XmlOptions options, XMLReader xr) {
+        if (xr == null) {
+            return;
+        }
+        Queue<XMLReader> pool = getPool(new Key(XmlOptions.maskNull(options)), true);
+        if (pool == null || !reset(xr) || !pool.offer(xr)) {
+            _discarded.increment();
+        } else {
+            _returned.increment();
+        }
+    }
+
+    /**
+     * Drops a borrowed reader, e.g. when the parse failed and the reader state is unknown.
+     */
+    public void discard(XMLReader xr) {
+        if (xr != null) {
+            _discarded.increment();
+        }
+    }
+
+    /**
+     * Removes all idle readers
+     */
+    public void clear() {
+        _pools.clear();
+    }
+
+    /** @return the number of readers which had to be created, because no idle reader was available */
+    public long getCreatedCount() {
+        return _created.sum();
+    }
+
+    /** @return the number of borrow requests served by an idle reader */
+    public long getReusedCount() {
+        return _reused.sum();
+    }
+
+    /** @return the number of readers which were put back into the pool */
+    public long getReturnedCount() {
+        return _returned.sum();
+    }
+
+    /** @return the number of readers which were dropped, because the pool was full or the reader was unusable */
+    public long getDiscardedCount() {
+        return _discarded.sum();
+    }
+
+    /** @return the number of readers currently waiting in the pool */
+    public int getIdleCount() {
+        return _pools.values().stream().mapToInt(Queue::size).sum();
+    }
+
+    public int getMaxIdle() {
+        return _maxIdle;
+    }
+
+    private Queue<XMLReader> getPool(Key key, boolean create) {
+        if (_maxIdle == 0) {
+            return null;
+        }
+        Queue<XMLReader> pool = _pools.get(key);
+        if (pool == null && create && _pools.size() < MAX_KEYS) {
+            pool = _pools.computeIfAbsent(key, k -> new ArrayBlockingQueue<>(_maxIdle));
+        }
+        return pool;
+    }
+
+    private static boolean reset(XMLReader xr) {
+        try {
+            xr.setContentHandler(NOOP_HANDLER);
+            xr.setDTDHandler(NOOP_HANDLER);
+            xr.setErrorHandler(NOOP_HANDLER);
+            xr.setEntityResolver(SAXHelper.IGNORING_ENTITY_RESOLVER);
+            xr.setProperty("http://xml.org/sax/properties/lexical-handler", NOOP_HANDLER);
+        } catch (Exception e) {
+            return false;
+        }
+        try {
+            xr.setProperty("http://xml.org/sax/properties/declaration-handler", NOOP_HANDLER);
+        } catch (Exception e) {
+            // declaration handlers are optional and have been reported when the reader was first used
+        }
+        return true;
+    }
+
+    private static int initPoolSize() {
+        String size = SystemProperties.getProperty(POOL_SIZE_PROPERTY);
+        if (size == null) {
+            return DEFAULT_POOL_SIZE;
+        }
+        try {
+            return Integer.parseInt(size.trim());
+        } catch (NumberFormatException e) {
+            return DEFAULT_POOL_SIZE;
+        }
+    }
+
+    /**
+     * The security relevant options, which are baked into a reader on creation
+     */
+    private static final class Key {
+        private final int _entityExpansionLimit;
+        private final boolean _loadDTDGrammar;
+        private final boolean _loadExternalDTD;
+        private final boolean _disallowDocType;
+
+        Key(XmlOptions options) {
+            _entityExpansionLimit = options.getEntityExpansionLimit();
+            _loadDTDGrammar = options.isLoadDTDGrammar();
+            _loadExternalDTD = options.isLoadExternalDTD();
+            _disallowDocType = options.disallowDocTypeDeclaration();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key other = (Key) o;
+            return _entityExpansionLimit == other._entityExpansionLimit &&
+                   _loadDTDGrammar == other._loadDTDGrammar &&
+                   _loadExternalDTD == other._loadExternalDTD &&
+                   _disallowDocType == other._disallowDocType;
+        }
+
+        @Override
+        public int hashCode() {
+            int h = _entityExpansionLimit;
+            h = 31 * h + (_loadDTDGrammar ? 1 : 0);
+            h = 31 * h + (_loadExternalDTD ? 1 : 0);
+            return 31 * h + (_disallowDocType ? 1 : 0);
+        }
+    }
+}
@@ -24,4 +24,19 @@ public interface XmlLocale
     
     void enter ( );
     void exit  ( );
+
+    /**
+     * @return true, if the locale is guarded by a lock instead of its monitor.
+     * The lock is acquired by {@link #enter()} or {@link #lock()}, callers must not synchronize on the locale then.
+     */
+    boolean usesLock ( );
+
+    void lock   ( );
+    void unlock ( );
+
+    /**
+     * Acquires the lock of this and the other locale in a stable order
+     */
+    void lock   ( XmlLocale other );
+    void unlock ( XmlLocale other );
 }
\ No newline at end of file
@@ -473,16 +473,6 @@ public class RegularExpression implements java.io.Serializable {
 
     static final boolean DEBUG = false;
 
-    /**
-     * Compiles a token tree into an operation flow.
-     */
-    private synchronized void compile(Token tok) {
-        if (this.operations != null)
-            return;
-        this.numberOfClosures = 0;
-        this.operations = this.compile(tok, null, false);
-    }
-
     /**
      * Converts a token to an operation.
      */
@@ -684,146 +674,137 @@ public class RegularExpression implements java.io.Serializable {
      */
     public boolean matches(char[] target, int start, int end, Match match) {
 
-        synchronized (this) {
-            if (this.operations == null)
-                this.prepare();
-            if (this.context == null)
-                this.context = new Context();
-        }
-        Context con = null;
-        synchronized (this.context) {
-            con = this.context.inuse ? new Context() : this.context;
+        if (this.operations == null)
+            this.prepare();
+        Context con = Context.acquire();
+        try {
             con.reset(target, start, end, this.numberOfClosures);
-        }
-        if (match != null) {
-            match.setNumberOfGroups(this.nofparen);
-            match.setSource(target);
-        } else if (this.hasBackReferences) {
-            match = new Match();
-            match.setNumberOfGroups(this.nofparen);
-            // Need not to call setSource() because
-            // a caller can not access this match instance.
-        }
-        con.match = match;
-
-        if (RegularExpression.isSet(this.options, XMLSCHEMA_MODE)) {
-            int matchEnd = this. match(con, this.operations, con.start, 1, this.options);
-            //System.err.println("DEBUG: matchEnd="+matchEnd);
-            if (matchEnd == con.limit) {
-                if (con.match != null) {
-                    con.match.setBeginning(0, con.start);
-                    con.match.setEnd(0, matchEnd);
-                }
-                con.setInUse(false);
-                return true;
+            if (match != null) {
+                match.setNumberOfGroups(this.nofparen);
+                match.setSource(target);
+            } else if (this.hasBackReferences) {
+                match = new Match();
+                match.setNumberOfGroups(this.nofparen);
+                // Need not to call setSource() because
+                // a caller can not access this match instance.
             }
-            return false;
-        }
-
-        /*
-         * The pattern has only fixed string.
-         * The engine uses Boyer-Moore.
-         */
-        if (this.fixedStringOnly) {
-            //System.err.println("DEBUG: fixed-only: "+this.fixedString);
-            int o = this.fixedStringTable.matches(target, con.start, con.limit);
-            if (o >= 0) {
-                if (con.match != null) {
-                    con.match.setBeginning(0, o);
-                    con.match.setEnd(0, o+this.fixedString.length());
+            con.match = match;
+
+            if (RegularExpression.isSet(this.options, XMLSCHEMA_MODE)) {
+                int matchEnd = this. match(con, this.operations, con.start, 1, this.options);
+                //System.err.println("DEBUG: matchEnd="+matchEnd);
+                if (matchEnd == con.limit) {
+                    if (con.match != null) {
+                        con.match.setBeginning(0, con.start);
+                        con.match.setEnd(0, matchEnd);
+                    }
+                    return true;
                 }
-                con.setInUse(false);
-                return true;
+                return false;
             }
-            con.setInUse(false);
-            return false;
-        }
 
-        /*
-         * The pattern contains a fixed string.
-         * The engine checks with Boyer-Moore whether the text contains the fixed string or not.
-         * If not, it return with false.
-         */
-        if (this.fixedString != null) {
-            int o = this.fixedStringTable.matches(target, con.start, con.limit);
-            if (o < 0) {
-                //System.err.println("Non-match in fixed-string search.");
-                con.setInUse(false);
+            /*
+             * The pattern has only fixed string.
+             * The engine uses Boyer-Moore.
+             */
+            if (this.fixedStringOnly) {
+                //System.err.println("DEBUG: fixed-only: "+this.fixedString);
+                int o = this.fixedStringTable.matches(target, con.start, con.limit);
+                if (o >= 0) {
+                    if (con.match != null) {
+                        con.match.setBeginning(0, o);
+                        con.match.setEnd(0, o+this.fixedString.length());
+                    }
+                    return true;
+                }
                 return false;
             }
-        }
 
-        int limit = con.limit-this.minlength;
-        int matchStart;
-        int matchEnd = -1;
+            /*
+             * The pattern contains a fixed string.
+             * The engine checks with Boyer-Moore whether the text contains the fixed string or not.
+             * If not, it return with false.
+             */
+            if (this.fixedString != null) {
+                int o = this.fixedStringTable.matches(target, con.start, con.limit);
+                if (o < 0) {
+                    //System.err.println("Non-match in fixed-string search.");
+                    return false;
+                }
+            }
 
-        /*
-         * Checks whether the expression starts with ".*".
-         */
-        if (this.operations != null
-                && this.operations.type == Op.CLOSURE && this.operations.getChild().type == Op.DOT) {
-            if (isSet(this.options, SINGLE_LINE)) {
-                matchStart = con.start;
-                matchEnd = this. match(con, this.operations, con.start, 1, this.options);
-            } else {
-                boolean previousIsEOL = true;
-                for (matchStart = con.start;  matchStart <= limit;  matchStart ++) {
-                    int ch =  target [  matchStart ] ;
-                    if (isEOLChar(ch)) {
-                        previousIsEOL = true;
-                    } else {
-                        if (previousIsEOL) {
-                            if (0 <= (matchEnd = this. match(con, this.operations,
-                                    matchStart, 1, this.options)))
-                                break;
+            int limit = con.limit-this.minlength;
+            int matchStart;
+            int matchEnd = -1;
+
+            /*
+             * Checks whether the expression starts with ".*".
+             */
+            if (this.operations != null
+                    && this.operations.type == Op.CLOSURE && this.operations.getChild().type == Op.DOT) {
+                if (isSet(this.options, SINGLE_LINE)) {
+                    matchStart = con.start;
+                    matchEnd = this. match(con, this.operations, con.start, 1, this.options);
+                } else {
+                    boolean previousIsEOL = true;
+                    for (matchStart = con.start;  matchStart <= limit;  matchStart ++) {
+                        int ch =  target [  matchStart ] ;
+                        if (isEOLChar(ch)) {
+                            previousIsEOL = true;
+                        } else {
+                            if (previousIsEOL) {
+                                if (0 <= (matchEnd = this. match(con, this.operations,
+                                        matchStart, 1, this.options)))
+                                    break;
+                            }
+                            previousIsEOL = false;
                         }
-                        previousIsEOL = false;
                     }
                 }
             }
-        }
 
-        /*
-         * Optimization against the first character.
-         */
-        else if (this.firstChar != null) {
-            //System.err.println("DEBUG: with firstchar-matching: "+this.firstChar);
-            RangeToken range = this.firstChar;
-            for (matchStart = con.start;  matchStart <= limit;  matchStart ++) {
-                int ch =  target [matchStart] ;
-                if (REUtil.isHighSurrogate(ch) && matchStart+1 < con.limit) {
-                    ch = REUtil.composeFromSurrogates(ch, target[matchStart+1]);
-                }
-                if (!range.match(ch))  {
-                    continue;
-                }
-                if (0 <= (matchEnd = this. match(con, this.operations,
-                        matchStart, 1, this.options))) {
-                    break;
+            /*
+             * Optimization against the first character.
+             */
+            else if (this.firstChar != null) {
+                //System.err.println("DEBUG: with firstchar-matching: "+this.firstChar);
+                RangeToken range = this.firstChar;
+                for (matchStart = con.start;  matchStart <= limit;  matchStart ++) {
+                    int ch =  target [matchStart] ;
+                    if (REUtil.isHighSurrogate(ch) && matchStart+1 < con.limit) {
+                        ch = REUtil.composeFromSurrogates(ch, target[matchStart+1]);
+                    }
+                    if (!range.match(ch))  {
+                        continue;
+                    }
+                    if (0 <= (matchEnd = this. match(con, this.operations,
+                            matchStart, 1, this.options))) {
+                        break;
+                    }
                 }
             }
-        }
 
-        /*
-         * Straightforward matching.
-         */
-        else {
-            for (matchStart = con.start;  matchStart <= limit;  matchStart ++) {
-                if (0 <= (matchEnd = this. match(con, this.operations, matchStart, 1, this.options)))
-                    break;
+            /*
+             * Straightforward matching.
+             */
+            else {
+                for (matchStart = con.start;  matchStart <= limit;  matchStart ++) {
+                    if (0 <= (matchEnd = this. match(con, this.operations, matchStart, 1, this.options)))
+                        break;
+                }
             }
-        }
 
-        if (matchEnd >= 0) {
-            if (con.match != null) {
-                con.match.setBeginning(0, matchStart);
-                con.match.setEnd(0, matchEnd);
+            if (matchEnd >= 0) {
+                if (con.match != null) {
+                    con.match.setBeginning(0, matchStart);
+                    con.match.setEnd(0, matchEnd);
+                }
+                return true;
+            } else {
+                return false;
             }
+        } finally {
             con.setInUse(false);
-            return true;
-        } else {
-            con.setInUse(false);
-            return false;
         }
     }
 
@@ -869,152 +850,143 @@ public class RegularExpression implements java.io.Serializable {
      */
     public boolean matches(String  target, int start, int end, Match match) {
 
-        synchronized (this) {
-            if (this.operations == null)
-                this.prepare();
-            if (this.context == null)
-                this.context = new Context();
-        }
-        Context con = null;
-        synchronized (this.context) {
-            con = this.context.inuse ? new Context() : this.context;
+        if (this.operations == null)
+            this.prepare();
+        Context con = Context.acquire();
+        try {
             con.reset(target, start, end, this.numberOfClosures);
-        }
-        if (match != null) {
-            match.setNumberOfGroups(this.nofparen);
-            match.setSource(target);
-        } else if (this.hasBackReferences) {
-            match = new Match();
-            match.setNumberOfGroups(this.nofparen);
-            // Need not to call setSource() because
-            // a caller can not access this match instance.
-        }
-        con.match = match;
-
-        if (RegularExpression.isSet(this.options, XMLSCHEMA_MODE)) {
-            if (DEBUG) {
-                System.err.println("target string="+target);
-            }
-            int matchEnd = this. match(con, this.operations, con.start, 1, this.options);
-            if (DEBUG) {
-                System.err.println("matchEnd="+matchEnd);
-                System.err.println("con.limit="+con.limit);
+            if (match != null) {
+                match.setNumberOfGroups(this.nofparen);
+                match.setSource(target);
+            } else if (this.hasBackReferences) {
+                match = new Match();
+                match.setNumberOfGroups(this.nofparen);
+                // Need not to call setSource() because
+                // a caller can not access this match instance.
             }
-            if (matchEnd == con.limit) {
-                if (con.match != null) {
-                    con.match.setBeginning(0, con.start);
-                    con.match.setEnd(0, matchEnd);
-                }
-                con.setInUse(false);
-                return true;
-            }
-            return false;
-        }
+            con.match = match;
 
-        /*
-         * The pattern has only fixed string.
-         * The engine uses Boyer-Moore.
-         */
-        if (this.fixedStringOnly) {
-            //System.err.println("DEBUG: fixed-only: "+this.fixedString);
-            int o = this.fixedStringTable.matches(target, con.start, con.limit);
-            if (o >= 0) {
-                if (con.match != null) {
-                    con.match.setBeginning(0, o);
-                    con.match.setEnd(0, o+this.fixedString.length());
+            if (RegularExpression.isSet(this.options, XMLSCHEMA_MODE)) {
+                if (DEBUG) {
+                    System.err.println("target string="+target);
                 }
-                con.setInUse(false);
-                return true;
+                int matchEnd = this. match(con, this.operations, con.start, 1, this.options);
+                if (DEBUG) {
+                    System.err.println("matchEnd="+matchEnd);
+                    System.err.println("con.limit="+con.limit);
+                }
+                if (matchEnd == con.limit) {
+                    if (con.match != null) {
+                        con.match.setBeginning(0, con.start);
+                        con.match.setEnd(0, matchEnd);
+                    }
+                    return true;
+                }
+                return false;
             }
-            con.setInUse(false);
-            return false;
-        }
 
-        /*
-         * The pattern contains a fixed string.
-         * The engine checks with Boyer-Moore whether the text contains the fixed string or not.
-         * If not, it return with false.
-         */
-        if (this.fixedString != null) {
-            int o = this.fixedStringTable.matches(target, con.start, con.limit);
-            if (o < 0) {
-                //System.err.println("Non-match in fixed-string search.");
-                con.setInUse(false);
+            /*
+             * The pattern has only fixed string.
+             * The engine uses Boyer-Moore.
+             */
+            if (this.fixedStringOnly) {
+                //System.err.println("DEBUG: fixed-only: "+this.fixedString);
+                int o = this.fixedStringTable.matches(target, con.start, con.limit);
+                if (o >= 0) {
+                    if (con.match != null) {
+                        con.match.setBeginning(0, o);
+                        con.match.setEnd(0, o+this.fixedString.length());
+                    }
+                    return true;
+                }
                 return false;
             }
-        }
 
-        int limit = con.limit-this.minlength;
-        int matchStart;
-        int matchEnd = -1;
+            /*
+             * The pattern contains a fixed string.
+             * The engine checks with Boyer-Moore whether the text contains the fixed string or not.
+             * If not, it return with false.
+             */
+            if (this.fixedString != null) {
+                int o = this.fixedStringTable.matches(target, con.start, con.limit);
+                if (o < 0) {
+                    //System.err.println("Non-match in fixed-string search.");
+                    return false;
+                }
+            }
 
-        /*
-         * Checks whether the expression starts with ".*".
-         */
-        if (this.operations != null
-                && this.operations.type == Op.CLOSURE && this.operations.getChild().type == Op.DOT) {
-            if (isSet(this.options, SINGLE_LINE)) {
-                matchStart = con.start;
-                matchEnd = this.match(con, this.operations, con.start, 1, this.options);
-            } else {
-                boolean previousIsEOL = true;
-                for (matchStart = con.start;  matchStart <= limit;  matchStart ++) {
-                    int ch =  target .charAt(  matchStart ) ;
-                    if (isEOLChar(ch)) {
-                        previousIsEOL = true;
-                    } else {
-                        if (previousIsEOL) {
-                            if (0 <= (matchEnd = this.match(con, this.operations,
-                                    matchStart, 1, this.options)))
-                                break;
+            int limit = con.limit-this.minlength;
+            int matchStart;
+            int matchEnd = -1;
+
+            /*
+             * Checks whether the expression starts with ".*".
+             */
+            if (this.operations != null
+                    && this.operations.type == Op.CLOSURE && this.operations.getChild().type == Op.DOT) {
+                if (isSet(this.options, SINGLE_LINE)) {
+                    matchStart = con.start;
+                    matchEnd = this.match(con, this.operations, con.start, 1, this.options);
+                } else {
+                    boolean previousIsEOL = true;
+                    for (matchStart = con.start;  matchStart <= limit;  matchStart ++) {
+                        int ch =  target .charAt(  matchStart ) ;
+                        if (isEOLChar(ch)) {
+                            previousIsEOL = true;
+                        } else {
+                            if (previousIsEOL) {
+                                if (0 <= (matchEnd = this.match(con, this.operations,
+                                        matchStart, 1, this.options)))
+                                    break;
+                            }
+                            previousIsEOL = false;
                         }
-                        previousIsEOL = false;
                     }
                 }
             }
-        }
 
-        /*
-         * Optimization against the first character.
-         */
-        else if (this.firstChar != null) {
-            //System.err.println("DEBUG: with firstchar-matching: "+this.firstChar);
-            RangeToken range = this.firstChar;
-            for (matchStart = con.start;  matchStart <= limit;  matchStart ++) {
-                int ch =  target .charAt(  matchStart ) ;
-                if (REUtil.isHighSurrogate(ch) && matchStart+1 < con.limit) {
-                    ch = REUtil.composeFromSurrogates(ch, target.charAt(matchStart+1));
-                }
-                if (!range.match(ch)) {
-                    continue;
-                }
-                if (0 <= (matchEnd = this.match(con, this.operations,
-                        matchStart, 1, this.options))) {
-                    break;
+            /*
+             * Optimization against the first character.
+             */
+            else if (this.firstChar != null) {
+                //System.err.println("DEBUG: with firstchar-matching: "+this.firstChar);
+                RangeToken range = this.firstChar;
+                for (matchStart = con.start;  matchStart <= limit;  matchStart ++) {
+                    int ch =  target .charAt(  matchStart ) ;
+                    if (REUtil.isHighSurrogate(ch) && matchStart+1 < con.limit) {
+                        ch = REUtil.composeFromSurrogates(ch, target.charAt(matchStart+1));
+                    }
+                    if (!range.match(ch)) {
+                        continue;
+                    }
+                    if (0 <= (matchEnd = this.match(con, this.operations,
+                            matchStart, 1, this.options))) {
+                        break;
+                    }
                 }
             }
-        }
 
-        /*
-         * Straightforward matching.
-         */
-        else {
-            for (matchStart = con.start;  matchStart <= limit;  matchStart ++) {
-                if (0 <= (matchEnd = this.match(con, this.operations, matchStart, 1, this.options)))
-                    break;
+            /*
+             * Straightforward matching.
+             */
+            else {
+                for (matchStart = con.start;  matchStart <= limit;  matchStart ++) {
+                    if (0 <= (matchEnd = this.match(con, this.operations, matchStart, 1, this.options)))
+                        break;
+                }
             }
-        }
 
-        if (matchEnd >= 0) {
-            if (con.match != null) {
-                con.match.setBeginning(0, matchStart);
-                con.match.setEnd(0, matchEnd);
+            if (matchEnd >= 0) {
+                if (con.match != null) {
+                    con.match.setBeginning(0, matchStart);
+                    con.match.setEnd(0, matchEnd);
+                }
+                return true;
+            } else {
+                return false;
             }
+        } finally {
             con.setInUse(false);
-            return true;
-        } else {
-            con.setInUse(false);
-            return false;
         }
     }
 
@@ -1550,146 +1522,137 @@ public class RegularExpression implements java.io.Serializable {
 
 
 
-        synchronized (this) {
-            if (this.operations == null)
-                this.prepare();
-            if (this.context == null)
-                this.context = new Context();
-        }
-        Context con = null;
-        synchronized (this.context) {
-            con = this.context.inuse ? new Context() : this.context;
+        if (this.operations == null)
+            this.prepare();
+        Context con = Context.acquire();
+        try {
             con.reset(target, start, end, this.numberOfClosures);
-        }
-        if (match != null) {
-            match.setNumberOfGroups(this.nofparen);
-            match.setSource(target);
-        } else if (this.hasBackReferences) {
-            match = new Match();
-            match.setNumberOfGroups(this.nofparen);
-            // Need not to call setSource() because
-            // a caller can not access this match instance.
-        }
-        con.match = match;
-
-        if (RegularExpression.isSet(this.options, XMLSCHEMA_MODE)) {
-            int matchEnd = this.match(con, this.operations, con.start, 1, this.options);
-            //System.err.println("DEBUG: matchEnd="+matchEnd);
-            if (matchEnd == con.limit) {
-                if (con.match != null) {
-                    con.match.setBeginning(0, con.start);
-                    con.match.setEnd(0, matchEnd);
-                }
-                con.setInUse(false);
-                return true;
+            if (match != null) {
+                match.setNumberOfGroups(this.nofparen);
+                match.setSource(target);
+            } else if (this.hasBackReferences) {
+                match = new Match();
+                match.setNumberOfGroups(this.nofparen);
+                // Need not to call setSource() because
+                // a caller can not access this match instance.
             }
-            return false;
-        }
-
-        /*
-         * The pattern has only fixed string.
-         * The engine uses Boyer-Moore.
-         */
-        if (this.fixedStringOnly) {
-            //System.err.println("DEBUG: fixed-only: "+this.fixedString);
-            int o = this.fixedStringTable.matches(target, con.start, con.limit);
-            if (o >= 0) {
-                if (con.match != null) {
-                    con.match.setBeginning(0, o);
-                    con.match.setEnd(0, o+this.fixedString.length());
+            con.match = match;
+
+            if (RegularExpression.isSet(this.options, XMLSCHEMA_MODE)) {
+                int matchEnd = this.match(con, this.operations, con.start, 1, this.options);
+                //System.err.println("DEBUG: matchEnd="+matchEnd);
+                if (matchEnd == con.limit) {
+                    if (con.match != null) {
+                        con.match.setBeginning(0, con.start);
+                        con.match.setEnd(0, matchEnd);
+                    }
+                    return true;
                 }
-                con.setInUse(false);
-                return true;
+                return false;
             }
-            con.setInUse(false);
-            return false;
-        }
 
-        /*
-         * The pattern contains a fixed string.
-         * The engine checks with Boyer-Moore whether the text contains the fixed string or not.
-         * If not, it return with false.
-         */
-        if (this.fixedString != null) {
-            int o = this.fixedStringTable.matches(target, con.start, con.limit);
-            if (o < 0) {
-                //System.err.println("Non-match in fixed-string search.");
-                con.setInUse(false);
+            /*
+             * The pattern has only fixed string.
+             * The engine uses Boyer-Moore.
+             */
+            if (this.fixedStringOnly) {
+                //System.err.println("DEBUG: fixed-only: "+this.fixedString);
+                int o = this.fixedStringTable.matches(target, con.start, con.limit);
+                if (o >= 0) {
+                    if (con.match != null) {
+                        con.match.setBeginning(0, o);
+                        con.match.setEnd(0, o+this.fixedString.length());
+                    }
+                    return true;
+                }
                 return false;
             }
-        }
 
-        int limit = con.limit-this.minlength;
-        int matchStart;
-        int matchEnd = -1;
+            /*
+             * The pattern contains a fixed string.
+             * The engine checks with Boyer-Moore whether the text contains the fixed string or not.
+             * If not, it return with false.
+             */
+            if (this.fixedString != null) {
+                int o = this.fixedStringTable.matches(target, con.start, con.limit);
+                if (o < 0) {
+                    //System.err.println("Non-match in fixed-string search.");
+                    return false;
+                }
+            }
 
-        /*
-         * Checks whether the expression starts with ".*".
-         */
-        if (this.operations != null
-                && this.operations.type == Op.CLOSURE && this.operations.getChild().type == Op.DOT) {
-            if (isSet(this.options, SINGLE_LINE)) {
-                matchStart = con.start;
-                matchEnd = this.match(con, this.operations, con.start, 1, this.options);
-            } else {
-                boolean previousIsEOL = true;
-                for (matchStart = con.start;  matchStart <= limit;  matchStart ++) {
-                    int ch =  target .setIndex(  matchStart ) ;
-                    if (isEOLChar(ch)) {
-                        previousIsEOL = true;
-                    } else {
-                        if (previousIsEOL) {
-                            if (0 <= (matchEnd = this.match(con, this.operations,
-                                    matchStart, 1, this.options)))
-                                break;
+            int limit = con.limit-this.minlength;
+            int matchStart;
+            int matchEnd = -1;
+
+            /*
+             * Checks whether the expression starts with ".*".
+             */
+            if (this.operations != null
+                    && this.operations.type == Op.CLOSURE && this.operations.getChild().type == Op.DOT) {
+                if (isSet(this.options, SINGLE_LINE)) {
+                    matchStart = con.start;
+                    matchEnd = this.match(con, this.operations, con.start, 1, this.options);
+                } else {
+                    boolean previousIsEOL = true;
+                    for (matchStart = con.start;  matchStart <= limit;  matchStart ++) {
+                        int ch =  target .setIndex(  matchStart ) ;
+                        if (isEOLChar(ch)) {
+                            previousIsEOL = true;
+                        } else {
+                            if (previousIsEOL) {
+                                if (0 <= (matchEnd = this.match(con, this.operations,
+                                        matchStart, 1, this.options)))
+                                    break;
+                            }
+                            previousIsEOL = false;
                         }
-                        previousIsEOL = false;
                     }
                 }
             }
-        }
 
-        /*
-         * Optimization against the first character.
-         */
-        else if (this.firstChar != null) {
-            //System.err.println("DEBUG: with firstchar-matching: "+this.firstChar);
-            RangeToken range = this.firstChar;
-            for (matchStart = con.start;  matchStart <= limit;  matchStart ++) {
-                int ch =  target .setIndex(  matchStart ) ;
-                if (REUtil.isHighSurrogate(ch) && matchStart+1 < con.limit) {
-                    ch = REUtil.composeFromSurrogates(ch, target.setIndex(matchStart+1));
-                }
-                if (!range.match(ch)) {
-                    continue;
-                }
-                if (0 <= (matchEnd = this.match(con, this.operations,
-                        matchStart, 1, this.options))) {
-                    break;
+            /*
+             * Optimization against the first character.
+             */
+            else if (this.firstChar != null) {
+                //System.err.println("DEBUG: with firstchar-matching: "+this.firstChar);
+                RangeToken range = this.firstChar;
+                for (matchStart = con.start;  matchStart <= limit;  matchStart ++) {
+                    int ch =  target .setIndex(  matchStart ) ;
+                    if (REUtil.isHighSurrogate(ch) && matchStart+1 < con.limit) {
+                        ch = REUtil.composeFromSurrogates(ch, target.setIndex(matchStart+1));
+                    }
+                    if (!range.match(ch)) {
+                        continue;
+                    }
+                    if (0 <= (matchEnd = this.match(con, this.operations,
+                            matchStart, 1, this.options))) {
+                        break;
+                    }
                 }
             }
-        }
 
-        /*
-         * Straightforward matching.
-         */
-        else {
-            for (matchStart = con.start;  matchStart <= limit;  matchStart ++) {
-                if (0 <= (matchEnd = this. match(con, this.operations, matchStart, 1, this.options)))
-                    break;
+            /*
+             * Straightforward matching.
+             */
+            else {
+                for (matchStart = con.start;  matchStart <= limit;  matchStart ++) {
+                    if (0 <= (matchEnd = this. match(con, this.operations, matchStart, 1, this.options)))
+                        break;
+                }
             }
-        }
 
-        if (matchEnd >= 0) {
-            if (con.match != null) {
-                con.match.setBeginning(0, matchStart);
-                con.match.setEnd(0, matchEnd);
+            if (matchEnd >= 0) {
+                if (con.match != null) {
+                    con.match.setBeginning(0, matchStart);
+                    con.match.setEnd(0, matchEnd);
+                }
+                return true;
+            } else {
+                return false;
             }
+        } finally {
             con.setInUse(false);
-            return true;
-        } else {
-            con.setInUse(false);
-            return false;
         }
     }
 
@@ -1719,9 +1682,12 @@ public class RegularExpression implements java.io.Serializable {
     boolean hasBackReferences = false;
 
     transient int minlength;
-    transient Op operations = null;
+    /**
+     * The compiled operation flow - written last by {@link #prepare()}, which publishes
+     * the other transient fields to the matching threads.
+     */
+    transient volatile Op operations = null;
     transient int numberOfClosures;
-    transient Context context = null;
     transient RangeToken firstChar = null;
 
     transient String fixedString = null;
@@ -1992,6 +1958,8 @@ public class RegularExpression implements java.io.Serializable {
     }
 
     static final class Context {
+        private static final ThreadLocal<Context> CONTEXT = ThreadLocal.withInitial(Context::new);
+
         int start;
         int limit;
         int length;
@@ -2008,12 +1976,26 @@ public class RegularExpression implements java.io.Serializable {
         Context() {
         }
 
+        /**
+         * @return the context of the current thread or a new one, if the context of the
+         * thread is in use
+         */
+        static Context acquire() {
+            Context con = CONTEXT.get();
+            return con.inuse ? new Context() : con;
+        }
+
         private void resetCommon(int nofclosures) {
             this.length = this.limit-this.start;
             setInUse(true);
             this.match = null;
-            if (this.closureContexts == null || this.closureContexts.length != nofclosures) {
-                this.closureContexts = new ClosureContext[nofclosures];
+            // the context of a thread is shared by all expressions - keep the larger array
+            if (this.closureContexts == null || this.closureContexts.length < nofclosures) {
+                ClosureContext[] closureContexts = new ClosureContext[nofclosures];
+                if (this.closureContexts != null) {
+                    System.arraycopy(this.closureContexts, 0, closureContexts, 0, this.closureContexts.length);
+                }
+                this.closureContexts = closureContexts;
             }
             for (int i = 0;  i < nofclosures;  i ++)  {
                 if (this.closureContexts[i] == null) {
@@ -2063,22 +2045,49 @@ public class RegularExpression implements java.io.Serializable {
             this.limit = limit;
             this.resetCommon(nofclosures);
         }
-        synchronized void setInUse(boolean inUse) {
+        void setInUse(boolean inUse) {
             this.inuse = inUse;
+            if (!inUse) {
+                // don't keep the target of the last match reachable from the thread
+                this.match = null;
+                if (stringTarget != null) {
+                    stringTarget.resetTarget(null);
+                }
+                if (charArrayTarget != null) {
+                    charArrayTarget.resetTarget(null);
+                }
+                if (characterIteratorTarget != null) {
+                    characterIteratorTarget.resetTarget(null);
+                }
+                this.target = null;
+            }
         }
     }
 
+    public static void clearThreadLocals() {
+        Context.CONTEXT.remove();
+    }
+
     /**
      * Prepares for matching.  This method is called just before starting matching.
+     * <p>
+     * Only the first caller compiles the token tree - the operation flow is assigned last,
+     * so that matching doesn't need to synchronize.
      */
-    void prepare() {
+    synchronized void prepare() {
+        if (this.operations != null)
+            return;
         if (Op.COUNT)  Op.nofinstances = 0;
-        this.compile(this.tokentree);
+        this.numberOfClosures = 0;
+        this.fixedStringOnly = false;
+        this.fixedString = null;
+        this.fixedStringTable = null;
+        Op operations = this.compile(this.tokentree, null, false);
         /*
-        if  (this.operations.type == Op.CLOSURE && this.operations.getChild().type == Op.DOT) { // .*
+        if  (operations.type == Op.CLOSURE && operations.getChild().type == Op.DOT) { // .*
             Op anchor = Op.createAnchor(isSet(this.options, SINGLE_LINE) ? 'A' : '@');
-            anchor.next = this.operations;
-            this.operations = anchor;
+            anchor.next = operations;
+            operations = anchor;
         }
         */
         if (Op.COUNT)  System.err.println("DEBUG: The number of operations: "+Op.nofinstances);
@@ -2098,19 +2107,19 @@ public class RegularExpression implements java.io.Serializable {
             }
         }
 
-        if (this.operations != null
-                && (this.operations.type == Op.STRING || this.operations.type == Op.CHAR)
-                && this.operations.next == null) {
+        if (operations != null
+                && (operations.type == Op.STRING || operations.type == Op.CHAR)
+                && operations.next == null) {
             if (DEBUG)
                 System.err.print(" *** Only fixed string! *** ");
             this.fixedStringOnly = true;
-            if (this.operations.type == Op.STRING)
-                this.fixedString = this.operations.getString();
-            else if (this.operations.getData() >= 0x10000) { // Op.CHAR
-                this.fixedString = REUtil.decomposeToSurrogates(this.operations.getData());
+            if (operations.type == Op.STRING)
+                this.fixedString = operations.getString();
+            else if (operations.getData() >= 0x10000) { // Op.CHAR
+                this.fixedString = REUtil.decomposeToSurrogates(operations.getData());
             } else {
                 char[] ac = new char[1];
-                ac[0] = (char)this.operations.getData();
+                ac[0] = (char)operations.getData();
                 this.fixedString = new String(ac);
             }
             this.fixedStringOptions = this.options;
@@ -2137,6 +2146,8 @@ public class RegularExpression implements java.io.Serializable {
                 }
             }
         }
+
+        this.operations = operations;
     }
 
     /**
@@ -2265,7 +2276,6 @@ public class RegularExpression implements java.io.Serializable {
         this.hasBackReferences = rp.hasBackReferences;
 
         this.operations = null;
-        this.context = null;
     }
     /**
      *
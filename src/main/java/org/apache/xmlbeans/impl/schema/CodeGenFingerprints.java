@@ -0,0 +1,209 @@
+/*   Copyright 2004 The Apache Software Foundation
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.xmlbeans.impl.schema;
+
+import org.apache.xmlbeans.*;
+import org.apache.xmlbeans.XmlOptions.BeanMethod;
+import org.apache.xmlbeans.impl.util.HexBin;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Computes the fingerprints of the schema types, which the sources are generated for.
+ * <p>
+ * The generated sources of a type depend on its own definition and on the definitions of the
+ * types it refers to, e.g. its base type and the types of its properties. The fingerprint
+ * therefore covers all the types which are reachable from the type, together with the
+ * XmlBeans version, the code printer and the code generation options.
+ */
+final class CodeGenFingerprints {
+    private static final byte[] NO_DIGEST = {};
+
+    private final SchemaTypeSystem _system;
+    private final byte[] _prefix;
+    private final Map<SchemaType, byte[]> _digests = new HashMap<>();
+
+    CodeGenFingerprints(SchemaTypeSystem system, SchemaCodePrinter printer, XmlOptions options) {
+        _system = system;
+
+        StringBuilder sb = new StringBuilder();
+        append(sb, XmlBeans.getVersion());
+        append(sb, printer.getClass().getName());
+        if (options != null) {
+            Set<BeanMethod> partialMethods = options.getCompilePartialMethod();
+            append(sb, partialMethods == null ? null : new TreeSet<>(partialMethods));
+            append(sb, options.isCompileNoAnnotations());
+            append(sb, options.isCompileAnnotationAsJavadoc());
+        }
+        _prefix = digest(sb);
+    }
+
+    /**
+     * @return the fingerprint of the type or null, if the definition of the type or one of its
+     * referenced types isn't available anymore, e.g. for type systems loaded from .xsb files
+     */
+    String fingerprint(SchemaType type) {
+        MessageDigest md = newDigest();
+        md.update(_prefix);
+
+        // breadth first, so the referenced types are always added in the same order
+        Set<SchemaType> seen = new HashSet<>();
+        Deque<SchemaType> queue = new ArrayDeque<>();
+        seen.add(type);
+        queue.add(type);
+        while (!queue.isEmpty()) {
+            SchemaType t = queue.poll();
+            byte[] digest = _digests.computeIfAbsent(t, this::ownDigest);
+            if (digest == NO_DIGEST) {
+                return null;
+            }
+            md.update(digest);
+
+            if (t.isBuiltinType() || t.getTypeSystem() != _system) {
+                continue;
+            }
+            for (SchemaType ref : references(t)) {
+                if (ref != null && seen.add(ref)) {
+                    queue.add(ref);
+                }
+            }
+        }
+
+        return HexBin.bytesToString(md.digest());
+    }
+
+    private static List<SchemaType> references(SchemaType t) {
+        List<SchemaType> refs = new ArrayList<>();
+        refs.add(t.getBaseType());
+        refs.add(t.getContentBasedOnType());
+        refs.add(t.getBaseEnumType());
+        refs.add(t.getPrimitiveType());
+        refs.add(t.getListItemType());
+        SchemaType[] members = t.getUnionMemberTypes();
+        if (members != null) {
+            refs.addAll(Arrays.asList(members));
+        }
+        for (SchemaProperty prop : t.getProperties()) {
+            refs.add(prop.getType());
+        }
+        refs.addAll(Arrays.asList(t.getAnonymousTypes()));
+        return refs;
+    }
+
+    private byte[] ownDigest(SchemaType t) {
+        StringBuilder sb = new StringBuilder();
+        if (t.isBuiltinType()) {
+            append(sb, t.getName());
+            return digest(sb);
+        }
+
+        if (t.getTypeSystem() != _system) {
+            // only the names of types of other type systems end up in the generated code
+            append(sb, t.getTypeSystem().getName());
+            append(sb, t.getName());
+            append(sb, t.getFullJavaName());
+            return digest(sb);
+        }
+
+        if (!(t instanceof SchemaTypeImpl)) {
+            return NO_DIGEST;
+        }
+        SchemaTypeImpl sImpl = (SchemaTypeImpl) t;
+        XmlObject parseObject = sImpl.getParseObject();
+        if (parseObject == null) {
+            return NO_DIGEST;
+        }
+
+        append(sb, t.getName());
+        append(sb, t.getFullJavaName());
+        append(sb, t.getFullJavaImplName());
+        append(sb, t.isDocumentType());
+        append(sb, t.isAttributeType());
+        append(sb, parseObject.xmlText());
+
+        for (SchemaProperty prop : t.getProperties()) {
+            append(sb, prop.getName());
+            append(sb, prop.getJavaPropertyName());
+            append(sb, prop.getJavaTypeCode());
+            append(sb, prop.isAttribute());
+            append(sb, prop.extendsJavaSingleton());
+            append(sb, prop.extendsJavaOption());
+            append(sb, prop.extendsJavaArray());
+            append(sb, prop.hasNillable());
+            append(sb, prop.getMinOccurs());
+            append(sb, prop.getMaxOccurs());
+            append(sb, prop.getDefaultText());
+            append(sb, prop.getDocumentation());
+        }
+
+        SchemaStringEnumEntry[] entries = t.getStringEnumEntries();
+        if (entries != null) {
+            for (SchemaStringEnumEntry entry : entries) {
+                append(sb, entry.getString());
+                append(sb, entry.getEnumName());
+                append(sb, entry.getIntValue());
+            }
+        }
+
+        InterfaceExtension[] exts = sImpl.getInterfaceExtensions();
+        if (exts != null) {
+            for (InterfaceExtension ext : exts) {
+                append(sb, ext.getInterface());
+                append(sb, ext.getStaticHandler());
+                for (InterfaceExtension.MethodSignature method : ext.getMethods()) {
+                    append(sb, method.getName());
+                    append(sb, method.getReturnType());
+                    append(sb, Arrays.asList(method.getParameterTypes()));
+                    append(sb, Arrays.asList(method.getParameterNames()));
+                    append(sb, Arrays.asList(method.getExceptionTypes()));
+                }
+            }
+        }
+
+        PrePostExtension prePost = sImpl.getPrePostExtension();
+        if (prePost != null) {
+            append(sb, prePost.getStaticHandler());
+            append(sb, prePost.hasPreCall());
+            append(sb, prePost.hasPostCall());
+        }
+
+        append(sb, sImpl.getUserTypeName());
+        append(sb, sImpl.getUserTypeHandlerName());
+
+        return digest(sb);
+    }
+
+    private static void append(StringBuilder sb, Object o) {
+        // length prefixed, so adjacent values can't be confused
+        String s = String.valueOf(o);
+        sb.append(s.length()).append(':').append(s);
+    }
+
+    private static byte[] digest(StringBuilder sb) {
+        return newDigest().digest(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,300 @@
+/*   Copyright 2004 The Apache Software Foundation
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.xmlbeans.impl.schema;
+
+import org.apache.xmlbeans.QNameSet;
+import org.apache.xmlbeans.SchemaParticle;
+import org.apache.xmlbeans.SystemProperties;
+
+import javax.xml.namespace.QName;
+import java.util.*;
+
+/**
+ * A content model compiled into a deterministic automaton, which replaces the interpretation
+ * of the particle tree by the {@link SchemaTypeVisitorImpl} with a single table lookup per
+ * child element.
+ * <p>
+ * The particles are translated into a nondeterministic automaton - the occurrence counters
+ * are unrolled and unbounded particles become loops - and then into a deterministic automaton
+ * by the subset construction. The automaton is immutable and therefore shared by all threads.
+ * <p>
+ * Content models, which can't be compiled, are left to the interpreter, i.e. models with
+ * wildcards or all groups, ambiguous models and models with large occurrence counters or
+ * too many states.
+ */
+final class ContentModelAutomaton {
+    private static final boolean ENABLED = initEnabled();
+    private static final int MAX_UNROLL = 64;
+    private static final int MAX_NFA_STATES = 4096;
+    private static final int MAX_DFA_STATES = 1024;
+
+    private static final TooComplexException TOO_COMPLEX = new TooComplexException();
+
+    private final Map<QName, Transition>[] _transitions;
+    private final boolean[] _final;
+
+    static final class Transition {
+        final int target;
+        final SchemaParticle particle;
+
+        Transition(int target, SchemaParticle particle) {
+            this.target = target;
+            this.particle = particle;
+        }
+    }
+
+    private ContentModelAutomaton(Map<QName, Transition>[] transitions, boolean[] finalStates) {
+        _transitions = transitions;
+        _final = finalStates;
+    }
+
+    /**
+     * @return the automaton of the content model or null, if the content model needs to be interpreted
+     */
+    static ContentModelAutomaton compile(SchemaParticle contentModel) {
+        if (!ENABLED || contentModel == null) {
+            return null;
+        }
+        try {
+            Nfa nfa = new Nfa();
+            int end = nfa.particle(contentModel, nfa.newState());
+            return nfa.determinize(end);
+        } catch (TooComplexException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @return the transition for the element in the state or null, if the element isn't allowed
+     */
+    Transition transition(int state, QName name) {
+        return _transitions[state].get(name);
+    }
+
+    /**
+     * @return true, if the content can end in the state
+     */
+    boolean isFinal(int state) {
+        return _final[state];
+    }
+
+    int stateCount() {
+        return _final.length;
+    }
+
+    private static boolean initEnabled() {
+        return !"false".equals(SystemProperties.getProperty("xmlbean.contentmodel.automaton", "true"));
+    }
+
+    private static final class Edge {
+        final Collection<QName> names;
+        final SchemaParticle particle;
+        final int target;
+
+        Edge(Collection<QName> names, SchemaParticle particle, int target) {
+            this.names = names;
+            this.particle = particle;
+            this.target = target;
+        }
+    }
+
+    private static final class Nfa {
+        private final List<List<Integer>> _epsilons = new ArrayList<>();
+        private final List<List<Edge>> _edges = new ArrayList<>();
+
+        int newState() {
+            if (_edges.size() == MAX_NFA_STATES) {
+                throw TOO_COMPLEX;
+            }
+            _epsilons.add(new ArrayList<>(2));
+            _edges.add(new ArrayList<>(1));
+            return _edges.size() - 1;
+        }
+
+        void epsilon(int from, int to) {
+            _epsilons.get(from).add(to);
+        }
+
+        /**
+         * Adds the particle with its occurrences after the start state.
+         *
+         * @return the end state
+         */
+        int particle(SchemaParticle p, int start) {
+            // particles loaded from .xsb files have no transition notes, but an ambiguous model
+            // is also detected by the subset construction
+            if (!(p instanceof SchemaParticleImpl)) {
+                throw TOO_COMPLEX;
+            }
+            SchemaParticleImpl pImpl = (SchemaParticleImpl) p;
+            if (!pImpl.hasTransitionRules() || (pImpl.hasTransitionNotes() && !pImpl.isDeterministic())) {
+                throw TOO_COMPLEX;
+            }
+
+            int min = p.getIntMinOccurs();
+            int max = p.getIntMaxOccurs();
+            boolean unbounded = (max == Integer.MAX_VALUE);
+            if (min > MAX_UNROLL || (!unbounded && max > MAX_UNROLL)) {
+                throw TOO_COMPLEX;
+            }
+
+            int s = start;
+            for (int i = 0; i < min; i++) {
+                s = body(p, s);
+            }
+
+            if (unbounded) {
+                int loop = newState();
+                epsilon(s, loop);
+                epsilon(body(p, loop), loop);
+                int end = newState();
+                epsilon(loop, end);
+                return end;
+            }
+
+            int end = newState();
+            for (int i = min; i < max; i++) {
+                epsilon(s, end);
+                s = body(p, s);
+            }
+            epsilon(s, end);
+            return end;
+        }
+
+        /**
+         * Adds a single occurrence of the particle after the start state.
+         *
+         * @return the end state
+         */
+        private int body(SchemaParticle p, int start) {
+            switch (p.getParticleType()) {
+                case SchemaParticle.ELEMENT: {
+                    QNameSet names = p.acceptedStartNames();
+                    // substitution groups are expanded in the start set, but names of wildcards aren't enumerable
+                    if (names.includedURIs() == null || !names.includedURIs().isEmpty()) {
+                        throw TOO_COMPLEX;
+                    }
+                    int end = newState();
+                    _edges.get(start).add(new Edge(names.includedQNamesInExcludedURIs(), p, end));
+                    return end;
+                }
+
+                case SchemaParticle.SEQUENCE: {
+                    int s = start;
+                    for (SchemaParticle child : p.getParticleChildren()) {
+                        s = particle(child, s);
+                    }
+                    return s;
+                }
+
+                case SchemaParticle.CHOICE: {
+                    int end = newState();
+                    for (SchemaParticle child : p.getParticleChildren()) {
+                        int c = newState();
+                        epsilon(start, c);
+                        epsilon(particle(child, c), end);
+                    }
+                    return end;
+                }
+
+                default:
+                    // wildcards and all groups
+                    throw TOO_COMPLEX;
+            }
+        }
+
+        private BitSet closure(BitSet states) {
+            Deque<Integer> todo = new ArrayDeque<>();
+            states.stream().forEach(todo::push);
+            while (!todo.isEmpty()) {
+                for (int next : _epsilons.get(todo.pop())) {
+                    if (!states.get(next)) {
+                        states.set(next);
+                        todo.push(next);
+                    }
+                }
+            }
+            return states;
+        }
+
+        ContentModelAutomaton determinize(int end) {
+            Map<BitSet, Integer> index = new HashMap<>();
+            List<BitSet> dfaStates = new ArrayList<>();
+            List<Map<QName, Transition>> transitions = new ArrayList<>();
+
+            BitSet start = new BitSet();
+            start.set(0);
+            start = closure(start);
+            index.put(start, 0);
+            dfaStates.add(start);
+
+            for (int i = 0; i < dfaStates.size(); i++) {
+                // collect the targets of all edges per name
+                Map<QName, BitSet> targets = new LinkedHashMap<>();
+                Map<QName, SchemaParticle> particles = new HashMap<>();
+                BitSet current = dfaStates.get(i);
+                for (int s = current.nextSetBit(0); s >= 0; s = current.nextSetBit(s + 1)) {
+                    for (Edge edge : _edges.get(s)) {
+                        for (QName name : edge.names) {
+                            SchemaParticle other = particles.putIfAbsent(name, edge.particle);
+                            if (other != null && other != edge.particle) {
+                                // the name matches different particles, which the interpreter decides
+                                throw TOO_COMPLEX;
+                            }
+                            targets.computeIfAbsent(name, n -> new BitSet()).set(edge.target);
+                        }
+                    }
+                }
+
+                Map<QName, Transition> stateTransitions = new HashMap<>();
+                for (Map.Entry<QName, BitSet> me : targets.entrySet()) {
+                    BitSet target = closure(me.getValue());
+                    Integer targetIndex = index.get(target);
+                    if (targetIndex == null) {
+                        if (dfaStates.size() == MAX_DFA_STATES) {
+                            throw TOO_COMPLEX;
+                        }
+                        targetIndex = dfaStates.size();
+                        index.put(target, targetIndex);
+                        dfaStates.add(target);
+                    }
+                    stateTransitions.put(me.getKey(), new Transition(targetIndex, particles.get(me.getKey())));
+                }
+                transitions.add(stateTransitions);
+            }
+
+            boolean[] finalStates = new boolean[dfaStates.size()];
+            for (int i = 0; i < finalStates.length; i++) {
+                finalStates[i] = dfaStates.get(i).get(end);
+            }
+
+            return new ContentModelAutomaton(toArray(transitions), finalStates);
+        }
+
+        @SuppressWarnings("unchecked")
+        private static Map<QName, Transition>[] toArray(List<Map<QName, Transition>> transitions) {
+            return transitions.toArray((Map<QName, Transition>[]) new Map<?, ?>[0]);
+        }
+    }
+
+    private static final class TooComplexException extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        TooComplexException() {
+            super(null, null, false, false);
+        }
+    }
+}
@@ -0,0 +1,267 @@
+/*   Copyright 2004 The Apache Software Foundation
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.xmlbeans.impl.schema;
+
+import org.apache.xmlbeans.ResourceLoader;
+import org.apache.xmlbeans.SchemaTypeLoaderException;
+import org.apache.xmlbeans.impl.common.IOUtil;
+import org.apache.xmlbeans.impl.util.LongUTFDataInputStream;
+import org.apache.xmlbeans.impl.util.LongUTFDataOutputStream;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.apache.xmlbeans.impl.schema.SchemaTypeSystemImpl.*;
+
+/**
+ * A single resource with the index and all the components of a type system, which replaces
+ * the .xsb resource per component.
+ * <p>
+ * The archive starts with the version of the .xsb format and a string pool, which is shared
+ * by all components. It's followed by a table of the components (handle, file type, offset
+ * and length) and the component data, which has the same format as the body of the .xsb
+ * files - so it's decoded by the {@link XsbReader}, when a component is resolved.
+ * <p>
+ * Archives on the file system are memory mapped, other resources are read at once.
+ */
+final class PackedArchive {
+    static final String RESOURCE_NAME = "typesystem.xsba";
+    static final int PACKED_BABE = 0xDA7ABA5E;
+
+    private final int _majorver;
+    private final int _minorver;
+    private final int _releaseno;
+    private final StringPool _stringPool;
+    private final Map<String, Entry> _entries = new HashMap<>();
+    private final ByteBuffer _data;
+
+    private static final class Entry {
+        final int filetype;
+        final int offset;
+        final int length;
+
+        Entry(int filetype, int offset, int length) {
+            this.filetype = filetype;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+    private PackedArchive(String name, ByteBuffer buffer) throws IOException {
+        LongUTFDataInputStream input = new LongUTFDataInputStream(new ByteBufferInputStream(buffer));
+
+        if (input.readInt() != PACKED_BABE) {
+            throw new SchemaTypeLoaderException("XML-BEANS compiled schema: Wrong magic cookie", name, RESOURCE_NAME, SchemaTypeLoaderException.WRONG_MAGIC_COOKIE);
+        }
+
+        _majorver = input.readUnsignedShort();
+        _minorver = input.readUnsignedShort();
+        _releaseno = input.readUnsignedShort();
+
+        if (_majorver != MAJOR_VERSION) {
+            throw new SchemaTypeLoaderException("XML-BEANS compiled schema: Wrong major version - expecting " + MAJOR_VERSION + ", got " + _majorver, name, RESOURCE_NAME, SchemaTypeLoaderException.WRONG_MAJOR_VERSION);
+        }
+
+        if (_minorver > MINOR_VERSION) {
+            throw new SchemaTypeLoaderException("XML-BEANS compiled schema: Incompatible minor version - expecting up to " + MINOR_VERSION + ", got " + _minorver, name, RESOURCE_NAME, SchemaTypeLoaderException.WRONG_MINOR_VERSION);
+        }
+
+        _stringPool = new StringPool(RESOURCE_NAME, name);
+        _stringPool.readFrom(input);
+
+        int count = input.readInt();
+        for (int i = 0; i < count; i++) {
+            String handle = _stringPool.stringForCode(input.readUnsignedShortOrInt());
+            int filetype = input.readUnsignedShort();
+            int offset = input.readInt();
+            int length = input.readInt();
+            _entries.put(handle, new Entry(filetype, offset, length));
+        }
+
+        // the input has consumed the buffer up to the data
+        _data = buffer.slice();
+    }
+
+    /**
+     * @return the archive of the type system or null, if the type system has been saved as
+     * separate .xsb resources
+     */
+    static PackedArchive open(String name, ClassLoader classLoader, ResourceLoader resourceLoader, String resourceName) {
+        try {
+            ByteBuffer buffer = null;
+
+            if (classLoader != null) {
+                URL url = classLoader.getResource(resourceName);
+                if (url == null) {
+                    return null;
+                }
+                if ("file".equals(url.getProtocol())) {
+                    try (FileChannel fc = FileChannel.open(Paths.get(url.toURI()), StandardOpenOption.READ)) {
+                        buffer = fc.map(FileChannel.MapMode.READ_ONLY, 0, fc.size());
+                    } catch (URISyntaxException | IllegalArgumentException e) {
+                        // read it as a stream below
+                    }
+                }
+            }
+
+            if (buffer == null) {
+                InputStream is = resourceLoader.getResourceAsStream(resourceName);
+                if (is == null) {
+                    return null;
+                }
+                ByteArrayOutputStream bos = new ByteArrayOutputStream();
+                IOUtil.copyCompletely(is, bos);
+                buffer = ByteBuffer.wrap(bos.toByteArray());
+            }
+
+            return new PackedArchive(name, buffer);
+        } catch (IOException e) {
+            throw new SchemaTypeLoaderException(e.getMessage(), name, RESOURCE_NAME, SchemaTypeLoaderException.IO_EXCEPTION, e);
+        }
+    }
+
+    int getMajorVersion() {
+        return _majorver;
+    }
+
+    int getMinorVersion() {
+        return _minorver;
+    }
+
+    int getReleaseNumber() {
+        return _releaseno;
+    }
+
+    StringPool getStringPool() {
+        return _stringPool;
+    }
+
+    /**
+     * @return the file type of the component or -1, if the archive doesn't contain the handle
+     */
+    int getFiletype(String handle) {
+        Entry e = _entries.get(handle);
+        return e == null ? -1 : e.filetype;
+    }
+
+    /**
+     * @return a new stream of the component data - the archive can be read by several threads
+     */
+    InputStream openEntry(String handle) {
+        Entry e = _entries.get(handle);
+        if (e == null) {
+            return null;
+        }
+        ByteBuffer data = _data.duplicate();
+        // cast for java 8 compatibility of the covariant return types
+        ((Buffer) data).limit(e.offset + e.length);
+        ((Buffer) data).position(e.offset);
+        return new ByteBufferInputStream(data);
+    }
+
+    /**
+     * Collects the components of a type system, while it's saved.
+     */
+    static final class Writer {
+        private final StringPool _stringPool;
+        private final Map<String, Entry> _entries = new LinkedHashMap<>();
+        private final ByteArrayOutputStream _data = new ByteArrayOutputStream();
+
+        Writer(String name) {
+            _stringPool = new StringPool(RESOURCE_NAME, name);
+        }
+
+        StringPool getStringPool() {
+            return _stringPool;
+        }
+
+        /**
+         * @return the stream for the data of the component, which is added to the archive when it's closed
+         */
+        OutputStream newEntry(String handle, int filetype) {
+            _stringPool.codeForString(handle);
+            return new ByteArrayOutputStream() {
+                @Override
+                public void close() {
+                    _entries.put(handle, new Entry(filetype, _data.size(), size()));
+                    _data.write(buf, 0, count);
+                }
+            };
+        }
+
+        void writeTo(OutputStream os) throws IOException {
+            try (LongUTFDataOutputStream output = new LongUTFDataOutputStream(os)) {
+                output.writeInt(PACKED_BABE);
+                output.writeShort(MAJOR_VERSION);
+                output.writeShort(MINOR_VERSION);
+                output.writeShort(RELEASE_NUMBER);
+
+                _stringPool.writeTo(output);
+
+                output.writeInt(_entries.size());
+                for (Map.Entry<String, Entry> me : _entries.entrySet()) {
+                    Entry e = me.getValue();
+                    output.writeShortOrInt(_stringPool.codeForString(me.getKey()));
+                    output.writeShort(e.filetype);
+                    output.writeInt(e.offset);
+                    output.writeInt(e.length);
+                }
+
+                _data.writeTo(output);
+            }
+        }
+    }
+
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer _buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            _buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return _buffer.hasRemaining() ? (_buffer.get() & 0xFF) : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (!_buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, _buffer.remaining());
+            _buffer.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return _buffer.remaining();
+        }
+    }
+}
@@ -48,6 +48,10 @@ public class SchemaParticleImpl implements SchemaParticle {
     private Object _userData;
     private XmlValueRef _defaultValue;
     private String _documentation;
+    // the compiled content model, if this particle is the root of one
+    private volatile Object _automaton;
+
+    private static final Object NO_AUTOMATON = new Object();
 
     protected void mutate() {
         if (_isImmutable) {
@@ -99,6 +103,20 @@ public class SchemaParticleImpl implements SchemaParticle {
         return _isDeterministic;
     }
 
+    /**
+     * @return the automaton of the content model rooted at this particle, which is compiled
+     * on first use, or null if the content model needs to be interpreted
+     */
+    ContentModelAutomaton getContentModelAutomaton() {
+        Object automaton = _automaton;
+        if (automaton == null) {
+            // racing threads compile equal automata, so the last one simply wins
+            automaton = ContentModelAutomaton.compile(this);
+            _automaton = (automaton == null) ? NO_AUTOMATON : automaton;
+        }
+        return automaton == NO_AUTOMATON ? null : (ContentModelAutomaton) automaton;
+    }
+
     public int getParticleType() {
         return _particleType;
     }
@@ -1464,6 +1464,8 @@ public final class SchemaTypeCodePrinter implements SchemaCodePrinter {
     }
 
     void emitImplementationPreamble() throws IOException {
+        emit("try (org.apache.xmlbeans.impl.values.XmlObjectBase.StoreLock lock = lock_store()) {");
+        indent();
         emit("synchronized (monitor()) {");
         indent();
         emit("check_orphaned();");
@@ -1472,6 +1474,8 @@ public final class SchemaTypeCodePrinter implements SchemaCodePrinter {
     void emitImplementationPostamble() throws IOException {
         outdent();
         emit("}");
+        outdent();
+        emit("}");
     }
 
     void emitAddTarget(String identifier, boolean isAttr, String xtype)
@@ -1586,7 +1590,7 @@ public final class SchemaTypeCodePrinter implements SchemaCodePrinter {
         endBlock();
     }
 
-    void printListGetterImpl(String propdesc, String propertyName, String wrappedType, boolean xmltype, boolean xget)
+    void printListGetterImpl(String propdesc, String propertyName, String wrappedType, String setIdentifier, boolean xmltype, boolean xget)
     throws IOException {
         Set<BeanMethod> bmList = (opt == null) ? null : opt.getCompilePartialMethod();
         if (bmList != null && !bmList.contains(xget ? BeanMethod.XGET_LIST : BeanMethod.GET_LIST)) {
@@ -1606,6 +1610,10 @@ public final class SchemaTypeCodePrinter implements SchemaCodePrinter {
 
         emit("return new org.apache.xmlbeans.impl.values.JavaList" + ((xmltype || xget) ? "Xml" : "") + "Object<>(");
         indent();
+        if (xmltype || xget) {
+            // the elements are iterated by walking the siblings
+            emit("this, " + setIdentifier + ",");
+        }
         if (bmList == null || bmList.contains(xget ? BeanMethod.XGET_IDX : BeanMethod.GET_IDX)) {
             emit("this::" + (xget ? "xget" : "get") + arrayName + ",");
         } else {
@@ -1764,7 +1772,7 @@ public final class SchemaTypeCodePrinter implements SchemaCodePrinter {
                 wrappedType = javaWrappedType(javaType);
             }
 
-            printListGetterImpl(propdesc, propertyName, wrappedType, xmltype, false);
+            printListGetterImpl(propdesc, propertyName, wrappedType, setIdentifier, xmltype, false);
 
             if (bmList == null || bmList.contains(BeanMethod.GET_ARRAY)) {
                 // Value[] getProp()
@@ -1798,7 +1806,7 @@ public final class SchemaTypeCodePrinter implements SchemaCodePrinter {
             }
 
             if (!xmltype) {
-                printListGetterImpl(propdesc, propertyName, xtype, false, true);
+                printListGetterImpl(propdesc, propertyName, xtype, setIdentifier, false, true);
             }
 
             if (!xmltype && (bmList == null || bmList.contains(BeanMethod.XGET_ARRAY))) {
@@ -155,6 +155,9 @@ public final class SchemaTypeImpl implements SchemaType, TypeStoreUserFactory {
     private volatile Map<String, SchemaStringEnumEntry> _lookupStringEnumEntry;
     private SchemaStringEnumEntry[] _stringEnumEntries;
 
+    // facets prepared for validation - lazily computed, when resolved
+    private volatile FacetValidator _facetValidator;
+
     // for lists only
     private SchemaType.Ref _listItemTyperef;
 
@@ -1478,6 +1481,21 @@ public final class SchemaTypeImpl implements SchemaType, TypeStoreUserFactory {
         _enumerationValues = a == null ? null : a.clone();
     }
 
+    /**
+     * @return the facets of this type prepared for validating values
+     */
+    public FacetValidator getFacetValidator() {
+        FacetValidator fv = _facetValidator;
+        if (fv == null) {
+            fv = new FacetValidator(this);
+            // while compiling, values are validated against types whose facets aren't complete yet
+            if (isResolved()) {
+                _facetValidator = fv;
+            }
+        }
+        return fv;
+    }
+
     public StringEnumAbstractBase enumForString(String s) {
         ensureStringEnumInfo();
         if (_lookupStringEnum == null) {
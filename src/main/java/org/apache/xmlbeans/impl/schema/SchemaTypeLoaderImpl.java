@@ -23,8 +23,13 @@ import org.apache.xmlbeans.impl.xb.xsdschema.SchemaDocument;
 
 import javax.xml.namespace.QName;
 import java.io.InputStream;
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
 import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 
 import static org.apache.xmlbeans.impl.schema.SchemaTypeSystemImpl.METADATA_PACKAGE_GEN;
 
@@ -33,82 +38,111 @@ public class SchemaTypeLoaderImpl extends SchemaTypeLoaderBase {
     private final ClassLoader _classLoader;
     private final SchemaTypeLoader[] _searchPath;
 
-    private Map<String, SchemaTypeSystemImpl> _classpathTypeSystems;
-    private Map<String, SchemaTypeSystemImpl> _classLoaderTypeSystems;
-    private Map<QName, Object> _elementCache;
-    private Map<QName, Object> _attributeCache;
-    private Map<QName, Object> _modelGroupCache;
-    private Map<QName, Object> _attributeGroupCache;
-    private Map<QName, Object> _idConstraintCache;
-    private Map<QName, Object> _typeCache;
-    private Map<QName, Object> _documentCache;
-    private Map<QName, Object> _attributeTypeCache;
-    private Map<String, Object> _classnameCache;
+    private final Map<String, SchemaTypeSystemImpl> _classpathTypeSystems = new ConcurrentHashMap<>();
+    private final Map<String, SchemaTypeSystemImpl> _classLoaderTypeSystems = new ConcurrentHashMap<>();
+    private final ComponentCache<QName, SchemaGlobalElement.Ref> _elementCache = new ComponentCache<>();
+    private final ComponentCache<QName, SchemaGlobalAttribute.Ref> _attributeCache = new ComponentCache<>();
+    private final ComponentCache<QName, SchemaModelGroup.Ref> _modelGroupCache = new ComponentCache<>();
+    private final ComponentCache<QName, SchemaAttributeGroup.Ref> _attributeGroupCache = new ComponentCache<>();
+    private final ComponentCache<QName, SchemaIdentityConstraint.Ref> _idConstraintCache = new ComponentCache<>();
+    private final ComponentCache<QName, SchemaType.Ref> _typeCache = new ComponentCache<>();
+    private final ComponentCache<QName, SchemaType.Ref> _documentCache = new ComponentCache<>();
+    private final ComponentCache<QName, SchemaType.Ref> _attributeTypeCache = new ComponentCache<>();
+    private final ComponentCache<String, SchemaType> _classnameCache = new ComponentCache<>();
     private final String _metadataPath;
 
     public static String METADATA_PACKAGE_LOAD = METADATA_PACKAGE_GEN;
-    private static final Object CACHED_NOT_FOUND = new Object();
+
+    /**
+     * The maximum number of names per cache, which are remembered as not found.
+     * Unknown names, e.g. of xsi:type attributes, could otherwise grow the caches without limit.
+     */
+    private static final int NOT_FOUND_CACHE_SIZE = initNotFoundCacheSize();
 
     private static final String[] basePackage = {"org.apache.xmlbeans.metadata", "schemaorg_apache_xmlbeans"};
     private static final String[] baseSchemas = {"sXMLCONFIG", "sXMLLANG", "sXMLSCHEMA", "sXMLTOOLS"};
 
 
     private static class SchemaTypeLoaderCache extends SystemCache {
-        // The following maintains a cache of SchemaTypeLoaders per ClassLoader per Thread.
-        // I use soft references to allow the garbage collector to reclaim the type loaders
-        // and/or class loaders at will.
-
-        private final ThreadLocal<List<SoftReference<SchemaTypeLoaderImpl>>> _cachedTypeSystems = ThreadLocal.withInitial(ArrayList::new);
-
+        // The following maintains a cache of SchemaTypeLoaders per ClassLoader, which is shared
+        // by all threads, so the caches of the type loaders survive the threads.
+        // The ClassLoaders are weakly referenced, to not keep undeployed applications alive,
+        // and the type loaders are softly referenced, as they refer to their ClassLoader.
+
+        private final Map<ClassLoaderKey, SoftReference<SchemaTypeLoaderImpl>> _cachedTypeLoaders = new ConcurrentHashMap<>();
+        private final ReferenceQueue<ClassLoader> _staleKeys = new ReferenceQueue<>();
+        private volatile SoftReference<SchemaTypeLoaderImpl> _bootstrapTypeLoader;
+
+        /**
+         * The type loaders refer to their ClassLoader, so it's only collected under memory pressure.
+         * Clearing the cache, e.g. before undeploying an application, releases the ClassLoaders right away.
+         */
         @Override
         public void clearThreadLocals() {
-            _cachedTypeSystems.remove();
+            _cachedTypeLoaders.clear();
+            _bootstrapTypeLoader = null;
+            expungeStaleKeys();
 
             super.clearThreadLocals();
         }
 
         public SchemaTypeLoader getFromTypeLoaderCache(ClassLoader cl) {
-            List<SoftReference<SchemaTypeLoaderImpl>> a = _cachedTypeSystems.get();
+            expungeStaleKeys();
 
-            int candidate = -1;
-            SchemaTypeLoaderImpl result = null;
+            SoftReference<SchemaTypeLoaderImpl> ref = (cl == null)
+                ? _bootstrapTypeLoader
+                : _cachedTypeLoaders.get(new ClassLoaderKey(cl, null));
+            return ref == null ? null : ref.get();
+        }
 
-            for (int i = 0; i < a.size(); i++) {
-                SchemaTypeLoaderImpl tl = a.get(i).get();
+        public void addToTypeLoaderCache(SchemaTypeLoader stl, ClassLoader cl) {
+            assert (stl instanceof SchemaTypeLoaderImpl) &&
+                   ((SchemaTypeLoaderImpl) stl)._classLoader == cl;
 
-                if (tl == null) {
-                    a.remove(i--);
-                } else if (tl._classLoader == cl) {
-                    candidate = i;
-                    result = tl;
-                    break;
-                }
-            }
+            expungeStaleKeys();
 
-            // Make sure the most recently accessed entry is at the beginning of the array
+            SoftReference<SchemaTypeLoaderImpl> ref = new SoftReference<>((SchemaTypeLoaderImpl) stl);
+            if (cl == null) {
+                _bootstrapTypeLoader = ref;
+            } else {
+                // keep the type loader of a concurrent thread, if it's still alive
+                _cachedTypeLoaders.merge(new ClassLoaderKey(cl, _staleKeys), ref, (old, add) -> old.get() != null ? old : add);
+            }
+        }
 
-            if (candidate > 0) {
-                SoftReference<SchemaTypeLoaderImpl> t = a.get(0);
-                a.set(0, a.get(candidate));
-                a.set(candidate, t);
+        private void expungeStaleKeys() {
+            for (Reference<? extends ClassLoader> key; (key = _staleKeys.poll()) != null; ) {
+                _cachedTypeLoaders.remove(key);
             }
+        }
+    }
 
-            return result;
+    /**
+     * A weak reference to a ClassLoader, which compares the referenced ClassLoaders by identity
+     */
+    private static final class ClassLoaderKey extends WeakReference<ClassLoader> {
+        private final int _hash;
+
+        ClassLoaderKey(ClassLoader cl, ReferenceQueue<ClassLoader> queue) {
+            super(cl, queue);
+            _hash = System.identityHashCode(cl);
         }
 
-        public void addToTypeLoaderCache(SchemaTypeLoader stl, ClassLoader cl) {
-            assert (stl instanceof SchemaTypeLoaderImpl) &&
-                   ((SchemaTypeLoaderImpl) stl)._classLoader == cl;
+        @Override
+        public int hashCode() {
+            return _hash;
+        }
 
-            List<SoftReference<SchemaTypeLoaderImpl>> a = _cachedTypeSystems.get();
-            // Make sure this entry is at the top of the stack
-            if (a.size() > 0) {
-                SoftReference<SchemaTypeLoaderImpl> t = a.get(0);
-                a.set(0, new SoftReference<>((SchemaTypeLoaderImpl) stl));
-                a.add(t);
-            } else {
-                a.add(new SoftReference<>((SchemaTypeLoaderImpl) stl));
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
             }
+            if (!(o instanceof ClassLoaderKey)) {
+                return false;
+            }
+            ClassLoader cl = get();
+            return cl != null && cl == ((ClassLoaderKey) o).get();
         }
     }
 
@@ -122,6 +156,12 @@ public class SchemaTypeLoaderImpl extends SchemaTypeLoaderBase {
                 new SchemaTypeLoaderImpl(
                     new SchemaTypeLoader[]{BuiltinSchemaTypeSystem.get()}, null, cl, null);
             SystemCache.get().addToTypeLoaderCache(result, cl);
+
+            // another thread might have been quicker
+            SchemaTypeLoader shared = SystemCache.get().getFromTypeLoaderCache(cl);
+            if (shared instanceof SchemaTypeLoaderImpl) {
+                result = (SchemaTypeLoaderImpl) shared;
+            }
         }
 
         return result;
@@ -231,8 +271,6 @@ public class SchemaTypeLoaderImpl extends SchemaTypeLoaderBase {
             final String path26 = "schema" + METADATA_PACKAGE_LOAD.replace("/", "_");
             this._metadataPath = (isPath30(_classLoader)) ? METADATA_PACKAGE_LOAD : path26;
         }
-
-        initCaches();
     }
 
     private static boolean isPath30(ClassLoader loader) {
@@ -241,21 +279,48 @@ public class SchemaTypeLoaderImpl extends SchemaTypeLoaderBase {
         return cl.getResource(path30) != null;
     }
 
+    private static int initNotFoundCacheSize() {
+        String size = SystemProperties.getProperty("xmlbean.typeloader.notfoundcachesize");
+        try {
+            return size == null ? 10000 : Integer.parseInt(size.trim());
+        } catch (NumberFormatException e) {
+            return 10000;
+        }
+    }
+
     /**
-     * Initializes the caches.
+     * A cache of the components found by name, which can be read without locking.
+     * <p>
+     * The lookups are not serialized, so two threads may resolve the same name in parallel.
+     * The assumption is that the underlying datastructures (the search path and the classloader)
+     * do not change, so they come up with the same result - the first one is kept. Loading the
+     * type systems, i.e. the expensive part of a lookup, is only done once per name.
      */
-    private void initCaches() {
-        _classpathTypeSystems = Collections.synchronizedMap(new HashMap<>());
-        _classLoaderTypeSystems = Collections.synchronizedMap(new HashMap<>());
-        _elementCache = Collections.synchronizedMap(new HashMap<>());
-        _attributeCache = Collections.synchronizedMap(new HashMap<>());
-        _modelGroupCache = Collections.synchronizedMap(new HashMap<>());
-        _attributeGroupCache = Collections.synchronizedMap(new HashMap<>());
-        _idConstraintCache = Collections.synchronizedMap(new HashMap<>());
-        _typeCache = Collections.synchronizedMap(new HashMap<>());
-        _documentCache = Collections.synchronizedMap(new HashMap<>());
-        _attributeTypeCache = Collections.synchronizedMap(new HashMap<>());
-        _classnameCache = Collections.synchronizedMap(new HashMap<>());
+    private static final class ComponentCache<K, V> {
+        private final Map<K, V> _found = new ConcurrentHashMap<>();
+        private final Map<K, Boolean> _notFound = new ConcurrentHashMap<>();
+
+        V get(K key, Function<K, V> resolver) {
+            V result = _found.get(key);
+            if (result != null || _notFound.containsKey(key)) {
+                return result;
+            }
+
+            result = resolver.apply(key);
+            if (result == null) {
+                if (NOT_FOUND_CACHE_SIZE > 0) {
+                    if (_notFound.size() >= NOT_FOUND_CACHE_SIZE) {
+                        // rather start over than keeping track of the least recently used names
+                        _notFound.clear();
+                    }
+                    _notFound.put(key, Boolean.TRUE);
+                }
+                return null;
+            }
+
+            V previous = _found.putIfAbsent(key, result);
+            return previous == null ? result : previous;
+        }
     }
 
     SchemaTypeSystemImpl typeSystemForComponent(String searchdir, QName name) {
@@ -323,8 +388,7 @@ public class SchemaTypeLoaderImpl extends SchemaTypeLoaderBase {
         SchemaTypeSystemImpl result = _classLoaderTypeSystems.get(name);
         if (result == null) {
             XBeanDebug.LOG.atTrace().log("Type system {}} not cached - consulting field", name);
-            result = SchemaTypeSystemImpl.forName(name, _classLoader);
-            _classLoaderTypeSystems.put(name, result);
+            result = _classLoaderTypeSystems.computeIfAbsent(name, n -> SchemaTypeSystemImpl.forName(n, _classLoader));
         }
         return result;
     }
@@ -355,224 +419,176 @@ public class SchemaTypeLoaderImpl extends SchemaTypeLoaderBase {
     }
 
     public SchemaType.Ref findTypeRef(QName name) {
-        // The maps are synchronized, we use two accesses to the cache (one read and one write), but the code in-between
-        // is not synchronized. The assumption is that the underlying datastructures (the search path and the classloader)
-        // do not change, so two threads running the code in parallel will come up with the same result.
-        Object cached = _typeCache.get(name);
-        if (cached == CACHED_NOT_FOUND) {
-            return null;
-        }
-        SchemaType.Ref result = (SchemaType.Ref) cached;
-        if (result == null) {
+        return _typeCache.get(name, n -> {
+            SchemaType.Ref result = null;
             for (SchemaTypeLoader schemaTypeLoader : _searchPath) {
-                if (null != (result = schemaTypeLoader.findTypeRef(name))) {
+                if (null != (result = schemaTypeLoader.findTypeRef(n))) {
                     break;
                 }
             }
             if (result == null) {
-                SchemaTypeSystem ts = typeSystemForComponent(_metadataPath + "/type/", name);
+                SchemaTypeSystem ts = typeSystemForComponent(_metadataPath + "/type/", n);
                 if (ts != null) {
-                    result = ts.findTypeRef(name);
-                    assert (result != null) : "Type system registered type " + QNameHelper.pretty(name) + " but does not return it";
+                    result = ts.findTypeRef(n);
+                    assert (result != null) : "Type system registered type " + QNameHelper.pretty(n) + " but does not return it";
                 }
             }
-            _typeCache.put(name, result == null ? CACHED_NOT_FOUND : result);
-        }
-        return result;
+            return result;
+        });
     }
 
     public SchemaType typeForClassname(String classname) {
         classname = classname.replace('$', '.');
 
-        Object cached = _classnameCache.get(classname);
-        if (cached == CACHED_NOT_FOUND) {
-            return null;
-        }
-        SchemaType result = (SchemaType) cached;
-        if (result == null) {
+        return _classnameCache.get(classname, n -> {
+            SchemaType result = null;
             for (SchemaTypeLoader schemaTypeLoader : _searchPath) {
-                if (null != (result = schemaTypeLoader.typeForClassname(classname))) {
+                if (null != (result = schemaTypeLoader.typeForClassname(n))) {
                     break;
                 }
             }
             if (result == null) {
-                SchemaTypeSystem ts = typeSystemForClassname(_metadataPath + "/javaname/", classname);
+                SchemaTypeSystem ts = typeSystemForClassname(_metadataPath + "/javaname/", n);
                 if (ts != null) {
-                    result = ts.typeForClassname(classname);
-                    assert (result != null) : "Type system registered type " + classname + " but does not return it";
+                    result = ts.typeForClassname(n);
+                    assert (result != null) : "Type system registered type " + n + " but does not return it";
                 }
             }
-            _classnameCache.put(classname, result == null ? CACHED_NOT_FOUND : result);
-        }
-        return result;
+            return result;
+        });
     }
 
     public SchemaType.Ref findDocumentTypeRef(QName name) {
-        Object cached = _documentCache.get(name);
-        if (cached == CACHED_NOT_FOUND) {
-            return null;
-        }
-        SchemaType.Ref result = (SchemaType.Ref) cached;
-        if (result == null) {
+        return _documentCache.get(name, n -> {
+            SchemaType.Ref result = null;
             for (SchemaTypeLoader schemaTypeLoader : _searchPath) {
-                if (null != (result = schemaTypeLoader.findDocumentTypeRef(name))) {
+                if (null != (result = schemaTypeLoader.findDocumentTypeRef(n))) {
                     break;
                 }
             }
             if (result == null) {
-                SchemaTypeSystem ts = typeSystemForComponent(_metadataPath + "/element/", name);
+                SchemaTypeSystem ts = typeSystemForComponent(_metadataPath + "/element/", n);
                 if (ts != null) {
-                    result = ts.findDocumentTypeRef(name);
-                    assert (result != null) : "Type system registered element " + QNameHelper.pretty(name) + " but does not contain document type";
+                    result = ts.findDocumentTypeRef(n);
+                    assert (result != null) : "Type system registered element " + QNameHelper.pretty(n) + " but does not contain document type";
                 }
             }
-            _documentCache.put(name, result == null ? CACHED_NOT_FOUND : result);
-        }
-        return result;
+            return result;
+        });
     }
 
     public SchemaType.Ref findAttributeTypeRef(QName name) {
-        Object cached = _attributeTypeCache.get(name);
-        if (cached == CACHED_NOT_FOUND) {
-            return null;
-        }
-        SchemaType.Ref result = (SchemaType.Ref) cached;
-        if (result == null) {
+        return _attributeTypeCache.get(name, n -> {
+            SchemaType.Ref result = null;
             for (SchemaTypeLoader schemaTypeLoader : _searchPath) {
-                if (null != (result = schemaTypeLoader.findAttributeTypeRef(name))) {
+                if (null != (result = schemaTypeLoader.findAttributeTypeRef(n))) {
                     break;
                 }
             }
             if (result == null) {
-                SchemaTypeSystem ts = typeSystemForComponent(_metadataPath + "/attribute/", name);
+                SchemaTypeSystem ts = typeSystemForComponent(_metadataPath + "/attribute/", n);
                 if (ts != null) {
-                    result = ts.findAttributeTypeRef(name);
-                    assert (result != null) : "Type system registered attribute " + QNameHelper.pretty(name) + " but does not contain attribute type";
+                    result = ts.findAttributeTypeRef(n);
+                    assert (result != null) : "Type system registered attribute " + QNameHelper.pretty(n) + " but does not contain attribute type";
                 }
             }
-            _attributeTypeCache.put(name, result == null ? CACHED_NOT_FOUND : result);
-        }
-        return result;
+            return result;
+        });
     }
 
     public SchemaGlobalElement.Ref findElementRef(QName name) {
-        Object cached = _elementCache.get(name);
-        if (cached == CACHED_NOT_FOUND) {
-            return null;
-        }
-        SchemaGlobalElement.Ref result = (SchemaGlobalElement.Ref) cached;
-        if (result == null) {
+        return _elementCache.get(name, n -> {
+            SchemaGlobalElement.Ref result = null;
             for (SchemaTypeLoader schemaTypeLoader : _searchPath) {
-                if (null != (result = schemaTypeLoader.findElementRef(name))) {
+                if (null != (result = schemaTypeLoader.findElementRef(n))) {
                     break;
                 }
             }
             if (result == null) {
-                SchemaTypeSystem ts = typeSystemForComponent(_metadataPath + "/element/", name);
+                SchemaTypeSystem ts = typeSystemForComponent(_metadataPath + "/element/", n);
                 if (ts != null) {
-                    result = ts.findElementRef(name);
-                    assert (result != null) : "Type system registered element " + QNameHelper.pretty(name) + " but does not return it";
+                    result = ts.findElementRef(n);
+                    assert (result != null) : "Type system registered element " + QNameHelper.pretty(n) + " but does not return it";
                 }
             }
-            _elementCache.put(name, result == null ? CACHED_NOT_FOUND : result);
-        }
-        return result;
+            return result;
+        });
     }
 
     public SchemaGlobalAttribute.Ref findAttributeRef(QName name) {
-        Object cached = _attributeCache.get(name);
-        if (cached == CACHED_NOT_FOUND) {
-            return null;
-        }
-        SchemaGlobalAttribute.Ref result = (SchemaGlobalAttribute.Ref) cached;
-        if (result == null) {
+        return _attributeCache.get(name, n -> {
+            SchemaGlobalAttribute.Ref result = null;
             for (SchemaTypeLoader schemaTypeLoader : _searchPath) {
-                if (null != (result = schemaTypeLoader.findAttributeRef(name))) {
+                if (null != (result = schemaTypeLoader.findAttributeRef(n))) {
                     break;
                 }
             }
             if (result == null) {
-                SchemaTypeSystem ts = typeSystemForComponent(_metadataPath + "/attribute/", name);
+                SchemaTypeSystem ts = typeSystemForComponent(_metadataPath + "/attribute/", n);
                 if (ts != null) {
-                    result = ts.findAttributeRef(name);
-                    assert (result != null) : "Type system registered attribute " + QNameHelper.pretty(name) + " but does not return it";
+                    result = ts.findAttributeRef(n);
+                    assert (result != null) : "Type system registered attribute " + QNameHelper.pretty(n) + " but does not return it";
                 }
             }
-            _attributeCache.put(name, result == null ? CACHED_NOT_FOUND : result);
-        }
-        return result;
+            return result;
+        });
     }
 
     public SchemaModelGroup.Ref findModelGroupRef(QName name) {
-        Object cached = _modelGroupCache.get(name);
-        if (cached == CACHED_NOT_FOUND) {
-            return null;
-        }
-        SchemaModelGroup.Ref result = (SchemaModelGroup.Ref) cached;
-        if (result == null) {
+        return _modelGroupCache.get(name, n -> {
+            SchemaModelGroup.Ref result = null;
             for (SchemaTypeLoader schemaTypeLoader : _searchPath) {
-                if (null != (result = schemaTypeLoader.findModelGroupRef(name))) {
+                if (null != (result = schemaTypeLoader.findModelGroupRef(n))) {
                     break;
                 }
             }
             if (result == null) {
-                SchemaTypeSystem ts = typeSystemForComponent(_metadataPath + "/modelgroup/", name);
+                SchemaTypeSystem ts = typeSystemForComponent(_metadataPath + "/modelgroup/", n);
                 if (ts != null) {
-                    result = ts.findModelGroupRef(name);
-                    assert (result != null) : "Type system registered model group " + QNameHelper.pretty(name) + " but does not return it";
+                    result = ts.findModelGroupRef(n);
+                    assert (result != null) : "Type system registered model group " + QNameHelper.pretty(n) + " but does not return it";
                 }
             }
-            _modelGroupCache.put(name, result == null ? CACHED_NOT_FOUND : result);
-        }
-        return result;
+            return result;
+        });
     }
 
     public SchemaAttributeGroup.Ref findAttributeGroupRef(QName name) {
-        Object cached = _attributeGroupCache.get(name);
-        if (cached == CACHED_NOT_FOUND) {
-            return null;
-        }
-        SchemaAttributeGroup.Ref result = (SchemaAttributeGroup.Ref) cached;
-        if (result == null) {
+        return _attributeGroupCache.get(name, n -> {
+            SchemaAttributeGroup.Ref result = null;
             for (SchemaTypeLoader schemaTypeLoader : _searchPath) {
-                if (null != (result = schemaTypeLoader.findAttributeGroupRef(name))) {
+                if (null != (result = schemaTypeLoader.findAttributeGroupRef(n))) {
                     break;
                 }
             }
             if (result == null) {
-                SchemaTypeSystem ts = typeSystemForComponent(_metadataPath + "/attributegroup/", name);
+                SchemaTypeSystem ts = typeSystemForComponent(_metadataPath + "/attributegroup/", n);
                 if (ts != null) {
-                    result = ts.findAttributeGroupRef(name);
-                    assert (result != null) : "Type system registered attribute group " + QNameHelper.pretty(name) + " but does not return it";
+                    result = ts.findAttributeGroupRef(n);
+                    assert (result != null) : "Type system registered attribute group " + QNameHelper.pretty(n) + " but does not return it";
                 }
             }
-            _attributeGroupCache.put(name, result == null ? CACHED_NOT_FOUND : result);
-        }
-        return result;
+            return result;
+        });
     }
 
     public SchemaIdentityConstraint.Ref findIdentityConstraintRef(QName name) {
-        Object cached = _idConstraintCache.get(name);
-        if (cached == CACHED_NOT_FOUND) {
-            return null;
-        }
-        SchemaIdentityConstraint.Ref result = (SchemaIdentityConstraint.Ref) cached;
-        if (result == null) {
+        return _idConstraintCache.get(name, n -> {
+            SchemaIdentityConstraint.Ref result = null;
             for (SchemaTypeLoader schemaTypeLoader : _searchPath) {
-                if (null != (result = schemaTypeLoader.findIdentityConstraintRef(name))) {
+                if (null != (result = schemaTypeLoader.findIdentityConstraintRef(n))) {
                     break;
                 }
             }
             if (result == null) {
-                SchemaTypeSystem ts = typeSystemForComponent(_metadataPath + "/identityconstraint/", name);
+                SchemaTypeSystem ts = typeSystemForComponent(_metadataPath + "/identityconstraint/", n);
                 if (ts != null) {
-                    result = ts.findIdentityConstraintRef(name);
-                    assert (result != null) : "Type system registered identity constraint " + QNameHelper.pretty(name) + " but does not return it";
+                    result = ts.findIdentityConstraintRef(n);
+                    assert (result != null) : "Type system registered identity constraint " + QNameHelper.pretty(n) + " but does not return it";
                 }
             }
-            _idConstraintCache.put(name, result == null ? CACHED_NOT_FOUND : result);
-        }
-        return result;
+            return result;
+        });
     }
 
     public InputStream getSourceAsStream(String sourceName) {
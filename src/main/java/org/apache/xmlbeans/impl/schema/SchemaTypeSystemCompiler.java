@@ -26,7 +26,15 @@ import java.io.File;
 import java.io.IOException;
 import java.io.Writer;
 import java.net.URI;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 public class SchemaTypeSystemCompiler {
     public static class Parameters {
@@ -182,7 +190,7 @@ public class SchemaTypeSystemCompiler {
         }
 
         if (stsi != null && !stsi.isIncomplete() && filer != null) {
-            stsi.save(filer);
+            stsi.save(filer, options.isCompilePackedArchive());
             generateTypes(stsi, filer, options);
         }
 
@@ -357,6 +365,7 @@ public class SchemaTypeSystemCompiler {
      * @param system  the SchemaTypeSystem to generated java source for
      * @param filer   to create the java source files
      * @param options See {@link XmlOptions#setSchemaCodePrinter(org.apache.xmlbeans.SchemaCodePrinter)}
+     *                and {@link XmlOptions#setCompileCodeGenThreads(int)}
      * @return true if saving the generated source succeeded.
      */
     public static boolean generateTypes(SchemaTypeSystem system, Filer filer, XmlOptions options) {
@@ -373,21 +382,27 @@ public class SchemaTypeSystemCompiler {
         types.addAll(Arrays.asList(system.attributeTypes()));
 
 
-        SchemaCodePrinter printer = (options == null) ? null : options.getSchemaCodePrinter();
-        if (printer == null) {
-            printer = new SchemaTypeCodePrinter();
-        }
+        SchemaCodePrinter customPrinter = (options == null) ? null : options.getSchemaCodePrinter();
+        SchemaCodePrinter printer = (customPrinter == null) ? new SchemaTypeCodePrinter() : customPrinter;
 
         String indexClassName = SchemaTypeCodePrinter.indexClassForSystem(system);
 
+        FilerImpl filerImpl = (filer instanceof FilerImpl) ? (FilerImpl) filer : null;
+
         try (Writer out = filer.createSourceFile(indexClassName)) {
-            Repackager repackager = (filer instanceof FilerImpl) ? ((FilerImpl) filer).getRepackager() : null;
+            Repackager repackager = (filerImpl != null) ? filerImpl.getRepackager() : null;
             printer.printHolder(out, system, options, repackager);
         } catch (IOException e) {
             System.err.println("IO Error " + e);
             success = false;
         }
 
+        // skip the types, which haven't changed since the sources have been generated the last time
+        CodeGenFingerprints fingerprints = (filerImpl != null && filerImpl.isFingerprinting())
+            ? new CodeGenFingerprints(system, printer, options) : null;
+
+        List<SchemaType> changedTypes = new ArrayList<>();
+        List<String> changedFingerprints = new ArrayList<>();
         for (SchemaType type : types) {
             if (type.isBuiltinType()) {
                 continue;
@@ -396,27 +411,187 @@ public class SchemaTypeSystemCompiler {
                 continue;
             }
 
-            String fjn = type.getFullJavaName();
+            String fingerprint = (fingerprints == null) ? null : fingerprints.fingerprint(type);
+            if (fingerprint != null &&
+                filerImpl.isSourceUpToDate(fingerprint, type.getFullJavaName(), type.getFullJavaImplName())) {
+                continue;
+            }
+
+            changedTypes.add(type);
+            changedFingerprints.add(fingerprint);
+        }
+
+        int threads = (options == null) ? 1 : options.getCompileCodeGenThreads();
+        if (threads > 1 && customPrinter == null && changedTypes.size() > 1) {
+            success &= printTypesConcurrently(changedTypes, changedFingerprints, filer, options, threads);
+        } else {
+            for (int i = 0; i < changedTypes.size(); i++) {
+                SchemaType type = changedTypes.get(i);
+                boolean written = true;
+
+                try (Writer writer = filer.createSourceFile(type.getFullJavaName())) {
+                    // Generate interface class
+                    printer.printType(writer, type, options);
+                } catch (IOException e) {
+                    System.err.println("IO Error " + e);
+                    written = false;
+                }
+
+                try (Writer writer = filer.createSourceFile(type.getFullJavaImplName())) {
+                    // Generate Implementation class
+                    printer.printTypeImpl(writer, type, options);
+                } catch (IOException e) {
+                    System.err.println("IO Error " + e);
+                    written = false;
+                }
+
+                if (written && filerImpl != null) {
+                    filerImpl.putFingerprint(type.getFullJavaName(), changedFingerprints.get(i));
+                }
+                success &= written;
+            }
+        }
 
-            try (Writer writer = filer.createSourceFile(fjn)) {
-                // Generate interface class
-                printer.printType(writer, type, options);
+        if (filerImpl != null) {
+            try {
+                filerImpl.saveFingerprints();
             } catch (IOException e) {
                 System.err.println("IO Error " + e);
                 success = false;
             }
+        }
 
-            fjn = type.getFullJavaImplName();
+        return success;
+    }
 
-            try (Writer writer = filer.createSourceFile(fjn)) {
-                // Generate Implementation class
-                printer.printTypeImpl(writer, type, options);
-            } catch (IOException e) {
-                System.err.println("IO Error " + e);
-                success = false;
+    /**
+     * Prints the interface and implementation sources of the types with a pool of threads.
+     * The printing is done in parallel, but the sources are written by the calling thread
+     * in the order of the types, so the filer sees the same sequence of files as when the
+     * sources are generated by a single thread.
+     */
+    private static boolean printTypesConcurrently(List<SchemaType> types, List<String> fingerprints,
+                                                  Filer filer, XmlOptions options, int threads) {
+        boolean success = true;
+        FilerImpl filerImpl = (filer instanceof FilerImpl) ? (FilerImpl) filer : null;
+        // the files are encoded while writing, unless they are repackaged
+        boolean checkEncoding = filerImpl != null && filerImpl.getRepackager() == null;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            // only a limited number of printed sources are kept in memory
+            Deque<Future<String[]>> pending = new ArrayDeque<>();
+            int submitted = 0;
+
+            for (int i = 0; i < types.size(); i++) {
+                while (submitted < types.size() && pending.size() < 2 * threads) {
+                    SchemaType type = types.get(submitted++);
+                    pending.add(executor.submit(() -> {
+                        // the printer keeps state while printing, hence one instance per task
+                        SchemaTypeCodePrinter printer = new SchemaTypeCodePrinter();
+                        SourceWriter intf = new SourceWriter(checkEncoding);
+                        printer.printType(intf, type, options);
+                        SourceWriter impl = new SourceWriter(checkEncoding);
+                        printer.printTypeImpl(impl, type, options);
+                        return new String[]{intf.toString(), impl.toString()};
+                    }));
+                }
+
+                SchemaType type = types.get(i);
+                String[] sources;
+                try {
+                    sources = pending.remove().get();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause();
+                    if (cause instanceof IOException) {
+                        System.err.println("IO Error " + cause);
+                        success = false;
+                        continue;
+                    }
+                    if (cause instanceof Error) {
+                        throw (Error) cause;
+                    }
+                    if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    }
+                    throw new IllegalStateException(cause);
+                }
+
+                boolean written = true;
+
+                try (Writer writer = filer.createSourceFile(type.getFullJavaName())) {
+                    writer.write(sources[0]);
+                } catch (IOException e) {
+                    System.err.println("IO Error " + e);
+                    written = false;
+                }
+
+                try (Writer writer = filer.createSourceFile(type.getFullJavaImplName())) {
+                    writer.write(sources[1]);
+                } catch (IOException e) {
+                    System.err.println("IO Error " + e);
+                    written = false;
+                }
+
+                if (written && filerImpl != null) {
+                    filerImpl.putFingerprint(type.getFullJavaName(), fingerprints.get(i));
+                }
+                success &= written;
             }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            success = false;
+        } finally {
+            executor.shutdownNow();
         }
 
         return success;
     }
+
+    /**
+     * Collects a printed source. The characters, which can't be encoded in the source files,
+     * are reported, so the printer escapes them the same way as when it's writing to the files.
+     */
+    private static final class SourceWriter extends Writer {
+        private final StringBuilder _buffer = new StringBuilder();
+        private final CharsetEncoder _encoder;
+
+        SourceWriter(boolean checkEncoding) {
+            Charset charset = null;
+            if (checkEncoding) {
+                try {
+                    charset = Charset.forName(System.getProperty("file.encoding"));
+                } catch (Exception e) {
+                    charset = StandardCharsets.ISO_8859_1;
+                }
+            }
+            _encoder = (charset == null) ? null : charset.newEncoder();
+        }
+
+        @Override
+        public void write(String str) throws IOException {
+            if (_encoder != null && !_encoder.canEncode(str)) {
+                throw new CharacterCodingException();
+            }
+            _buffer.append(str);
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) throws IOException {
+            write(new String(cbuf, off, len));
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+
+        @Override
+        public String toString() {
+            return _buffer.toString();
+        }
+    }
 }
@@ -27,6 +27,7 @@ import javax.xml.namespace.QName;
 import java.io.*;
 import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
 import java.util.function.IntFunction;
@@ -138,6 +139,10 @@ public class SchemaTypeSystemImpl extends SchemaTypeLoaderBase implements Schema
     private SchemaTypePool _localHandles;
     private Filer _filer;
 
+    // the components of type systems, which have been saved as a single archive
+    private PackedArchive _packedArchive;
+    private PackedArchive.Writer _packedWriter;
+
     // top-level annotations
     private List<SchemaAnnotation> _annotations;
 
@@ -231,6 +236,9 @@ public class SchemaTypeSystemImpl extends SchemaTypeLoaderBase implements Schema
         XBeanDebug.LOG.atTrace().log("Reading unresolved handles for type system {}", _name);
         XsbReader reader = null;
         try {
+            // Prefer the single archive of the type system over the .xsb resource per component
+            _packedArchive = PackedArchive.open(_name, _classloader, _resourceLoader, getBasePackage() + PackedArchive.RESOURCE_NAME);
+
             // Read the index file, which starts with a header.
             reader = new XsbReader(getTypeSystem(), "index", FILETYPE_SCHEMAINDEX);
 
@@ -718,6 +726,17 @@ public class SchemaTypeSystemImpl extends SchemaTypeLoaderBase implements Schema
     }
 
     public void save(Filer filer) {
+        save(filer, false);
+    }
+
+    /**
+     * Saves the type system.
+     *
+     * @param filer  the filer to create the binary files with
+     * @param packed if true, the index and the components are saved in a single archive with a
+     *               shared string pool, instead of a .xsb file per component
+     */
+    public void save(Filer filer, boolean packed) {
         if (_incomplete) {
             throw new IllegalStateException("Incomplete SchemaTypeSystems cannot be saved.");
         }
@@ -726,6 +745,7 @@ public class SchemaTypeSystemImpl extends SchemaTypeLoaderBase implements Schema
             throw new IllegalArgumentException("filer must not be null");
         }
         _filer = filer;
+        _packedWriter = packed ? new PackedArchive.Writer(_name) : null;
 
         _localHandles.startWriteMode();
         saveTypesRecursively(globalTypes());
@@ -742,9 +762,23 @@ public class SchemaTypeSystemImpl extends SchemaTypeLoaderBase implements Schema
         saveAttributeGroups(redefinedAttributeGroups());
 
         saveIndex();
+        if (_packedWriter != null) {
+            savePackedArchive();
+        }
         savePointers();
     }
 
+    private void savePackedArchive() {
+        String resourcename = getBasePackage() + PackedArchive.RESOURCE_NAME;
+        try (OutputStream os = getSaverStream(resourcename, PackedArchive.RESOURCE_NAME)) {
+            _packedWriter.writeTo(os);
+        } catch (IOException e) {
+            throw new SchemaTypeLoaderException(e.getMessage(), getName(), PackedArchive.RESOURCE_NAME, SchemaTypeLoaderException.IO_EXCEPTION, e);
+        } finally {
+            _packedWriter = null;
+        }
+    }
+
     void saveTypesRecursively(SchemaType[] types) {
         for (SchemaType type : types) {
             if (type.getTypeSystem() != getTypeSystem()) {
@@ -913,9 +947,7 @@ public class SchemaTypeSystemImpl extends SchemaTypeLoaderBase implements Schema
     static final byte[] SINGLE_ZERO_BYTE = {0};
 
     public SchemaType typeForHandle(String handle) {
-        synchronized (_resolvedHandles) {
-            return (SchemaType) _resolvedHandles.get(handle);
-        }
+        return (SchemaType) _resolvedHandles.get(handle);
     }
 
     public SchemaType typeForClassname(String classname) {
@@ -924,11 +956,7 @@ public class SchemaTypeSystemImpl extends SchemaTypeLoaderBase implements Schema
     }
 
     public SchemaComponent resolveHandle(String handle) {
-        SchemaComponent result;
-
-        synchronized (_resolvedHandles) {
-            result = _resolvedHandles.get(handle);
-        }
+        SchemaComponent result = _resolvedHandles.get(handle);
         if (result == null) {
             XsbReader reader = new XsbReader(getTypeSystem(), handle, 0xFFFF);
             int filetype = reader.getActualFiletype();
@@ -961,18 +989,16 @@ public class SchemaTypeSystemImpl extends SchemaTypeLoaderBase implements Schema
                     throw new IllegalStateException("Illegal handle type");
             }
 
-            synchronized (_resolvedHandles) {
-                if (!_resolvedHandles.containsKey(handle)) {
-                    _resolvedHandles.put(handle, result);
-                } else {
-                    result = _resolvedHandles.get(handle);
-                }
+            // not resolved within the map, as the components may resolve other handles while loading
+            SchemaComponent previous = _resolvedHandles.putIfAbsent(handle, result);
+            if (previous != null) {
+                result = previous;
             }
         }
         return result;
     }
 
-    private final Map<String, SchemaComponent> _resolvedHandles = new HashMap<>();
+    private final Map<String, SchemaComponent> _resolvedHandles = new ConcurrentHashMap<>();
     private boolean _allNonGroupHandlesResolved = false;
 
     public void resolve() {
@@ -1162,6 +1188,14 @@ public class SchemaTypeSystemImpl extends SchemaTypeLoaderBase implements Schema
         }
     }
 
+    PackedArchive getPackedArchive() {
+        return _packedArchive;
+    }
+
+    PackedArchive.Writer getPackedWriter() {
+        return _packedWriter;
+    }
+
     InputStream getLoaderStream(String resourcename) {
         return _resourceLoader.getResourceAsStream(resourcename);
     }
@@ -45,6 +45,12 @@ public class SchemaTypeVisitorImpl implements TypeStoreVisitor
 
     public void init(SchemaParticle part)
     {
+        _automaton = (part instanceof SchemaParticleImpl) ?
+            ((SchemaParticleImpl)part).getContentModelAutomaton() : null;
+        _automatonState = 0;
+        if (_automaton != null)
+            return;
+
         if (_stack == null)
         {
             _stack = expand(null);
@@ -89,6 +95,9 @@ public class SchemaTypeVisitorImpl implements TypeStoreVisitor
     private SchemaParticle _matchedParticle;
     private VisitorState _top;
     private int _rollbackIndex;
+    // the compiled content model, which replaces the stack if available
+    private ContentModelAutomaton _automaton;
+    private int _automatonState;
 
     private static class VisitorState
     {
@@ -318,6 +327,9 @@ public class SchemaTypeVisitorImpl implements TypeStoreVisitor
 
     public boolean visit(QName eltName, boolean testValidity)
     {
+        if (_automaton != null)
+            return visitAutomaton(eltName, testValidity);
+
         if (!prepare())
             return notValid();
 
@@ -455,6 +467,34 @@ public class SchemaTypeVisitorImpl implements TypeStoreVisitor
         return notValid();
     }
 
+    /**
+     * The same as visit, but with a single lookup in the compiled
+     * content model instead of traversing the particles.
+     */
+    private boolean visitAutomaton(QName eltName, boolean testValidity)
+    {
+        if (eltName == null)
+        {
+            if (!_automaton.isFinal(_automatonState))
+                return notValid();
+
+            if (!testValidity)
+                _matchedParticle = null;
+            return true;
+        }
+
+        ContentModelAutomaton.Transition transition = _automaton.transition(_automatonState, eltName);
+        if (transition == null)
+            return notValid();
+
+        if (!testValidity)
+        {
+            _automatonState = transition.target;
+            _matchedParticle = transition.particle;
+        }
+        return true;
+    }
+
     public boolean testValid(QName eltName)
     {
       return visit(eltName,PROBE_VALIDITY);
@@ -57,6 +57,28 @@ class XsbReader {
 
     public XsbReader(SchemaTypeSystemImpl typeSystem, String handle, int filetype) {
         this.typeSystem = typeSystem;
+
+        PackedArchive archive = typeSystem.getPackedArchive();
+        if (archive != null) {
+            _handle = handle;
+            _actualfiletype = archive.getFiletype(handle);
+            InputStream rawinput = archive.openEntry(handle);
+            if (rawinput == null) {
+                throw new SchemaTypeLoaderException("XML-BEANS compiled schema: Could not locate compiled schema component " + handle + " in " + PackedArchive.RESOURCE_NAME, typeSystem.getName(), handle, SchemaTypeLoaderException.NO_RESOURCE);
+            }
+            if (_actualfiletype != filetype && filetype != 0xFFFF) {
+                throw new SchemaTypeLoaderException("XML-BEANS compiled schema: File has the wrong type - expecting type " + filetype + ", got type " + _actualfiletype, typeSystem.getName(), handle, SchemaTypeLoaderException.WRONG_FILE_TYPE);
+            }
+
+            // the header and the string pool are shared by all components of the archive
+            _input = new LongUTFDataInputStream(rawinput);
+            _majorver = archive.getMajorVersion();
+            _minorver = archive.getMinorVersion();
+            _releaseno = archive.getReleaseNumber();
+            _stringPool = archive.getStringPool();
+            return;
+        }
+
         String resourcename = typeSystem.getBasePackage()  + handle + ".xsb";
         InputStream rawinput = typeSystem.getLoaderStream(resourcename);
         if (rawinput == null) {
@@ -142,6 +164,16 @@ class XsbReader {
     }
 
     void writeRealHeader(String handle, int filetype) {
+        PackedArchive.Writer archive = typeSystem.getPackedWriter();
+        if (archive != null && handle.indexOf('/') < 0) {
+            // the archive has a single header and string pool - the strings of this component
+            // have only been collected to be written with their codes of the shared pool
+            _output = new LongUTFDataOutputStream(archive.newEntry(handle, filetype));
+            _handle = handle;
+            _stringPool = archive.getStringPool();
+            return;
+        }
+
         // hackeroo: if handle contains a "/" it's not relative.
         String resourcename;
 
@@ -1650,8 +1650,12 @@ public final class Cur {
             return;
         }
 
+        _xobj.checkNotFrozen();
+
         _locale.notifyChange();
 
+        ValidSubtrees.changed(getParentNoRoot());
+
         // The only situation where I need to ensure occupancy is when I'm at the end of a node.
         // All other positions will require occupancy.  For example, if I'm at the beginning of a
         // node, then I will either insert in the after text of the previous sibling, or I will
@@ -1706,6 +1710,10 @@ public final class Cur {
             return null;
         }
 
+        checkNotFrozen(_xobj, to);
+
+        ValidSubtrees.changed(getParentNoRoot());
+
         // Here I record the triple of the chars to move.  I will return this.  No need to save
         // cch 'cause cchMove will be that value.
 
@@ -1818,6 +1826,14 @@ public final class Cur {
         moveNode(x, to);
     }
 
+    private static void checkNotFrozen(Xobj x, Cur to) {
+        x.checkNotFrozen();
+
+        if (to != null) {
+            to._xobj.checkNotFrozen();
+        }
+    }
+
     // Moves text from one place to another in a low-level way, used as a helper for the higher
     // level functions.  Takes care of moving bookmarks and cursors.  In the high level content
     // manipulation functions, cursors do not follow content, but this helper moves them.  The
@@ -1852,6 +1868,8 @@ public final class Cur {
         assert to == null || !x.contains(to);
         assert to == null || !to.isRoot();
 
+        checkNotFrozen(x, to);
+
         if (to != null) {
             // Before I go much further, I want to make sure that if "to" is in the container of
             // a vacant node, I get it occupied.  I do not need to worry about the source being
@@ -1878,6 +1896,13 @@ public final class Cur {
 
         x._locale.notifyChange();
 
+        if (to == null) {
+            ValidSubtrees.changed(x);
+        } else {
+            ValidSubtrees.moved(x);
+            ValidSubtrees.changed(to.getParentNoRoot());
+        }
+
         x._locale._versionAll++;
         x._locale._versionSansText++;
 
@@ -1991,6 +2016,15 @@ public final class Cur {
 
         assert to == null || !to.isRoot();
 
+        checkNotFrozen(x, to);
+
+        if (to == null) {
+            ValidSubtrees.changed(x);
+        } else {
+            ValidSubtrees.moved(x);
+            ValidSubtrees.changed(to.getParentNoRoot());
+        }
+
         // Collect a bit of information about the contents to move first.  Note that the collection
         // of this info must not cause a vacant value to become occupied.
 
@@ -2438,6 +2472,8 @@ public final class Cur {
             return;
         }
 
+        _xobj.checkNotFrozen();
+
         if (isRoot()) {
             _xobj.setStableType(type);
             return;
@@ -2505,6 +2541,8 @@ public final class Cur {
             return;
         }
 
+        _xobj.checkNotFrozen();
+
         if (isRoot()) {
             // If this is the root node, we can't set its name, so the whole
             // operation is aborted
@@ -2754,6 +2792,10 @@ public final class Cur {
             _substituteNamespaces = options.getLoadSubstituteNamespaces();
             _additionalNamespaces = options.getLoadAdditionalNamespaces();
 
+            // these options change the tree after the load, so it's validated afterwards
+            _validate = options.isLoadValidate() && !_discardDocElem && !_stripWhitespace &&
+                        _additionalNamespaces == null ? new LoadValidate(_locale, options) : null;
+
             _locale._versionAll++;
             _locale._versionSansText++;
         }
@@ -2874,11 +2916,19 @@ public final class Cur {
         protected void startElement(QName name) {
             start(createElementXobj(_locale, checkName(name, false), parent()._name));
             _stripLeft = true;
+
+            if (_validate != null) {
+                _validate.startElement(_frontier);
+            }
         }
 
         protected void endElement() {
             assert parent().isElem();
 
+            if (_validate != null) {
+                _validate.endElement(parent());
+            }
+
             end();
             _stripLeft = true;
         }
@@ -2994,6 +3044,10 @@ public final class Cur {
                 }
             }
 
+            if (_validate != null) {
+                _validate.text(src, off, cch);
+            }
+
             text(src, off, cch);
         }
 
@@ -3043,12 +3097,17 @@ public final class Cur {
         }
 
         protected void abort() {
+            if (_validate != null) {
+                _validate.abort();
+            }
+
             _stripLeft = true;
             while (!parent().isRoot()) {
                 end();
             }
 
             finish().release();
+            _locale._loadValidate = null;
         }
 
         public Cur finish() {
@@ -3060,6 +3119,12 @@ public final class Cur {
 
             assert _frontier != null && _frontier._parent == null && _frontier.isRoot();
 
+            // the result of the validation is checked, when the document is typed
+            if (_validate != null) {
+                _validate.finish(_frontier);
+            }
+            _locale._loadValidate = _validate;
+
             Cur c = _frontier.tempCur();
 
             if (!Locale.toFirstChildElement(c)) {
@@ -3198,6 +3263,8 @@ public final class Cur {
         private String _doctypeName;
         private String _doctypePublicId;
         private String _doctypeSystemId;
+
+        private final LoadValidate _validate;
     }
 
     static String kindName(int kind) {
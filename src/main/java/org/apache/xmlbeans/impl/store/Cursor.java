@@ -33,8 +33,11 @@ import org.xml.sax.ext.LexicalHandler;
 import javax.xml.namespace.QName;
 import javax.xml.stream.XMLStreamReader;
 import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
 import java.util.Collection;
 import java.util.Map;
+import java.util.function.IntSupplier;
 import java.util.function.Supplier;
 
 public final class Cursor implements XmlCursor, ChangeListener {
@@ -563,6 +566,11 @@ public final class Cursor implements XmlCursor, ChangeListener {
             throw new IllegalArgumentException("Null OutputStream specified");
         }
 
+        if (Saver.Utf8Saver.isUtf8(Saver.InputStreamSaver.getEncoding(_cur, options))) {
+            new Saver.Utf8Saver(_cur, options).save(os);
+            return;
+        }
+
         try (InputStream is = _newInputStream(options)) {
             byte[] bytes = new byte[8192];
 
@@ -578,6 +586,18 @@ public final class Cursor implements XmlCursor, ChangeListener {
         }
     }
 
+    public void _save(WritableByteChannel channel, XmlOptions options) throws IOException {
+        if (channel == null) {
+            throw new IllegalArgumentException("Null WritableByteChannel specified");
+        }
+
+        if (Saver.Utf8Saver.isUtf8(Saver.InputStreamSaver.getEncoding(_cur, options))) {
+            new Saver.Utf8Saver(_cur, options).save(channel);
+        } else {
+            _save(Channels.newOutputStream(channel), options);
+        }
+    }
+
     public void _save(Writer w, XmlOptions options) throws IOException {
         if (w == null) {
             throw new IllegalArgumentException("Null Writer specified");
@@ -1732,40 +1752,54 @@ public final class Cursor implements XmlCursor, ChangeListener {
             return syncWrapNoEnter(() -> twoLocaleOp(other, op, arg));
         }
 
-        if (locale.noSync()) {
-            if (otherLocale.noSync()) {
+        // lock guarded locales are locked in twoLocaleOp via Locale.enter(Locale)
+        if (locale.noSync() || locale.usesLock()) {
+            if (otherLocale.noSync() || otherLocale.usesLock()) {
                 return twoLocaleOp(other, op, arg);
+            } else if (locale.usesLock()) {
+                return lockedAndSynchronized(locale, otherLocale, () -> twoLocaleOp(other, op, arg));
             } else {
                 synchronized (otherLocale) {
                     return twoLocaleOp(other, op, arg);
                 }
             }
+        } else if (otherLocale.usesLock()) {
+            return lockedAndSynchronized(otherLocale, locale, () -> twoLocaleOp(other, op, arg));
         } else if (otherLocale.noSync()) {
             synchronized (locale) {
                 return twoLocaleOp(other, op, arg);
             }
         }
 
-        boolean acquired = false;
+        try {
+            return GlobalLock.synchronizedOnBoth(locale, otherLocale, () -> twoLocaleOp(other, op, arg));
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+    }
 
+    /**
+     * A lock guarded and a monitor guarded locale are acquired while holding the global mutex, the lock
+     * before the monitor - the same way XmlObjectBase acquires the stores of such a pair.
+     */
+    private static int lockedAndSynchronized(Locale lockedLocale, Locale syncedLocale, IntSupplier op) {
         try {
             GlobalLock.acquire();
-            acquired = true;
-
-            synchronized (locale) {
-                synchronized (otherLocale) {
-                    GlobalLock.release();
-                    acquired = false;
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
 
-                    return twoLocaleOp(other, op, arg);
+        try {
+            lockedLocale.lock();
+            try {
+                synchronized (syncedLocale) {
+                    return op.getAsInt();
                 }
+            } finally {
+                lockedLocale.unlock();
             }
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e.getMessage(), e);
         } finally {
-            if (acquired) {
-                GlobalLock.release();
-            }
+            GlobalLock.release();
         }
     }
 
@@ -1881,7 +1915,7 @@ public final class Cursor implements XmlCursor, ChangeListener {
 
     public static XmlCursor newCursor(Xobj x, int p) {
         Locale l = x._locale;
-        if (l.noSync()) {
+        if (l.noSync() || l.usesLock()) {
             l.enter();
             try {
                 return new Cursor(x, p);
@@ -1906,7 +1940,7 @@ public final class Cursor implements XmlCursor, ChangeListener {
 
     private boolean preCheck() {
         checkThisCursor();
-        return _cur._locale.noSync();
+        return _cur._locale.noSync() || _cur._locale.usesLock();
     }
 
     @Override
@@ -2006,6 +2040,10 @@ public final class Cursor implements XmlCursor, ChangeListener {
         syncWrapIOEx(() -> _save(os, options));
     }
 
+    public void save(WritableByteChannel channel, XmlOptions options) throws IOException {
+        syncWrapIOEx(() -> _save(channel, options));
+    }
+
     public void save(Writer w, XmlOptions options) throws IOException {
         syncWrapIOEx(() -> _save(w, options));
     }
@@ -2508,28 +2546,39 @@ public final class Cursor implements XmlCursor, ChangeListener {
 
     private void syncWrapHelper(Runnable inner, final boolean enterLocale) {
         final Locale l = _cur._locale;
+        // without entering the locale, a lock guarded locale needs to be locked explicitly
+        final boolean lock = !enterLocale && l.usesLock();
         if (enterLocale) {
             l.enter();
+        } else if (lock) {
+            l.lock();
         }
         try {
             inner.run();
         } finally {
             if (enterLocale) {
                 l.exit();
+            } else if (lock) {
+                l.unlock();
             }
         }
     }
 
     private <T> T syncWrapHelper(Supplier<T> inner, final boolean enterLocale) {
         final Locale l = _cur._locale;
+        final boolean lock = !enterLocale && l.usesLock();
         if (enterLocale) {
             l.enter();
+        } else if (lock) {
+            l.lock();
         }
         try {
             return inner.get();
         } finally {
             if (enterLocale) {
                 l.exit();
+            } else if (lock) {
+                l.unlock();
             }
         }
     }
@@ -3746,8 +3746,8 @@ public final class DomImpl {
         return syncWrapHelperEx(d.locale(), true, inner);
     }
 
-    private static <T> T syncWrapHelper(Locale l, boolean enter, Supplier<T> inner) {
-        if (l.noSync()) {
+    static <T> T syncWrapHelper(Locale l, boolean enter, Supplier<T> inner) {
+        if (l.noSync() || l.usesLock()) {
             return syncWrapHelper2(l, enter, inner);
         } else {
             synchronized (l) {
@@ -3757,20 +3757,26 @@ public final class DomImpl {
     }
 
     private static <T> T syncWrapHelper2(Locale l, boolean enter, Supplier<T> inner) {
+        // without entering the locale, a lock guarded locale needs to be locked explicitly
+        final boolean lock = !enter && l.usesLock();
         if (enter) {
             l.enter();
+        } else if (lock) {
+            l.lock();
         }
         try {
             return inner.get();
         } finally {
             if (enter) {
                 l.exit();
+            } else if (lock) {
+                l.unlock();
             }
         }
     }
 
     private static <T> T syncWrapHelperEx(Locale l, boolean enter, WrapSoapEx<T> inner) throws SOAPException {
-        if (l.noSync()) {
+        if (l.noSync() || l.usesLock()) {
             return syncWrapHelperEx2(l, enter, inner);
         } else {
             synchronized (l) {
@@ -3780,14 +3786,19 @@ public final class DomImpl {
     }
 
     private static <T> T syncWrapHelperEx2(Locale l, boolean enter, WrapSoapEx<T> inner) throws SOAPException {
+        final boolean lock = !enter && l.usesLock();
         if (enter) {
             l.enter();
+        } else if (lock) {
+            l.lock();
         }
         try {
             return inner.get();
         } finally {
             if (enter) {
                 l.exit();
+            } else if (lock) {
+                l.unlock();
             }
         }
     }
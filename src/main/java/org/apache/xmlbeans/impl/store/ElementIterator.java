@@ -0,0 +1,190 @@
+/*   Copyright 2004 The Apache Software Foundation
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.xmlbeans.impl.store;
+
+import org.apache.xmlbeans.SchemaType;
+import org.apache.xmlbeans.SchemaTypeLoader;
+import org.apache.xmlbeans.XmlException;
+import org.apache.xmlbeans.XmlObject;
+import org.apache.xmlbeans.XmlOptions;
+import org.apache.xmlbeans.XmlRuntimeException;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * Iterates over the elements with a given name of a StAX stream and loads each of them
+ * into a document of its own, so only the current element needs to be held in memory.
+ * <p>
+ * Matching elements nested in another matching element are part of the outer element
+ * and aren't returned separately.
+ * If the requested type isn't a document type, the element is replaced by a fragment,
+ * i.e. its attributes and content are typed with the requested type.
+ */
+public final class ElementIterator implements Iterator<XmlObject>, Closeable {
+    private final XMLStreamReader _xsr;
+    private final QName _name;
+    private final SchemaType _type;
+    private final SchemaTypeLoader _stl;
+    private final XmlOptions _options;
+
+    // namespace declarations of the currently open, non-matching elements
+    private final List<String> _nsPrefixes = new ArrayList<>();
+    private final List<String> _nsUris = new ArrayList<>();
+    private int[] _nsCounts = new int[16];
+    private int _depth;
+
+    private boolean _atCurrent = true;
+    private boolean _done;
+    private XmlObject _next;
+
+    public ElementIterator(SchemaTypeLoader stl, XMLStreamReader xsr, QName name, SchemaType type, XmlOptions options) {
+        if (name == null) {
+            throw new IllegalArgumentException("Element name must not be null");
+        }
+
+        _stl = stl;
+        _xsr = xsr;
+        _name = name;
+        _type = type;
+
+        options = XmlOptions.maskNull(options);
+        if (type != null && !type.isDocumentType()) {
+            options = new XmlOptions(options).setLoadReplaceDocumentElement(null);
+        }
+        _options = options;
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (_next == null && !_done) {
+            _next = findNext();
+            if (_next == null) {
+                close();
+            }
+        }
+        return _next != null;
+    }
+
+    @Override
+    public XmlObject next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        XmlObject x = _next;
+        _next = null;
+        return x;
+    }
+
+    /**
+     * Closes the underlying XMLStreamReader - the source of the reader is not closed.
+     */
+    @Override
+    public void close() {
+        if (_done) {
+            return;
+        }
+        _done = true;
+        _next = null;
+        try {
+            _xsr.close();
+        } catch (XMLStreamException e) {
+            throw new XmlRuntimeException(e.getMessage(), e);
+        }
+    }
+
+    private XmlObject findNext() {
+        try {
+            int event = _atCurrent ? _xsr.getEventType() : _xsr.next();
+            _atCurrent = false;
+
+            for (; ; ) {
+                switch (event) {
+                    case XMLStreamReader.START_ELEMENT:
+                        if (_name.equals(_xsr.getName())) {
+                            return Locale.parseElementToXmlObject(_stl, _xsr, _type, inheritedNamespaces(), _options);
+                        }
+                        pushNamespaces();
+                        break;
+
+                    case XMLStreamReader.END_ELEMENT:
+                        popNamespaces();
+                        break;
+
+                    case XMLStreamReader.END_DOCUMENT:
+                        return null;
+
+                    default:
+                        break;
+                }
+
+                if (!_xsr.hasNext()) {
+                    return null;
+                }
+                event = _xsr.next();
+            }
+        } catch (XMLStreamException e) {
+            throw new XmlRuntimeException(e.getMessage(), e);
+        } catch (XmlException e) {
+            throw new XmlRuntimeException(e);
+        }
+    }
+
+    private void pushNamespaces() {
+        int n = _xsr.getNamespaceCount();
+        for (int i = 0; i < n; i++) {
+            String prefix = _xsr.getNamespacePrefix(i);
+            _nsPrefixes.add(prefix == null ? "" : prefix);
+            _nsUris.add(_xsr.getNamespaceURI(i));
+        }
+        if (_depth == _nsCounts.length) {
+            _nsCounts = Arrays.copyOf(_nsCounts, _depth * 2);
+        }
+        _nsCounts[_depth++] = n;
+    }
+
+    private void popNamespaces() {
+        // the reader might have been positioned inside the document
+        if (_depth == 0) {
+            return;
+        }
+        int size = _nsPrefixes.size();
+        int n = _nsCounts[--_depth];
+        _nsPrefixes.subList(size - n, size).clear();
+        _nsUris.subList(size - n, size).clear();
+    }
+
+    private Map<String, String> inheritedNamespaces() {
+        if (_nsPrefixes.isEmpty()) {
+            return null;
+        }
+        // inner declarations override the outer ones
+        Map<String, String> nses = new LinkedHashMap<>();
+        for (int i = 0; i < _nsPrefixes.size(); i++) {
+            nses.put(_nsPrefixes.get(i), _nsUris.get(i));
+        }
+        return nses;
+    }
+}
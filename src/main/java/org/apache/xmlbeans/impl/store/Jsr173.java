@@ -39,7 +39,7 @@ public class Jsr173 {
 
         Locale l = gw._l;
 
-        if (l.noSync()) {
+        if (l.noSync() || l.usesLock()) {
             l.enter();
             try {
                 return nodeFromStreamImpl(gw);
@@ -68,7 +68,7 @@ public class Jsr173 {
     public static XMLStreamReader newXmlStreamReader(Cur c, Object src, int off, int cch) {
         XMLStreamReaderBase xs = new XMLStreamReaderForString(c, src, off, cch);
 
-        if (c._locale.noSync()) {
+        if (c._locale.noSync() || c._locale.usesLock()) {
             return new UnsyncedJsr173(c._locale, xs);
         } else {
             return new SyncedJsr173(c._locale, xs);
@@ -97,7 +97,7 @@ public class Jsr173 {
             xs = new XMLStreamReaderForNode(c, false);
         }
 
-        if (c._locale.noSync()) {
+        if (c._locale.noSync() || c._locale.usesLock()) {
             return new UnsyncedJsr173(c._locale, xs);
         } else {
             return new SyncedJsr173(c._locale, xs);
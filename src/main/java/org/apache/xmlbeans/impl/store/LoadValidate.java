@@ -0,0 +1,302 @@
+/*   Copyright 2004 The Apache Software Foundation
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.xmlbeans.impl.store;
+
+import org.apache.xmlbeans.*;
+import org.apache.xmlbeans.impl.common.ValidatorListener;
+import org.apache.xmlbeans.impl.validator.Validator;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.Location;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Validates a document while it's loaded, see {@link XmlOptions#setLoadValidate()}.
+ * <p>
+ * The validator gets the same events as from {@link Validate} for the loaded tree. The BEGIN
+ * event of an element is delayed until its attributes and namespaces are loaded, and the text
+ * is collected until the next element starts or ends. The names, attributes and namespaces are
+ * read from the tree under construction.
+ * <p>
+ * The type of the document is taken from its document element. The result of the validation
+ * is only used, if the document gets the same type after the load - otherwise the loaded
+ * document is validated as usual.
+ */
+final class LoadValidate implements ValidatorListener.Event {
+    private final Locale _locale;
+    private final XmlOptions _options;
+    private final int _errorLimit;
+    private final List<XmlError> _errors = new ArrayList<>();
+
+    private SchemaType _type;
+    private Validator _validator;
+    private Cur _cur;
+    private int _depth;
+    private boolean _disabled;
+    private boolean _complete;
+
+    // the element, which BEGIN event is sent when its content starts
+    private Xobj _pendingBegin;
+
+    private char[] _chars = new char[256];
+    private int _cchChars;
+    private boolean _hasText;
+    private String _text;
+
+    private int _checkedErrors;
+    private int _errorCount;
+
+    LoadValidate(Locale l, XmlOptions options) {
+        _locale = l;
+        _options = options;
+        _errorLimit = options.getLoadValidateErrorLimit();
+    }
+
+    /**
+     * @return the errors of the validation or null, if the document of the given type hasn't
+     * been validated while it was loaded
+     */
+    List<XmlError> getErrors(SchemaType type) {
+        return _complete && _type == type ? _errors : null;
+    }
+
+    void startElement(Xobj x) {
+        if (_disabled) {
+            return;
+        }
+
+        if (_depth == 0) {
+            // fragments and several top level elements aren't documents
+            if (_validator != null || Locale.isFragmentQName(x._name) || !startDocument(x)) {
+                disable();
+                return;
+            }
+        } else {
+            flushBegin();
+            flushText(x._parent);
+        }
+
+        _depth++;
+        _pendingBegin = x;
+    }
+
+    void endElement(Xobj x) {
+        if (_disabled) {
+            return;
+        }
+
+        flushBegin();
+        flushText(x);
+
+        _cur.moveTo(x, 0);
+        emit(ValidatorListener.END);
+        _depth--;
+    }
+
+    void text(Object src, int off, int cch) {
+        if (_disabled || _depth == 0 || cch <= 0) {
+            return;
+        }
+
+        if (_cchChars + cch > _chars.length) {
+            _chars = Arrays.copyOf(_chars, Math.max(_chars.length * 2, _cchChars + cch));
+        }
+        CharUtil.getChars(_chars, _cchChars, src, off, cch);
+        _cchChars += cch;
+        _hasText = true;
+    }
+
+    void finish(Xobj root) {
+        if (!_disabled && _validator != null) {
+            _cur.moveTo(root, 0);
+            emit(ValidatorListener.END);
+            _complete = true;
+        }
+        release();
+    }
+
+    void abort() {
+        disable();
+    }
+
+    private boolean startDocument(Xobj x) {
+        SchemaType type = _options.getDocumentType();
+        if (type == null) {
+            type = _locale._schemaTypeLoader.findDocumentType(x._name);
+        }
+        if (type == null) {
+            return false;
+        }
+
+        // the errors are only reported, when it's known that the validation is valid for the document
+        XmlOptions validatorOptions = new XmlOptions(_options).setErrorListener(_errors);
+
+        _type = type;
+        _validator = new Validator(type, null, _locale._schemaTypeLoader, validatorOptions, null);
+        _cur = _locale.getCur();
+
+        _cur.moveTo(x._parent, 0);
+        emit(ValidatorListener.BEGIN);
+        emit(ValidatorListener.ENDATTRS);
+        return true;
+    }
+
+    private void flushBegin() {
+        if (_pendingBegin == null) {
+            return;
+        }
+
+        _cur.moveTo(_pendingBegin, 0);
+        _pendingBegin = null;
+
+        emit(ValidatorListener.BEGIN);
+
+        if (_cur.toFirstAttr()) {
+            do {
+                if (_cur.isNormalAttr() && !_cur.getUri().equals(Locale._xsi)) {
+                    emit(ValidatorListener.ATTR);
+                }
+            } while (_cur.toNextAttr());
+
+            _cur.toParent();
+        }
+
+        emit(ValidatorListener.ENDATTRS);
+    }
+
+    private void flushText(Xobj container) {
+        if (!_hasText) {
+            return;
+        }
+
+        _cur.moveTo(container, 0);
+        emit(ValidatorListener.TEXT);
+
+        _hasText = false;
+        _cchChars = 0;
+        _text = null;
+    }
+
+    private void emit(int kind) {
+        _validator.nextEvent(kind, this);
+
+        if (_errorLimit > 0) {
+            checkErrorLimit();
+        }
+    }
+
+    private void checkErrorLimit() {
+        for (; _checkedErrors < _errors.size(); _checkedErrors++) {
+            if (_errors.get(_checkedErrors).getSeverity() == XmlError.SEVERITY_ERROR &&
+                ++_errorCount >= _errorLimit) {
+                disable();
+
+                Collection<XmlError> errorListener = _options.getErrorListener();
+                if (errorListener != null) {
+                    errorListener.addAll(_errors);
+                }
+                throw new ErrorLimitException(_errors);
+            }
+        }
+    }
+
+    private void disable() {
+        _disabled = true;
+        _pendingBegin = null;
+        release();
+    }
+
+    private void release() {
+        if (_cur != null) {
+            _cur.release();
+            _cur = null;
+        }
+    }
+
+    private String text() {
+        if (_text == null) {
+            _text = new String(_chars, 0, _cchChars);
+        }
+        return _text;
+    }
+
+    public String getText() {
+        return _cur.isAttr() ? _cur.getValueAsString() : text();
+    }
+
+    public String getText(int wsr) {
+        return _cur.isAttr() ? _cur.getValueAsString(wsr) : Locale.applyWhiteSpaceRule(text(), wsr);
+    }
+
+    public boolean textIsWhitespace() {
+        if (_cur.isAttr()) {
+            return _locale.getCharUtil().isWhiteSpace(_cur.getFirstChars(), _cur._offSrc, _cur._cchSrc);
+        }
+
+        for (int i = 0; i < _cchChars; i++) {
+            if (!CharUtil.isWhiteSpace(_chars[i])) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public String getNamespaceForPrefix(String prefix) {
+        return _cur.namespaceForPrefix(prefix, true);
+    }
+
+    public XmlCursor getLocationAsCursor() {
+        return new Cursor(_cur);
+    }
+
+    public Location getLocation() {
+        return null;
+    }
+
+    public String getXsiType() {
+        return _cur.getAttrValue(Locale._xsiType);
+    }
+
+    public String getXsiNil() {
+        return _cur.getAttrValue(Locale._xsiNil);
+    }
+
+    public String getXsiLoc() {
+        return _cur.getAttrValue(Locale._xsiLoc);
+    }
+
+    public String getXsiNoLoc() {
+        return _cur.getAttrValue(Locale._xsiNoLoc);
+    }
+
+    public QName getName() {
+        return _cur.isRoot() ? null : _cur.getName();
+    }
+
+    /**
+     * Aborts the load, when the error limit of the validation is reached.
+     */
+    static final class ErrorLimitException extends XmlRuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        ErrorLimitException(Collection<XmlError> errors) {
+            super("Invalid document: " + errors.iterator().next(), null, errors);
+        }
+    }
+}
@@ -22,10 +22,12 @@ import org.apache.xmlbeans.XmlCursor.XmlBookmark;
 import org.apache.xmlbeans.impl.common.QNameHelper;
 import org.apache.xmlbeans.impl.common.ResolverUtil;
 import org.apache.xmlbeans.impl.common.SAXHelper;
+import org.apache.xmlbeans.impl.common.XMLReaderPool;
 import org.apache.xmlbeans.impl.common.XmlLocale;
 import org.apache.xmlbeans.impl.store.Cur.Locations;
 import org.apache.xmlbeans.impl.store.DomImpl.Dom;
 import org.apache.xmlbeans.impl.store.Saaj.SaajCallback;
+import org.apache.xmlbeans.impl.values.TypeStoreUser;
 import org.w3c.dom.*;
 import org.xml.sax.*;
 import org.xml.sax.ext.DeclHandler;
@@ -41,10 +43,17 @@ import java.io.StringReader;
 import java.lang.ref.PhantomReference;
 import java.lang.ref.ReferenceQueue;
 import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
 import static org.apache.xmlbeans.impl.values.TypeStore.*;
 
@@ -83,6 +92,16 @@ public final class Locale
 
         _noSync = options.isUnsynchronized();
 
+        // the typed getters of read only documents don't synchronize on the locale, so the remaining
+        // accesses of such a locale - by cursors, XPath queries, the saver, etc. - are guarded by a lock
+        if (!_noSync && (options.isUseReentrantLock() || options.isLoadReadOnly() || USE_REENTRANT_LOCK)) {
+            _lock = new ReentrantLock();
+            _lockOrder = LOCK_ORDER.incrementAndGet();
+        } else {
+            _lock = null;
+            _lockOrder = 0;
+        }
+
         _tempFrames = new Cur[_numTempFramesLeft = 8];
 
         // BUGBUG - this cannot be thread local ....
@@ -149,6 +168,11 @@ public final class Locale
                 "Source locale does not support same validate on set");
         }
 
+        if (options.isLoadReadOnly() && !l._noSync && !l.usesLock()) {
+            throw new IllegalArgumentException(
+                "Source locale does not support read only documents");
+        }
+
         // TODO - other things to check?
 
         return l;
@@ -262,6 +286,53 @@ public final class Locale
         }
     }
 
+    /**
+     * Reports the errors of a document loaded with {@link XmlOptions#setLoadValidate()}.
+     * The document is validated now, if it hasn't been validated while it was loaded.
+     */
+    private static void checkLoadValidation(Cur c, XmlOptions options)
+        throws XmlException {
+        LoadValidate loadValidate = c._locale._loadValidate;
+        c._locale._loadValidate = null;
+
+        if (options == null || !options.isLoadValidate()) {
+            return;
+        }
+
+        XmlObject x = (XmlObject) c.getUser();
+        Collection<XmlError> errors = loadValidate == null ? null : loadValidate.getErrors(x.schemaType());
+
+        if (errors == null) {
+            List<XmlError> allErrors = new ArrayList<>();
+            x.validate(new XmlOptions(options).setErrorListener(allErrors));
+            errors = limitErrors(allErrors, options.getLoadValidateErrorLimit());
+        }
+
+        Collection<XmlError> errorListener = options.getErrorListener();
+        if (errorListener != null) {
+            errorListener.addAll(errors);
+        }
+
+        for (XmlError error : errors) {
+            if (error.getSeverity() == XmlError.SEVERITY_ERROR) {
+                throw new XmlException("Invalid document: " + error, null, errors);
+            }
+        }
+    }
+
+    /**
+     * @return the errors up to the given number of errors, like a validation while loading
+     */
+    private static List<XmlError> limitErrors(List<XmlError> errors, int limit) {
+        int count = 0;
+        for (int i = 0; limit > 0 && i < errors.size(); i++) {
+            if (errors.get(i).getSeverity() == XmlError.SEVERITY_ERROR && ++count >= limit) {
+                return errors.subList(0, i + 1);
+            }
+        }
+        return errors;
+    }
+
     private static boolean namespacesSame(QName n1, QName n2) {
         if (n1 == n2) {
             return true;
@@ -475,7 +546,7 @@ public final class Locale
     throws XmlException, IOException {
         Locale l = getLocale(stl, options);
 
-        if (l.noSync()) {
+        if (l.noSync() || l.usesLock()) {
             l.enter();
             try {
                 return fun.parse(l);
@@ -494,18 +565,74 @@ public final class Locale
         }
     }
 
+    /**
+     * Freezes the loaded document, if {@link XmlOptions#setLoadReadOnly()} is set.
+     */
+    private static XmlObject readOnly(XmlObject x, XmlOptions options) {
+        if (!XmlOptions.maskNull(options).isLoadReadOnly()) {
+            return x;
+        }
+
+        Xobj root = (Xobj) ((TypeStoreUser) x).get_store();
+        Locale l = root._locale;
+
+        // the locale was created with a lock for read only documents, see getLocale()
+        l.enter();
+        try {
+            freeze(root);
+        } finally {
+            l.exit();
+        }
+
+        return x;
+    }
+
+    /**
+     * Makes the document below the given root read only: all values are built, the users of
+     * all nodes are created and prepared to be read without accessing the store, and all nodes
+     * are marked as frozen, so any change throws an {@link IllegalStateException}.
+     * <p>
+     * The children of frozen nodes are looked up without the nthCache and the childElemIndexes
+     * of the locale, which are only valid for a single thread.
+     */
+    static void freeze(Xobj root) {
+        Locale l = root._locale;
+
+        assert l.entered();
+
+        if (l._frozenChildElemIndexes == null) {
+            l._frozenChildElemIndexes = new ConcurrentHashMap<>();
+        }
+
+        // the values are built first, as building them changes the store
+        for (Xobj x = root; x != null; x = x.walk(root, true)) {
+            x.ensureOccupancy();
+        }
+
+        for (Xobj x = root; x != null; x = x.walk(root, true)) {
+            if (x.isUserNode()) {
+                x.getUser().freeze_value();
+            }
+        }
+
+        for (Xobj x = root; x != null; x = x.walk(root, true)) {
+            x.setBit(Xobj.FROZEN);
+        }
+    }
+
     public static XmlObject parseToXmlObject(SchemaTypeLoader stl, String xmlText, SchemaType type, XmlOptions options)
     throws XmlException {
         try {
-            return syncWrap(stl, options, (l) -> {
+            return readOnly(syncWrap(stl, options, (l) -> {
                 try (Reader r = new StringReader(xmlText)) {
                     Cur c = getSaxLoader(options).load(l, new InputSource(r), options);
                     autoTypeDocument(c, type, options);
+                    checkLoadValidation(c, options);
                     XmlObject x = (XmlObject) c.getUser();
                     c.release();
                     return x;
                 }
-            });
+            }), options);
         } catch (IOException e) {
             assert false : "StringReader should not throw IOException";
             throw new XmlException(e.getMessage(), e);
@@ -515,19 +642,58 @@ public final class Locale
     public static XmlObject parseToXmlObject(SchemaTypeLoader stl, XMLStreamReader xsr, SchemaType type, XmlOptions options)
     throws XmlException {
         try {
-            return syncWrap(stl, options, (l) -> {
+            return readOnly(syncWrap(stl, options, (l) -> {
                 Cur c;
                 try {
-                    c = l.loadXMLStreamReader(xsr, options);
+                    c = l.loadXMLStreamReader(xsr, null, options);
                 } catch (XMLStreamException e) {
                     throw new XmlException(e.getMessage(), e);
+                } catch (LoadValidate.ErrorLimitException e) {
+                    throw new XmlException(e);
                 }
 
                 autoTypeDocument(c, type, options);
+
+                checkLoadValidation(c, options);
                 XmlObject x = (XmlObject) c.getUser();
                 c.release();
                 return x;
-            });
+            }), options);
+        } catch (IOException e) {
+            assert false : "doesn't throw IOException";
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Loads the element the reader is positioned on into a document of its own.
+     * The reader is left on the matching END_ELEMENT event.
+     *
+     * @param inheritedNamespaces the namespace declarations of the ancestors of the element,
+     *                            which are copied to the element unless it redeclares the prefix
+     */
+    public static XmlObject parseElementToXmlObject(SchemaTypeLoader stl, XMLStreamReader xsr, SchemaType type,
+                                                    Map<String, String> inheritedNamespaces, XmlOptions options)
+    throws XmlException {
+        assert xsr.getEventType() == XMLStreamReader.START_ELEMENT;
+        try {
+            return readOnly(syncWrap(stl, options, (l) -> {
+                Cur c;
+                try {
+                    c = l.loadXMLStreamReader(xsr, inheritedNamespaces, options);
+                } catch (XMLStreamException e) {
+                    throw new XmlException(e.getMessage(), e);
+                } catch (LoadValidate.ErrorLimitException e) {
+                    throw new XmlException(e);
+                }
+
+                autoTypeDocument(c, type, options);
+
+                checkLoadValidation(c, options);
+                XmlObject x = (XmlObject) c.getUser();
+                c.release();
+                return x;
+            }), options);
         } catch (IOException e) {
             assert false : "doesn't throw IOException";
             throw new RuntimeException(e);
@@ -558,20 +724,37 @@ public final class Locale
         int n = xsr.getNamespaceCount();
 
         for (int a = 0; a < n; a++) {
-            String prefix = xsr.getNamespacePrefix(a);
+            doNamespace(context, xsr.getNamespacePrefix(a), xsr.getNamespaceURI(a));
+        }
+    }
 
-            if (prefix == null || prefix.length() == 0) {
-                context.attr("xmlns", _xmlnsUri, null,
-                    xsr.getNamespaceURI(a));
-            } else {
-                context.attr(prefix, _xmlnsUri, "xmlns",
-                    xsr.getNamespaceURI(a));
+    private void doInheritedNamespaces(XMLStreamReader xsr, LoadContext context, Map<String, String> namespaces) {
+        int n = xsr.getNamespaceCount();
+
+        nses:
+        for (Map.Entry<String, String> ns : namespaces.entrySet()) {
+            String prefix = ns.getKey() == null ? "" : ns.getKey();
+
+            for (int a = 0; a < n; a++) {
+                String declared = xsr.getNamespacePrefix(a);
+                if (prefix.equals(declared == null ? "" : declared)) {
+                    continue nses;
+                }
             }
+
+            doNamespace(context, prefix, ns.getValue());
         }
+    }
 
+    private static void doNamespace(LoadContext context, String prefix, String uri) {
+        if (prefix == null || prefix.length() == 0) {
+            context.attr("xmlns", _xmlnsUri, null, uri);
+        } else {
+            context.attr(prefix, _xmlnsUri, "xmlns", uri);
+        }
     }
 
-    private Cur loadXMLStreamReader(XMLStreamReader xsr, XmlOptions options)
+    private Cur loadXMLStreamReader(XMLStreamReader xsr, Map<String, String> inheritedNamespaces, XmlOptions options)
         throws XMLStreamException {
         options = XmlOptions.maskNull(options);
 
@@ -621,6 +804,10 @@ public final class Locale
                     doAttributes(xsr, context);
                     doNamespaces(xsr, context);
 
+                    if (depth == 1 && inheritedNamespaces != null) {
+                        doInheritedNamespaces(xsr, context, inheritedNamespaces);
+                    }
+
                     break;
                 }
 
@@ -712,39 +899,46 @@ public final class Locale
 
     public static XmlObject parseToXmlObject(SchemaTypeLoader stl, InputStream is, SchemaType type, XmlOptions options)
     throws XmlException, IOException {
-        return syncWrap(stl, options, (l) -> {
+        return readOnly(syncWrap(stl, options, (l) -> {
             Cur c = getSaxLoader(options).load(l, new InputSource(is), options);
             autoTypeDocument(c, type, options);
+            checkLoadValidation(c, options);
             XmlObject x = (XmlObject) c.getUser();
             c.release();
             return x;
-        });
+        }), options);
     }
 
     public static XmlObject parseToXmlObject(SchemaTypeLoader stl, Reader reader, SchemaType type, XmlOptions options)
     throws XmlException, IOException {
-        return syncWrap(stl, options, (l) -> {
+        return readOnly(syncWrap(stl, options, (l) -> {
             Cur c = getSaxLoader(options).load(l, new InputSource(reader), options);
             autoTypeDocument(c, type, options);
+            checkLoadValidation(c, options);
             XmlObject x = (XmlObject) c.getUser();
             c.release();
             return x;
-        });
+        }), options);
     }
 
     public static XmlObject parseToXmlObject(SchemaTypeLoader stl, Node node, SchemaType type, XmlOptions options)
     throws XmlException {
         try {
-            return syncWrap(stl, options, (l) -> {
+            return readOnly(syncWrap(stl, options, (l) -> {
                 LoadContext context = new Cur.CurLoadContext(l, options);
-                l.loadNode(node, context);
+                try {
+                    l.loadNode(node, context);
+                } catch (LoadValidate.ErrorLimitException e) {
+                    throw new XmlException(e);
+                }
                 Cur c = context.finish();
                 associateSourceName(c, options);
                 autoTypeDocument(c, type, options);
+                checkLoadValidation(c, options);
                 XmlObject x = (XmlObject) c.getUser();
                 c.release();
                 return x;
-            });
+            }), options);
         } catch (IOException e) {
             assert false : "Doesn't throw IOException";
             throw new RuntimeException(e);
@@ -869,6 +1063,8 @@ public final class Locale
                 return null;
             }
 
+            XmlObject x;
+
             _locale.enter();
 
             try {
@@ -876,16 +1072,18 @@ public final class Locale
 
                 autoTypeDocument(c, _type, _options);
 
-                XmlObject x = (XmlObject) c.getUser();
+                checkLoadValidation(c, _options);
+
+                x = (XmlObject) c.getUser();
 
                 c.release();
 
                 _context = null;
-
-                return x;
             } finally {
                 _locale.exit();
             }
+
+            return readOnly(x, _options);
         }
 
         private final SchemaType _type;
@@ -1311,6 +1509,20 @@ public final class Locale
             return null;
         }
 
+        if (parent.isFrozen()) {
+            return findNthFrozenChildElem(parent, name, set, n);
+        }
+
+        childElemIndex idx = findChildElemIndex(parent, name, set);
+
+        if (idx == null && CHILD_INDEX_THRESHOLD > 0 && n >= CHILD_INDEX_THRESHOLD) {
+            idx = buildChildElemIndex(parent, name, set);
+        }
+
+        if (idx != null) {
+            return n < idx._count ? idx._children[n] : null;
+        }
+
         int da = _nthCache_A.distance(parent, name, set, n);
         int db = _nthCache_B.distance(parent, name, set, n);
 
@@ -1329,6 +1541,16 @@ public final class Locale
     }
 
     int count(Xobj parent, QName name, QNameSet set) {
+        if (parent != null && parent.isFrozen()) {
+            return countFrozen(parent, name, set);
+        }
+
+        childElemIndex idx = findChildElemIndex(parent, name, set);
+
+        if (idx != null) {
+            return idx._count;
+        }
+
         int n = 0;
 
         for (Xobj x = findNthChildElem(parent, name, set, 0);
@@ -1344,9 +1566,109 @@ public final class Locale
             }
         }
 
+        if (CHILD_INDEX_THRESHOLD > 0 && n >= CHILD_INDEX_THRESHOLD) {
+            // the caller is likely to access the elements by index next
+            buildChildElemIndex(parent, name, set);
+        }
+
         return n;
     }
 
+    private childElemIndex findChildElemIndex(Xobj parent, QName name, QNameSet set) {
+        if (parent == null) {
+            return null;
+        }
+
+        for (childElemIndex idx : _childElemIndexes) {
+            if (idx != null && idx.matches(parent, name, set)) {
+                return idx;
+            }
+        }
+
+        return null;
+    }
+
+    private childElemIndex buildChildElemIndex(Xobj parent, QName name, QNameSet set) {
+        childElemIndex idx = new childElemIndex(parent, name, set);
+
+        _childElemIndexes[_childElemIndexNext] = idx;
+        _childElemIndexNext = (_childElemIndexNext + 1) % _childElemIndexes.length;
+
+        return idx;
+    }
+
+    // The children of frozen nodes are read by many threads without entering the locale, so
+    // their indexes are kept per parent - and are never invalidated, as the nodes don't change.
+
+    private Xobj findNthFrozenChildElem(Xobj parent, QName name, QNameSet set, int n) {
+        childElemIndex idx = findFrozenChildElemIndex(parent, name, set);
+
+        if (idx == null && CHILD_INDEX_THRESHOLD > 0 && n >= CHILD_INDEX_THRESHOLD) {
+            idx = buildFrozenChildElemIndex(parent, name, set);
+        }
+
+        if (idx != null) {
+            return n < idx._count ? idx._children[n] : null;
+        }
+
+        for (Xobj x = parent._firstChild; x != null; x = x._nextSibling) {
+            if (x.isElem() && (set == null ? name == null || name.equals(x._name) : set.contains(x._name)) && n-- == 0) {
+                return x;
+            }
+        }
+
+        return null;
+    }
+
+    private int countFrozen(Xobj parent, QName name, QNameSet set) {
+        childElemIndex idx = findFrozenChildElemIndex(parent, name, set);
+
+        if (idx != null) {
+            return idx._count;
+        }
+
+        int n = 0;
+
+        for (Xobj x = parent._firstChild; x != null; x = x._nextSibling) {
+            if (x.isElem() && (set == null ? name == null || name.equals(x._name) : set.contains(x._name))) {
+                n++;
+            }
+        }
+
+        if (CHILD_INDEX_THRESHOLD > 0 && n >= CHILD_INDEX_THRESHOLD) {
+            buildFrozenChildElemIndex(parent, name, set);
+        }
+
+        return n;
+    }
+
+    private childElemIndex findFrozenChildElemIndex(Xobj parent, QName name, QNameSet set) {
+        childElemIndex[] indexes = _frozenChildElemIndexes.get(parent);
+
+        if (indexes != null) {
+            for (childElemIndex idx : indexes) {
+                if (idx.selects(name, set)) {
+                    return idx;
+                }
+            }
+        }
+
+        return null;
+    }
+
+    private childElemIndex buildFrozenChildElemIndex(Xobj parent, QName name, QNameSet set) {
+        childElemIndex idx = new childElemIndex(parent, name, set);
+
+        // concurrent threads may build the same index - it doesn't matter, which one is kept
+        _frozenChildElemIndexes.merge(parent, new childElemIndex[]{idx}, (indexes, added) -> {
+            childElemIndex[] merged = Arrays.copyOf(indexes, indexes.length + 1);
+            merged[indexes.length] = added[0];
+            return merged;
+        });
+
+        return idx;
+    }
+
     static boolean toChild(Cur c, QName name, int n) {
         if (n >= 0 && pushToContainer(c)) {
             Xobj x = c._locale.findNthChildElem(c._xobj, name, null, n);
@@ -1621,6 +1943,7 @@ public final class Locale
                 _version = Locale.this.version();
                 _parent = parent;
                 _name = name;
+                _set = set;
                 _child = null;
                 _n = -1;
 
@@ -1680,6 +2003,49 @@ public final class Locale
         private int _n;
     }
 
+    /**
+     * An array of the child elements of one parent, which match a name, a set of names
+     * or any name. Contrary to the nthCache, this gives constant time access for random and
+     * reverse order access, e.g. by the generated array getters.
+     * <p>
+     * The index is only valid as long as the structure of the document isn't changed, i.e. text
+     * changes don't invalidate it - see {@link Locale#_versionSansText}.
+     */
+    final class childElemIndex {
+        private final long _version;
+        private final Xobj _parent;
+        private final QName _name;
+        private final QNameSet _set;
+        private Xobj[] _children;
+        private int _count;
+
+        childElemIndex(Xobj parent, QName name, QNameSet set) {
+            _version = _versionSansText;
+            _parent = parent;
+            _name = name;
+            _set = set;
+            _children = new Xobj[CHILD_INDEX_THRESHOLD > 0 ? CHILD_INDEX_THRESHOLD : 16];
+
+            for (Xobj x = parent._firstChild; x != null; x = x._nextSibling) {
+                if (x.isElem() && (set == null ? name == null || name.equals(x._name) : set.contains(x._name))) {
+                    if (_count == _children.length) {
+                        _children = Arrays.copyOf(_children, _count * 2);
+                    }
+                    _children[_count++] = x;
+                }
+            }
+        }
+
+        boolean matches(Xobj parent, QName name, QNameSet set) {
+            return _parent == parent && _version == _versionSansText && selects(name, set);
+        }
+
+        boolean selects(QName name, QNameSet set) {
+            // QNameSets are generated by the compiler, so identity comparison is sufficient
+            return set == null ? _set == null && Objects.equals(_name, name) : _set == set;
+        }
+    }
+
     //
     //
     //
@@ -1994,14 +2360,43 @@ public final class Locale
     }
 
     public void enter(Locale otherLocale) {
-        enter();
+        if (otherLocale == this) {
+            enter();
+        } else if (usesLock() && otherLocale.usesLock() && otherLocale._lockOrder < _lockOrder) {
+            // lock guarded locales are always entered in the same order, so two threads can't deadlock
+            enterBoth(otherLocale, this);
+        } else {
+            enterBoth(this, otherLocale);
+        }
+    }
 
-        if (otherLocale != this) {
-            otherLocale.enter();
+    private static void enterBoth(Locale first, Locale second) {
+        first.enter();
+        try {
+            second.enter();
+        } catch (RuntimeException | Error e) {
+            first.exit();
+            throw e;
         }
     }
 
     public void enter() {
+        if (_lock == null) {
+            doEnter();
+            return;
+        }
+
+        _lock.lock();
+        try {
+            doEnter();
+        } catch (RuntimeException | Error e) {
+            // the caller only exits after a successful enter
+            _lock.unlock();
+            throw e;
+        }
+    }
+
+    private void doEnter() {
         assert _numTempFramesLeft >= 0;
 
         if (--_numTempFramesLeft <= 0) {
@@ -2044,19 +2439,25 @@ public final class Locale
     }
 
     public void exit() {
-        //asserts computed frame fits between 0 and _tempFrames.length
-        assert _numTempFramesLeft >= 0 &&
-               (_numTempFramesLeft <= _tempFrames.length - 1) :
-            " Temp frames mismanaged. Impossible stack frame. Unsynchronized: " +
-            noSync();
+        try {
+            //asserts computed frame fits between 0 and _tempFrames.length
+            assert _numTempFramesLeft >= 0 &&
+                   (_numTempFramesLeft <= _tempFrames.length - 1) :
+                " Temp frames mismanaged. Impossible stack frame. Unsynchronized: " +
+                noSync();
 
-        int frame = _tempFrames.length - ++_numTempFramesLeft;
+            int frame = _tempFrames.length - ++_numTempFramesLeft;
 
-        // no dead loop - _tempFrames is modified in Cur.release() and the next Cur is taken
-        // the place of the current one - basically this releases all following Curs
-        // usually _tempFrames[frame] == null, as the Cur has been released before
-        while (_tempFrames[frame] != null) {
-            _tempFrames[frame].release();
+            // no dead loop - _tempFrames is modified in Cur.release() and the next Cur is taken
+            // the place of the current one - basically this releases all following Curs
+            // usually _tempFrames[frame] == null, as the Cur has been released before
+            while (_tempFrames[frame] != null) {
+                _tempFrames[frame].release();
+            }
+        } finally {
+            if (_lock != null) {
+                _lock.unlock();
+            }
         }
     }
 
@@ -2068,6 +2469,38 @@ public final class Locale
         return !_noSync;
     }
 
+    public boolean usesLock() {
+        return _lock != null;
+    }
+
+    public void lock() {
+        _lock.lock();
+    }
+
+    public void unlock() {
+        _lock.unlock();
+    }
+
+    public void lock(XmlLocale other) {
+        Locale otherLocale = (Locale) other;
+        if (otherLocale == this) {
+            lock();
+        } else if (_lockOrder < otherLocale._lockOrder) {
+            lock();
+            otherLocale.lock();
+        } else {
+            otherLocale.lock();
+            lock();
+        }
+    }
+
+    public void unlock(XmlLocale other) {
+        unlock();
+        if (other != this) {
+            other.unlock();
+        }
+    }
+
     static boolean isWhiteSpace(String s) {
         int l = s.length();
 
@@ -2200,6 +2633,15 @@ public final class Locale
         private java.util.Hashtable<String,String> _idAttrs;
     }
 
+    private static int initChildIndexThreshold() {
+        String threshold = SystemProperties.getProperty("xmlbean.childindex.threshold");
+        try {
+            return threshold == null ? 16 : Integer.parseInt(threshold.trim());
+        } catch (NumberFormatException e) {
+            return 16;
+        }
+    }
+
     private static class DefaultEntityResolver
         implements EntityResolver {
         public InputSource resolveEntity(String publicId, String systemId) {
@@ -2225,16 +2667,22 @@ public final class Locale
         }
 
         XMLReader xr = options.getLoadUseXMLReader();
+        boolean pooled = false;
 
         if (xr == null) {
             try {
-                xr = SAXHelper.newXMLReader(new XmlOptions(options));
+                if (options.isLoadDisableXMLReaderPool()) {
+                    xr = SAXHelper.newXMLReader(new XmlOptions(options));
+                } else {
+                    xr = XMLReaderPool.getInstance().borrow(options);
+                    pooled = true;
+                }
             } catch (Exception e) {
                 throw new XmlException("Problem creating XMLReader", e);
             }
         }
 
-        SaxLoader sl = new XmlReaderSaxLoader(xr);
+        SaxLoader sl = new XmlReaderSaxLoader(xr, pooled);
 
         // I've noticed that most XMLReaders don't like a null EntityResolver...
 
@@ -2247,8 +2695,8 @@ public final class Locale
 
     private static class XmlReaderSaxLoader
         extends SaxLoader {
-        XmlReaderSaxLoader(XMLReader xr) {
-            super(xr, null);
+        XmlReaderSaxLoader(XMLReader xr, boolean pooled) {
+            super(xr, null, pooled);
         }
     }
 
@@ -2487,10 +2935,11 @@ public final class Locale
     }
 
     private static abstract class SaxLoader extends SaxHandler implements ErrorHandler {
-        SaxLoader(XMLReader xr, Locator startLocator) {
+        SaxLoader(XMLReader xr, Locator startLocator, boolean pooled) {
             super(startLocator);
 
             _xr = xr;
+            _pooled = pooled;
 
             try {
                 _xr.setFeature("http://xml.org/sax/features/namespaces", true);
@@ -2522,6 +2971,8 @@ public final class Locale
 
             initSaxHandler(l, options);
 
+            boolean reusable = false;
+
             try {
                 _xr.parse(is);
 
@@ -2531,6 +2982,8 @@ public final class Locale
 
                 postLoad(c);
 
+                reusable = true;
+
                 return c;
             } catch (XmlRuntimeException e) {
                 _context.abort();
@@ -2555,6 +3008,15 @@ public final class Locale
                 _context.abort();
 
                 throw e;
+            } finally {
+                if (_pooled) {
+                    // a reader which failed in the middle of a parse is not handed out again
+                    if (reusable) {
+                        XMLReaderPool.getInstance().release(options, _xr);
+                    } else {
+                        XMLReaderPool.getInstance().discard(_xr);
+                    }
+                }
             }
         }
 
@@ -2574,10 +3036,15 @@ public final class Locale
         }
 
         private final XMLReader _xr;
+        private final boolean _pooled;
     }
 
     private Dom load(InputSource is, XmlOptions options)
         throws XmlException, IOException {
+        // DOM loads aren't typed, so the document isn't validated while it's loaded
+        if (options != null && options.isLoadValidate()) {
+            options = new XmlOptions(options).setLoadValidate(false);
+        }
         return getSaxLoader(options).load(this, is, options).getDom();
     }
 
@@ -2739,6 +3206,23 @@ public final class Locale
 
     boolean _noSync;
 
+    /**
+     * if set, the locale is guarded by this lock - acquired in {@link #enter()} - instead of its monitor.
+     * Locales with read only documents always have a lock, see {@link #freeze(Xobj)}.
+     */
+    private final ReentrantLock _lock;
+    /** the order in which lock guarded locales are acquired */
+    private final long _lockOrder;
+
+    /**
+     * Guard all locales by a lock instead of their monitor, see {@link XmlOptions#setUseReentrantLock()}.
+     * Can be set with the "xmlbean.locale.reentrantlock" system property.
+     */
+    private static final boolean USE_REENTRANT_LOCK =
+        Boolean.parseBoolean(SystemProperties.getProperty("xmlbean.locale.reentrantlock"));
+
+    private static final AtomicLong LOCK_ORDER = new AtomicLong();
+
     SchemaTypeLoader _schemaTypeLoader;
 
     private ReferenceQueue<Ref> _refQueue;
@@ -2757,6 +3241,10 @@ public final class Locale
     long _versionAll;
     long _versionSansText;
 
+    Saver.NamespaceSummary _namespaceSummary;
+
+    ValidSubtrees _validSubtrees;
+
     Locations _locations;
 
     private CharUtil _charUtil;
@@ -2772,11 +3260,26 @@ public final class Locale
 
     boolean _validateOnSet;
 
+    // the validation of the last load, see CurLoadContext.finish()
+    LoadValidate _loadValidate;
+
     int _posTemp;
 
     nthCache _nthCache_A = new nthCache();
     nthCache _nthCache_B = new nthCache();
 
+    /**
+     * Minimum index / count of child elements, which triggers the creation of a childElemIndex.
+     * Can be set with the "xmlbean.childindex.threshold" system property - 0 disables the index.
+     */
+    static final int CHILD_INDEX_THRESHOLD = initChildIndexThreshold();
+
+    private final childElemIndex[] _childElemIndexes = new childElemIndex[4];
+    private int _childElemIndexNext;
+
+    /** the childElemIndexes of frozen nodes, created by {@link #freeze(Xobj)} */
+    private volatile Map<Xobj, childElemIndex[]> _frozenChildElemIndexes;
+
     domNthCache _domNthCache_A = new domNthCache();
     domNthCache _domNthCache_B = new domNthCache();
 }
@@ -0,0 +1,374 @@
+/*   Copyright 2004 The Apache Software Foundation
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.xmlbeans.impl.store;
+
+import org.apache.xmlbeans.XmlCursor;
+import org.apache.xmlbeans.XmlError;
+import org.apache.xmlbeans.impl.common.SplittableValidatorListener;
+import org.apache.xmlbeans.impl.common.ValidatorListener;
+
+import javax.xml.namespace.QName;
+import javax.xml.stream.Location;
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Validates the child elements of one element in parallel, see {@link Validate}.
+ * <p>
+ * The children are collected on the validating thread, which owns the locale, and are
+ * validated in chunks on the common fork/join pool, when the element ends. The chunks
+ * don't use {@link Cur}s, which are bound to the locale, but read the {@link Xobj}s of
+ * their subtrees directly - this is safe, as the tree isn't modified meanwhile and the
+ * values of vacant nodes are built upfront.
+ * <p>
+ * Errors of the chunks are located on the validating thread, when the chunks are joined.
+ */
+final class ParallelValidate {
+    /** minimum number of child elements of an element, to validate them in parallel */
+    static final int MIN_CHILDREN = 64;
+
+    /** number of child elements validated by one task */
+    private static final int CHUNK_SIZE = 32;
+
+    private final SplittableValidatorListener _sink;
+    private final List<Child> _children = new ArrayList<>();
+
+    ParallelValidate(SplittableValidatorListener sink) {
+        _sink = sink;
+    }
+
+    static boolean hasManyChildren(Xobj x) {
+        int count = 0;
+        for (Xobj c = x._firstChild; c != null; c = c._nextSibling) {
+            if (c.isElem() && ++count >= MIN_CHILDREN) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Adds the child element at the current position of the event, instead of sending its BEGIN event
+     */
+    void add(Cur c, ValidatorListener.Event event) {
+        assert c.isElem();
+
+        Xobj x = c._xobj;
+        List<XmlError> errors = new ArrayList<>(0);
+        Object split = _sink.split(event, errors);
+
+        if (split != null) {
+            // the subtree is read from other threads - build the text of vacant nodes beforehand
+            for (Xobj y = x; y != null; y = y.walk(x, true)) {
+                y.ensureOccupancy();
+            }
+        }
+
+        _children.add(new Child(x, split, errors.isEmpty() ? null : errors));
+    }
+
+    /**
+     * Validates the collected children and joins their results in document order.
+     * The event needs to be located at the end of the parent element.
+     */
+    void join(ValidatorListener.Event event) {
+        List<Chunk> chunks = new ArrayList<>();
+        for (int i = 0; i < _children.size(); i += CHUNK_SIZE) {
+            chunks.add(new Chunk(i, Math.min(i + CHUNK_SIZE, _children.size())));
+        }
+
+        ForkJoinTask.invokeAll(chunks);
+
+        for (Chunk chunk : chunks) {
+            _sink.join(chunk._part, chunk.locateErrors(), event);
+        }
+
+        _children.clear();
+    }
+
+    private static final class Child {
+        final Xobj _xobj;
+        final Object _split;
+        final List<XmlError> _splitErrors;
+
+        Child(Xobj xobj, Object split, List<XmlError> splitErrors) {
+            _xobj = xobj;
+            _split = split;
+            _splitErrors = splitErrors;
+        }
+    }
+
+    /**
+     * Validates a range of children with its own part listener
+     */
+    private final class Chunk extends RecursiveAction implements ValidatorListener.Event {
+        private static final long serialVersionUID = 1L;
+
+        private final int _from;
+        private final int _to;
+        private final SplittableValidatorListener _part;
+
+        private final List<XmlError> _errors = new ArrayList<>();
+        // position of each error: the node, if it's at the end of the node and the index of the child
+        private final List<Xobj> _errorXobjs = new ArrayList<>();
+        private final List<Integer> _errorPositions = new ArrayList<>();
+
+        // current position of the walk
+        private int _child;
+        private Xobj _current;
+        private boolean _atEnd;
+
+        // accumulated text and the text of the current TEXT event
+        private final StringBuilder _textSb = new StringBuilder();
+        private String _text;
+
+        Chunk(int from, int to) {
+            _from = from;
+            _to = to;
+            _part = _sink.newPart(new AbstractCollection<XmlError>() {
+                public boolean add(XmlError error) {
+                    _errors.add(error);
+                    _errorXobjs.add(_current);
+                    _errorPositions.add(_atEnd ? -1 - _child : _child);
+                    return true;
+                }
+
+                public Iterator<XmlError> iterator() {
+                    return _errors.iterator();
+                }
+
+                public int size() {
+                    return _errors.size();
+                }
+            });
+        }
+
+        @Override
+        protected void compute() {
+            for (_child = _from; _child < _to; _child++) {
+                Child c = _children.get(_child);
+                if (c._split != null) {
+                    walk(c);
+                }
+            }
+        }
+
+        private void walk(Child child) {
+            Xobj root = child._xobj;
+
+            moveTo(root, false);
+            _part.beginPart(child._split, this);
+
+            Xobj x = root;
+            Xobj c = enter(x);
+
+            for (; ; ) {
+                if (c == null) {
+                    moveTo(x, true);
+                    emitEvent(ValidatorListener.END);
+
+                    if (x == root) {
+                        return;
+                    }
+
+                    addText(x._srcAfter, x._offAfter, x._cchAfter);
+                    c = x._nextSibling;
+                    x = x._parent;
+                } else if (c.isElem()) {
+                    moveTo(c, false);
+                    emitEvent(ValidatorListener.BEGIN);
+
+                    x = c;
+                    c = enter(x);
+                } else {
+                    // comments and processing instructions
+                    addText(c._srcAfter, c._offAfter, c._cchAfter);
+                    c = c._nextSibling;
+                }
+            }
+        }
+
+        /**
+         * Sends the attributes of the element and collects the text before the first child.
+         *
+         * @return the first child node, which is not an attribute
+         */
+        private Xobj enter(Xobj x) {
+            Xobj c = x._firstChild;
+
+            for (; c != null && c.isAttr(); c = c._nextSibling) {
+                if (c.isNormalAttr() && !Locale._xsi.equals(c._name.getNamespaceURI())) {
+                    moveTo(c, false);
+                    _part.nextEvent(ValidatorListener.ATTR, this);
+                }
+            }
+
+            moveTo(x, false);
+            _part.nextEvent(ValidatorListener.ENDATTRS, this);
+
+            addText(x._srcValue, x._offValue, x._cchValue);
+            for (Xobj a = x._firstChild; a != c; a = a._nextSibling) {
+                addText(a._srcAfter, a._offAfter, a._cchAfter);
+            }
+
+            return c;
+        }
+
+        private void moveTo(Xobj x, boolean atEnd) {
+            _current = x;
+            _atEnd = atEnd;
+        }
+
+        private void addText(Object src, int off, int cch) {
+            if (cch > 0) {
+                _textSb.append(CharUtil.getString(src, off, cch));
+            }
+        }
+
+        private void emitEvent(int kind) {
+            if (_textSb.length() > 0) {
+                _text = _textSb.toString();
+                _textSb.setLength(0);
+                _part.nextEvent(ValidatorListener.TEXT, this);
+                _text = null;
+            }
+
+            _part.nextEvent(kind, this);
+        }
+
+        /**
+         * @return the errors of this chunk and the errors of the split of its children,
+         * located at their nodes and in document order
+         */
+        List<XmlError> locateErrors() {
+            List<XmlError> located = new ArrayList<>();
+            int e = 0;
+
+            for (int i = _from; i < _to; i++) {
+                List<XmlError> splitErrors = _children.get(i)._splitErrors;
+                if (splitErrors != null) {
+                    located.addAll(splitErrors);
+                }
+
+                for (; e < _errors.size(); e++) {
+                    int pos = _errorPositions.get(e);
+                    boolean atEnd = pos < 0;
+                    if ((atEnd ? -1 - pos : pos) != i) {
+                        break;
+                    }
+
+                    XmlCursor cursor = new Cursor(_errorXobjs.get(e), atEnd ? Cur.END_POS : 0);
+                    located.add(_errors.get(e).withCursor(cursor));
+                }
+            }
+
+            return located;
+        }
+
+        //
+        // ValidatorListener.Event
+        //
+
+        public XmlCursor getLocationAsCursor() {
+            // cursors can only be created on the validating thread, see locateErrors()
+            return null;
+        }
+
+        public Location getLocation() {
+            return null;
+        }
+
+        public String getXsiType() {
+            return getAttrValue(Locale._xsiType);
+        }
+
+        public String getXsiNil() {
+            return getAttrValue(Locale._xsiNil);
+        }
+
+        public String getXsiLoc() {
+            return getAttrValue(Locale._xsiLoc);
+        }
+
+        public String getXsiNoLoc() {
+            return getAttrValue(Locale._xsiNoLoc);
+        }
+
+        public QName getName() {
+            return _current._name;
+        }
+
+        public String getText() {
+            if (_current.isAttr()) {
+                return getValue(_current);
+            }
+
+            assert _text != null;
+            return _text;
+        }
+
+        public String getText(int wsr) {
+            return Locale.applyWhiteSpaceRule(getText(), wsr);
+        }
+
+        public boolean textIsWhitespace() {
+            return Locale.isWhiteSpace(getText());
+        }
+
+        public String getNamespaceForPrefix(String prefix) {
+            // like Xobj.namespaceForPrefix(prefix, true), without caching the values of the attributes
+            if (prefix == null) {
+                prefix = "";
+            }
+
+            if (prefix.equals("xml")) {
+                return Locale._xml1998Uri;
+            }
+
+            if (prefix.equals("xmlns")) {
+                return Locale._xmlnsUri;
+            }
+
+            for (Xobj x = _current; x != null; x = x._parent) {
+                for (Xobj a = x._firstChild; a != null && a.isAttr(); a = a._nextSibling) {
+                    if (a.isXmlns() && a.getXmlnsPrefix().equals(prefix)) {
+                        return getValue(a);
+                    }
+                }
+            }
+
+            return prefix.length() == 0 ? "" : null;
+        }
+
+        private String getAttrValue(QName name) {
+            for (Xobj a = _current._firstChild; a != null && a.isAttr(); a = a._nextSibling) {
+                if (a._name.equals(name)) {
+                    return getValue(a);
+                }
+            }
+            return null;
+        }
+
+        private String getValue(Xobj attr) {
+            return CharUtil.getString(attr._srcValue, attr._offValue, attr._cchValue);
+        }
+    }
+}
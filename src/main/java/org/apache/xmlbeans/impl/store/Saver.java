@@ -28,6 +28,8 @@ import org.xml.sax.helpers.AttributesImpl;
 
 import javax.xml.namespace.QName;
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
 import java.util.*;
 
 abstract class Saver {
@@ -114,14 +116,24 @@ abstract class Saver {
         }
 
         if (options.isSaveAggressiveNamespaces() && !(this instanceof SynthNamespaceSaver)) {
-            SynthNamespaceSaver saver = new SynthNamespaceSaver(c, options);
+            // The namespaces only depend on the names of the elements and attributes, so
+            // repeated saves of the same document can skip the pass over the document
+            List<Object> namespaceOptions = namespaceOptions(options);
+            NamespaceSummary summary = _locale._namespaceSummary;
 
-            //noinspection StatementWithEmptyBody
-            while (saver.process()) {
+            if (summary == null || !summary.matches(c, namespaceOptions)) {
+                SynthNamespaceSaver saver = new SynthNamespaceSaver(c, options);
+
+                //noinspection StatementWithEmptyBody
+                while (saver.process()) {
+                }
+
+                summary = new NamespaceSummary(c, namespaceOptions, saver._synthNamespaces);
+                _locale._namespaceSummary = summary;
             }
 
-            if (!saver._synthNamespaces.isEmpty()) {
-                _preComputedNamespaces = saver._synthNamespaces;
+            if (!summary._namespaces.isEmpty()) {
+                _preComputedNamespaces = summary._namespaces;
             }
         }
 
@@ -135,6 +147,24 @@ abstract class Saver {
         _ancestorNamespaces = _cur.getAncestorNamespaces();
     }
 
+    /**
+     * @return the options, which affect the namespaces synthesized for aggressive namespace saves
+     */
+    private static List<Object> namespaceOptions(XmlOptions options) {
+        Map<String, String> implicit = options.getSaveImplicitNamespaces();
+        Map<String, String> suggested = options.getSaveSuggestedPrefixes();
+
+        return Arrays.asList(
+            implicit == null ? null : new HashMap<>(implicit),
+            suggested == null ? null : new HashMap<>(suggested),
+            options.isUseDefaultNamespace(),
+            options.isSaveNamespacesFirst(),
+            options.getSaveSyntheticDocumentElement(),
+            options.isSaveUseOpenFrag(),
+            options.isSaveInner(),
+            options.isSaveOuter());
+    }
+
     private static SaveCur createSaveCur(Cur c, XmlOptions options) {
         QName synthName = options.getSaveSyntheticDocumentElement();
 
@@ -786,6 +816,32 @@ abstract class Saver {
     }
 
 
+    /**
+     * The namespaces synthesized for the aggressive namespace save of a container, which is kept
+     * by the locale. It's valid as long as the structure of the document isn't changed, i.e. text
+     * changes don't invalidate it - see {@link Locale#_versionSansText}.
+     */
+    static final class NamespaceSummary {
+        private final Xobj _xobj;
+        private final int _pos;
+        private final long _version;
+        private final List<Object> _options;
+        private final Map<String, String> _namespaces;
+
+        NamespaceSummary(Cur c, List<Object> options, Map<String, String> namespaces) {
+            _xobj = c._xobj;
+            _pos = c._pos;
+            _version = c._locale._versionSansText;
+            _options = options;
+            _namespaces = namespaces;
+        }
+
+        boolean matches(Cur c, List<Object> options) {
+            return _xobj == c._xobj && _pos == c._pos &&
+                   _version == c._locale._versionSansText && _options.equals(options);
+        }
+    }
+
     static final class SynthNamespaceSaver extends Saver {
         LinkedHashMap<String, String> _synthNamespaces = new LinkedHashMap<>();
 
@@ -1692,6 +1748,42 @@ abstract class Saver {
         }
 
         public int write(Writer writer, int cchMin) {
+            int charsAvailable = fillLinear(cchMin);
+
+            if (charsAvailable > 0) {
+                try {
+//System.out.println("-------------\nWriting in converter: TextSaver.write():1703  " + charsAvailable + " chars\n" + new String(_buf, 0, charsAvailable));
+                    writer.write(_buf, 0, charsAvailable);
+                    writer.flush();
+                } catch (IOException e) {
+                    throw new RuntimeException(e);
+                }
+
+                consumeLinear(charsAvailable);
+            }
+
+            return charsAvailable;
+        }
+
+        /**
+         * Like {@link #write(Writer, int)}, but encodes the chars without an intermediate Writer
+         */
+        int write(Utf8Saver encoder, int cchMin) throws IOException {
+            int charsAvailable = fillLinear(cchMin);
+
+            if (charsAvailable > 0) {
+                encoder.encode(_buf, 0, charsAvailable);
+                consumeLinear(charsAvailable);
+            }
+
+            return charsAvailable;
+        }
+
+        /**
+         * Processes the document until at least cchMin chars are available or the document
+         * is finished. The available chars are then located at the start of the buffer.
+         */
+        private int fillLinear(int cchMin) {
             while (getAvailable() < cchMin) {
                 if (!process()) {
                     break;
@@ -1710,29 +1802,24 @@ abstract class Saver {
                     _in = _buf.length;
                 }
                 assert _free == _buf.length - _in;
+            }
 
-                try {
-//System.out.println("-------------\nWriting in converter: TextSaver.write():1703  " + charsAvailable + " chars\n" + new String(_buf, 0, charsAvailable));
-                    writer.write(_buf, 0, charsAvailable);
-                    writer.flush();
-                } catch (IOException e) {
-                    throw new RuntimeException(e);
-                }
+            return charsAvailable;
+        }
 
-                _free += charsAvailable;
+        private void consumeLinear(int charsAvailable) {
+            _free += charsAvailable;
 
-                assert _free >= 0;
+            assert _free >= 0;
+
+            _in = 0;
 
-                _in = 0;
-            }
             assert _buf == null ||
                    (_out < _in && _free == _buf.length - (_in - _out)) || // data in the middle, free on the edges
                    (_out > _in && _free == _out - _in) ||                   // data on the edges, free in the middle
                    (_out == _in && _free == _buf.length) ||                  // no data, all buffer free
                    (_out == _in && _free == 0)                               // buffer full
                 : "_buf.length:" + _buf.length + " _in:" + _in + " _out:" + _out + " _free:" + _free;
-
-            return charsAvailable;
         }
 
         public String saveToString() {
@@ -2170,7 +2257,7 @@ abstract class Saver {
     }
 
     private static int syncWrap(Locale l, SyncWrapFun fun) throws IOException {
-        if (l.noSync()) {
+        if (l.noSync() || l.usesLock()) {
             l.enter();
             try {
                 return fun.process();
@@ -2243,6 +2330,27 @@ abstract class Saver {
 
             _outStreamImpl = new OutputStreamImpl();
 
+            String encoding = getEncoding(c, options);
+
+            String javaEncoding = (encoding == null) ? null : EncodingMap.getIANA2JavaMapping(encoding);
+
+            if (javaEncoding == null) {
+                throw new IllegalStateException("Unknown encoding: " + encoding);
+            }
+
+            try {
+                _converter = new OutputStreamWriter(_outStreamImpl, javaEncoding);
+            } catch (UnsupportedEncodingException e) {
+                throw new RuntimeException(e);
+            }
+
+            _textSaver = new TextSaver(c, options, encoding);
+        }
+
+        /**
+         * @return the IANA name of the encoding to save the document with
+         */
+        static String getEncoding(Cur c, XmlOptions options) {
             String encoding = null;
 
             XmlDocumentProperties props = Locale.getDocProps(c, false);
@@ -2251,7 +2359,7 @@ abstract class Saver {
                 encoding = EncodingMap.getIANA2JavaMapping(props.getEncoding());
             }
 
-            String enc = options.getCharacterEncoding();
+            String enc = options == null ? null : options.getCharacterEncoding();
             if (enc != null) {
                 encoding = enc;
             }
@@ -2268,19 +2376,7 @@ abstract class Saver {
                 encoding = EncodingMap.getJava2IANAMapping("UTF8");
             }
 
-            String javaEncoding = (encoding == null) ? null : EncodingMap.getIANA2JavaMapping(encoding);
-
-            if (javaEncoding == null) {
-                throw new IllegalStateException("Unknown encoding: " + encoding);
-            }
-
-            try {
-                _converter = new OutputStreamWriter(_outStreamImpl, javaEncoding);
-            } catch (UnsupportedEncodingException e) {
-                throw new RuntimeException(e);
-            }
-
-            _textSaver = new TextSaver(c, options, encoding);
+            return encoding;
         }
 
         public void close() {
@@ -2299,7 +2395,7 @@ abstract class Saver {
         public int read() throws IOException {
             checkClosed();
 
-            if (_locale.noSync()) {
+            if (_locale.noSync() || _locale.usesLock()) {
                 _locale.enter();
                 try {
                     return _outStreamImpl.read();
@@ -2521,6 +2617,147 @@ abstract class Saver {
         private final OutputStreamWriter _converter;
     }
 
+    /**
+     * Saves a document as UTF-8 to an OutputStream or a WritableByteChannel.
+     * <p>
+     * The chars of the {@link TextSaver} are encoded straight into a reusable byte buffer - instead of
+     * the ring buffer of the {@link InputStreamSaver} and a charset encoder - with a fast path for
+     * ASCII. The output is the same as of the {@link InputStreamSaver}, i.e. malformed surrogates are
+     * replaced by '?'.
+     */
+    static final class Utf8Saver {
+        private static final int CHUNK_CHARS = 4096;
+
+        private final TextSaver _textSaver;
+        private final byte[] _bytes;
+        private final ByteBuffer _byteBuffer;
+        private int _count;
+        // a high surrogate at the end of the previous chunk
+        private char _highSurrogate;
+
+        private OutputStream _os;
+        private WritableByteChannel _channel;
+
+        Utf8Saver(Cur c, XmlOptions options) {
+            assert isUtf8(InputStreamSaver.getEncoding(c, options));
+            _textSaver = new TextSaver(c, options, EncodingMap.getJava2IANAMapping("UTF8"));
+            _bytes = new byte[CHUNK_CHARS * 3 + 4];
+            _byteBuffer = ByteBuffer.wrap(_bytes);
+        }
+
+        static boolean isUtf8(String ianaEncoding) {
+            return "UTF8".equals(EncodingMap.getIANA2JavaMapping(ianaEncoding));
+        }
+
+        void save(OutputStream os) throws IOException {
+            _os = os;
+            save();
+        }
+
+        void save(WritableByteChannel channel) throws IOException {
+            // the channel copies heap buffers, if it needs a direct one
+            _channel = channel;
+            save();
+        }
+
+        private void save() throws IOException {
+            //noinspection StatementWithEmptyBody
+            while (_textSaver.write(this, CHUNK_CHARS) > 0) {
+            }
+            // like the OutputStreamWriter of the InputStreamSaver, which is never closed,
+            // a trailing high surrogate is dropped
+            flush();
+        }
+
+        void encode(char[] buf, int off, int len) throws IOException {
+            int end = off + len;
+
+            if (_highSurrogate != 0 && off < end) {
+                char low = buf[off];
+                if (Character.isLowSurrogate(low)) {
+                    off++;
+                    ensure(4);
+                    encodeCodePoint(Character.toCodePoint(_highSurrogate, low));
+                } else {
+                    ensure(1);
+                    _bytes[_count++] = '?';
+                }
+                _highSurrogate = 0;
+            }
+
+            while (off < end) {
+                // ASCII fast path
+                int asciiEnd = Math.min(end, off + _bytes.length - _count);
+                while (off < asciiEnd) {
+                    char ch = buf[off];
+                    if (ch >= 0x80) {
+                        break;
+                    }
+                    _bytes[_count++] = (byte) ch;
+                    off++;
+                }
+
+                if (off == end) {
+                    break;
+                }
+
+                ensure(4);
+
+                char ch = buf[off++];
+                if (ch < 0x80) {
+                    _bytes[_count++] = (byte) ch;
+                } else if (ch < 0x800) {
+                    _bytes[_count++] = (byte) (0xC0 | (ch >> 6));
+                    _bytes[_count++] = (byte) (0x80 | (ch & 0x3F));
+                } else if (Character.isHighSurrogate(ch)) {
+                    if (off == end) {
+                        _highSurrogate = ch;
+                    } else if (Character.isLowSurrogate(buf[off])) {
+                        encodeCodePoint(Character.toCodePoint(ch, buf[off++]));
+                    } else {
+                        _bytes[_count++] = '?';
+                    }
+                } else if (Character.isLowSurrogate(ch)) {
+                    _bytes[_count++] = '?';
+                } else {
+                    _bytes[_count++] = (byte) (0xE0 | (ch >> 12));
+                    _bytes[_count++] = (byte) (0x80 | ((ch >> 6) & 0x3F));
+                    _bytes[_count++] = (byte) (0x80 | (ch & 0x3F));
+                }
+            }
+        }
+
+        private void encodeCodePoint(int cp) {
+            _bytes[_count++] = (byte) (0xF0 | (cp >> 18));
+            _bytes[_count++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+            _bytes[_count++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+            _bytes[_count++] = (byte) (0x80 | (cp & 0x3F));
+        }
+
+        private void ensure(int cbyte) throws IOException {
+            if (_bytes.length - _count < cbyte) {
+                flush();
+            }
+        }
+
+        private void flush() throws IOException {
+            if (_count == 0) {
+                return;
+            }
+
+            if (_os != null) {
+                _os.write(_bytes, 0, _count);
+            } else {
+                _byteBuffer.clear().limit(_count);
+                while (_byteBuffer.hasRemaining()) {
+                    _channel.write(_byteBuffer);
+                }
+            }
+
+            _count = 0;
+        }
+    }
+
     static final class SaxSaver extends Saver {
         SaxSaver(Cur c, XmlOptions options, ContentHandler ch, LexicalHandler lh)
             throws SAXException {
@@ -0,0 +1,566 @@
+/*   Copyright 2004 The Apache Software Foundation
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.xmlbeans.impl.store;
+
+import net.sf.saxon.om.NamespaceBinding;
+import net.sf.saxon.om.NamespaceMap;
+import net.sf.saxon.om.NodeInfo;
+import net.sf.saxon.pattern.AnyNodeTest;
+import net.sf.saxon.pattern.NodeTest;
+import net.sf.saxon.str.StringView;
+import net.sf.saxon.str.UnicodeString;
+import net.sf.saxon.tree.iter.AxisIterator;
+import net.sf.saxon.tree.util.Navigator;
+import net.sf.saxon.tree.util.SteppingNavigator;
+import net.sf.saxon.tree.util.SteppingNode;
+import net.sf.saxon.tree.wrapper.AbstractNodeWrapper;
+import net.sf.saxon.tree.wrapper.SiblingCountingNode;
+import net.sf.saxon.type.Type;
+import net.sf.saxon.type.UType;
+import org.apache.xmlbeans.impl.store.DomImpl.Dom;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A Saxon node over the {@link Xobj}s of the store, see {@link SaxonTreeInfo}.
+ * <p>
+ * Element, attribute, comment and processing instruction nodes are backed by their Xobj. The
+ * text of a container before its first child and the text after a node are text nodes, which
+ * are identified by the Xobj holding the text. The xmlns attributes are only exposed as
+ * namespaces.
+ * <p>
+ * The nodes read the store without synchronization, so they must only be used within the locale.
+ */
+public final class SaxonNodeInfo extends AbstractNodeWrapper implements SiblingCountingNode, SteppingNode {
+    private final Xobj _xobj;
+    private final int _nodeKind;
+    // text nodes: the text after _xobj, otherwise the text of the container _xobj before its first child
+    private final boolean _after;
+
+    SaxonNodeInfo(SaxonTreeInfo tree, Xobj x, int nodeKind, boolean after) {
+        treeInfo = tree;
+        _xobj = x;
+        _nodeKind = nodeKind;
+        _after = after;
+    }
+
+    static int nodeKind(Xobj x) {
+        switch (x.kind()) {
+            case Cur.ROOT:
+                return Type.DOCUMENT;
+            case Cur.ELEM:
+                return Type.ELEMENT;
+            case Cur.ATTR:
+                return Type.ATTRIBUTE;
+            case Cur.COMMENT:
+                return Type.COMMENT;
+            case Cur.PROCINST:
+                return Type.PROCESSING_INSTRUCTION;
+            default:
+                throw new IllegalStateException("Unexpected kind " + x.kind());
+        }
+    }
+
+    private SaxonNodeInfo node(Xobj x) {
+        return x == null ? null : new SaxonNodeInfo(getTreeInfo(), x, nodeKind(x), false);
+    }
+
+    private SaxonNodeInfo text(Xobj x, boolean after) {
+        return new SaxonNodeInfo(getTreeInfo(), x, Type.TEXT, after);
+    }
+
+    private boolean isText() {
+        return _nodeKind == Type.TEXT;
+    }
+
+    private boolean isContainer() {
+        return _nodeKind == Type.ELEMENT || _nodeKind == Type.DOCUMENT;
+    }
+
+    /**
+     * @return a temporary cur at the start of the node
+     */
+    public Cur tempCur() {
+        if (!isText()) {
+            return _xobj.tempCur();
+        }
+        Cur c = _xobj._locale.tempCur();
+        c.moveTo(_xobj, _after ? _xobj.posAfter() : 1);
+        return c;
+    }
+
+    @Override
+    public SaxonTreeInfo getTreeInfo() {
+        return (SaxonTreeInfo) treeInfo;
+    }
+
+    /**
+     * @return the DOM node - the DOM text node is only created on demand
+     */
+    @Override
+    public Dom getUnderlyingNode() {
+        if (!isText()) {
+            return _xobj.getDom();
+        }
+        Cur c = tempCur();
+        try {
+            return c.getDom();
+        } finally {
+            c.release();
+        }
+    }
+
+    @Override
+    public int getNodeKind() {
+        return _nodeKind;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (!(other instanceof SaxonNodeInfo)) {
+            return false;
+        }
+        SaxonNodeInfo o = (SaxonNodeInfo) other;
+        return _xobj == o._xobj && _nodeKind == o._nodeKind && _after == o._after;
+    }
+
+    @Override
+    public int hashCode() {
+        return System.identityHashCode(_xobj) * 3 + (isText() ? (_after ? 2 : 1) : 0);
+    }
+
+    @Override
+    public int compareOrder(NodeInfo other) {
+        if (!(other instanceof SaxonNodeInfo)) {
+            // namespace nodes
+            return -other.compareOrder(this);
+        }
+        SaxonNodeInfo o = (SaxonNodeInfo) other;
+        if (equals(o)) {
+            return 0;
+        }
+        if (o.treeInfo != treeInfo) {
+            return Long.compare(treeInfo.getDocumentNumber(), o.treeInfo.getDocumentNumber());
+        }
+
+        // the value text of a container precedes its children and the text after a node follows
+        // its descendants, so the nodes are compared by their Xobjs and the texts of the Xobjs
+        int rank = isText() ? (_after ? 2 : 1) : 0;
+        int otherRank = o.isText() ? (o._after ? 2 : 1) : 0;
+
+        Xobj a = _xobj;
+        Xobj b = o._xobj;
+        if (a == b) {
+            return rank < otherRank ? -1 : 1;
+        }
+
+        int depth = depth(a);
+        int otherDepth = depth(b);
+        for (int i = depth; i > otherDepth; i--) {
+            a = a._parent;
+        }
+        for (int i = otherDepth; i > depth; i--) {
+            b = b._parent;
+        }
+        if (a == b) {
+            // one Xobj is an ancestor of the other one
+            if (depth < otherDepth) {
+                return rank == 2 ? 1 : -1;
+            } else {
+                return otherRank == 2 ? -1 : 1;
+            }
+        }
+
+        while (a._parent != b._parent) {
+            a = a._parent;
+            b = b._parent;
+        }
+        return precedes(a, b) ? -1 : 1;
+    }
+
+    private static int depth(Xobj x) {
+        int depth = 0;
+        for (Xobj p = x._parent; p != null; p = p._parent) {
+            depth++;
+        }
+        return depth;
+    }
+
+    /**
+     * @return true, if the sibling a precedes b - both are searched forwards, so the cost depends
+     * on the distance of the siblings and not on their position
+     */
+    private static boolean precedes(Xobj a, Xobj b) {
+        for (Xobj x = a, y = b; ; x = x._nextSibling, y = y._nextSibling) {
+            if (x == null || x._nextSibling == b) {
+                return x != null;
+            }
+            if (y == null || y._nextSibling == a) {
+                return y == null;
+            }
+        }
+    }
+
+    @Override
+    public UnicodeString getUnicodeStringValue() {
+        return StringView.tidy(getText());
+    }
+
+    private String getText() {
+        switch (_nodeKind) {
+            case Type.TEXT:
+                return _after
+                    ? CharUtil.getString(_xobj._srcAfter, _xobj._offAfter, _xobj._cchAfter)
+                    : CharUtil.getString(_xobj._srcValue, _xobj._offValue, _xobj._cchValue);
+
+            case Type.DOCUMENT:
+            case Type.ELEMENT:
+                return _xobj.hasChildren() ? getDescendantText(_xobj) : _xobj.getValueAsString();
+
+            default:
+                return _xobj.getValueAsString();
+        }
+    }
+
+    private static String getDescendantText(Xobj root) {
+        StringBuffer sb = new StringBuffer();
+        root.ensureOccupancy();
+        appendValue(sb, root);
+
+        Xobj x = root._firstChild;
+        while (x != null) {
+            if (x.isContainer()) {
+                x.ensureOccupancy();
+                appendValue(sb, x);
+                if (x._firstChild != null) {
+                    x = x._firstChild;
+                    continue;
+                }
+            }
+            // the subtree of x is done - continue with the text after it
+            for (; ; ) {
+                appendAfter(sb, x);
+                if (x._nextSibling != null) {
+                    x = x._nextSibling;
+                    break;
+                }
+                x = x._parent;
+                if (x == root) {
+                    x = null;
+                    break;
+                }
+            }
+        }
+
+        return sb.toString();
+    }
+
+    private static void appendValue(StringBuffer sb, Xobj x) {
+        if (x._cchValue > 0) {
+            CharUtil.getString(sb, x._srcValue, x._offValue, x._cchValue);
+        }
+    }
+
+    private static void appendAfter(StringBuffer sb, Xobj x) {
+        if (x._cchAfter > 0) {
+            CharUtil.getString(sb, x._srcAfter, x._offAfter, x._cchAfter);
+        }
+    }
+
+    @Override
+    public String getLocalPart() {
+        switch (_nodeKind) {
+            case Type.ELEMENT:
+            case Type.ATTRIBUTE:
+            case Type.PROCESSING_INSTRUCTION:
+                return _xobj._name.getLocalPart();
+            default:
+                return "";
+        }
+    }
+
+    @Override
+    public String getURI() {
+        return _nodeKind == Type.ELEMENT || _nodeKind == Type.ATTRIBUTE ? _xobj._name.getNamespaceURI() : "";
+    }
+
+    @Override
+    public String getPrefix() {
+        return _nodeKind == Type.ELEMENT || _nodeKind == Type.ATTRIBUTE ? _xobj._name.getPrefix() : "";
+    }
+
+    @Override
+    public String getDisplayName() {
+        String prefix = getPrefix();
+        return prefix.isEmpty() ? getLocalPart() : prefix + ":" + getLocalPart();
+    }
+
+    @Override
+    public boolean isId() {
+        return _xobj instanceof AttrXobj && ((AttrXobj) _xobj).isId();
+    }
+
+    @Override
+    public SaxonNodeInfo getParent() {
+        if (isText() && !_after) {
+            return node(_xobj);
+        }
+        return node(_xobj._parent);
+    }
+
+    @Override
+    public NodeInfo getRoot() {
+        return getTreeInfo().getRootNode();
+    }
+
+    @Override
+    public int getSiblingPosition() {
+        int pos = 0;
+        if (_nodeKind == Type.ATTRIBUTE) {
+            for (Xobj a = _xobj._prevSibling; a != null; a = a._prevSibling) {
+                if (!a.isXmlns()) {
+                    pos++;
+                }
+            }
+        } else if (_nodeKind != Type.DOCUMENT) {
+            for (SaxonNodeInfo n = getPreviousSibling(); n != null; n = n.getPreviousSibling()) {
+                pos++;
+            }
+        }
+        return pos;
+    }
+
+    @Override
+    public SaxonNodeInfo getFirstChild() {
+        if (!isContainer()) {
+            return null;
+        }
+        _xobj.ensureOccupancy();
+        Xobj lastAttr = _xobj.lastAttr();
+        if (lastAttr != null) {
+            return lastAttr._cchAfter > 0 ? text(lastAttr, true) : node(lastAttr._nextSibling);
+        }
+        return _xobj._cchValue > 0 ? text(_xobj, false) : node(_xobj._firstChild);
+    }
+
+    @Override
+    public SaxonNodeInfo getNextSibling() {
+        if (isText()) {
+            return node(_after ? _xobj._nextSibling : _xobj._firstChild);
+        }
+        if (_nodeKind == Type.ATTRIBUTE || _nodeKind == Type.DOCUMENT) {
+            return null;
+        }
+        return _xobj._cchAfter > 0 ? text(_xobj, true) : node(_xobj._nextSibling);
+    }
+
+    @Override
+    public SaxonNodeInfo getPreviousSibling() {
+        if (isText()) {
+            return _after && !_xobj.isAttr() ? node(_xobj) : null;
+        }
+        if (_nodeKind == Type.ATTRIBUTE || _nodeKind == Type.DOCUMENT) {
+            return null;
+        }
+        Xobj prev = _xobj._prevSibling;
+        if (prev == null) {
+            Xobj parent = _xobj._parent;
+            return parent != null && parent._cchValue > 0 ? text(parent, false) : null;
+        }
+        if (prev.isAttr()) {
+            return prev._cchAfter > 0 ? text(prev, true) : null;
+        }
+        return prev._cchAfter > 0 ? text(prev, true) : node(prev);
+    }
+
+    @Override
+    public SaxonNodeInfo getSuccessorElement(SteppingNode anchor, String uri, String local) {
+        Xobj stop = anchor == null ? null : ((SaxonNodeInfo) anchor)._xobj;
+        Xobj x;
+        if (isText()) {
+            x = _after ? _xobj.walk(stop, false) : _xobj._firstChild;
+        } else {
+            x = _xobj.walk(stop, true);
+        }
+        while (x != null && !(x.isElem() &&
+                              (local == null || local.equals(x._name.getLocalPart())) &&
+                              (uri == null || uri.equals(x._name.getNamespaceURI())))) {
+            x = x.walk(stop, true);
+        }
+        return node(x);
+    }
+
+    @Override
+    public boolean hasChildNodes() {
+        return getFirstChild() != null;
+    }
+
+    @Override
+    public String getAttributeValue(String uri, String local) {
+        if (_nodeKind != Type.ELEMENT) {
+            return null;
+        }
+        for (Xobj a = _xobj.firstAttr(); a != null; a = a.nextAttr()) {
+            if (!a.isXmlns() && local.equals(a._name.getLocalPart()) && uri.equals(a._name.getNamespaceURI())) {
+                return a.getValueAsString();
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public void generateId(StringBuilder buffer) {
+        Navigator.appendSequentialKey(this, buffer, true);
+    }
+
+    @Override
+    public NamespaceBinding[] getDeclaredNamespaces(NamespaceBinding[] buffer) {
+        if (_nodeKind != Type.ELEMENT) {
+            return null;
+        }
+        List<NamespaceBinding> bindings = new ArrayList<>();
+        for (Xobj a = _xobj.firstAttr(); a != null; a = a.nextAttr()) {
+            if (a.isXmlns()) {
+                bindings.add(new NamespaceBinding(a.getXmlnsPrefix(), a.getXmlnsUri()));
+            }
+        }
+        return bindings.toArray(NamespaceBinding.EMPTY_ARRAY);
+    }
+
+    @Override
+    public NamespaceMap getAllNamespaces() {
+        if (_nodeKind != Type.ELEMENT) {
+            return null;
+        }
+        List<Xobj> elements = new ArrayList<>();
+        for (Xobj x = _xobj; x != null && x.isElem(); x = x._parent) {
+            elements.add(x);
+        }
+        NamespaceMap map = NamespaceMap.emptyMap();
+        for (int i = elements.size() - 1; i >= 0; i--) {
+            for (Xobj a = elements.get(i).firstAttr(); a != null; a = a.nextAttr()) {
+                if (a.isXmlns()) {
+                    map = map.bind(a.getXmlnsPrefix(), a.getXmlnsUri());
+                }
+            }
+        }
+        return map;
+    }
+
+    @Override
+    protected AxisIterator iterateAttributes(NodeTest nodeTest) {
+        return filter(new AttributeIterator(_xobj.firstAttr()), nodeTest);
+    }
+
+    @Override
+    protected AxisIterator iterateChildren(NodeTest nodeTest) {
+        if (isElementOnly(nodeTest)) {
+            return filter(new ElementIterator(_xobj._firstChild, true), nodeTest);
+        }
+        return filter(new SiblingIterator(getFirstChild(), true), nodeTest);
+    }
+
+    @Override
+    protected AxisIterator iterateSiblings(NodeTest nodeTest, boolean forwards) {
+        if (isElementOnly(nodeTest)) {
+            Xobj first;
+            if (isText()) {
+                first = forwards ? (_after ? _xobj._nextSibling : _xobj._firstChild) : (_after ? _xobj : null);
+            } else {
+                first = forwards ? _xobj._nextSibling : _xobj._prevSibling;
+            }
+            return filter(new ElementIterator(first, forwards), nodeTest);
+        }
+        return filter(new SiblingIterator(forwards ? getNextSibling() : getPreviousSibling(), forwards), nodeTest);
+    }
+
+    @Override
+    protected AxisIterator iterateDescendants(NodeTest nodeTest, boolean includeSelf) {
+        return new SteppingNavigator.DescendantAxisIterator(this, includeSelf, nodeTest);
+    }
+
+    private static boolean isElementOnly(NodeTest nodeTest) {
+        return nodeTest.getUType() == UType.ELEMENT;
+    }
+
+    private static AxisIterator filter(AxisIterator iter, NodeTest nodeTest) {
+        return nodeTest == AnyNodeTest.getInstance() ? iter : new Navigator.AxisFilter(iter, nodeTest);
+    }
+
+    private final class AttributeIterator implements AxisIterator {
+        private Xobj _next;
+
+        AttributeIterator(Xobj first) {
+            _next = first;
+        }
+
+        @Override
+        public NodeInfo next() {
+            while (_next != null && _next.isXmlns()) {
+                _next = _next.nextAttr();
+            }
+            if (_next == null) {
+                return null;
+            }
+            Xobj a = _next;
+            _next = a.nextAttr();
+            return node(a);
+        }
+    }
+
+    private final class ElementIterator implements AxisIterator {
+        private Xobj _next;
+        private final boolean _forwards;
+
+        ElementIterator(Xobj first, boolean forwards) {
+            _next = first;
+            _forwards = forwards;
+        }
+
+        @Override
+        public NodeInfo next() {
+            while (_next != null && !_next.isElem()) {
+                _next = _forwards ? _next._nextSibling : _next._prevSibling;
+            }
+            if (_next == null) {
+                return null;
+            }
+            Xobj x = _next;
+            _next = _forwards ? x._nextSibling : x._prevSibling;
+            return node(x);
+        }
+    }
+
+    private static final class SiblingIterator implements AxisIterator {
+        private SaxonNodeInfo _next;
+        private final boolean _forwards;
+
+        SiblingIterator(SaxonNodeInfo first, boolean forwards) {
+            _next = first;
+            _forwards = forwards;
+        }
+
+        @Override
+        public NodeInfo next() {
+            SaxonNodeInfo n = _next;
+            if (n != null) {
+                _next = _forwards ? n.getNextSibling() : n.getPreviousSibling();
+            }
+            return n;
+        }
+    }
+}
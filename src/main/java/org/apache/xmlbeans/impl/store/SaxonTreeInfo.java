@@ -0,0 +1,106 @@
+/*   Copyright 2004 The Apache Software Foundation
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.xmlbeans.impl.store;
+
+import net.sf.saxon.Configuration;
+import net.sf.saxon.om.GenericTreeInfo;
+import net.sf.saxon.om.NodeInfo;
+import net.sf.saxon.type.Type;
+import org.apache.xmlbeans.impl.store.DomImpl.Dom;
+
+import java.util.function.Function;
+
+/**
+ * A Saxon tree over a document of the store, so XPath and XQuery expressions are evaluated over
+ * the {@link Xobj}s instead of the Saxon wrapper of the DOM implementation, which synchronizes
+ * each DOM call and creates the DOM text nodes.
+ * <p>
+ * The tree is only valid within the locale and while the document isn't changed.
+ */
+public final class SaxonTreeInfo extends GenericTreeInfo {
+    private final Locale _locale;
+    private final Xobj _root;
+
+    private SaxonTreeInfo(Configuration config, Xobj root) {
+        super(config);
+        _locale = root._locale;
+        _root = root;
+        setRootNode(new SaxonNodeInfo(this, root, SaxonNodeInfo.nodeKind(root), false));
+    }
+
+    /**
+     * Wraps the position of the cur in a new tree. Must be called within the locale.
+     *
+     * @return the node at the position, i.e. the container for an end position
+     */
+    public static NodeInfo wrap(Cur c, Configuration config) {
+        Xobj root = c._xobj;
+        while (root._parent != null) {
+            root = root._parent;
+        }
+        return new SaxonTreeInfo(config, root).node(c);
+    }
+
+    /**
+     * Wraps the DOM node of this locale in this tree or a new tree, if it belongs to another
+     * document of the locale. Must be called within the locale.
+     *
+     * @return the node or null, if the DOM node doesn't belong to the locale of this tree
+     */
+    public NodeInfo wrap(Object domNode) {
+        if (!(domNode instanceof Dom) || ((Dom) domNode).locale() != _locale) {
+            return null;
+        }
+        Cur c = ((Dom) domNode).tempCur();
+        try {
+            Xobj root = c._xobj;
+            while (root._parent != null) {
+                root = root._parent;
+            }
+            return (root == _root ? this : new SaxonTreeInfo(getConfiguration(), root)).node(c);
+        } finally {
+            c.release();
+        }
+    }
+
+    /**
+     * Applies the function to the node of the DOM node, while the locale is entered - so the
+     * whole evaluation of an expression is synchronized at once.
+     */
+    public static <T> T evaluate(Dom domNode, Configuration config, Function<NodeInfo, T> fun) {
+        return DomImpl.syncWrapHelper(domNode.locale(), true, () -> {
+            Cur c = domNode.tempCur();
+            NodeInfo node;
+            try {
+                node = wrap(c, config);
+            } finally {
+                c.release();
+            }
+            return fun.apply(node);
+        });
+    }
+
+    private NodeInfo node(Cur c) {
+        Xobj x = c._xobj;
+        if (c.isText() && c._pos >= x.posAfter()) {
+            return new SaxonNodeInfo(this, x, Type.TEXT, true);
+        }
+        if (c.isText() && x.isContainer()) {
+            return new SaxonNodeInfo(this, x, Type.TEXT, false);
+        }
+        return x == _root ? getRootNode() : new SaxonNodeInfo(this, x, SaxonNodeInfo.nodeKind(x), false);
+    }
+}
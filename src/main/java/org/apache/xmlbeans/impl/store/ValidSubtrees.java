@@ -0,0 +1,89 @@
+/*   Copyright 2004 The Apache Software Foundation
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.xmlbeans.impl.store;
+
+import org.apache.xmlbeans.XmlOptions;
+
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * The elements of a locale, whose subtrees have been found valid by an incremental validation,
+ * see {@link XmlOptions#setValidateIncremental()}.
+ * <p>
+ * Each element is recorded with the key of its validation, see {@link Validate}. A change of a
+ * node drops the records of the node and its ancestors, so the next validation skips the
+ * unchanged subtrees and walks the paths to the changed nodes.
+ */
+final class ValidSubtrees {
+    // weak, so removed subtrees don't stay alive
+    private final Map<Xobj, Object> _valid = new WeakHashMap<>();
+
+    static ValidSubtrees forLocale(Locale l) {
+        if (l._validSubtrees == null) {
+            l._validSubtrees = new ValidSubtrees();
+        }
+        return l._validSubtrees;
+    }
+
+    /**
+     * @return the key of the element, or null if its subtree isn't known to be valid
+     */
+    Object get(Xobj x) {
+        return _valid.get(x);
+    }
+
+    void put(Xobj x, Object key) {
+        _valid.put(x, key);
+    }
+
+    /**
+     * Drops the records of the node and its ancestors, when the node or its content changes
+     */
+    static void changed(Xobj x) {
+        ValidSubtrees v = x == null ? null : x._locale._validSubtrees;
+        if (v == null || v._valid.isEmpty()) {
+            return;
+        }
+
+        if (x.isAttr() && x.isXmlns()) {
+            // the values of all elements in scope may resolve their prefixes differently
+            v._valid.clear();
+            return;
+        }
+
+        for (; x != null; x = x._parent) {
+            v._valid.remove(x);
+        }
+    }
+
+    /**
+     * Drops the records of the node, its descendants and its ancestors, when the node is moved
+     * to another place, where its values may resolve their prefixes differently
+     */
+    static void moved(Xobj x) {
+        changed(x);
+
+        ValidSubtrees v = x._locale._validSubtrees;
+        if (v == null || v._valid.isEmpty()) {
+            return;
+        }
+
+        for (Xobj y = x; y != null; y = y.walk(x, true)) {
+            v._valid.remove(y);
+        }
+    }
+}
@@ -15,10 +15,13 @@
 
 package org.apache.xmlbeans.impl.store;
 
+import org.apache.xmlbeans.impl.common.IncrementalValidatorListener;
+import org.apache.xmlbeans.impl.common.SplittableValidatorListener;
 import org.apache.xmlbeans.impl.common.ValidatorListener;
 import javax.xml.stream.Location;
 import org.apache.xmlbeans.XmlCursor;
 import javax.xml.namespace.QName;
+import java.util.Arrays;
 
 final class Validate implements ValidatorListener.Event
 {
@@ -28,6 +31,17 @@ final class Validate implements ValidatorListener.Event
             throw new IllegalStateException( "Inappropriate location to validate" );
 
         _sink = sink;
+        _splitSink = sink instanceof SplittableValidatorListener ? (SplittableValidatorListener) sink : null;
+
+        // Read only documents don't change, and they are validated without a lock
+
+        if (sink instanceof IncrementalValidatorListener &&
+                ((IncrementalValidatorListener) sink).isIncremental() && !c._xobj.isFrozen())
+        {
+            _incrementalSink = (IncrementalValidatorListener) sink;
+            _validSubtrees = ValidSubtrees.forLocale( c._locale );
+        }
+
         _cur = c;
         _textCur = c.tempCur();
         _hasText = false;
@@ -44,6 +58,11 @@ final class Validate implements ValidatorListener.Event
             _cur = null;
 
             _sink = null;
+            _splitSink = null;
+            _split = null;
+            _incrementalSink = null;
+            _validSubtrees = null;
+            _elems = null;
 
             _textCur.release();
         }
@@ -51,10 +70,10 @@ final class Validate implements ValidatorListener.Event
 
     private void process ( )
     {
-        emitEvent( ValidatorListener.BEGIN );
-
         if (_cur.isAttr())
         {
+            emitEvent( ValidatorListener.BEGIN );
+
             // If validating an attr, I'm really validating the contents of that attr.  So, go to
             // any text value and shove it thru the validator.
 
@@ -62,26 +81,49 @@ final class Validate implements ValidatorListener.Event
 
             if (_cur.isText())
                 emitText();
+
+            emitEvent( ValidatorListener.END );
         }
         else
         {
             assert _cur.isContainer();
 
+            if (!beginElement())
+                return;
+
             // Do the attrs of the top container
 
             doAttrs();
+            trySplit();
 
             for ( _cur.next() ; ! _cur.isAtEndOfLastPush() ; _cur.next() )
             {
                 switch ( _cur.kind() )
                 {
                 case Cur.ELEM :
-                    emitEvent( ValidatorListener.BEGIN );
+                    if (_split != null)
+                    {
+                        // The children of the parent are validated in parallel, when it ends
+
+                        flushText();
+                        _split.add( _cur, this );
+                        _cur.toEnd();
+                        break;
+                    }
+
+                    if (!beginElement())
+                    {
+                        _cur.toEnd();
+                        break;
+                    }
+
                     doAttrs();
+                    trySplit();
                     break;
 
                 case - Cur.ELEM :
-                    emitEvent( ValidatorListener.END );
+                    joinSplit();
+                    endElement();
                     break;
 
                 case Cur.TEXT :
@@ -97,9 +139,106 @@ final class Validate implements ValidatorListener.Event
                     throw new RuntimeException( "Unexpected kind: " + _cur.kind() );
                 }
             }
+
+            joinSplit();
+            endElement();
+        }
+    }
+
+    /**
+     * Sends the BEGIN event of the container at the cursor - or skips the container, if its
+     * subtree has been valid and hasn't been changed since.
+     *
+     * @return false, if the container has been skipped
+     */
+    private boolean beginElement ( )
+    {
+        if (_incrementalSink == null)
+        {
+            emitEvent( ValidatorListener.BEGIN );
+            return true;
         }
 
-        emitEvent( ValidatorListener.END );
+        flushText();
+
+        // The mark is taken before the BEGIN event, as the event checks the container itself
+
+        long mark = _incrementalSink.getMark();
+        Object key = _validSubtrees.get( _cur._xobj );
+
+        if (key != null && _incrementalSink.canSkip())
+        {
+            if (_incrementalSink.skip( this, key ))
+                return false;
+        }
+        else
+            _sink.nextEvent( ValidatorListener.BEGIN, this );
+
+        if (_elems == null)
+        {
+            _elems = new Xobj [ 16 ];
+            _marks = new long [ 16 ];
+        }
+        else if (_depth == _elems.length)
+        {
+            _elems = Arrays.copyOf( _elems, _depth * 2 );
+            _marks = Arrays.copyOf( _marks, _depth * 2 );
+        }
+
+        _elems[ _depth ] = _cur._xobj;
+        _marks[ _depth++ ] = mark;
+
+        return true;
+    }
+
+    /**
+     * Sends the END event of the current container and records its subtree, if no errors have
+     * been found in it
+     */
+    private void endElement ( )
+    {
+        if (_incrementalSink == null)
+        {
+            emitEvent( ValidatorListener.END );
+            return;
+        }
+
+        flushText();
+
+        Xobj x = _elems[ --_depth ];
+        long mark = _marks[ _depth ];
+        _elems[ _depth ] = null;
+
+        Object key = _incrementalSink.getMark() == mark ? _incrementalSink.getSubtreeKey() : null;
+
+        _sink.nextEvent( ValidatorListener.END, this );
+
+        if (key != null && _incrementalSink.getMark() == mark)
+            _validSubtrees.put( x, key );
+    }
+
+    private void trySplit ( )
+    {
+        assert _split == null;
+
+        // The children are recorded one by one when validating incrementally
+
+        if (_incrementalSink == null && _splitSink != null && _splitSink.canSplit() &&
+                ParallelValidate.hasManyChildren( _cur._xobj ))
+        {
+            _split = new ParallelValidate( _splitSink );
+        }
+    }
+
+    private void joinSplit ( )
+    {
+        // When splitting, all children are skipped, so the next end is the one of the parent
+
+        if (_split != null)
+        {
+            _split.join( this );
+            _split = null;
+        }
     }
 
     private void doAttrs ( )
@@ -163,13 +302,18 @@ final class Validate implements ValidatorListener.Event
         assert kind != ValidatorListener.ATTR     || !_hasText;
         assert kind != ValidatorListener.ENDATTRS || !_hasText;
 
+        flushText();
+
+        _sink.nextEvent( kind, this );
+    }
+
+    private void flushText ( )
+    {
         if (_hasText)
         {
             _sink.nextEvent( ValidatorListener.TEXT, this );
             _hasText = false;
         }
-
-        _sink.nextEvent( kind, this );
     }
 
     public String getText ( )
@@ -268,6 +412,21 @@ final class Validate implements ValidatorListener.Event
 
     private ValidatorListener _sink;
 
+    // The sink, if it can validate children apart from the main walk, and the children of the
+    // current element, when they are validated in parallel
+
+    private SplittableValidatorListener _splitSink;
+    private ParallelValidate _split;
+
+    // The sink, if it skips the subtrees which have been valid before, the records of the valid
+    // subtrees and the open containers with the marks of the sink at their BEGIN events
+
+    private IncrementalValidatorListener _incrementalSink;
+    private ValidSubtrees _validSubtrees;
+    private Xobj[] _elems;
+    private long[] _marks;
+    private int _depth;
+
     private Cur _cur;
 
     // Two ways to accumulate text.  First, I can have a Cur positioned at the text.  I do this
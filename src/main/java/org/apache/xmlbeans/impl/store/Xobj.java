@@ -29,6 +29,7 @@ import org.apache.xmlbeans.impl.xpath.XPathFactory;
 import javax.xml.namespace.QName;
 import java.io.PrintStream;
 import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -560,11 +561,16 @@ abstract class Xobj implements TypeStore {
         assert newName != null;
 
         if (!_name.equals(newName) || !_name.getPrefix().equals(newName.getPrefix())) {
+            checkNotFrozen();
+
 // TODO - this is not a structural change .... perhaps should not issue a change here?
             _locale.notifyChange();
 
             QName oldName = _name;
 
+            // with the old and the new name, as either may declare a namespace
+            ValidSubtrees.changed(this);
+
             _name = newName;
             if (this instanceof NamedNodeXobj) {
                 NamedNodeXobj me = (NamedNodeXobj) this;
@@ -587,6 +593,8 @@ abstract class Xobj implements TypeStore {
                 disconnectFromHere.disconnectNonRootUsers();
             }
 
+            ValidSubtrees.changed(this);
+
             _locale._versionAll++;
             _locale._versionSansText++;
         }
@@ -868,6 +876,11 @@ abstract class Xobj implements TypeStore {
 
     final void invalidateSpecialAttr(Xobj newParent) {
         if (isAttr()) {
+            if (isXmlns()) {
+                // namespace declarations are structural, e.g. for the namespaces of the saver
+                _locale._versionSansText++;
+            }
+
             if (_name.equals(Locale._xsiType)) {
                 if (_parent != null) {
                     _parent.disconnectNonRootUsers();
@@ -1298,6 +1311,7 @@ abstract class Xobj implements TypeStore {
     static final int VACANT = 0x100;
     static final int STABLE_USER = 0x200;
     static final int INHIBIT_DISCONNECT = 0x400;
+    static final int FROZEN = 0x800;
 
     final boolean isVacant() {
         return bitIsSet(VACANT);
@@ -1307,6 +1321,20 @@ abstract class Xobj implements TypeStore {
         return bitIsClear(VACANT);
     }
 
+    /**
+     * Nodes of read only documents are frozen, see {@link Locale#freeze(Xobj)}.
+     * Their children aren't looked up via the caches of the locale and they must not be changed.
+     */
+    final boolean isFrozen() {
+        return bitIsSet(FROZEN);
+    }
+
+    final void checkNotFrozen() {
+        if (isFrozen()) {
+            throw new IllegalStateException("The document is read only");
+        }
+    }
+
     final boolean inhibitDisconnect() {
         return bitIsSet(INHIBIT_DISCONNECT);
     }
@@ -1692,11 +1720,15 @@ abstract class Xobj implements TypeStore {
     }
 
     public void invalidate_text() {
+        checkNotFrozen();
+
         _locale.enter();
 
         try {
             assert isValid();
 
+            ValidSubtrees.changed(this);
+
             if (isOccupied()) {
                 if (hasTextNoEnsureOccupancy() || hasChildren()) {
                     TypeStoreUser user = _user;
@@ -1790,6 +1822,8 @@ abstract class Xobj implements TypeStore {
     }
 
     public TypeStoreUser change_type(SchemaType type) {
+        checkNotFrozen();
+
         _locale.enter();
 
         try {
@@ -1804,6 +1838,8 @@ abstract class Xobj implements TypeStore {
     }
 
     public TypeStoreUser substitute(QName name, SchemaType type) {
+        checkNotFrozen();
+
         _locale.enter();
 
         try {
@@ -1818,10 +1854,18 @@ abstract class Xobj implements TypeStore {
     }
 
     public QName get_xsi_type() {
-        return getXsiTypeName();
+        _locale.enter();
+
+        try {
+            return getXsiTypeName();
+        } finally {
+            _locale.exit();
+        }
     }
 
     public void store_text(String text) {
+        checkNotFrozen();
+
         _locale.enter();
 
         TypeStoreUser user = _user;
@@ -1937,6 +1981,8 @@ abstract class Xobj implements TypeStore {
     }
 
     public void invalidate_nil() {
+        checkNotFrozen();
+
         if (isAttr()) {
             return;
         }
@@ -1963,23 +2009,16 @@ abstract class Xobj implements TypeStore {
     }
 
     public TypeStoreUser find_element_user(QName name, int i) {
-        for (Xobj x = _firstChild; x != null; x = x._nextSibling) {
-            if (x.isElem() && x._name.equals(name) && --i < 0) {
-                return x.getUser();
-            }
-        }
+        // findNthChildElem matches any element for a null name
+        Xobj x = i < 0 || name == null ? null : _locale.findNthChildElem(this, name, null, i);
 
-        return null;
+        return x == null ? null : x.getUser();
     }
 
     public TypeStoreUser find_element_user(QNameSet names, int i) {
-        for (Xobj x = _firstChild; x != null; x = x._nextSibling) {
-            if (x.isElem() && names.contains(x._name) && --i < 0) {
-                return x.getUser();
-            }
-        }
+        Xobj x = i < 0 ? null : _locale.findNthChildElem(this, null, names, i);
 
-        return null;
+        return x == null ? null : x.getUser();
     }
 
     @SuppressWarnings("unchecked")
@@ -2002,7 +2041,45 @@ abstract class Xobj implements TypeStore {
         }
     }
 
+    @Override
+    public <T extends XmlObject> void find_element_users(QName name, TypeStore after, int max, List<T> fillMeUp) {
+        find_element_users(name, null, after, max, fillMeUp);
+    }
+
+    @Override
+    public <T extends XmlObject> void find_element_users(QNameSet names, TypeStore after, int max, List<T> fillMeUp) {
+        find_element_users(null, names, after, max, fillMeUp);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends XmlObject> void find_element_users(QName name, QNameSet names, TypeStore after, int max, List<T> fillMeUp) {
+        Xobj x;
+        if (after == null) {
+            x = _firstChild;
+        } else {
+            Xobj a = (Xobj) after;
+            if (a._parent != this) {
+                throw new ConcurrentModificationException();
+            }
+            x = a._nextSibling;
+        }
+
+        for (int n = 0; x != null && n < max; x = x._nextSibling) {
+            if (x.isElem() && (names == null ? x._name.equals(name) : names.contains(x._name))) {
+                fillMeUp.add((T) x.getUser());
+                n++;
+            }
+        }
+    }
+
+    @Override
+    public long structure_version() {
+        return _locale._versionSansText;
+    }
+
     private static TypeStoreUser insertElement(QName name, Xobj x, int pos) {
+        x.checkNotFrozen();
+
         x._locale.enter();
 
         try {
@@ -2099,6 +2176,8 @@ abstract class Xobj implements TypeStore {
             throw new IndexOutOfBoundsException();
         }
 
+        x.checkNotFrozen();
+
         x._locale.enter();
 
         try {
@@ -2119,15 +2198,7 @@ abstract class Xobj implements TypeStore {
             throw new IllegalStateException();
         }
 
-        Xobj x;
-
-        for (x = _firstChild; x != null; x = x._nextSibling) {
-            if (x.isElem() && x._name.equals(name) && --i < 0) {
-                break;
-            }
-        }
-
-        removeElement(x);
+        removeElement(_locale.findNthChildElem(this, name, null, i));
     }
 
     public void remove_element(QNameSet names, int i) {
@@ -2139,15 +2210,7 @@ abstract class Xobj implements TypeStore {
             throw new IllegalStateException();
         }
 
-        Xobj x;
-
-        for (x = _firstChild; x != null; x = x._nextSibling) {
-            if (x.isElem() && names.contains(x._name) && --i < 0) {
-                break;
-            }
-        }
-
-        removeElement(x);
+        removeElement(_locale.findNthChildElem(this, null, names, i));
     }
 
     public TypeStoreUser find_attribute_user(QName name) {
@@ -2157,6 +2220,8 @@ abstract class Xobj implements TypeStore {
     }
 
     public TypeStoreUser add_attribute_user(QName name) {
+        checkNotFrozen();
+
         if (getAttr(name) != null) {
             throw new IndexOutOfBoundsException();
         }
@@ -2171,6 +2236,8 @@ abstract class Xobj implements TypeStore {
     }
 
     public void remove_attribute(QName name) {
+        checkNotFrozen();
+
         _locale.enter();
 
         try {
@@ -2189,6 +2256,8 @@ abstract class Xobj implements TypeStore {
             return getUser();
         }
 
+        checkNotFrozen();
+
         _locale.enter();
 
         try {
@@ -2289,6 +2358,8 @@ abstract class Xobj implements TypeStore {
     }
 
     public void array_setter(XmlObject[] sources, QName elementName) {
+        checkNotFrozen();
+
         _locale.enter();
 
         try {
@@ -2406,7 +2477,13 @@ abstract class Xobj implements TypeStore {
     }
 
     public String getNamespaceForPrefix(String prefix) {
-        return namespaceForPrefix(prefix, true);
+        _locale.enter();
+
+        try {
+            return namespaceForPrefix(prefix, true);
+        } finally {
+            _locale.exit();
+        }
     }
 
     Locale _locale;
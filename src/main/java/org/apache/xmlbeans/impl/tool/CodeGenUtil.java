@@ -18,22 +18,31 @@ package org.apache.xmlbeans.impl.tool;
 import org.apache.xmlbeans.SystemProperties;
 import org.apache.xmlbeans.impl.common.IOUtil;
 
+import javax.tools.*;
 import java.io.*;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.security.CodeSource;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Iterator;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 public class CodeGenUtil {
     public static final String DEFAULT_MEM_START = "8m";
     public static final String DEFAULT_MEM_MAX = "256m";
     public static final String DEFAULT_COMPILER = "javac";
 
+    // batches with fewer sources aren't worth their own compiler run
+    private static final int MIN_BATCH_SIZE = 50;
+    private static final Pattern PACKAGE_DECL = Pattern.compile("^\\s*package\\s+([\\w.]+)\\s*;", Pattern.MULTILINE);
+
     //workaround for Sun bug # 4723726
     public static URI resolve(URI base, URI child) {
         URI ruri = base.resolve(child);
@@ -52,16 +61,20 @@ public class CodeGenUtil {
     }
 
     static void addAllJavaFiles(List<File> srcFiles, List<String> args) {
+        addAllJavaFiles(srcFiles, f -> args.add(quoteAndEscapeFilename(f.getAbsolutePath())));
+    }
+
+    private static void addAllJavaFiles(List<File> srcFiles, Consumer<File> action) {
         for (File f : srcFiles) {
             if (f.isDirectory()) {
                 File[] files = f.listFiles(
                     file -> (file.isFile() && file.getName().endsWith(".java")) || file.isDirectory()
                 );
                 if (files != null) {
-                    addAllJavaFiles(Arrays.asList(files), args);
+                    addAllJavaFiles(Arrays.asList(files), action);
                 }
             } else {
-                args.add(quoteAndEscapeFilename(f.getAbsolutePath()));
+                action.accept(f);
             }
         }
     }
@@ -232,6 +245,256 @@ public class CodeGenUtil {
         return true;
     }
 
+    /**
+     * Compiles the source files with the java compiler of the running VM. If a different
+     * compiler is configured or the VM doesn't provide a compiler, e.g. for a plain JRE,
+     * an external javac process is used instead.
+     *
+     * @param threads the number of batches, which are compiled in parallel by the in-process compiler
+     * @return true, if the compilation succeeded
+     * @see #isInProcessCompile(String)
+     */
+    public static boolean compile(List<File> srcFiles, File outdir, File[] cp, boolean debug, String javacPath, String genver, String memStart, String memMax, int threads, boolean quiet, boolean verbose) {
+        return isInProcessCompile(javacPath)
+            ? internalCompile(srcFiles, outdir, cp, debug, genver, threads, verbose)
+            : externalCompile(srcFiles, outdir, cp, debug, javacPath, genver, memStart, memMax, quiet, verbose);
+    }
+
+    /**
+     * @param javacPath the configured compiler or null for the default compiler
+     * @return true, if the sources are compiled within the running VM
+     */
+    public static boolean isInProcessCompile(String javacPath) {
+        return (javacPath == null || DEFAULT_COMPILER.equals(javacPath)) && ToolProvider.getSystemJavaCompiler() != null;
+    }
+
+    /**
+     * Invokes the system java compiler within the running VM on the generated source files in
+     * order to turn them into binary files in the output directory.
+     * <p>
+     * The compiled classes are kept in memory and only written to the output directory, when
+     * all sources have been compiled successfully. With more than one thread, the sources are
+     * split into batches of whole packages, which are compiled in parallel - the sources of the other
+     * batches are then available via the sourcepath.
+     *
+     * @return false, if an error occurred or there's no system java compiler
+     */
+    public static boolean internalCompile(List<File> srcFiles, File outdir, File[] cp, boolean debug, String genver, int threads, boolean verbose) {
+        JavaCompiler javac = ToolProvider.getSystemJavaCompiler();
+        if (javac == null) {
+            System.err.println("No system java compiler available");
+            return false;
+        }
+
+        List<File> files = new ArrayList<>();
+        addAllJavaFiles(srcFiles, f -> files.add(f.getAbsoluteFile()));
+        if (files.isEmpty()) {
+            return true;
+        }
+        if (outdir == null) {
+            outdir = new File(".");
+        }
+
+        if (cp == null) {
+            cp = systemClasspath();
+        }
+
+        // Add the output directory to the classpath.  We do this so that
+        // javac will be able to find classes that were compiled
+        // previously but are not in the list of sources this time.
+        List<File> classPath = new ArrayList<>();
+        classPath.add(outdir);
+        classPath.addAll(Arrays.asList(cp));
+
+        List<String> options = new ArrayList<>();
+        options.add("-source");
+        options.add(genver == null ? "1.8" : genver);
+        options.add("-target");
+        options.add(genver == null ? "1.8" : genver);
+        options.add(debug ? "-g" : "-g:none");
+        if (verbose) {
+            options.add("-verbose");
+        }
+
+        List<List<File>> batches = splitByPackage(files, Math.max(1, Math.min(threads, files.size() / MIN_BATCH_SIZE)));
+        List<File> sourcePath = new ArrayList<>();
+        if (batches.size() > 1) {
+            // the other batches are only referenced, their classes are generated by their own batch
+            options.add("-implicit:none");
+            options.add("-Xprefer:source");
+            for (File f : files) {
+                File root = sourceRoot(f);
+                if (root != null && !sourcePath.contains(root)) {
+                    sourcePath.add(root);
+                }
+            }
+        }
+
+        Map<String, byte[]> classes = new TreeMap<>();
+        StringWriter output = new StringWriter();
+        boolean success = true;
+
+        ExecutorService executor = (batches.size() > 1) ? Executors.newFixedThreadPool(batches.size()) : null;
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (List<File> batch : batches) {
+                MemoryFileManager fm = new MemoryFileManager(javac.getStandardFileManager(null, null, null), classes);
+                fm.setLocations(classPath, sourcePath);
+                JavaCompiler.CompilationTask task = javac.getTask(output, fm, null, options, null,
+                    fm.getJavaFileObjectsFromFiles(batch));
+                if (executor == null) {
+                    success = compileBatch(task, fm);
+                } else {
+                    results.add(executor.submit(() -> compileBatch(task, fm)));
+                }
+            }
+            for (Future<Boolean> result : results) {
+                success &= result.get();
+            }
+        } catch (IOException | RuntimeException | ExecutionException e) {
+            Throwable t = (e instanceof ExecutionException) ? e.getCause() : e;
+            System.err.println(t.toString());
+            t.printStackTrace(System.err);
+            success = false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            success = false;
+        } finally {
+            if (executor != null) {
+                executor.shutdownNow();
+            }
+        }
+
+        if (verbose || !success) {
+            String out = output.toString();
+            if (out.length() > 0) {
+                (success ? System.out : System.err).println(out);
+            }
+        }
+
+        if (!success) {
+            return false;
+        }
+
+        try {
+            for (Map.Entry<String, byte[]> e : classes.entrySet()) {
+                File classFile = new File(outdir, e.getKey().replace('.', File.separatorChar) + ".class");
+                classFile.getParentFile().mkdirs();
+                Files.write(classFile.toPath(), e.getValue());
+            }
+        } catch (IOException e) {
+            System.err.println("IO Error " + e);
+            return false;
+        }
+
+        return true;
+    }
+
+    /**
+     * Splits the source files into batches of about the same size. The files of a source
+     * directory, i.e. of a package, are always put into the same batch, so a batch which is
+     * larger than the average may result in fewer batches than requested.
+     */
+    private static List<List<File>> splitByPackage(List<File> files, int count) {
+        Map<File, List<File>> packages = new TreeMap<>();
+        for (File f : files) {
+            packages.computeIfAbsent(f.getAbsoluteFile().getParentFile(), d -> new ArrayList<>()).add(f);
+        }
+
+        List<List<File>> batches = new ArrayList<>();
+        List<File> batch = new ArrayList<>();
+        for (List<File> pkg : packages.values()) {
+            batch.addAll(pkg);
+            if (batch.size() * count >= files.size() && batches.size() < count - 1) {
+                batches.add(batch);
+                batch = new ArrayList<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+        return batches;
+    }
+
+    private static boolean compileBatch(JavaCompiler.CompilationTask task, JavaFileManager fm) throws IOException {
+        try (JavaFileManager closeable = fm) {
+            return task.call();
+        }
+    }
+
+    /**
+     * @return the directory, which contains the package directories of the source file, or null if
+     * the directory structure doesn't match the package
+     */
+    private static File sourceRoot(File source) {
+        String pkg = "";
+        try {
+            Matcher m = PACKAGE_DECL.matcher(new String(Files.readAllBytes(source.toPath()), StandardCharsets.ISO_8859_1));
+            if (m.find()) {
+                pkg = m.group(1);
+            }
+        } catch (IOException e) {
+            return null;
+        }
+
+        File root = source.getAbsoluteFile().getParentFile();
+        String[] segments = pkg.isEmpty() ? new String[0] : pkg.split("\\.");
+        for (int i = segments.length - 1; i >= 0 && root != null; i--) {
+            if (!segments[i].equals(root.getName())) {
+                return null;
+            }
+            root = root.getParentFile();
+        }
+        return root;
+    }
+
+    /**
+     * Keeps the compiled classes in memory, so nothing is written to the output directory
+     * if the compilation fails and the batches don't read the classes of each other while
+     * they are written.
+     */
+    private static final class MemoryFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+        private final Map<String, byte[]> classes;
+
+        MemoryFileManager(StandardJavaFileManager fileManager, Map<String, byte[]> classes) {
+            super(fileManager);
+            this.classes = classes;
+        }
+
+        void setLocations(List<File> classPath, List<File> sourcePath) throws IOException {
+            fileManager.setLocation(StandardLocation.CLASS_PATH, classPath);
+            if (!sourcePath.isEmpty()) {
+                fileManager.setLocation(StandardLocation.SOURCE_PATH, sourcePath);
+            }
+        }
+
+        Iterable<? extends JavaFileObject> getJavaFileObjectsFromFiles(List<File> files) {
+            return fileManager.getJavaFileObjectsFromFiles(files);
+        }
+
+        @Override
+        public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind, FileObject sibling) throws IOException {
+            if (location != StandardLocation.CLASS_OUTPUT || kind != JavaFileObject.Kind.CLASS) {
+                return super.getJavaFileForOutput(location, className, kind, sibling);
+            }
+
+            URI uri = URI.create("mem:///" + className.replace('.', '/') + kind.extension);
+            return new SimpleJavaFileObject(uri, kind) {
+                @Override
+                public OutputStream openOutputStream() {
+                    return new ByteArrayOutputStream() {
+                        @Override
+                        public void close() {
+                            synchronized (classes) {
+                                classes.put(className, toByteArray());
+                            }
+                        }
+                    };
+                }
+            };
+        }
+    }
+
     public static File[] systemClasspath() {
         List<File> cp = new ArrayList<>();
         CodeSource cs = CodeGenUtil.class.getProtectionDomain().getCodeSource();
@@ -111,6 +111,28 @@ public class CommandLine
         return _options.get(opt);
     }
 
+    /**
+     * @return the number of threads of the option, 1 if it's not set or -1 if it's not a
+     * positive number - which is reported on the console
+     */
+    public int getThreads(String opt)
+    {
+        String threads = getOpt(opt);
+        if (threads == null)
+            return 1;
+        try
+        {
+            int n = Integer.parseInt(threads);
+            if (n > 0)
+                return n;
+        }
+        catch (NumberFormatException ignored)
+        {
+        }
+        System.out.println("Invalid number of threads: " + threads);
+        return -1;
+    }
+
     private static List<File> collectFiles(File[] dirs)
     {
         List<File> files = new ArrayList<>();
@@ -18,19 +18,21 @@ package org.apache.xmlbeans.impl.tool;
 import org.apache.xmlbeans.*;
 
 import java.io.File;
+import java.io.PrintStream;
 import java.util.*;
 
 public class InstanceValidator {
     public static void printUsage() {
         System.out.println("Validates the specified instance against the specified schema.");
         System.out.println("Contrast with the svalidate tool, which validates using a stream.");
-        System.out.println("Usage: validate [-dl] [-nopvr] [-noupa] [-license] schema.xsd instance.xml");
+        System.out.println("Usage: validate [-dl] [-nopvr] [-noupa] [-threads n] [-license] schema.xsd instance.xml");
         System.out.println("Options:");
         System.out.println("    -dl - permit network downloads for imports and includes (default is off)");
         System.out.println("    -noupa - do not enforce the unique particle attribution rule");
         System.out.println("    -nopvr - do not enforce the particle valid (restriction) rule");
         System.out.println("    -strict - performs strict(er) validation");
         System.out.println("    -partial - allow partial schema type system");
+        System.out.println("    -threads n - validate the instances with n threads and print a summary (default is 1)");
         System.out.println("    -license - prints license information");
     }
 
@@ -57,7 +59,7 @@ public class InstanceValidator {
         flags.add("strict");
         flags.add("partial");
 
-        CommandLine cl = new CommandLine(args, flags, Collections.EMPTY_SET);
+        CommandLine cl = new CommandLine(args, flags, Collections.singleton("threads"));
 
         if (cl.getOpt("h") != null || cl.getOpt("help") != null || cl.getOpt("usage") != null || args.length < 1) {
             printUsage();
@@ -92,6 +94,11 @@ public class InstanceValidator {
         boolean noupa = (cl.getOpt("noupa") != null);
         boolean strict = (cl.getOpt("strict") != null);
         boolean partial = (cl.getOpt("partial") != null);
+        int threads = cl.getThreads("threads");
+        if (threads < 1) {
+            printUsage();
+            return 0;
+        }
 
         File[] schemaFiles = cl.filesEndingWith(".xsd");
         File[] instanceFiles = cl.filesEndingWith(".xml");
@@ -163,37 +170,58 @@ public class InstanceValidator {
             sLoader = XmlBeans.getContextTypeLoader();
         }
 
-        for (File instanceFile : instanceFiles) {
-            XmlObject xobj;
-
-            try {
-                XmlOptions xo = new XmlOptions();
-                xo.setLoadLineNumbersEndElement();
-                xobj = sLoader.parse(instanceFile, null, xo);
-            } catch (Exception e) {
-                System.err.println(instanceFile + " not loadable: " + e);
-                e.printStackTrace(System.err);
-                continue;
-            }
-
-            Collection<XmlError> errors = new ArrayList<>();
-
-            if (xobj.schemaType() == XmlObject.type) {
-                System.out.println(instanceFile + " NOT valid.  ");
-                System.out.println("  Document type not found.");
-            } else if (xobj.validate(strict ?
-                new XmlOptions().setErrorListener(errors).setValidateStrict() :
-                new XmlOptions().setErrorListener(errors))) {
-                System.out.println(instanceFile + " valid.");
-            } else {
+        final SchemaTypeLoader loader = sLoader;
+        if (threads > 1) {
+            // the compiled type loader is only read, so it's shared by the threads
+            if (!ParallelValidation.validateFiles(instanceFiles, threads,
+                (file, out, err) -> validateFile(file, loader, strict, out, err))) {
                 returnCode = 1;
-                System.out.println(instanceFile + " NOT valid.");
-                for (XmlError error : errors) {
-                    System.out.println(error);
+            }
+        } else {
+            for (File instanceFile : instanceFiles) {
+                if (!validateFile(instanceFile, loader, strict, System.out, System.err)) {
+                    returnCode = 1;
                 }
             }
         }
 
         return returnCode;
     }
+
+    /**
+     * @return false, if the instance is invalid
+     */
+    private static boolean validateFile(File instanceFile, SchemaTypeLoader sLoader, boolean strict,
+                                        PrintStream out, PrintStream err) {
+        XmlObject xobj;
+
+        try {
+            XmlOptions xo = new XmlOptions();
+            xo.setLoadLineNumbersEndElement();
+            xobj = sLoader.parse(instanceFile, null, xo);
+        } catch (Exception e) {
+            err.println(instanceFile + " not loadable: " + e);
+            e.printStackTrace(err);
+            return false;
+        }
+
+        Collection<XmlError> errors = new ArrayList<>();
+
+        if (xobj.schemaType() == XmlObject.type) {
+            out.println(instanceFile + " NOT valid.  ");
+            out.println("  Document type not found.");
+            return false;
+        } else if (xobj.validate(strict ?
+            new XmlOptions().setErrorListener(errors).setValidateStrict() :
+            new XmlOptions().setErrorListener(errors))) {
+            out.println(instanceFile + " valid.");
+        } else {
+            out.println(instanceFile + " NOT valid.");
+            for (XmlError error : errors) {
+                out.println(error);
+            }
+            return false;
+        }
+        return true;
+    }
 }
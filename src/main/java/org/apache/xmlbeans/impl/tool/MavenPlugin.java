@@ -180,6 +180,18 @@ public class MavenPlugin extends AbstractMojo {
     @Parameter( defaultValue = "false" )
     private boolean copyAnn;
 
+    /** number of threads to generate the sources with - default: 1 */
+    @Parameter( defaultValue = "1" )
+    private int codeGenThreads;
+
+    /** number of threads to compile the sources in-process with - default: 1 */
+    @Parameter( defaultValue = "1" )
+    private int compileThreads;
+
+    /** save the type system as a single archive instead of a .xsb file per component - default: false */
+    @Parameter( defaultValue = "false" )
+    private boolean packedArchive;
+
     @Parameter
     private List<Extension> extensions;
 
@@ -278,6 +290,9 @@ public class MavenPlugin extends AbstractMojo {
             params.setNoPvr(noPvr);
             params.setNoAnn(noAnn);
             params.setCopyAnn(copyAnn);
+            params.setCodeGenThreads(codeGenThreads);
+            params.setCompileThreads(compileThreads);
+            params.setPackedArchive(packedArchive);
             params.setNoVDoc(noVDoc);
             if (repackage != null && !repackage.isEmpty()) {
                 params.setRepackage("org.apache.xmlbeans.metadata:"+repackage);
@@ -0,0 +1,127 @@
+/*   Copyright 2004 The Apache Software Foundation
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.xmlbeans.impl.tool;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.PrintStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Validates instance files with a pool of threads for the validate and svalidate tools.
+ * The files are validated in parallel, but their results are printed by the calling thread
+ * in the order of the files, followed by a summary with the throughput.
+ */
+final class ParallelValidation {
+    /**
+     * The validation of a single file - implementations are called by several threads at once.
+     */
+    interface FileValidator {
+        /**
+         * @return false, if the file is invalid
+         */
+        boolean validate(File file, PrintStream out, PrintStream err);
+    }
+
+    private static final class Result {
+        final boolean valid;
+        final byte[] out;
+        final byte[] err;
+
+        Result(boolean valid, byte[] out, byte[] err) {
+            this.valid = valid;
+            this.out = out;
+            this.err = err;
+        }
+    }
+
+    private ParallelValidation() {
+    }
+
+    /**
+     * @return false, if one of the files is invalid
+     */
+    static boolean validateFiles(File[] files, int threads, FileValidator validator) {
+        long start = System.nanoTime();
+        long bytes = 0;
+        int invalid = 0;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            // only the output of a limited number of files is kept in memory
+            Deque<Future<Result>> pending = new ArrayDeque<>();
+            int submitted = 0;
+
+            for (File file : files) {
+                while (submitted < files.length && pending.size() < 4 * threads) {
+                    File next = files[submitted++];
+                    pending.add(executor.submit(() -> {
+                        ByteArrayOutputStream out = new ByteArrayOutputStream();
+                        ByteArrayOutputStream err = new ByteArrayOutputStream();
+                        boolean valid;
+                        try (PrintStream outStream = new PrintStream(out, true);
+                             PrintStream errStream = new PrintStream(err, true)) {
+                            valid = validator.validate(next, outStream, errStream);
+                        }
+                        return new Result(valid, out.toByteArray(), err.toByteArray());
+                    }));
+                }
+
+                Result result;
+                try {
+                    result = pending.remove().get();
+                } catch (ExecutionException e) {
+                    System.err.println("error for file: " + file + ": " + e.getCause());
+                    e.getCause().printStackTrace(System.err);
+                    invalid++;
+                    continue;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    System.err.println("Interrupted while validating " + file);
+                    return false;
+                }
+
+                System.out.write(result.out, 0, result.out.length);
+                System.err.write(result.err, 0, result.err.length);
+                bytes += file.length();
+                if (!result.valid) {
+                    invalid++;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        System.out.flush();
+        System.err.flush();
+
+        printSummary(files.length, invalid, bytes, System.nanoTime() - start, threads);
+        return invalid == 0;
+    }
+
+    private static void printSummary(int files, int invalid, long bytes, long nanos, int threads) {
+        double seconds = Math.max(nanos, 1) / 1e9;
+        System.out.println(String.format(Locale.ROOT,
+            "%d files (%d invalid, %.1f MB) validated with %d threads in %d ms: %.1f files/s, %.1f MB/s",
+            files, invalid, bytes / 1e6, threads, nanos / 1000000,
+            files / seconds, bytes / 1e6 / seconds));
+    }
+}
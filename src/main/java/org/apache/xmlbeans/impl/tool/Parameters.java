@@ -55,6 +55,9 @@ public class Parameters {
     private boolean debug;
     private boolean copyAnn;
     private boolean incrementalSrcGen;
+    private int codeGenThreads = 1;
+    private int compileThreads = 1;
+    private boolean packedArchive;
     private String repackage;
     private List<Extension> extensions = Collections.emptyList();
     private Set<String> mdefNamespaces = Collections.emptySet();
@@ -231,6 +234,30 @@ public class Parameters {
         this.incrementalSrcGen = incrSrcGen;
     }
 
+    public int getCodeGenThreads() {
+        return codeGenThreads;
+    }
+
+    public void setCodeGenThreads(int codeGenThreads) {
+        this.codeGenThreads = codeGenThreads;
+    }
+
+    public boolean isPackedArchive() {
+        return packedArchive;
+    }
+
+    public void setPackedArchive(boolean packedArchive) {
+        this.packedArchive = packedArchive;
+    }
+
+    public int getCompileThreads() {
+        return compileThreads;
+    }
+
+    public void setCompileThreads(int compileThreads) {
+        this.compileThreads = compileThreads;
+    }
+
     public boolean isDebug() {
         return debug;
     }
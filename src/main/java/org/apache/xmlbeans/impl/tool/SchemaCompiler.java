@@ -53,10 +53,12 @@ public class SchemaCompiler {
         System.out.println("    -noann - ignore annotations");
         System.out.println("    -novdoc - do not validate contents of <documentation>");
         System.out.println("    -noext - ignore all extension (Pre/Post and Interface) found in .xsdconfig files");
-        System.out.println("    -compiler - path to external java compiler");
+        System.out.println("    -compiler - path to external java compiler - by default the sources are compiled in-process, if the VM provides a compiler");
+        System.out.println("    -compilethreads [n] - number of threads to compile the sources in-process with (default 1)");
         System.out.println("    -ms - initial memory for external java compiler (default '" + CodeGenUtil.DEFAULT_MEM_START + "')");
         System.out.println("    -mx - maximum memory for external java compiler (default '" + CodeGenUtil.DEFAULT_MEM_MAX + "')");
         System.out.println("    -debug - compile with debug symbols");
+        System.out.println("    -packed - save the type system as a single archive instead of a .xsb file per component");
         System.out.println("    -quiet - print fewer informational messages");
         System.out.println("    -verbose - print more informational messages");
         System.out.println("    -version - prints version information");
@@ -67,6 +69,7 @@ public class SchemaCompiler {
         System.out.println("                              processed left-to-right, e.g. \"ALL,-GET_LIST\" exclude java.util.List getters - see XmlOptions.BeanMethod" );
         System.out.println("    -repackage - repackage specification, e.g. \"org.apache.xmlbeans.metadata:mypackage.metadata\" to change the metadata directory");
         System.out.println("    -copyann - copy schema annotations to javadoc (default false) - don't activate on untrusted schema sources!");
+        System.out.println("    -cgthreads [n] - number of threads to generate the sources with (default 1)");
         /* Undocumented feature - pass in one schema compiler extension and related parameters
         System.out.println("    -extension - registers a schema compiler extension");
         System.out.println("    -extensionParms - specify parameters for the compiler extension");
@@ -98,6 +101,7 @@ public class SchemaCompiler {
         flags.add("noext");
         flags.add("srconly");
         flags.add("debug");
+        flags.add("packed");
 
         Set<String> opts = new HashSet<>();
         opts.add("out");
@@ -117,6 +121,8 @@ public class SchemaCompiler {
         opts.add("catalog");
         opts.add("partialMethods");
         opts.add("copyann");
+        opts.add("cgthreads");
+        opts.add("compilethreads");
 
         CommandLine cl = new CommandLine(args, flags, opts);
 
@@ -185,6 +191,7 @@ public class SchemaCompiler {
         boolean noExt = (cl.getOpt("noext") != null);
         boolean nojavac = (cl.getOpt("srconly") != null);
         boolean debug = (cl.getOpt("debug") != null);
+        boolean packed = (cl.getOpt("packed") != null);
         boolean copyAnn = (cl.getOpt("copyann") != null);
 
         String allowmdef = cl.getOpt("allowmdef");
@@ -308,6 +315,14 @@ public class SchemaCompiler {
 
         String partialMethods = cl.getOpt("partialMethods");
 
+        int codeGenThreads = cl.getThreads("cgthreads");
+        int compileThreads = cl.getThreads("compilethreads");
+        if (codeGenThreads < 1 || compileThreads < 1) {
+            printUsage();
+            System.exit(0);
+            return;
+        }
+
         Parameters params = new Parameters();
         params.setBaseDir(baseDir);
         params.setXsdFiles(xsdFiles);
@@ -333,6 +348,7 @@ public class SchemaCompiler {
         params.setNoVDoc(noVDoc);
         params.setNoExt(noExt);
         params.setDebug(debug);
+        params.setPackedArchive(packed);
         params.setErrorListener(err);
         params.setRepackage(repackage);
         params.setExtensions(extensions);
@@ -341,6 +357,8 @@ public class SchemaCompiler {
         params.setSchemaCodePrinter(codePrinter);
         params.setPartialMethods(parsePartialMethods(partialMethods));
         params.setCopyAnn(copyAnn);
+        params.setCodeGenThreads(codeGenThreads);
+        params.setCompileThreads(compileThreads);
         boolean result = compile(params);
 
         if (tempdir != null) {
@@ -693,9 +711,15 @@ public class SchemaCompiler {
             options.setCompilePartialMethod(partialMethods);
             options.setCompileNoAnnotations(noAnn);
             options.setCompileAnnotationAsJavadoc(copyAnn);
+            options.setCompileCodeGenThreads(params.getCodeGenThreads());
+            options.setCompilePackedArchive(params.isPackedArchive());
 
             // save .xsb files
-            system.save(filer);
+            if (options.isCompilePackedArchive() && system instanceof SchemaTypeSystemImpl) {
+                ((SchemaTypeSystemImpl) system).save(filer, true);
+            } else {
+                system.save(filer);
+            }
 
             // gen source files
             result = SchemaTypeSystemCompiler.generateTypes(system, filer, options);
@@ -722,13 +746,14 @@ public class SchemaCompiler {
                 if (javaFiles != null) {
                     sourcefiles.addAll(java.util.Arrays.asList(javaFiles));
                 }
-                if (!CodeGenUtil.externalCompile(sourcefiles, classesDir, classpath, debug, compiler, memoryInitialSize, memoryMaximumSize, quiet, verbose)) {
+                if (!CodeGenUtil.compile(sourcefiles, classesDir, classpath, debug, compiler, null, memoryInitialSize, memoryMaximumSize, params.getCompileThreads(), quiet, verbose)) {
                     result = false;
                 }
 
                 finish = System.currentTimeMillis();
                 if (result && !params.isQuiet()) {
-                    System.out.println("Time to compile code: " + ((double) (finish - start) / 1000.0) + " seconds");
+                    System.out.println("Time to compile code: " + ((double) (finish - start) / 1000.0) + " seconds" +
+                        (CodeGenUtil.isInProcessCompile(compiler) ? " (in-process)" : ""));
                 }
 
                 // jar classes and .xsb
@@ -25,6 +25,7 @@ import javax.xml.stream.XMLStreamException;
 import javax.xml.stream.XMLStreamReader;
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.PrintStream;
 import java.util.*;
 
 public class StreamInstanceValidator
@@ -34,11 +35,12 @@ public class StreamInstanceValidator
         System.out.println("Validates the specified instance against the specified schema.");
         System.out.println("A streaming validation useful for validating very large instance ");
         System.out.println("documents with less memory. Contrast with the validate tool.");
-        System.out.println("Usage: svalidate [-dl] [-nopvr] [-noupa] [-license] schema.xsd instance.xml");
+        System.out.println("Usage: svalidate [-dl] [-nopvr] [-noupa] [-threads n] [-license] schema.xsd instance.xml");
         System.out.println("Options:");
         System.out.println("    -dl - permit network downloads for imports and includes (default is off)");
         System.out.println("    -noupa - do not enforce the unique particle attribution rule");
         System.out.println("    -nopvr - do not enforce the particle valid (restriction) rule");
+        System.out.println("    -threads n - validate the instances with n threads and print a summary (default is 1)");
         System.out.println("    -license - prints license information");
     }
 
@@ -54,7 +56,7 @@ public class StreamInstanceValidator
         flags.add("noupr");
         flags.add("noupa");
 
-        CommandLine cl = new CommandLine(args, flags, Collections.EMPTY_SET);
+        CommandLine cl = new CommandLine(args, flags, Collections.singleton("threads"));
         if (cl.getOpt("h") != null || cl.getOpt("help") != null || cl.getOpt("usage") != null || args.length < 1)
         {
             printUsage();
@@ -93,6 +95,12 @@ public class StreamInstanceValidator
         boolean dl = (cl.getOpt("dl") != null);
         boolean nopvr = (cl.getOpt("nopvr") != null);
         boolean noupa = (cl.getOpt("noupa") != null);
+        int threads = cl.getThreads("threads");
+        if (threads < 1)
+        {
+            printUsage();
+            return;
+        }
 
         File[] schemaFiles = cl.filesEndingWith(".xsd");
         File[] instanceFiles = cl.filesEndingWith(".xml");
@@ -142,7 +150,7 @@ public class StreamInstanceValidator
             return;
         }
 
-        validateFiles(instanceFiles, sLoader, options);
+        validateFiles(instanceFiles, sLoader, options, threads);
 
     }
 
@@ -151,64 +159,90 @@ public class StreamInstanceValidator
                                      final XmlOptions options)
     {
         final ValidatingXMLStreamReader vsr = new ValidatingXMLStreamReader();
-        final Collection<XmlError> errors = new ArrayList<>();
 
         for (int i = 0; i < instanceFiles.length; i++) {
-            final File file = instanceFiles[i];
-            final String path = file.getPath();
-            long time = 0;
-
-            errors.clear();
+            validateFile(instanceFiles[i], vsr, sLoader, options, System.out, System.err);
+        }
+    }
 
-            try {
-                final XMLInputFactory xmlInputFactory = StaxHelper.newXMLInputFactory(new XmlOptions(options));
+    /**
+     * Validates the files with a pool of threads, which share the type loader and use
+     * a validating reader per thread. The results are printed in the order of the files.
+     */
+    public static void validateFiles(File[] instanceFiles,
+                                     SchemaTypeLoader sLoader,
+                                     final XmlOptions options,
+                                     int threads)
+    {
+        if (threads <= 1) {
+            validateFiles(instanceFiles, sLoader, options);
+            return;
+        }
 
-                final FileInputStream fis = new FileInputStream(file);
-                final XMLStreamReader rdr =
-                        xmlInputFactory.createXMLStreamReader(path, fis);
+        final ThreadLocal<ValidatingXMLStreamReader> vsrs = ThreadLocal.withInitial(ValidatingXMLStreamReader::new);
+        ParallelValidation.validateFiles(instanceFiles, threads,
+            (file, out, err) -> validateFile(file, vsrs.get(), sLoader, options, out, err));
+    }
 
-                //advance to first start element.
-                while(!rdr.isStartElement()) {
-                    rdr.next();
-                }
+    private static boolean validateFile(File file,
+                                        ValidatingXMLStreamReader vsr,
+                                        SchemaTypeLoader sLoader,
+                                        XmlOptions options,
+                                        PrintStream out,
+                                        PrintStream err)
+    {
+        final Collection<XmlError> errors = new ArrayList<>();
+        final String path = file.getPath();
+        long time = 0;
 
-                time = System.currentTimeMillis();
-                vsr.init(rdr, true, null, sLoader, options, errors);
+        try {
+            final XMLInputFactory xmlInputFactory = StaxHelper.newXMLInputFactory(new XmlOptions(options));
 
-                while (vsr.hasNext()) {
-                    vsr.next();
-                }
+            final FileInputStream fis = new FileInputStream(file);
+            final XMLStreamReader rdr =
+                    xmlInputFactory.createXMLStreamReader(path, fis);
 
-                time = (System.currentTimeMillis() - time);
-                vsr.close();
-                fis.close();
-            }
-            catch (XMLStreamException xse) {
-                final Location loc = xse.getLocation();
-                XmlError e = XmlError.forLocation(xse.getMessage(), path,
-                                                  loc.getLineNumber(),
-                                                  loc.getColumnNumber(),
-                                                  loc.getCharacterOffset());
-                errors.add(e);
-            }
-            catch (Exception e) {
-                System.err.println("error for file: " + file + ": " + e);
-                e.printStackTrace(System.err);
-                continue;
+            //advance to first start element.
+            while(!rdr.isStartElement()) {
+                rdr.next();
             }
 
+            time = System.currentTimeMillis();
+            vsr.init(rdr, true, null, sLoader, options, errors);
 
-            if (errors.isEmpty()) {
-                System.out.println(file + " valid. (" + time + " ms)");
-            } else {
-                System.out.println(file + " NOT valid (" + time + " ms):");
-                for (Iterator it = errors.iterator(); it.hasNext();) {
-                    XmlError err = (XmlError)it.next();
-                    System.out.println(stringFromError(err, path));
-                }
+            while (vsr.hasNext()) {
+                vsr.next();
             }
 
+            time = (System.currentTimeMillis() - time);
+            vsr.close();
+            fis.close();
+        }
+        catch (XMLStreamException xse) {
+            final Location loc = xse.getLocation();
+            XmlError e = XmlError.forLocation(xse.getMessage(), path,
+                                              loc.getLineNumber(),
+                                              loc.getColumnNumber(),
+                                              loc.getCharacterOffset());
+            errors.add(e);
+        }
+        catch (Exception e) {
+            err.println("error for file: " + file + ": " + e);
+            e.printStackTrace(err);
+            return false;
+        }
+
+
+        if (errors.isEmpty()) {
+            out.println(file + " valid. (" + time + " ms)");
+        } else {
+            out.println(file + " NOT valid (" + time + " ms):");
+            for (Iterator it = errors.iterator(); it.hasNext();) {
+                XmlError xmlError = (XmlError)it.next();
+                out.println(stringFromError(xmlError, path));
+            }
         }
+        return errors.isEmpty();
     }
 
     private static String stringFromError(XmlError err,
@@ -24,13 +24,12 @@ import java.nio.charset.CharsetEncoder;
 import java.nio.charset.CodingErrorAction;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
+import java.util.*;
 
 /**
  * This implementation of Filer writes to disk.
+ * <p>
+ * The methods are synchronized, so the sources can be generated by several threads.
  */
 public class FilerImpl implements Filer {
     private final File classdir;
@@ -40,7 +39,11 @@ public class FilerImpl implements Filer {
     private final List<File> sourceFiles;
     private final boolean incrSrcGen;
     private Set<String> seenTypes;
+    // fingerprints of the previous run and of the current run, by the (interface) type name
+    private Map<String, String> oldFingerprints;
+    private final Map<String, String> fingerprints = new TreeMap<>();
     private static final Charset CHARSET;
+    private static final String FINGERPRINTS_FILE = ".xmlbeans-fingerprints";
 
     static {
         Charset temp = null;
@@ -69,7 +72,7 @@ public class FilerImpl implements Filer {
      * @param typename fully qualified type name
      * @return a stream to write the type to
      */
-    public OutputStream createBinaryFile(String typename) throws IOException {
+    public synchronized OutputStream createBinaryFile(String typename) throws IOException {
         if (verbose) {
             System.err.println("created binary: " + typename);
         }
@@ -87,20 +90,12 @@ public class FilerImpl implements Filer {
      * @param typename fully qualified type name
      * @return a stream to write the type to
      */
-    public Writer createSourceFile(String typename) throws IOException {
+    public synchronized Writer createSourceFile(String typename) throws IOException {
         if (incrSrcGen) {
             seenTypes.add(typename);
         }
 
-        if (typename.indexOf('$') > 0) {
-            typename =
-                typename.substring(0, typename.lastIndexOf('.')) + "." +
-                typename.substring(typename.indexOf('$') + 1);
-        }
-
-        String filename = typename.replace('.', File.separatorChar) + ".java";
-
-        File sourcefile = new File(srcdir, filename);
+        File sourcefile = sourceFileFor(typename);
         sourcefile.getParentFile().mkdirs();
         if (verbose) {
             System.err.println("created source: " + sourcefile.getAbsolutePath());
@@ -119,7 +114,95 @@ public class FilerImpl implements Filer {
         }
     }
 
-    public List<File> getSourceFiles() {
+    /**
+     * @return true, if the fingerprints of the generated types are recorded, see
+     * {@link #isSourceUpToDate(String, String...)}
+     */
+    public boolean isFingerprinting() {
+        return incrSrcGen && repackager == null && srcdir != null;
+    }
+
+    /**
+     * Checks if the sources of a type have been generated by a previous run with the same
+     * fingerprint. In this case the existing source files are kept as if they have been
+     * created again, otherwise {@link #putFingerprint(String, String)} should be called after
+     * the sources have been generated.
+     * <p>
+     * This is only supported for incremental source generation without repackaging.
+     *
+     * @param fingerprint the fingerprint of the type and its dependencies, may be null
+     * @param typenames   fully qualified type names of the sources of the type, the first one
+     *                    identifies the fingerprint
+     * @return true, if the sources of the type don't need to be generated
+     */
+    public synchronized boolean isSourceUpToDate(String fingerprint, String... typenames) {
+        if (!isFingerprinting() || fingerprint == null) {
+            return false;
+        }
+        if (oldFingerprints == null) {
+            oldFingerprints = loadFingerprints(new File(srcdir, FINGERPRINTS_FILE));
+        }
+        if (!fingerprint.equals(oldFingerprints.get(typenames[0]))) {
+            return false;
+        }
+
+        List<File> files = new ArrayList<>();
+        for (String typename : typenames) {
+            File sourcefile = sourceFileFor(typename);
+            if (!sourcefile.isFile()) {
+                return false;
+            }
+            files.add(sourcefile);
+        }
+
+        if (verbose) {
+            for (File sourcefile : files) {
+                System.err.println("unchanged source: " + sourcefile.getAbsolutePath());
+            }
+        }
+        seenTypes.addAll(Arrays.asList(typenames));
+        sourceFiles.addAll(files);
+        fingerprints.put(typenames[0], fingerprint);
+        return true;
+    }
+
+    /**
+     * Records the fingerprint of the generated sources of a type.
+     *
+     * @param typename    fully qualified type name, which identifies the fingerprint
+     * @param fingerprint the fingerprint of the type and its dependencies, may be null
+     */
+    public synchronized void putFingerprint(String typename, String fingerprint) {
+        if (isFingerprinting() && fingerprint != null) {
+            fingerprints.put(typename, fingerprint);
+        }
+    }
+
+    /**
+     * Saves the fingerprints of the types, which have been generated or kept in this run,
+     * for the next run. Without incremental source generation, the fingerprints of a previous
+     * run are removed, as the sources might have been changed.
+     */
+    public synchronized void saveFingerprints() throws IOException {
+        if (srcdir == null) {
+            return;
+        }
+
+        File file = new File(srcdir, FINGERPRINTS_FILE);
+        if (fingerprints.isEmpty()) {
+            Files.deleteIfExists(file.toPath());
+            return;
+        }
+
+        srcdir.mkdirs();
+        try (Writer w = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            for (Map.Entry<String, String> e : fingerprints.entrySet()) {
+                w.write(e.getKey() + " " + e.getValue() + "\n");
+            }
+        }
+    }
+
+    public synchronized List<File> getSourceFiles() {
         return new ArrayList<>(sourceFiles);
     }
 
@@ -127,6 +210,36 @@ public class FilerImpl implements Filer {
         return repackager;
     }
 
+    private File sourceFileFor(String typename) {
+        if (typename.indexOf('$') > 0) {
+            typename =
+                typename.substring(0, typename.lastIndexOf('.')) + "." +
+                typename.substring(typename.indexOf('$') + 1);
+        }
+
+        String filename = typename.replace('.', File.separatorChar) + ".java";
+        return new File(srcdir, filename);
+    }
+
+    private static Map<String, String> loadFingerprints(File file) {
+        Map<String, String> map = new HashMap<>();
+        if (!file.isFile()) {
+            return map;
+        }
+        try {
+            for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+                int idx = line.indexOf(' ');
+                if (idx > 0) {
+                    map.put(line.substring(0, idx), line.substring(idx + 1));
+                }
+            }
+        } catch (IOException e) {
+            // regenerate all sources
+            map.clear();
+        }
+        return map;
+    }
+
     private static Writer writerForFile(File f) throws IOException {
         if (CHARSET == null) {
             return Files.newBufferedWriter(f.toPath(), StandardCharsets.ISO_8859_1);
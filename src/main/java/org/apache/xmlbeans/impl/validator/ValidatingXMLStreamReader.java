@@ -260,6 +260,7 @@ public class ValidatingXMLStreamReader
         private char[] _buf = new char[BUF_LENGTH];
         private int _length;
         private boolean _supportForGetTextCharacters = true;
+        private final QNameCache _qnameCache = new QNameCache(32);
 
         private XMLStreamReader _xmlStream;
 
@@ -308,7 +309,7 @@ public class ValidatingXMLStreamReader
         {
             // avoid construction of a new QName object after the bug in getName() is fixed.
             if (_xmlStream.hasName())
-                return new QName(_xmlStream.getNamespaceURI(), _xmlStream.getLocalName());
+                return _qnameCache.getName(_xmlStream.getNamespaceURI(), _xmlStream.getLocalName());
             else
                 return null;
         }
@@ -376,6 +377,7 @@ public class ValidatingXMLStreamReader
     {
         private int _attIndex;
         private XMLStreamReader _xmlStream;
+        private final QNameCache _qnameCache = new QNameCache(32);
 
         private void setXMLStreamReader(XMLStreamReader xsr)
         {
@@ -422,7 +424,7 @@ public class ValidatingXMLStreamReader
         {
             assert _xmlStream.isStartElement() : "Not on Start Element.";
             String uri = _xmlStream.getAttributeNamespace(_attIndex);
-            QName qn = new QName(uri==null ? "" : uri, _xmlStream.getAttributeLocalName(_attIndex));
+            QName qn = _qnameCache.getName(uri, _xmlStream.getAttributeLocalName(_attIndex));
             //System.out.println("    Att QName: " + qn);
             return qn;
         }
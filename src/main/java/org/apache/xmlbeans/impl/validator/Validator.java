@@ -29,7 +29,7 @@ import java.util.*;
 import java.util.stream.Collectors;
 
 public final class Validator
-    implements ValidatorListener {
+    implements SplittableValidatorListener, IncrementalValidatorListener {
     public Validator(
         SchemaType type, SchemaField field, SchemaTypeLoader globalLoader,
         XmlOptions options, Collection<XmlError> defaultErrorListener) {
@@ -37,6 +37,8 @@ public final class Validator
         _errorListener = options.getErrorListener();
         _treatLaxAsSkip = options.isValidateTreatLaxAsSkip();
         _strict = options.isValidateStrict();
+        _parallel = options.isValidateParallel();
+        _incremental = options.isValidateIncremental();
 
         if (_errorListener == null) {
             _errorListener = defaultErrorListener;
@@ -51,6 +53,25 @@ public final class Validator
         _vc = new ValidatorVC();
     }
 
+    /**
+     * Creates a part for validating subtrees of the current element of the given validator
+     */
+    private Validator(Validator main, Collection<XmlError> errorListener) {
+        _errorListener = main._errorListener == null ? null : errorListener;
+        _treatLaxAsSkip = main._treatLaxAsSkip;
+        _strict = main._strict;
+        _parallel = false;
+        _incremental = false;
+
+        _constraintEngine = main._constraintEngine.newPart(_errorListener);
+
+        _globalTypes = main._globalTypes;
+        _rootType = main._rootType;
+        _rootField = main._rootField;
+
+        _vc = new ValidatorVC();
+    }
+
     private class ValidatorVC implements ValidationContext {
         // KHK: remove this
         public void invalid(String message) {
@@ -99,6 +120,8 @@ public final class Validator
         _errorState++;
 
         if (_suspendErrors == 0) {
+            _errorCount++;
+
             if (severity == XmlError.SEVERITY_ERROR) {
                 _invalid = true;
             }
@@ -155,7 +178,7 @@ public final class Validator
 
             switch (kind) {
                 case BEGIN:
-                    beginEvent(event);
+                    beginEvent(event, false);
                     break;
                 case ATTR:
                     attrEvent(event);
@@ -173,7 +196,169 @@ public final class Validator
         }
     }
 
-    private void beginEvent(Event event) {
+    public boolean canSplit() {
+        // children selected by a key, keyref or unique constraint can't be validated on their own
+        State state = topState();
+        return _parallel && _eatContent == 0 && state != null && !state._isNil &&
+               state._canHaveElements && !_constraintEngine.hasSelectors();
+    }
+
+    public Object split(Event event, Collection<XmlError> errorListener) {
+        assert _eatContent == 0 && topState() != null;
+
+        State parent = topState();
+        Collection<XmlError> mainListener = _errorListener;
+        if (mainListener != null) {
+            _errorListener = errorListener;
+        }
+
+        try {
+            resetValues();
+            beginEvent(event, true);
+        } finally {
+            _errorListener = mainListener;
+        }
+
+        if (_eatContent > 0) {
+            // the subtree is not validated
+            _eatContent = 0;
+            if (topState() != parent) {
+                popState(event);
+            }
+            return null;
+        }
+
+        State state = topState();
+        _stateStack = parent;
+        state._next = null;
+        return state;
+    }
+
+    public SplittableValidatorListener newPart(Collection<XmlError> errorListener) {
+        return new Validator(this, errorListener);
+    }
+
+    public void beginPart(Object split, Event event) {
+        assert _stateStack == null && _eatContent == 0;
+
+        resetValues();
+
+        State state = (State) split;
+        pushState(state);
+
+        _constraintEngine.element(event, state._type, getIdentityConstraints(state._field));
+    }
+
+    public void join(SplittableValidatorListener part, Collection<XmlError> errors, Event event) {
+        Validator v = (Validator) part;
+        assert v._stateStack == null;
+
+        if (!v.isValid()) {
+            _invalid = true;
+        }
+
+        if (_errorListener != null) {
+            _errorListener.addAll(errors);
+        }
+
+        _constraintEngine.merge(v._constraintEngine, event);
+    }
+
+    public boolean isIncremental() {
+        return _incremental;
+    }
+
+    public boolean canSkip() {
+        // children selected by a key, keyref or unique constraint need to be visited
+        return _eatContent == 0 && !_constraintEngine.hasSelectors();
+    }
+
+    public boolean skip(Event event, Object key) {
+        assert _eatContent == 0;
+
+        resetValues();
+        State parent = topState();
+        beginEvent(event, true);
+
+        if (_eatContent > 0) {
+            // the element isn't allowed anymore, its subtree is eaten
+            return false;
+        }
+
+        State state = topState();
+        assert state != parent;
+
+        if (key.equals(newSubtreeKey(state))) {
+            popState(event);
+            return true;
+        }
+
+        _constraintEngine.element(event, state._type, getIdentityConstraints(state._field));
+        return false;
+    }
+
+    public long getMark() {
+        return _errorCount + _constraintEngine.getModCount();
+    }
+
+    public Object getSubtreeKey() {
+        State state = topState();
+        return _eatContent > 0 || state == null ? null : newSubtreeKey(state);
+    }
+
+    private SubtreeKey newSubtreeKey(State state) {
+        return new SubtreeKey(state._type, state._field, _globalTypes, _treatLaxAsSkip, _strict, _rootType.isDocumentType());
+    }
+
+    /**
+     * The way an element has been validated - the validation of its subtree depends on its type
+     * and declaration, the options and whether IDREFs are checked
+     */
+    private static final class SubtreeKey {
+        private final SchemaType _type;
+        private final SchemaField _field;
+        private final SchemaTypeLoader _globalTypes;
+        private final boolean _treatLaxAsSkip;
+        private final boolean _strict;
+        private final boolean _trackIdrefs;
+
+        SubtreeKey(SchemaType type, SchemaField field, SchemaTypeLoader globalTypes,
+                   boolean treatLaxAsSkip, boolean strict, boolean trackIdrefs) {
+            _type = type;
+            _field = field;
+            _globalTypes = globalTypes;
+            _treatLaxAsSkip = treatLaxAsSkip;
+            _strict = strict;
+            _trackIdrefs = trackIdrefs;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof SubtreeKey)) {
+                return false;
+            }
+            SubtreeKey k = (SubtreeKey) o;
+            return _type == k._type && _field == k._field && _globalTypes == k._globalTypes &&
+                   _treatLaxAsSkip == k._treatLaxAsSkip && _strict == k._strict && _trackIdrefs == k._trackIdrefs;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(_type) * 31 + System.identityHashCode(_field);
+        }
+    }
+
+    private static SchemaIdentityConstraint[] getIdentityConstraints(SchemaField field) {
+        return field instanceof SchemaLocalElement
+            ? ((SchemaLocalElement) field).getIdentityConstraints()
+            : null;
+    }
+
+    /**
+     * @param split if true, the element is only matched against the content model of its parent,
+     *              see {@link #split(Event, Collection)}
+     */
+    private void beginEvent(Event event, boolean split) {
         _localElement = null;
         _wildcardElement = null;
         State state = topState();
@@ -478,13 +663,11 @@ public final class Validator
 
         // Dispatch this element event to any identity constraints
         // As well as adding any new identity constraints that exist
+        // - for a split element, this is done when its part begins
 
-        _constraintEngine.element(
-            event,
-            elementType,
-            elementField instanceof SchemaLocalElement
-                ? ((SchemaLocalElement) elementField).getIdentityConstraints()
-                : null);
+        if (!split) {
+            _constraintEngine.element(event, elementType, getIdentityConstraints(elementField));
+        }
     }
 
     private void attrEvent(Event event) {
@@ -492,11 +675,7 @@ public final class Validator
 
         State state = topState();
 
-        if (state._attrs == null) {
-            state._attrs = new HashSet<>();
-        }
-
-        if (state._attrs.contains(attrName)) {
+        if (!state.addAttr(attrName)) {
             emitFieldError(event, XmlErrorCodes.XML_DUPLICATE_ATTRIBUTE,
                 new Object[]{QNameHelper.pretty(attrName)},
                 attrName, null, null, XmlValidationError.INCORRECT_ATTRIBUTE, state._type);
@@ -504,8 +683,6 @@ public final class Validator
             return;
         }
 
-        state._attrs.add(attrName);
-
         if (!state._canHaveAttrs) {
             emitFieldError(event, XmlErrorCodes.ELEM_COMPLEX_TYPE_LOCALLY_VALID$NO_WILDCARD,
                 new Object[]{QNameHelper.pretty(attrName)}, attrName, null, null,
@@ -597,11 +774,11 @@ public final class Validator
         State state = topState();
 
         if (state._attrModel != null) {
-            SchemaLocalAttribute[] attrs = state._attrModel.getAttributes();
+            // getAttributes() returns a new array on each call
+            SchemaLocalAttribute[] attrs = _attrModelCache.computeIfAbsent(state._attrModel, SchemaAttributeModel::getAttributes);
 
             for (SchemaLocalAttribute sla : attrs) {
-                if (state._attrs == null ||
-                    !state._attrs.contains(sla.getName())) {
+                if (!state.hasAttr(sla.getName())) {
                     if (sla.getUse() == SchemaLocalAttribute.REQUIRED) {
                         // KHK: cvc-complex-type.4
                         emitFieldError(event, XmlErrorCodes.ELEM_COMPLEX_TYPE_LOCALLY_VALID$MISSING_REQUIRED_ATTRIBUTE,
@@ -832,11 +1009,77 @@ public final class Validator
 
         SchemaAttributeModel _attrModel;
 
-        HashSet<QName> _attrs;
+        // the attributes seen so far, the set is only used for elements with many attributes
+        QName[] _attrs = new QName[ATTR_SCAN_LIMIT];
+        int _attrCount;
+        HashSet<QName> _attrSet;
 
         State _next;
+
+        /**
+         * @return false, if the attribute has been seen before
+         */
+        boolean addAttr(QName name) {
+            if (hasAttr(name)) {
+                return false;
+            }
+
+            if (_attrCount == _attrs.length) {
+                _attrs = Arrays.copyOf(_attrs, _attrCount * 2);
+            }
+            _attrs[_attrCount++] = name;
+
+            if (_attrCount > ATTR_SCAN_LIMIT) {
+                if (_attrSet == null) {
+                    _attrSet = new HashSet<>();
+                }
+                if (_attrSet.isEmpty()) {
+                    _attrSet.addAll(Arrays.asList(_attrs).subList(0, _attrCount));
+                } else {
+                    _attrSet.add(name);
+                }
+            }
+            return true;
+        }
+
+        boolean hasAttr(QName name) {
+            if (_attrCount > ATTR_SCAN_LIMIT) {
+                return _attrSet.contains(name);
+            }
+            for (int i = 0; i < _attrCount; i++) {
+                if (_attrs[i].equals(name)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        /**
+         * Clears the state for the next element, but keeps the buffers for the attributes
+         */
+        void reset() {
+            _type = null;
+            _field = null;
+            _canHaveAttrs = false;
+            _canHaveMixedContent = false;
+            _hasSimpleContent = false;
+            _sawText = false;
+            _isEmpty = false;
+            _isNil = false;
+            _visitor = null;
+            _canHaveElements = false;
+            _attrModel = null;
+            if (_attrCount > ATTR_SCAN_LIMIT) {
+                _attrSet.clear();
+            }
+            Arrays.fill(_attrs, 0, _attrCount, null);
+            _attrCount = 0;
+            _next = null;
+        }
     }
 
+    private static final int ATTR_SCAN_LIMIT = 8;
+
     private boolean derivedFromInteger(SchemaType type) {
         int btc = type.getBuiltinTypeCode();
 
@@ -849,7 +1092,7 @@ public final class Validator
     }
 
     private void newState(SchemaType type, SchemaField field, boolean isNil) {
-        State state = new State();
+        State state = _statePool.isEmpty() ? new State() : _statePool.remove(_statePool.size() - 1);
 
         state._type = type;
         state._field = field;
@@ -900,7 +1143,11 @@ public final class Validator
             _stateStack._visitor = null;
         }
 
-        _stateStack = _stateStack._next;
+        State state = _stateStack;
+        _stateStack = state._next;
+
+        state.reset();
+        _statePool.add(state);
     }
 
     private void pushState(State state) {
@@ -908,7 +1155,10 @@ public final class Validator
         _stateStack = state;
     }
 
-    private final LinkedList<TypeStoreVisitor> _visitorPool = new LinkedList<>();
+    // the states and visitors of the elements, which have ended, are reused for the next ones
+    private final ArrayList<State> _statePool = new ArrayList<>();
+    private final ArrayList<SchemaTypeVisitorImpl> _visitorPool = new ArrayList<>();
+    private final Map<SchemaAttributeModel, SchemaLocalAttribute[]> _attrModelCache = new IdentityHashMap<>();
 
     private void poolVisitor(SchemaTypeVisitorImpl visitor) {
         _visitorPool.add(visitor);
@@ -919,8 +1169,7 @@ public final class Validator
             return new SchemaTypeVisitorImpl(particle);
         }
 
-        SchemaTypeVisitorImpl result =
-            (SchemaTypeVisitorImpl) _visitorPool.removeLast();
+        SchemaTypeVisitorImpl result = _visitorPool.remove(_visitorPool.size() - 1);
 
         result.init(particle);
 
@@ -1502,6 +1751,10 @@ public final class Validator
     private Collection<XmlError> _errorListener;
     private final boolean _treatLaxAsSkip;
     private final boolean _strict;
+    private final boolean _parallel;
+    private final boolean _incremental;
+    // the number of reported errors
+    private int _errorCount;
     private final ValidatorVC _vc;
     private int _suspendErrors;
     private final IdentityConstraint _constraintEngine;
@@ -0,0 +1,252 @@
+/*   Copyright 2004 The Apache Software Foundation
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package org.apache.xmlbeans.impl.values;
+
+import org.apache.xmlbeans.SchemaType;
+import org.apache.xmlbeans.XmlAnySimpleType;
+import org.apache.xmlbeans.impl.regex.RegularExpression;
+import org.apache.xmlbeans.impl.schema.SchemaTypeImpl;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * The facets of an atomic simple type, converted into the representation which the
+ * value holders validate against.
+ * <p>
+ * Looking up the facets of a {@link SchemaType} resolves (and synchronizes on) a reference
+ * per facet and copies the enumeration values on every call - instances of this class are
+ * therefore immutable and kept by the {@link SchemaTypeImpl} once it's resolved,
+ * see {@link #forType(SchemaType)}.
+ * <p>
+ * The length and enumeration facets are prepared for string based types, the digit, bound
+ * and enumeration facets for decimal based types.
+ */
+public final class FacetValidator {
+    private static final RegularExpression[][] NO_PATTERNS = {};
+
+    private final SchemaType _type;
+
+    // pattern alternatives per derivation step, which all need to be matched, or null if unknown
+    private final RegularExpression[][] _patterns;
+
+    // string facets, -1 if not present
+    private final int _length;
+    private final int _minLength;
+    private final int _maxLength;
+    private final Set<String> _stringEnumeration;
+
+    // decimal facets, -1 or null if not present
+    private final int _totalDigits;
+    private final int _fractionDigits;
+    private final BigDecimal _minExclusive;
+    private final BigDecimal _minInclusive;
+    private final BigDecimal _maxInclusive;
+    private final BigDecimal _maxExclusive;
+
+    // sorted enumeration values for decimal based types
+    private final BigDecimal[] _decimalEnumeration;
+    private final long[] _longEnumeration;
+    private final int[] _intEnumeration;
+
+    /**
+     * @return the facets of the type - compiled once for resolved types
+     */
+    public static FacetValidator forType(SchemaType type) {
+        return (type instanceof SchemaTypeImpl)
+            ? ((SchemaTypeImpl) type).getFacetValidator()
+            : new FacetValidator(type);
+    }
+
+    public FacetValidator(SchemaType type) {
+        _type = type;
+        _patterns = compilePatterns(type);
+
+        // complex types with simple content have a primitive type too
+        SchemaType primitive = type.getPrimitiveType();
+        boolean isDecimal = primitive != null && primitive.getBuiltinTypeCode() == SchemaType.BTC_DECIMAL;
+
+        if (!isDecimal) {
+            _length = getInt(type, SchemaType.FACET_LENGTH);
+            _minLength = getInt(type, SchemaType.FACET_MIN_LENGTH);
+            _maxLength = getInt(type, SchemaType.FACET_MAX_LENGTH);
+
+            XmlAnySimpleType[] vals = type.getEnumerationValues();
+            if (vals == null) {
+                _stringEnumeration = null;
+            } else {
+                _stringEnumeration = new HashSet<>(vals.length * 2);
+                for (XmlAnySimpleType val : vals) {
+                    _stringEnumeration.add(val.getStringValue());
+                }
+            }
+        } else {
+            _length = _minLength = _maxLength = -1;
+            _stringEnumeration = null;
+        }
+
+        if (isDecimal) {
+            _totalDigits = getInt(type, SchemaType.FACET_TOTAL_DIGITS);
+            _fractionDigits = getInt(type, SchemaType.FACET_FRACTION_DIGITS);
+            _minExclusive = getDecimal(type, SchemaType.FACET_MIN_EXCLUSIVE);
+            _minInclusive = getDecimal(type, SchemaType.FACET_MIN_INCLUSIVE);
+            _maxInclusive = getDecimal(type, SchemaType.FACET_MAX_INCLUSIVE);
+            _maxExclusive = getDecimal(type, SchemaType.FACET_MAX_EXCLUSIVE);
+
+            XmlAnySimpleType[] vals = type.getEnumerationValues();
+            if (vals == null) {
+                _decimalEnumeration = null;
+                _longEnumeration = null;
+                _intEnumeration = null;
+            } else {
+                _decimalEnumeration = new BigDecimal[vals.length];
+                _longEnumeration = new long[vals.length];
+                _intEnumeration = new int[vals.length];
+                for (int i = 0; i < vals.length; i++) {
+                    BigDecimal bd = ((XmlObjectBase) vals[i]).getBigDecimalValue();
+                    _decimalEnumeration[i] = bd;
+                    _longEnumeration[i] = bd.longValue();
+                    _intEnumeration[i] = bd.intValue();
+                }
+                Arrays.sort(_decimalEnumeration);
+                Arrays.sort(_longEnumeration);
+                Arrays.sort(_intEnumeration);
+            }
+        } else {
+            _totalDigits = _fractionDigits = -1;
+            _minExclusive = _minInclusive = _maxInclusive = _maxExclusive = null;
+            _decimalEnumeration = null;
+            _longEnumeration = null;
+            _intEnumeration = null;
+        }
+    }
+
+    public SchemaType getType() {
+        return _type;
+    }
+
+    /**
+     * @return true, if the value matches the pattern facets of the type and all its base types
+     */
+    public boolean matchPattern(String v) {
+        if (_patterns == null) {
+            return _type.matchPatternFacet(v);
+        }
+
+        for (RegularExpression[] alternatives : _patterns) {
+            boolean matched = false;
+            for (RegularExpression re : alternatives) {
+                if (re.matches(v)) {
+                    matched = true;
+                    break;
+                }
+            }
+            if (!matched) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    public boolean hasPatterns() {
+        return _patterns == null || _patterns.length > 0;
+    }
+
+    public int getLength() {
+        return _length;
+    }
+
+    public int getMinLength() {
+        return _minLength;
+    }
+
+    public int getMaxLength() {
+        return _maxLength;
+    }
+
+    public int getTotalDigits() {
+        return _totalDigits;
+    }
+
+    public int getFractionDigits() {
+        return _fractionDigits;
+    }
+
+    public BigDecimal getMinExclusive() {
+        return _minExclusive;
+    }
+
+    public BigDecimal getMinInclusive() {
+        return _minInclusive;
+    }
+
+    public BigDecimal getMaxInclusive() {
+        return _maxInclusive;
+    }
+
+    public BigDecimal getMaxExclusive() {
+        return _maxExclusive;
+    }
+
+    public boolean hasEnumeration() {
+        return _stringEnumeration != null || _decimalEnumeration != null;
+    }
+
+    public boolean isEnumerated(String v) {
+        return _stringEnumeration.contains(v);
+    }
+
+    public boolean isEnumerated(BigDecimal v) {
+        return Arrays.binarySearch(_decimalEnumeration, v) >= 0;
+    }
+
+    public boolean isEnumerated(long v) {
+        return Arrays.binarySearch(_longEnumeration, v) >= 0;
+    }
+
+    public boolean isEnumerated(int v) {
+        return Arrays.binarySearch(_intEnumeration, v) >= 0;
+    }
+
+    private static RegularExpression[][] compilePatterns(SchemaType type) {
+        List<RegularExpression[]> levels = new ArrayList<>();
+        for (SchemaType t = type; t != null && t.hasPatternFacet(); t = t.getBaseType()) {
+            if (!(t instanceof SchemaTypeImpl)) {
+                return null;
+            }
+            RegularExpression[] res = ((SchemaTypeImpl) t).getPatternExpressions();
+            if (res.length > 0) {
+                levels.add(res);
+            }
+        }
+        return levels.isEmpty() ? NO_PATTERNS : levels.toArray(NO_PATTERNS);
+    }
+
+    private static int getInt(SchemaType type, int facet) {
+        XmlAnySimpleType o = type.getFacet(facet);
+        return o == null ? -1 : ((XmlObjectBase) o).getBigIntegerValue().intValue();
+    }
+
+    private static BigDecimal getDecimal(SchemaType type, int facet) {
+        XmlAnySimpleType o = type.getFacet(facet);
+        return o == null ? null : ((XmlObjectBase) o).getBigDecimalValue();
+    }
+}
@@ -17,7 +17,6 @@ package org.apache.xmlbeans.impl.values;
 
 import org.apache.xmlbeans.SchemaType;
 import org.apache.xmlbeans.XmlErrorCodes;
-import org.apache.xmlbeans.XmlObject;
 import org.apache.xmlbeans.impl.common.QNameHelper;
 import org.apache.xmlbeans.impl.common.ValidationContext;
 
@@ -66,8 +65,9 @@ public abstract class JavaDecimalHolderEx extends JavaDecimalHolder {
         JavaDecimalHolder.validateLexical(v, context);
 
         // check pattern
-        if (sType.hasPatternFacet()) {
-            if (!sType.matchPatternFacet(v)) {
+        FacetValidator facets = FacetValidator.forType(sType);
+        if (facets.hasPatterns()) {
+            if (!facets.matchPattern(v)) {
                 // TODO - describe string and pattern here in error
                 context.invalid(XmlErrorCodes.DATATYPE_VALID$PATTERN_VALID,
                     new Object[]{"decimal", v, QNameHelper.readable(sType)});
@@ -80,10 +80,11 @@ public abstract class JavaDecimalHolderEx extends JavaDecimalHolder {
      */
 
     public static void validateValue(BigDecimal v, SchemaType sType, ValidationContext context) {
+        FacetValidator facets = FacetValidator.forType(sType);
+
         // fractional digits
-        XmlObject fd = sType.getFacet(SchemaType.FACET_FRACTION_DIGITS);
-        if (fd != null) {
-            int scale = ((XmlObjectBase) fd).getBigIntegerValue().intValue();
+        int scale = facets.getFractionDigits();
+        if (scale >= 0) {
             try {
                 // used only for side-effect - this does not change v despite
                 // the name of the method
@@ -100,10 +101,9 @@ public abstract class JavaDecimalHolderEx extends JavaDecimalHolder {
         }
 
         // total digits
-        XmlObject td = sType.getFacet(SchemaType.FACET_TOTAL_DIGITS);
-        if (td != null) {
+        int tdf = facets.getTotalDigits();
+        if (tdf >= 0) {
             String temp = v.unscaledValue().toString();
-            int tdf = ((XmlObjectBase) td).getBigIntegerValue().intValue();
             int origLen = temp.length();
             int len = origLen;
             if (origLen > 0) {
@@ -132,9 +132,9 @@ public abstract class JavaDecimalHolderEx extends JavaDecimalHolder {
         }
 
         // min ex
-        XmlObject mine = sType.getFacet(SchemaType.FACET_MIN_EXCLUSIVE);
+        BigDecimal mine = facets.getMinExclusive();
         if (mine != null) {
-            BigDecimal m = ((XmlObjectBase) mine).getBigDecimalValue();
+            BigDecimal m = mine;
             if (v.compareTo(m) <= 0) {
                 context.invalid(XmlErrorCodes.DATATYPE_MIN_EXCLUSIVE_VALID,
                     new Object[]{"decimal", v, m, QNameHelper.readable(sType)});
@@ -143,9 +143,9 @@ public abstract class JavaDecimalHolderEx extends JavaDecimalHolder {
         }
 
         // min in
-        XmlObject mini = sType.getFacet(SchemaType.FACET_MIN_INCLUSIVE);
+        BigDecimal mini = facets.getMinInclusive();
         if (mini != null) {
-            BigDecimal m = ((XmlObjectBase) mini).getBigDecimalValue();
+            BigDecimal m = mini;
             if (v.compareTo(m) < 0) {
                 context.invalid(XmlErrorCodes.DATATYPE_MIN_INCLUSIVE_VALID,
                     new Object[]{"decimal", v, m, QNameHelper.readable(sType)});
@@ -154,9 +154,9 @@ public abstract class JavaDecimalHolderEx extends JavaDecimalHolder {
         }
 
         // max in
-        XmlObject maxi = sType.getFacet(SchemaType.FACET_MAX_INCLUSIVE);
+        BigDecimal maxi = facets.getMaxInclusive();
         if (maxi != null) {
-            BigDecimal m = ((XmlObjectBase) maxi).getBigDecimalValue();
+            BigDecimal m = maxi;
             if (v.compareTo(m) > 0) {
                 context.invalid(XmlErrorCodes.DATATYPE_MAX_INCLUSIVE_VALID,
                     new Object[]{"decimal", v, m, QNameHelper.readable(sType)});
@@ -165,9 +165,9 @@ public abstract class JavaDecimalHolderEx extends JavaDecimalHolder {
         }
 
         // max ex
-        XmlObject maxe = sType.getFacet(SchemaType.FACET_MAX_EXCLUSIVE);
+        BigDecimal maxe = facets.getMaxExclusive();
         if (maxe != null) {
-            BigDecimal m = ((XmlObjectBase) maxe).getBigDecimalValue();
+            BigDecimal m = maxe;
             if (v.compareTo(m) >= 0) {
                 context.invalid(XmlErrorCodes.DATATYPE_MAX_EXCLUSIVE_VALID,
                     new Object[]{"decimal", v, m, QNameHelper.readable(sType)});
@@ -176,13 +176,7 @@ public abstract class JavaDecimalHolderEx extends JavaDecimalHolder {
         }
 
         // enumeration
-        XmlObject[] vals = sType.getEnumerationValues();
-        if (vals != null) {
-            for (XmlObject val : vals) {
-                if (v.compareTo(((XmlObjectBase) val).getBigDecimalValue()) == 0) {
-                    return;
-                }
-            }
+        if (facets.hasEnumeration() && !facets.isEnumerated(v)) {
             context.invalid(XmlErrorCodes.DATATYPE_ENUM_VALID,
                 new Object[]{"decimal", v, QNameHelper.readable(sType)});
         }
@@ -17,11 +17,12 @@ package org.apache.xmlbeans.impl.values;
 
 import org.apache.xmlbeans.SchemaType;
 import org.apache.xmlbeans.XmlErrorCodes;
-import org.apache.xmlbeans.XmlObject;
 import org.apache.xmlbeans.impl.common.QNameHelper;
 import org.apache.xmlbeans.impl.common.ValidationContext;
 import org.apache.xmlbeans.impl.util.XsTypeConverter;
 
+import java.math.BigDecimal;
+
 public abstract class JavaIntHolderEx extends JavaIntHolder {
     public JavaIntHolderEx(SchemaType type, boolean complex) {
         _schemaType = type;
@@ -64,8 +65,9 @@ public abstract class JavaIntHolderEx extends JavaIntHolder {
         JavaDecimalHolder.validateLexical(v, context);
 
         // check pattern
-        if (sType.hasPatternFacet()) {
-            if (!sType.matchPatternFacet(v)) {
+        FacetValidator facets = FacetValidator.forType(sType);
+        if (facets.hasPatterns()) {
+            if (!facets.matchPattern(v)) {
                 context.invalid(XmlErrorCodes.DATATYPE_VALID$PATTERN_VALID,
                     new Object[]{"int", v, QNameHelper.readable(sType)});
             }
@@ -73,26 +75,27 @@ public abstract class JavaIntHolderEx extends JavaIntHolder {
     }
 
     private static void validateValue(int v, SchemaType sType, ValidationContext context) {
+        FacetValidator facets = FacetValidator.forType(sType);
+
         // total digits
-        XmlObject td = sType.getFacet(SchemaType.FACET_TOTAL_DIGITS);
-        if (td != null) {
+        int td = facets.getTotalDigits();
+        if (td >= 0) {
             String temp = Integer.toString(v);
             int len = temp.length();
             if (len > 0 && temp.charAt(0) == '-') {
                 len -= 1;
             }
-            int m = getIntValue(td);
-            if (len > m) {
+            if (len > td) {
                 context.invalid(XmlErrorCodes.DATATYPE_TOTAL_DIGITS_VALID,
-                    new Object[]{len, temp, getIntValue(td), QNameHelper.readable(sType)});
+                    new Object[]{len, temp, td, QNameHelper.readable(sType)});
                 return;
             }
         }
 
         // min ex
-        XmlObject mine = sType.getFacet(SchemaType.FACET_MIN_EXCLUSIVE);
+        BigDecimal mine = facets.getMinExclusive();
         if (mine != null) {
-            int m = getIntValue(mine);
+            int m = mine.intValue();
             if (!(v > m)) {
                 context.invalid(XmlErrorCodes.DATATYPE_MIN_EXCLUSIVE_VALID,
                     new Object[]{"int", v, m, QNameHelper.readable(sType)});
@@ -101,9 +104,9 @@ public abstract class JavaIntHolderEx extends JavaIntHolder {
         }
 
         // min in
-        XmlObject mini = sType.getFacet(SchemaType.FACET_MIN_INCLUSIVE);
+        BigDecimal mini = facets.getMinInclusive();
         if (mini != null) {
-            int m = getIntValue(mini);
+            int m = mini.intValue();
             if (!(v >= m)) {
                 context.invalid(XmlErrorCodes.DATATYPE_MIN_INCLUSIVE_VALID,
                     new Object[]{"int", v, m, QNameHelper.readable(sType)});
@@ -112,9 +115,9 @@ public abstract class JavaIntHolderEx extends JavaIntHolder {
         }
 
         // max in
-        XmlObject maxi = sType.getFacet(SchemaType.FACET_MAX_INCLUSIVE);
+        BigDecimal maxi = facets.getMaxInclusive();
         if (maxi != null) {
-            int m = getIntValue(maxi);
+            int m = maxi.intValue();
             if (!(v <= m)) {
                 context.invalid(XmlErrorCodes.DATATYPE_MAX_EXCLUSIVE_VALID,
                     new Object[]{"int", v, m, QNameHelper.readable(sType)});
@@ -123,9 +126,9 @@ public abstract class JavaIntHolderEx extends JavaIntHolder {
         }
 
         // max ex
-        XmlObject maxe = sType.getFacet(SchemaType.FACET_MAX_EXCLUSIVE);
+        BigDecimal maxe = facets.getMaxExclusive();
         if (maxe != null) {
-            int m = getIntValue(maxe);
+            int m = maxe.intValue();
             if (!(v < m)) {
                 context.invalid(XmlErrorCodes.DATATYPE_MAX_EXCLUSIVE_VALID,
                     new Object[]{"int", v, m, QNameHelper.readable(sType)});
@@ -134,33 +137,12 @@ public abstract class JavaIntHolderEx extends JavaIntHolder {
         }
 
         // enumeration
-        XmlObject[] vals = sType.getEnumerationValues();
-        if (vals != null) {
-            for (XmlObject val : vals) {
-                if (v == getIntValue(val)) {
-                    return;
-                }
-            }
+        if (facets.hasEnumeration() && !facets.isEnumerated(v)) {
             context.invalid(XmlErrorCodes.DATATYPE_ENUM_VALID,
                 new Object[]{"int", v, QNameHelper.readable(sType)});
         }
     }
 
-    private static int getIntValue(XmlObject o) {
-        SchemaType s = o.schemaType();
-        switch (s.getDecimalSize()) {
-            case SchemaType.SIZE_BIG_DECIMAL:
-                return ((XmlObjectBase) o).getBigDecimalValue().intValue();
-            case SchemaType.SIZE_BIG_INTEGER:
-                return ((XmlObjectBase) o).getBigIntegerValue().intValue();
-            case SchemaType.SIZE_LONG:
-                return (int) ((XmlObjectBase) o).getLongValue();
-            default:
-                return ((XmlObjectBase) o).getIntValue();
-        }
-
-    }
-
     protected void validate_simpleval(String lexical, ValidationContext ctx) {
         validateLexical(lexical, schemaType(), ctx);
         validateValue(getIntValue(), schemaType(), ctx);
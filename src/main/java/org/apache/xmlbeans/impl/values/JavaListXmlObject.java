@@ -15,15 +15,39 @@
 
 package org.apache.xmlbeans.impl.values;
 
+import org.apache.xmlbeans.QNameSet;
 import org.apache.xmlbeans.XmlObject;
 
+import javax.xml.namespace.QName;
 import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
 
+/**
+ * The list view of the generated getXxxList() methods.
+ * <p>
+ * If the owning bean and the element names are known, the view is iterated by walking the sibling
+ * elements, instead of looking up each element by its index - i.e. in linear time and with one lock
+ * per batch of elements. The iterators fail fast, if the structure of the document is modified
+ * other than by their {@link Iterator#remove()}.
+ */
 public class JavaListXmlObject<T extends XmlObject> extends AbstractList<T> {
+    /** number of elements fetched by an iterator per lock */
+    private static final int BATCH_SIZE = 64;
+
+    private final XmlObjectBase owner;
+    private final QName name;
+    private final QNameSet names;
+
     private final Function<Integer,T> getter;
     private final BiConsumer<Integer,T> setter;
     private final Function<Integer,T> adder;
@@ -37,6 +61,46 @@ public class JavaListXmlObject<T extends XmlObject> extends AbstractList<T> {
         Consumer<Integer> remover,
         Supplier<Integer> sizer
     ) {
+        this(null, null, null, getter, setter, adder, remover, sizer);
+    }
+
+    public JavaListXmlObject(
+        XmlObjectBase owner,
+        QName name,
+        Function<Integer,T> getter,
+        BiConsumer<Integer,T> setter,
+        Function<Integer,T> adder,
+        Consumer<Integer> remover,
+        Supplier<Integer> sizer
+    ) {
+        this(owner, name, null, getter, setter, adder, remover, sizer);
+    }
+
+    public JavaListXmlObject(
+        XmlObjectBase owner,
+        QNameSet names,
+        Function<Integer,T> getter,
+        BiConsumer<Integer,T> setter,
+        Function<Integer,T> adder,
+        Consumer<Integer> remover,
+        Supplier<Integer> sizer
+    ) {
+        this(owner, null, names, getter, setter, adder, remover, sizer);
+    }
+
+    private JavaListXmlObject(
+        XmlObjectBase owner,
+        QName name,
+        QNameSet names,
+        Function<Integer,T> getter,
+        BiConsumer<Integer,T> setter,
+        Function<Integer,T> adder,
+        Consumer<Integer> remover,
+        Supplier<Integer> sizer
+    ) {
+        this.owner = owner;
+        this.name = name;
+        this.names = names;
         this.getter = getter;
         this.setter = setter;
         this.adder = adder;
@@ -88,4 +152,110 @@ public class JavaListXmlObject<T extends XmlObject> extends AbstractList<T> {
         }
         return sizer.get();
     }
+
+    @Override
+    public Iterator<T> iterator() {
+        // the getter is checked to fail like the index based access of partial beans
+        return (owner == null || getter == null) ? super.iterator() : new ElementIterator();
+    }
+
+    @Override
+    public Spliterator<T> spliterator() {
+        // splits off arrays of the elements in front of the iterator
+        return Spliterators.spliterator(iterator(), size(), Spliterator.ORDERED | Spliterator.NONNULL);
+    }
+
+    /**
+     * Walks the sibling elements, holding the store of the last fetched element as position
+     */
+    private final class ElementIterator implements Iterator<T> {
+        private final List<T> batch = new ArrayList<>(BATCH_SIZE);
+        private int batchPos;
+        private TypeStore last;
+        private boolean exhausted;
+        private long version;
+
+        // index and predecessor of the element returned by next(), for remove()
+        private int index;
+        private T current;
+        private T previous;
+
+        ElementIterator() {
+            try (XmlObjectBase.StoreLock lock = owner.lock_store()) {
+                synchronized (owner.monitor()) {
+                    owner.check_orphaned();
+                    version = owner.get_store().structure_version();
+                }
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (batchPos == batch.size() && !exhausted) {
+                fetch();
+            }
+            return batchPos < batch.size();
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            checkVersion();
+            if (current != null) {
+                previous = current;
+            }
+            current = batch.get(batchPos++);
+            index++;
+            return current;
+        }
+
+        @Override
+        public void remove() {
+            if (current == null) {
+                throw new IllegalStateException();
+            }
+            checkVersion();
+            if (batchPos == batch.size()) {
+                // the position of the walk is removed - continue after the predecessor
+                last = (previous == null) ? null : ((XmlObjectBase) previous).get_store();
+            }
+            JavaListXmlObject.this.remove(--index);
+            current = null;
+            version = owner.get_store().structure_version();
+        }
+
+        private void fetch() {
+            batch.clear();
+            batchPos = 0;
+            try (XmlObjectBase.StoreLock lock = owner.lock_store()) {
+                synchronized (owner.monitor()) {
+                    owner.check_orphaned();
+                    TypeStore store = owner.get_store();
+                    if (version != store.structure_version()) {
+                        throw new ConcurrentModificationException();
+                    }
+                    if (name != null) {
+                        store.find_element_users(name, last, BATCH_SIZE, batch);
+                    } else {
+                        store.find_element_users(names, last, BATCH_SIZE, batch);
+                    }
+                }
+            }
+            if (batch.size() < BATCH_SIZE) {
+                exhausted = true;
+            }
+            if (!batch.isEmpty()) {
+                last = ((XmlObjectBase) batch.get(batch.size() - 1)).get_store();
+            }
+        }
+
+        private void checkVersion() {
+            // unlocked like the modCount of the JDK lists - the check is done on a best effort basis
+            if (version != owner.get_store().structure_version()) {
+                throw new ConcurrentModificationException();
+            }
+        }
+    }
 }
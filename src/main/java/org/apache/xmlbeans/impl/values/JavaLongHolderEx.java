@@ -17,11 +17,12 @@ package org.apache.xmlbeans.impl.values;
 
 import org.apache.xmlbeans.SchemaType;
 import org.apache.xmlbeans.XmlErrorCodes;
-import org.apache.xmlbeans.XmlObject;
 import org.apache.xmlbeans.impl.common.QNameHelper;
 import org.apache.xmlbeans.impl.common.ValidationContext;
 import org.apache.xmlbeans.impl.util.XsTypeConverter;
 
+import java.math.BigDecimal;
+
 public abstract class JavaLongHolderEx extends JavaLongHolder {
     public JavaLongHolderEx(SchemaType type, boolean complex) {
         _schemaType = type;
@@ -64,8 +65,9 @@ public abstract class JavaLongHolderEx extends JavaLongHolder {
         JavaDecimalHolder.validateLexical(v, context);
 
         // check pattern
-        if (sType.hasPatternFacet()) {
-            if (!sType.matchPatternFacet(v)) {
+        FacetValidator facets = FacetValidator.forType(sType);
+        if (facets.hasPatterns()) {
+            if (!facets.matchPattern(v)) {
                 context.invalid(XmlErrorCodes.DATATYPE_VALID$PATTERN_VALID,
                     new Object[]{"long", v, QNameHelper.readable(sType)});
             }
@@ -73,10 +75,12 @@ public abstract class JavaLongHolderEx extends JavaLongHolder {
     }
 
     private static void validateValue(long v, SchemaType sType, ValidationContext context) {
+        FacetValidator facets = FacetValidator.forType(sType);
+
         // total digits
-        XmlObject td = sType.getFacet(SchemaType.FACET_TOTAL_DIGITS);
-        if (td != null) {
-            long m = getLongValue(td);
+        int td = facets.getTotalDigits();
+        if (td >= 0) {
+            long m = td;
             String temp = Long.toString(v);
             int len = temp.length();
             if (len > 0 && temp.charAt(0) == '-') {
@@ -90,9 +94,9 @@ public abstract class JavaLongHolderEx extends JavaLongHolder {
         }
 
         // min ex
-        XmlObject mine = sType.getFacet(SchemaType.FACET_MIN_EXCLUSIVE);
+        BigDecimal mine = facets.getMinExclusive();
         if (mine != null) {
-            long m = getLongValue(mine);
+            long m = mine.longValue();
             if (!(v > m)) {
                 context.invalid(XmlErrorCodes.DATATYPE_MIN_EXCLUSIVE_VALID,
                     new Object[]{"long", v, m, QNameHelper.readable(sType)});
@@ -101,9 +105,9 @@ public abstract class JavaLongHolderEx extends JavaLongHolder {
         }
 
         // min in
-        XmlObject mini = sType.getFacet(SchemaType.FACET_MIN_INCLUSIVE);
+        BigDecimal mini = facets.getMinInclusive();
         if (mini != null) {
-            long m = getLongValue(mini);
+            long m = mini.longValue();
             if (!(v >= m)) {
                 context.invalid(XmlErrorCodes.DATATYPE_MIN_INCLUSIVE_VALID,
                     new Object[]{"long", v, m, QNameHelper.readable(sType)});
@@ -112,9 +116,9 @@ public abstract class JavaLongHolderEx extends JavaLongHolder {
         }
 
         // max in
-        XmlObject maxi = sType.getFacet(SchemaType.FACET_MAX_INCLUSIVE);
+        BigDecimal maxi = facets.getMaxInclusive();
         if (maxi != null) {
-            long m = getLongValue(maxi);
+            long m = maxi.longValue();
             if (!(v <= m)) {
                 context.invalid(XmlErrorCodes.DATATYPE_MAX_INCLUSIVE_VALID,
                     new Object[]{"long", v, m, QNameHelper.readable(sType)});
@@ -123,9 +127,9 @@ public abstract class JavaLongHolderEx extends JavaLongHolder {
         }
 
         // max ex
-        XmlObject maxe = sType.getFacet(SchemaType.FACET_MAX_EXCLUSIVE);
+        BigDecimal maxe = facets.getMaxExclusive();
         if (maxe != null) {
-            long m = getLongValue(maxe);
+            long m = maxe.longValue();
             if (!(v < m)) {
                 context.invalid(XmlErrorCodes.DATATYPE_MAX_EXCLUSIVE_VALID,
                     new Object[]{"long", v, m, QNameHelper.readable(sType)});
@@ -134,33 +138,12 @@ public abstract class JavaLongHolderEx extends JavaLongHolder {
         }
 
         // enumeration
-        XmlObject[] vals = sType.getEnumerationValues();
-        if (vals != null) {
-            for (XmlObject val : vals) {
-                if (v == getLongValue(val)) {
-                    return;
-                }
-            }
+        if (facets.hasEnumeration() && !facets.isEnumerated(v)) {
             context.invalid(XmlErrorCodes.DATATYPE_ENUM_VALID,
                 new Object[]{"long", v, QNameHelper.readable(sType)});
         }
     }
 
-    private static long getLongValue(XmlObject o) {
-        SchemaType s = o.schemaType();
-        switch (s.getDecimalSize()) {
-            case SchemaType.SIZE_BIG_DECIMAL:
-                return ((XmlObjectBase) o).getBigDecimalValue().longValue();
-            case SchemaType.SIZE_BIG_INTEGER:
-                return ((XmlObjectBase) o).getBigIntegerValue().longValue();
-            case SchemaType.SIZE_LONG:
-                return ((XmlObjectBase) o).getLongValue();
-            default:
-                throw new IllegalStateException("Bad facet type: " + s);
-        }
-
-    }
-
     protected void validate_simpleval(String lexical, ValidationContext ctx) {
         validateLexical(lexical, schemaType(), ctx);
         validateValue(getLongValue(), schemaType(), ctx);
@@ -16,9 +16,7 @@
 package org.apache.xmlbeans.impl.values;
 
 import org.apache.xmlbeans.SchemaType;
-import org.apache.xmlbeans.XmlAnySimpleType;
 import org.apache.xmlbeans.XmlErrorCodes;
-import org.apache.xmlbeans.XmlObject;
 import org.apache.xmlbeans.impl.common.QNameHelper;
 import org.apache.xmlbeans.impl.common.ValidationContext;
 
@@ -56,43 +54,36 @@ public abstract class JavaStringHolderEx extends JavaStringHolder {
     }
 
     public static void validateLexical(String v, SchemaType sType, ValidationContext context) {
+        FacetValidator facets = FacetValidator.forType(sType);
+
         // check against pattern
-        if (!sType.matchPatternFacet(v)) {
+        if (!facets.matchPattern(v)) {
             context.invalid(XmlErrorCodes.DATATYPE_VALID$PATTERN_VALID, new Object[]{"string", v, QNameHelper.readable(sType)});
             return;
         }
 
         // check against length
-        XmlObject len = sType.getFacet(SchemaType.FACET_LENGTH);
-        if (len != null) {
-            int m = ((XmlObjectBase) len).getBigIntegerValue().intValue();
-            if (v.length() != m) {
-                context.invalid(XmlErrorCodes.DATATYPE_LENGTH_VALID$STRING,
-                    new Object[]{"string", v.length(), m, QNameHelper.readable(sType)});
-                return;
-            }
+        int m = facets.getLength();
+        if (m >= 0 && v.length() != m) {
+            context.invalid(XmlErrorCodes.DATATYPE_LENGTH_VALID$STRING,
+                new Object[]{"string", v.length(), m, QNameHelper.readable(sType)});
+            return;
         }
 
         // check against min length
-        XmlObject min = sType.getFacet(SchemaType.FACET_MIN_LENGTH);
-        if (min != null) {
-            int m = ((XmlObjectBase) min).getBigIntegerValue().intValue();
-            if (v.length() < m) {
-                context.invalid(XmlErrorCodes.DATATYPE_MIN_LENGTH_VALID$STRING,
-                    new Object[]{"string", v.length(), m, QNameHelper.readable(sType)});
-                return;
-            }
+        m = facets.getMinLength();
+        if (m >= 0 && v.length() < m) {
+            context.invalid(XmlErrorCodes.DATATYPE_MIN_LENGTH_VALID$STRING,
+                new Object[]{"string", v.length(), m, QNameHelper.readable(sType)});
+            return;
         }
 
-        // check against min length
-        XmlObject max = sType.getFacet(SchemaType.FACET_MAX_LENGTH);
-        if (max != null) {
-            int m = ((XmlObjectBase) max).getBigIntegerValue().intValue();
-            if (v.length() > m) {
-                context.invalid(XmlErrorCodes.DATATYPE_MAX_LENGTH_VALID$STRING,
-                    new Object[]{"string", v.length(), m, QNameHelper.readable(sType)});
-                return;
-            }
+        // check against max length
+        m = facets.getMaxLength();
+        if (m >= 0 && v.length() > m) {
+            context.invalid(XmlErrorCodes.DATATYPE_MAX_LENGTH_VALID$STRING,
+                new Object[]{"string", v.length(), m, QNameHelper.readable(sType)});
+            return;
         }
 
         // enumeration
@@ -100,13 +91,7 @@ public abstract class JavaStringHolderEx extends JavaStringHolder {
         // here since we may be validating against a string enum value
         // during StscSimpleTypeResolver.resolveFacets() and the string
         // enum table hasn't been constructed yet.
-        XmlAnySimpleType[] vals = sType.getEnumerationValues();
-        if (vals != null) {
-            for (XmlAnySimpleType val : vals) {
-                if (v.equals(val.getStringValue())) {
-                    return;
-                }
-            }
+        if (facets.hasEnumeration() && !facets.isEnumerated(v)) {
             context.invalid(XmlErrorCodes.DATATYPE_ENUM_VALID,
                 new Object[]{"string", v, QNameHelper.readable(sType)});
         }
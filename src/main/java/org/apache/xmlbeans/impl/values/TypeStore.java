@@ -185,6 +185,28 @@ public interface TypeStore extends NamespaceManager
      */
     <T extends XmlObject> void find_all_element_users(QNameSet name, List<T> fillMeUp);
 
+    /**
+     * Adds the TypeStoreUsers of up to max elements with the given name,
+     * which follow the element of the given store - or of the first ones,
+     * if after is null. Allows iterating over the elements in linear time.
+     *
+     * Throws a ConcurrentModificationException if the element of the
+     * given store isn't owned by this typestore anymore.
+     */
+    <T extends XmlObject> void find_element_users(QName name, TypeStore after, int max, List<T> fillMeUp);
+
+    /**
+     * Like find_element_users but accepts a set of names to search for.
+     */
+    <T extends XmlObject> void find_element_users(QNameSet names, TypeStore after, int max, List<T> fillMeUp);
+
+    /**
+     * Returns a number, which changes whenever nodes are inserted into or
+     * removed from the document of this typestore. Changes of text
+     * don't alter it.
+     */
+    long structure_version();
+
     /**
      * Inserts a new element at the position that will make it
      * the ith element with the given name owned by this textstore,
@@ -107,6 +107,14 @@ public interface TypeStoreUser
      */
     void disconnect_store();
 
+    /**
+     * A store calls back on freeze_value when its document is made read only.
+     * The user should compute its value and flags now, so that subsequent
+     * gets neither read the store nor modify the user, and reject any set
+     * from now on.
+     */
+    void freeze_value();
+
     /**
      * A typestore user can create a new TypeStoreUser instance for
      * a given element child name as long as you also pass the
@@ -32,6 +32,7 @@ import java.io.*;
 import java.lang.reflect.Array;
 import java.math.BigDecimal;
 import java.math.BigInteger;
+import java.nio.channels.WritableByteChannel;
 import java.util.*;
 import java.util.function.Function;
 import java.util.function.IntFunction;
@@ -44,12 +45,91 @@ public abstract class XmlObjectBase implements TypeStoreUser, Serializable, XmlO
     public static final short KIND_SETTERHELPER_ARRAYITEM = 2;
 
     public final Object monitor() {
+        if ((_flags & FLAG_FROZEN) != 0) {
+            // read only documents are read without locking the locale, see XmlOptions#setLoadReadOnly()
+            return this;
+        }
         if (has_store()) {
             return get_store().get_locale();
         }
         return this;
     }
 
+    /**
+     * Handle of the store lock(s) acquired via {@link #lock_store()}, to be released via try-with-resources
+     */
+    public interface StoreLock extends AutoCloseable {
+        @Override
+        void close();
+    }
+
+    private static final StoreLock NO_STORE_LOCK = () -> {};
+
+    /**
+     * Acquires the lock of the store, if the document is guarded by a lock instead of its monitor
+     * (see {@link XmlOptions#setUseReentrantLock()}). The {@code synchronized (monitor())} blocks of
+     * this class and the generated classes are enclosed by this lock, so the monitor itself is never
+     * contended in that mode. For monitor guarded documents, the returned handle is a no-op.
+     */
+    protected final StoreLock lock_store() {
+        XmlLocale l = lockedLocale(this);
+        if (l == null) {
+            return NO_STORE_LOCK;
+        }
+        l.lock();
+        return l::unlock;
+    }
+
+    private StoreLock lock_stores(XmlObject other) {
+        XmlLocale l1 = lockedLocale(this);
+        XmlLocale l2 = lockedLocale(other);
+        if (l1 != null && l2 != null && l1 != l2) {
+            l1.lock(l2);
+            return () -> l1.unlock(l2);
+        }
+        XmlLocale l = (l1 != null) ? l1 : l2;
+        if (l == null) {
+            return NO_STORE_LOCK;
+        }
+        if (l1 == l2 || !isSynchronized(l1 != null ? underlying(other) : this)) {
+            l.lock();
+            return l::unlock;
+        }
+        // a lock guarded and a monitor guarded store are acquired while holding the global mutex,
+        // the lock before the monitor - the same way Cursor acquires the locales of such a pair
+        try {
+            GlobalLock.acquire();
+        } catch (InterruptedException e) {
+            throw new XmlRuntimeException(e);
+        }
+        l.lock();
+        return () -> {
+            try {
+                l.unlock();
+            } finally {
+                GlobalLock.release();
+            }
+        };
+    }
+
+    private static boolean isSynchronized(XmlObjectBase obj) {
+        return obj != null && !obj.isImmutable() && (obj._flags & FLAG_FROZEN) == 0 && !obj.preCheck();
+    }
+
+    private static XmlLocale lockedLocale(XmlObject obj) {
+        while (obj instanceof DelegateXmlObject) {
+            obj = ((DelegateXmlObject) obj).underlyingXmlObject();
+        }
+        if (obj instanceof XmlObjectBase && ((XmlObjectBase) obj).has_store()) {
+            if ((((XmlObjectBase) obj)._flags & FLAG_FROZEN) != 0) {
+                return null;
+            }
+            XmlLocale l = ((XmlObjectBase) obj).getXmlLocale();
+            return l.usesLock() ? l : null;
+        }
+        return null;
+    }
+
     private static XmlObjectBase underlying(XmlObject obj) {
         if (obj == null) {
             return null;
@@ -70,8 +150,10 @@ public abstract class XmlObjectBase implements TypeStoreUser, Serializable, XmlO
         if (preCheck()) {
             return _copy();
         } else {
-            synchronized (monitor()) {
-                return _copy();
+            try (StoreLock lock = lock_store()) {
+                synchronized (monitor()) {
+                    return _copy();
+                }
             }
         }
     }
@@ -80,8 +162,10 @@ public abstract class XmlObjectBase implements TypeStoreUser, Serializable, XmlO
         if (preCheck()) {
             return _copy(options);
         } else {
-            synchronized (monitor()) {
-                return _copy(options);
+            try (StoreLock lock = lock_store()) {
+                synchronized (monitor()) {
+                    return _copy(options);
+                }
             }
         }
     }
@@ -191,6 +275,12 @@ public abstract class XmlObjectBase implements TypeStoreUser, Serializable, XmlO
         }
     }
 
+    public void save(WritableByteChannel channel, XmlOptions options) throws IOException {
+        try (XmlCursor cur = newCursorForce()) {
+            cur.save(channel, makeInnerOptions(options));
+        }
+    }
+
     public void save(Writer w, XmlOptions options) throws IOException {
         try (XmlCursor cur = newCursorForce()) {
             cur.save(w, makeInnerOptions(options));
@@ -220,8 +310,10 @@ public abstract class XmlObjectBase implements TypeStoreUser, Serializable, XmlO
     }
 
     public XmlCursor newCursorForce() {
-        synchronized (monitor()) {
-            return ensureStore().newCursor();
+        try (StoreLock lock = lock_store()) {
+            synchronized (monitor()) {
+                return ensureStore().newCursor();
+            }
         }
     }
 
@@ -266,7 +358,7 @@ public abstract class XmlObjectBase implements TypeStoreUser, Serializable, XmlO
 
         XmlLocale l = getXmlLocale();
 
-        if (l.noSync()) {
+        if (l.noSync() || l.usesLock()) {
             l.enter();
             try {
                 return get_store().new_cursor();
@@ -289,8 +381,10 @@ public abstract class XmlObjectBase implements TypeStoreUser, Serializable, XmlO
     public abstract SchemaType schemaType();
 
     public SchemaType instanceType() {
-        synchronized (monitor()) {
-            return isNil() ? null : schemaType();
+        try (StoreLock lock = lock_store()) {
+            synchronized (monitor()) {
+                return isNil() ? null : schemaType();
+            }
         }
     }
 
@@ -359,23 +453,25 @@ public abstract class XmlObjectBase implements TypeStoreUser, Serializable, XmlO
                 "XML objects with no underlying store cannot be validated");
         }
 
-        synchronized (monitor()) {
-            if ((_flags & FLAG_ORPHANED) != 0) {
-                throw new XmlValueDisconnectedException();
-            }
+        try (StoreLock lock = lock_store()) {
+            synchronized (monitor()) {
+                if ((_flags & FLAG_ORPHANED) != 0) {
+                    throw new XmlValueDisconnectedException();
+                }
 
-            SchemaField field = schemaField();
-            SchemaType type = schemaType();
+                SchemaField field = schemaField();
+                SchemaType type = schemaType();
 
-            TypeStore typeStore = get_store();
+                TypeStore typeStore = get_store();
 
-            Validator validator =
-                new Validator(
-                    type, field, typeStore.get_schematypeloader(), options, null);
+                Validator validator =
+                    new Validator(
+                        type, field, typeStore.get_schematypeloader(), options, null);
 
-            typeStore.validate(validator);
+                typeStore.validate(validator);
 
-            return validator.isValid();
+                return validator.isValid();
+            }
         }
     }
 
@@ -487,15 +583,17 @@ public abstract class XmlObjectBase implements TypeStoreUser, Serializable, XmlO
     }
 
     public XmlObject[] execQuery(String queryExpr, XmlOptions options) {
-        synchronized (monitor()) {
-            TypeStore typeStore = get_store();
+        try (StoreLock lock = lock_store()) {
+            synchronized (monitor()) {
+                TypeStore typeStore = get_store();
 
-            if (typeStore == null) {
-                throw
-                    new XmlRuntimeException(
-                        "Cannot do XQuery on XML Value Objects");
+                if (typeStore == null) {
+                    throw
+                        new XmlRuntimeException(
+                            "Cannot do XQuery on XML Value Objects");
+                }
+                return _typedArray(typeStore.exec_query(queryExpr, options));
             }
-            return _typedArray(typeStore.exec_query(queryExpr, options));
         }
     }
 
@@ -510,9 +608,11 @@ public abstract class XmlObjectBase implements TypeStoreUser, Serializable, XmlO
                     "XML Value Objects cannot have thier type changed");
         }
 
-        synchronized (monitor()) {
-            check_orphaned();
-            return (XmlObject) get_store().change_type(type);
+        try (StoreLock lock = lock_store()) {
+            synchronized (monitor()) {
+                check_orphaned();
+                return (XmlObject) get_store().change_type(type);
+            }
         }
     }
 
@@ -531,9 +631,11 @@ public abstract class XmlObjectBase implements TypeStoreUser, Serializable, XmlO
                     "XML Value Objects cannot be used with substitution");
         }
 
-        synchronized (monitor()) {
-            check_orphaned();
-            return (XmlObject) get_store().substitute(name, type);
+        try (StoreLock lock = lock_store()) {
+            synchronized (monitor()) {
+                check_orphaned();
+                return (XmlObject) get_store().substitute(name, type);
+            }
         }
     }
 
@@ -580,6 +682,7 @@ public abstract class XmlObjectBase implements TypeStoreUser, Serializable, XmlO
     private static final int FLAG_COMPLEXCONTENT = 16384;
     private static final int FLAG_NOT_VARIABLE = 32768;
     private static final int FLAG_VALIDATE_ON_SET = 65536;
+    private static final int FLAG_FROZEN = 131072;
 
 
     /**
@@ -631,9 +734,11 @@ public abstract class XmlObjectBase implements TypeStoreUser, Serializable, XmlO
      * True if the value is nilled.
      */
     public final boolean isNil() {
-        synchronized (monitor()) {
-            check_dated();
-            return ((_flags & FLAG_NIL) != 0);
+        try (StoreLock lock = lock_store()) {
+            synchronized (monitor()) {
+                check_dated();
+                return ((_flags & FLAG_NIL) != 0);
+            }
         }
     }
 
@@ -674,28 +779,30 @@ public abstract class XmlObjectBase implements TypeStoreUser, Serializable, XmlO
      * Nils the value.
      */
     public final void setNil() {
-        synchronized (monitor()) {
-            set_prepare();
+        try (StoreLock lock = lock_store()) {
+            synchronized (monitor()) {
+                set_prepare();
 
-            // if we're not nillable, throw exception on setNil(true)
-            if ((_flags & FLAG_NILLABLE) == 0 &&
-                (_flags & FLAG_VALIDATE_ON_SET) != 0) {
-                throw new XmlValueNotNillableException();
-            }
+                // if we're not nillable, throw exception on setNil(true)
+                if ((_flags & FLAG_NILLABLE) == 0 &&
+                    (_flags & FLAG_VALIDATE_ON_SET) != 0) {
+                    throw new XmlValueNotNillableException();
+                }
 
-            // the implementation should zero the value to reflect nil
-            set_nil();
+                // the implementation should zero the value to reflect nil
+                set_nil();
 
-            // set the nil flag
-            _flags |= FLAG_NIL;
+                // set the nil flag
+                _flags |= FLAG_NIL;
 
-            // ordinary commit except no clearing of nil flag
-            if ((_flags & FLAG_STORE) != 0) {
-                get_store().invalidate_text();
-                _flags &= ~FLAGS_DATED;
-                get_store().invalidate_nil();
-            } else {
-                _textsource = null;
+                // ordinary commit except no clearing of nil flag
+                if ((_flags & FLAG_STORE) != 0) {
+                    get_store().invalidate_text();
+                    _flags &= ~FLAGS_DATED;
+                    get_store().invalidate_nil();
+                } else {
+                    _textsource = null;
+                }
             }
         }
     }
@@ -862,6 +969,17 @@ public abstract class XmlObjectBase implements TypeStoreUser, Serializable, XmlO
         // do NOT null out _textsource, because we need it non-null for synchronization
     }
 
+    /**
+     * A store calls back here when its document is made read only.
+     * The value is parsed now, so the getters don't need to go back to
+     * the store anymore, and all setters throw from now on.
+     * An invalid value throws, i.e. fails the load of the document.
+     */
+    public void freeze_value() {
+        check_dated();
+        _flags |= FLAG_FROZEN;
+    }
+
     /**
      * A typestore user can create a new TypeStoreUser instance for
      * a given element child name as long as you also pass the
@@ -1054,6 +1172,7 @@ public abstract class XmlObjectBase implements TypeStoreUser, Serializable, XmlO
      * against the primitive type for validity.
      */
     protected void set_String(String v) {
+        check_frozen();
         if ((_flags & FLAG_IMMUTABLE) != 0) {
             throw new IllegalStateException();
         }
@@ -1265,12 +1384,19 @@ public abstract class XmlObjectBase implements TypeStoreUser, Serializable, XmlO
      * (2) throw an exception if it's fixed (not for strings)
      */
     private void set_prepare() {
+        check_frozen();
         check_element_dated();
         if ((_flags & FLAG_IMMUTABLE) != 0) {
             throw new IllegalStateException();
         }
     }
 
+    private void check_frozen() {
+        if ((_flags & FLAG_FROZEN) != 0) {
+            throw new IllegalStateException("The document is read only");
+        }
+    }
+
     /**
      * Called after every set operation to invalidate
      * the attached raw text. Also, if we were dated,
@@ -1433,8 +1559,10 @@ public abstract class XmlObjectBase implements TypeStoreUser, Serializable, XmlO
     */
 
     public final String toString() {
-        synchronized (monitor()) {
-            return ensureStore().xmlText(_toStringOptions);
+        try (StoreLock lock = lock_store()) {
+            synchronized (monitor()) {
+                return ensureStore().xmlText(_toStringOptions);
+            }
         }
     }
 
@@ -1464,16 +1592,18 @@ public abstract class XmlObjectBase implements TypeStoreUser, Serializable, XmlO
         }
         // Since complex-content types don't have a "natural" string value, we
         // emit the deeply concatenated, tag-removed content of the tag.
-        synchronized (monitor()) {
-            if (_isComplexContent()) {
-                return get_store().fetch_text(TypeStore.WS_PRESERVE);
-            }
+        try (StoreLock lock = lock_store()) {
+            synchronized (monitor()) {
+                if (_isComplexContent()) {
+                    return get_store().fetch_text(TypeStore.WS_PRESERVE);
+                }
 
-            check_dated();
-            if ((_flags & FLAG_NIL) != 0) {
-                return null;
+                check_dated();
+                if ((_flags & FLAG_NIL) != 0) {
+                    return null;
+                }
+                return compute_text(has_store() ? get_store() : null);
             }
-            return compute_text(has_store() ? get_store() : null);
         }
     }
 
@@ -1528,58 +1658,72 @@ public abstract class XmlObjectBase implements TypeStoreUser, Serializable, XmlO
 
     // set this value
     public final void setBooleanValue(boolean v) {
-        synchronized (monitor()) {
-            set_prepare();
-            set_boolean(v);
-            set_commit();
+        try (StoreLock lock = lock_store()) {
+            synchronized (monitor()) {
+                set_prepare();
+                set_boolean(v);
+                set_commit();
+            }
         }
     }
 
     public final void setByteValue(byte v) {
-        synchronized (monitor()) {
-            set_prepare();
-            set_byte(v);
-            set_commit();
+        try (StoreLock lock = lock_store()) {
+            synchronized (monitor()) {
+                set_prepare();
+                set_byte(v);
+                set_commit();
+            }
         }
     }
 
     public final void setShortValue(short v) {
-        synchronized (monitor()) {
-            set_prepare();
-            set_short(v);
-            set_commit();
+        try (StoreLock lock = lock_store()) {
+            synchronized (monitor()) {
+                set_prepare();
+                set_short(v);
+                set_commit();
+            }
         }
     }
 
     public final void setIntValue(int v) {
-        synchronized (monitor()) {
-            set_prepare();
-            set_int(v);
-            set_commit();
+        try (StoreLock lock = lock_store()) {
+            synchronized (monitor()) {
+                set_prepare();
+                set_int(v);
+                set_commit();
+            }
         }
     }
 
     public final void setLongValue(long v) {
-        synchronized (monitor()) {
-            set_prepare();
-            set_long(v);
-            set_commit();
+        try (StoreLock lock = lock_store()) {
+            synchronized (monitor()) {
+                set_prepare();
+                set_long(v);
+                set_commit();
+            }
         }
     }
 
     public final void setFloatValue(float v) {
-        synchronized (monitor()) {
-            set_prepare();
-            set_float(v);
-            set_commit();
+        try (StoreLock lock = lock_store()) {
+            synchronized (monitor()) {
+                set_prepare();
+                set_float(v);
+                set_commit();
+            }
         }
     }
 
     public final void setDoubleValue(double v) {
-        synchronized (monitor()) {
-            set_prepare();
-            set_double(v);
-            set_commit();
+        try (StoreLock lock = lock_store()) {
+            synchronized (monitor()) {
+                set_prepare();
+                set_double(v);
+                set_commit();
+            }
         }
     }
 
@@ -1587,10 +1731,12 @@ public abstract class XmlObjectBase implements TypeStoreUser, Serializable, XmlO
         if (obj == null) {
             setNil();
         } else {
-            synchronized (monitor()) {
-                set_prepare();
-                set_ByteArray(obj);
-                set_commit();
+            try (StoreLock lock = lock_store()) {
+                synchronized (monitor()) {
+                    set_prepare();
+                    set_ByteArray(obj);
+                    set_commit();
+                }
             }
         }
     }
@@ -1599,10 +1745,12 @@ public abstract class XmlObjectBase implements TypeStoreUser, Serializable, XmlO
         if (obj == null) {
             setNil();
         } else {
-            synchronized (monitor()) {
-                set_prepare();
-                set_enum(obj);
-                set_commit();
+            try (StoreLock lock = lock_store()) {
+                synchronized (monitor()) {
+                    set_prepare();
+                    set_enum(obj);
+                    set_commit();
+                }
             }
         }
     }
@@ -1611,10 +1759,12 @@ public abstract class XmlObjectBase implements TypeStoreUser, Serializable, XmlO
         if (obj == null) {
             setNil();
         } else {
-            synchronized (monitor()) {
-                set_prepare();
-                set_BigInteger(obj);
-                set_commit();
+            try (StoreLock lock = lock_store()) {
+                synchronized (monitor()) {
+                    set_prepare();
+                    set_BigInteger(obj);
+                    set_commit();
+                }
             }
         }
     }
@@ -1623,10 +1773,12 @@ public abstract class XmlObjectBase implements TypeStoreUser, Serializable, XmlO
         if (obj == null) {
             setNil();
         } else {
-            synchronized (monitor()) {
-                set_prepare();
-                set_BigDecimal(obj);
-                set_commit();
+            try (StoreLock lock = lock_store()) {
+                synchronized (monitor()) {
+                    set_prepare();
+                    set_BigDecimal(obj);
+                    set_commit();
+                }
             }
         }
     }
@@ -1635,10 +1787,12 @@ public abstract class XmlObjectBase implements TypeStoreUser, Serializable, XmlO
         if (obj == null) {
             setNil();
         } else {
-            synchronized (monitor()) {
-                set_prepare();
-                set_Calendar(obj);
-                set_commit();
+            try (StoreLock lock = lock_store()) {
+                synchronized (monitor()) {
+                    set_prepare();
+                    set_Calendar(obj);
+                    set_commit();
+                }
             }
         }
     }
@@ -1647,10 +1801,12 @@ public abstract class XmlObjectBase implements TypeStoreUser, Serializable, XmlO
         if (obj == null) {
             setNil();
         } else {
-            synchronized (monitor()) {
-                set_prepare();
-                set_Date(obj);
-                set_commit();
+            try (StoreLock lock = lock_store()) {
+                synchronized (monitor()) {
+                    set_prepare();
+                    set_Date(obj);
+                    set_commit();
+                }
             }
         }
     }
@@ -1659,10 +1815,12 @@ public abstract class XmlObjectBase implements TypeStoreUser, Serializable, XmlO
         if (obj == null) {
             setNil();
         } else {
-            synchronized (monitor()) {
-                set_prepare();
-                set_GDate(obj);
-                set_commit();
+            try (StoreLock lock = lock_store()) {
+                synchronized (monitor()) {
+                    set_prepare();
+                    set_GDate(obj);
+                    set_commit();
+                }
             }
         }
     }
@@ -1671,10 +1829,12 @@ public abstract class XmlObjectBase implements TypeStoreUser, Serializable, XmlO
         if (obj == null) {
             setNil();
         } else {
-            synchronized (monitor()) {
-                set_prepare();
-                set_GDate(obj);
-                set_commit();
+            try (StoreLock lock = lock_store()) {
+                synchronized (monitor()) {
+                    set_prepare();
+                    set_GDate(obj);
+                    set_commit();
+                }
             }
         }
     }
@@ -1683,10 +1843,12 @@ public abstract class XmlObjectBase implements TypeStoreUser, Serializable, XmlO
         if (obj == null) {
             setNil();
         } else {
-            synchronized (monitor()) {
-                set_prepare();
-                set_GDuration(obj);
-                set_commit();
+            try (StoreLock lock = lock_store()) {
+                synchronized (monitor()) {
+                    set_prepare();
+                    set_GDuration(obj);
+                    set_commit();
+                }
             }
         }
     }
@@ -1695,10 +1857,12 @@ public abstract class XmlObjectBase implements TypeStoreUser, Serializable, XmlO
         if (obj == null) {
             setNil();
         } else {
-            synchronized (monitor()) {
-                set_prepare();
-                set_GDuration(obj);
-                set_commit();
+            try (StoreLock lock = lock_store()) {
+                synchronized (monitor()) {
+                    set_prepare();
+                    set_GDuration(obj);
+                    set_commit();
+                }
             }
         }
     }
@@ -1707,10 +1871,12 @@ public abstract class XmlObjectBase implements TypeStoreUser, Serializable, XmlO
         if (obj == null) {
             setNil();
         } else {
-            synchronized (monitor()) {
-                set_prepare();
-                set_QName(obj);
-                set_commit();
+            try (StoreLock lock = lock_store()) {
+                synchronized (monitor()) {
+                    set_prepare();
+                    set_QName(obj);
+                    set_commit();
+                }
             }
         }
     }
@@ -1719,10 +1885,12 @@ public abstract class XmlObjectBase implements TypeStoreUser, Serializable, XmlO
         if (obj == null) {
             setNil();
         } else {
-            synchronized (monitor()) {
-                set_prepare();
-                set_list(obj);
-                set_commit();
+            try (StoreLock lock = lock_store()) {
+                synchronized (monitor()) {
+                    set_prepare();
+                    set_list(obj);
+                    set_commit();
+                }
             }
         }
     }
@@ -1731,9 +1899,11 @@ public abstract class XmlObjectBase implements TypeStoreUser, Serializable, XmlO
         if (obj == null) {
             setNil();
         } else {
-            synchronized (monitor()) {
-                set_prepare();
-                set_String(obj); /* strings are special, so set_String does its own commit.*/
+            try (StoreLock lock = lock_store()) {
+                synchronized (monitor()) {
+                    set_prepare();
+                    set_String(obj); /* strings are special, so set_String does its own commit.*/
+                }
             }
         }
     }
@@ -1804,162 +1974,166 @@ public abstract class XmlObjectBase implements TypeStoreUser, Serializable, XmlO
 
             // handle lists
             if (instanceType.getSimpleVariety() == SchemaType.LIST) {
-                synchronized (monitor()) {
-                    set_prepare();
-                    set_list(((SimpleValue) v).xgetListValue());
-                    set_commit();
-                    return;
+                try (StoreLock lock = lock_store()) {
+                    synchronized (monitor()) {
+                        set_prepare();
+                        set_list(((SimpleValue) v).xgetListValue());
+                        set_commit();
+                        return;
+                    }
                 }
             }
 
             // handle atomic types
-            synchronized (monitor()) {
-                assert (instanceType.getSimpleVariety() == SchemaType.ATOMIC);
-                switch (instanceType.getPrimitiveType().getBuiltinTypeCode()) {
-                    default:
-                        assert (false) : "encountered nonprimitive type.";
-                        // case SchemaType.BTC_ANY_SIMPLE:  This is handled below...
-                        // but we eventually want to handle it with a treecopy, so
-                        // eventually we should break here.
-                        break primitive;
-
-                    case SchemaType.BTC_BOOLEAN: {
-                        boolean bool = ((SimpleValue) v).getBooleanValue();
-                        set_prepare();
-                        set_boolean(bool);
-                        break;
-                    }
-                    case SchemaType.BTC_BASE_64_BINARY: {
-                        byte[] byteArr = ((SimpleValue) v).getByteArrayValue();
-                        set_prepare();
-                        set_b64(byteArr);
-                        break;
-                    }
-                    case SchemaType.BTC_HEX_BINARY: {
-                        byte[] byteArr = ((SimpleValue) v).getByteArrayValue();
-                        set_prepare();
-                        set_hex(byteArr);
-                        break;
-                    }
-                    case SchemaType.BTC_QNAME: {
-                        QName name = ((SimpleValue) v).getQNameValue();
-                        set_prepare();
-                        set_QName(name);
-                        break;
-                    }
-                    case SchemaType.BTC_FLOAT: {
-                        float f = ((SimpleValue) v).getFloatValue();
-                        set_prepare();
-                        set_float(f);
-                        break;
-                    }
-                    case SchemaType.BTC_DOUBLE: {
-                        double d = ((SimpleValue) v).getDoubleValue();
-                        set_prepare();
-                        set_double(d);
-                        break;
-                    }
-                    case SchemaType.BTC_DECIMAL: {
-                        switch (instanceType.getDecimalSize()) {
-                            case SchemaType.SIZE_BYTE: {
-                                byte b = ((SimpleValue) v).getByteValue();
-                                set_prepare();
-                                set_byte(b);
-                                break;
-                            }
-                            case SchemaType.SIZE_SHORT: {
-                                short s = ((SimpleValue) v).getShortValue();
-                                set_prepare();
-                                set_short(s);
-                                break;
-                            }
-                            case SchemaType.SIZE_INT: {
-                                int i = ((SimpleValue) v).getIntValue();
-                                set_prepare();
-                                set_int(i);
-                                break;
-                            }
-                            case SchemaType.SIZE_LONG: {
-                                long l = ((SimpleValue) v).getLongValue();
-                                set_prepare();
-                                set_long(l);
-                                break;
-                            }
-                            case SchemaType.SIZE_BIG_INTEGER: {
-                                BigInteger bi = ((SimpleValue) v).getBigIntegerValue();
-                                set_prepare();
-                                set_BigInteger(bi);
-                                break;
-                            }
-                            default: {
-                                assert (false) : "invalid numeric bit count";
-                                // fallthrough
-                            }
-                            case SchemaType.SIZE_BIG_DECIMAL: {
-                                BigDecimal bd = ((SimpleValue) v).getBigDecimalValue();
-                                set_prepare();
-                                set_BigDecimal(bd);
-                                break;
+            try (StoreLock lock = lock_store()) {
+                synchronized (monitor()) {
+                    assert (instanceType.getSimpleVariety() == SchemaType.ATOMIC);
+                    switch (instanceType.getPrimitiveType().getBuiltinTypeCode()) {
+                        default:
+                            assert (false) : "encountered nonprimitive type.";
+                            // case SchemaType.BTC_ANY_SIMPLE:  This is handled below...
+                            // but we eventually want to handle it with a treecopy, so
+                            // eventually we should break here.
+                            break primitive;
+
+                        case SchemaType.BTC_BOOLEAN: {
+                            boolean bool = ((SimpleValue) v).getBooleanValue();
+                            set_prepare();
+                            set_boolean(bool);
+                            break;
+                        }
+                        case SchemaType.BTC_BASE_64_BINARY: {
+                            byte[] byteArr = ((SimpleValue) v).getByteArrayValue();
+                            set_prepare();
+                            set_b64(byteArr);
+                            break;
+                        }
+                        case SchemaType.BTC_HEX_BINARY: {
+                            byte[] byteArr = ((SimpleValue) v).getByteArrayValue();
+                            set_prepare();
+                            set_hex(byteArr);
+                            break;
+                        }
+                        case SchemaType.BTC_QNAME: {
+                            QName name = ((SimpleValue) v).getQNameValue();
+                            set_prepare();
+                            set_QName(name);
+                            break;
+                        }
+                        case SchemaType.BTC_FLOAT: {
+                            float f = ((SimpleValue) v).getFloatValue();
+                            set_prepare();
+                            set_float(f);
+                            break;
+                        }
+                        case SchemaType.BTC_DOUBLE: {
+                            double d = ((SimpleValue) v).getDoubleValue();
+                            set_prepare();
+                            set_double(d);
+                            break;
+                        }
+                        case SchemaType.BTC_DECIMAL: {
+                            switch (instanceType.getDecimalSize()) {
+                                case SchemaType.SIZE_BYTE: {
+                                    byte b = ((SimpleValue) v).getByteValue();
+                                    set_prepare();
+                                    set_byte(b);
+                                    break;
+                                }
+                                case SchemaType.SIZE_SHORT: {
+                                    short s = ((SimpleValue) v).getShortValue();
+                                    set_prepare();
+                                    set_short(s);
+                                    break;
+                                }
+                                case SchemaType.SIZE_INT: {
+                                    int i = ((SimpleValue) v).getIntValue();
+                                    set_prepare();
+                                    set_int(i);
+                                    break;
+                                }
+                                case SchemaType.SIZE_LONG: {
+                                    long l = ((SimpleValue) v).getLongValue();
+                                    set_prepare();
+                                    set_long(l);
+                                    break;
+                                }
+                                case SchemaType.SIZE_BIG_INTEGER: {
+                                    BigInteger bi = ((SimpleValue) v).getBigIntegerValue();
+                                    set_prepare();
+                                    set_BigInteger(bi);
+                                    break;
+                                }
+                                default: {
+                                    assert (false) : "invalid numeric bit count";
+                                    // fallthrough
+                                }
+                                case SchemaType.SIZE_BIG_DECIMAL: {
+                                    BigDecimal bd = ((SimpleValue) v).getBigDecimalValue();
+                                    set_prepare();
+                                    set_BigDecimal(bd);
+                                    break;
+                                }
                             }
+                            break;
                         }
-                        break;
-                    }
-                    case SchemaType.BTC_ANY_URI: {
-                        String uri = v.getStringValue();
-                        set_prepare();
-                        set_text(uri);
-                        break;
-                    }
-                    case SchemaType.BTC_NOTATION: {
-                        String s = v.getStringValue();
-                        set_prepare();
-                        set_notation(s);
-                        break;
-                    }
-                    case SchemaType.BTC_DURATION: {
-                        GDuration gd = ((SimpleValue) v).getGDurationValue();
-                        set_prepare();
-                        set_GDuration(gd);
-                        break;
-                    }
-                    case SchemaType.BTC_DATE_TIME:
-                    case SchemaType.BTC_TIME:
-                    case SchemaType.BTC_DATE:
-                    case SchemaType.BTC_G_YEAR_MONTH:
-                    case SchemaType.BTC_G_YEAR:
-                    case SchemaType.BTC_G_MONTH_DAY:
-                    case SchemaType.BTC_G_DAY:
-                    case SchemaType.BTC_G_MONTH: {
-                        GDate gd = ((SimpleValue) v).getGDateValue();
-                        set_prepare();
-                        set_GDate(gd);
-                        break;
-                    }
-                    case SchemaType.BTC_STRING: {
-                        String s = v.getStringValue();
-                        set_prepare();
-                        set_String(s);
-                        break;
-                    }
-                    case SchemaType.BTC_ANY_SIMPLE: {
-                        boolean pushed = false;
-                        if (!v.isImmutable()) {
-                            pushed = true;
-                            NamespaceContext.push(new NamespaceContext(v));
+                        case SchemaType.BTC_ANY_URI: {
+                            String uri = v.getStringValue();
+                            set_prepare();
+                            set_text(uri);
+                            break;
+                        }
+                        case SchemaType.BTC_NOTATION: {
+                            String s = v.getStringValue();
+                            set_prepare();
+                            set_notation(s);
+                            break;
                         }
-                        try {
+                        case SchemaType.BTC_DURATION: {
+                            GDuration gd = ((SimpleValue) v).getGDurationValue();
                             set_prepare();
-                            set_xmlanysimple(v);
-                        } finally {
-                            if (pushed) {
-                                NamespaceContext.pop();
+                            set_GDuration(gd);
+                            break;
+                        }
+                        case SchemaType.BTC_DATE_TIME:
+                        case SchemaType.BTC_TIME:
+                        case SchemaType.BTC_DATE:
+                        case SchemaType.BTC_G_YEAR_MONTH:
+                        case SchemaType.BTC_G_YEAR:
+                        case SchemaType.BTC_G_MONTH_DAY:
+                        case SchemaType.BTC_G_DAY:
+                        case SchemaType.BTC_G_MONTH: {
+                            GDate gd = ((SimpleValue) v).getGDateValue();
+                            set_prepare();
+                            set_GDate(gd);
+                            break;
+                        }
+                        case SchemaType.BTC_STRING: {
+                            String s = v.getStringValue();
+                            set_prepare();
+                            set_String(s);
+                            break;
+                        }
+                        case SchemaType.BTC_ANY_SIMPLE: {
+                            boolean pushed = false;
+                            if (!v.isImmutable()) {
+                                pushed = true;
+                                NamespaceContext.push(new NamespaceContext(v));
+                            }
+                            try {
+                                set_prepare();
+                                set_xmlanysimple(v);
+                            } finally {
+                                if (pushed) {
+                                    NamespaceContext.pop();
+                                }
                             }
+                            break;
                         }
-                        break;
                     }
+                    set_commit();
+                    return; // primitive node tree copy handled.
                 }
-                set_commit();
-                return; // primitive node tree copy handled.
             }
         }
 
@@ -1993,60 +2167,45 @@ public abstract class XmlObjectBase implements TypeStoreUser, Serializable, XmlO
         if (obj.isImmutable()) {
             setStringValue(obj.getStringValue());
         } else {
-            boolean noSyncThis = preCheck();
-            boolean noSyncObj = obj.preCheck();
+            try (StoreLock lock = lock_stores(obj)) {
+                boolean noSyncThis = preCheck();
+                boolean noSyncObj = obj.preCheck();
 
-            if (monitor() == obj.monitor())             // both are in the same locale
-            {
-                if (noSyncThis)                         // the locale is not sync
-                {
-                    newObj = setterHelper(obj);
-                } else                                    // the locale is sync
+                if (monitor() == obj.monitor())             // both are in the same locale
                 {
-                    synchronized (monitor()) {
-                        newObj = setterHelper(obj);
-                    }
-                }
-            } else                                        // on different locale's
-            {
-                if (noSyncThis) {
-                    if (noSyncObj)                      // both unsync
+                    if (noSyncThis)                         // the locale is not sync
                     {
                         newObj = setterHelper(obj);
-                    } else                                // only obj is sync
+                    } else                                    // the locale is sync
                     {
-                        synchronized (obj.monitor()) {
+                        synchronized (monitor()) {
                             newObj = setterHelper(obj);
                         }
                     }
-                } else {
-                    if (noSyncObj)                      // only this is sync
-                    {
-                        synchronized (monitor()) {
+                } else                                        // on different locale's
+                {
+                    if (noSyncThis) {
+                        if (noSyncObj)                      // both unsync
+                        {
                             newObj = setterHelper(obj);
+                        } else                                // only obj is sync
+                        {
+                            synchronized (obj.monitor()) {
+                                newObj = setterHelper(obj);
+                            }
                         }
-                    } else                                // both are sync can't avoid the global lock
-                    {
-                        boolean acquired = false;
-
-                        try {
-                            // about to grab two locks: don't deadlock ourselves
-                            GlobalLock.acquire();
-                            acquired = true;
-
+                    } else {
+                        if (noSyncObj)                      // only this is sync
+                        {
                             synchronized (monitor()) {
-                                synchronized (obj.monitor()) {
-                                    GlobalLock.release();
-                                    acquired = false;
-
-                                    newObj = setterHelper(obj);
-                                }
+                                newObj = setterHelper(obj);
                             }
-                        } catch (InterruptedException e) {
-                            throw new XmlRuntimeException(e);
-                        } finally {
-                            if (acquired) {
-                                GlobalLock.release();
+                        } else                                // both are sync, lock them in a stable order
+                        {
+                            try {
+                                newObj = GlobalLock.synchronizedOnBoth(monitor(), obj.monitor(), () -> setterHelper(obj));
+                            } catch (InterruptedException e) {
+                                throw new XmlRuntimeException(e);
                             }
                         }
                     }
@@ -2063,77 +2222,67 @@ public abstract class XmlObjectBase implements TypeStoreUser, Serializable, XmlO
         XmlObjectBase srcObj = underlying(src);
 
         if (srcObj == null) {
-            synchronized (monitor()) {
-                XmlObjectBase target = getTargetForSetter(propName, index, kindSetterHelper);
-                target.setNil();
-                return target;
+            try (StoreLock lock = lock_store()) {
+                synchronized (monitor()) {
+                    XmlObjectBase target = getTargetForSetter(propName, index, kindSetterHelper);
+                    target.setNil();
+                    return target;
+                }
             }
         }
 
         if (srcObj.isImmutable()) {
-            synchronized (monitor()) {
-                XmlObjectBase target = getTargetForSetter(propName, index, kindSetterHelper);
-                target.setStringValue(srcObj.getStringValue());
-                return target;
+            try (StoreLock lock = lock_store()) {
+                synchronized (monitor()) {
+                    XmlObjectBase target = getTargetForSetter(propName, index, kindSetterHelper);
+                    target.setStringValue(srcObj.getStringValue());
+                    return target;
+                }
             }
         }
 
 
-        boolean noSyncThis = preCheck();
-        boolean noSyncObj = srcObj.preCheck();
+        try (StoreLock lock = lock_stores(srcObj)) {
+            boolean noSyncThis = preCheck();
+            boolean noSyncObj = srcObj.preCheck();
 
-        if (monitor() == srcObj.monitor()) {
-            // both are in the same locale
-            if (noSyncThis) {
-                // the locale is not sync
-                return (XmlObject) objSetterHelper(srcObj, propName, index, kindSetterHelper);
-            } else {
-                // the locale is sync
-                synchronized (monitor()) {
+            if (monitor() == srcObj.monitor()) {
+                // both are in the same locale
+                if (noSyncThis) {
+                    // the locale is not sync
                     return (XmlObject) objSetterHelper(srcObj, propName, index, kindSetterHelper);
+                } else {
+                    // the locale is sync
+                    synchronized (monitor()) {
+                        return (XmlObject) objSetterHelper(srcObj, propName, index, kindSetterHelper);
+                    }
                 }
             }
-        }
 
-        if (noSyncThis) {
-            // on different locale's
-            if (noSyncObj) {
-                // both unsync
-                return (XmlObject) objSetterHelper(srcObj, propName, index, kindSetterHelper);
-            } else {
-                // only obj is sync
-                synchronized (srcObj.monitor()) {
-                    return (XmlObject) objSetterHelper(srcObj, propName, index, kindSetterHelper);
-                }
-            }
-        } else {
-            if (noSyncObj) {
-                // only this is sync
-                synchronized (monitor()) {
+            if (noSyncThis) {
+                // on different locale's
+                if (noSyncObj) {
+                    // both unsync
                     return (XmlObject) objSetterHelper(srcObj, propName, index, kindSetterHelper);
+                } else {
+                    // only obj is sync
+                    synchronized (srcObj.monitor()) {
+                        return (XmlObject) objSetterHelper(srcObj, propName, index, kindSetterHelper);
+                    }
                 }
             } else {
-                // both are sync can't avoid the global lock
-                boolean acquired = false;
-
-                try {
-                    // about to grab two locks: don't deadlock ourselves
-                    GlobalLock.acquire();
-                    acquired = true;
-
+                if (noSyncObj) {
+                    // only this is sync
                     synchronized (monitor()) {
-                        synchronized (srcObj.monitor()) {
-                            GlobalLock.release();
-                            acquired = false;
-
-                            return (XmlObject) objSetterHelper(srcObj, propName, index, kindSetterHelper);
-                        }
+                        return (XmlObject) objSetterHelper(srcObj, propName, index, kindSetterHelper);
                     }
-                } catch (InterruptedException e) {
-                    throw new XmlRuntimeException(e);
-                } finally {
-                    if (acquired) {
-                        GlobalLock.release();
+                } else {
+                    // both are sync, lock them in a stable order
+                    try {
+                        return (XmlObject) GlobalLock.synchronizedOnBoth(monitor(), srcObj.monitor(),
+                            () -> objSetterHelper(srcObj, propName, index, kindSetterHelper));
+                    } catch (InterruptedException e) {
+                        throw new XmlRuntimeException(e);
                     }
                 }
             }
@@ -2382,8 +2531,7 @@ public abstract class XmlObjectBase implements TypeStoreUser, Serializable, XmlO
     }
 
     public final boolean valueEquals(XmlObject xmlobj) {
-        boolean acquired = false;
-        try {
+        try (StoreLock lock = lock_stores(xmlobj)) {
             if (isImmutable()) {
                 if (xmlobj.isImmutable()) {
                     return valueEqualsImpl(xmlobj);
@@ -2398,24 +2546,12 @@ public abstract class XmlObjectBase implements TypeStoreUser, Serializable, XmlO
                         return valueEqualsImpl(xmlobj);
                     }
                 } else {
-                    GlobalLock.acquire();
-                    acquired = true;
-                    synchronized (monitor()) {
-                        synchronized (xmlobj.monitor()) {
-                            GlobalLock.release();
-                            acquired = false;
-                            return valueEqualsImpl(xmlobj);
-                        }
-                    }
+                    return GlobalLock.synchronizedOnBoth(monitor(), xmlobj.monitor(), () -> valueEqualsImpl(xmlobj));
                 }
             }
 
         } catch (InterruptedException e) {
             throw new XmlRuntimeException(e);
-        } finally {
-            if (acquired) {
-                GlobalLock.release();
-            }
         }
     }
 
@@ -2476,8 +2612,7 @@ public abstract class XmlObjectBase implements TypeStoreUser, Serializable, XmlO
             return 2;
         }
 
-        boolean acquired = false;
-        try {
+        try (StoreLock lock = lock_stores(xmlobj)) {
             if (isImmutable()) {
                 if (xmlobj.isImmutable()) {
                     return compareValueImpl(xmlobj);
@@ -2492,24 +2627,12 @@ public abstract class XmlObjectBase implements TypeStoreUser, Serializable, XmlO
                         return compareValueImpl(xmlobj);
                     }
                 } else {
-                    GlobalLock.acquire();
-                    acquired = true;
-                    synchronized (monitor()) {
-                        synchronized (xmlobj.monitor()) {
-                            GlobalLock.release();
-                            acquired = false;
-                            return compareValueImpl(xmlobj);
-                        }
-                    }
+                    return GlobalLock.synchronizedOnBoth(monitor(), xmlobj.monitor(), () -> compareValueImpl(xmlobj));
                 }
             }
 
         } catch (InterruptedException e) {
             throw new XmlRuntimeException(e);
-        } finally {
-            if (acquired) {
-                GlobalLock.release();
-            }
         }
     }
 
@@ -2534,8 +2657,10 @@ public abstract class XmlObjectBase implements TypeStoreUser, Serializable, XmlO
     protected abstract int value_hash_code();
 
     public int valueHashCode() {
-        synchronized (monitor()) {
-            return value_hash_code();
+        try (StoreLock lock = lock_store()) {
+            synchronized (monitor()) {
+                return value_hash_code();
+            }
         }
     }
 
@@ -2582,12 +2707,14 @@ public abstract class XmlObjectBase implements TypeStoreUser, Serializable, XmlO
             return super.hashCode();
         }
 
-        synchronized (monitor()) {
-            if (isNil()) {
-                return 0;
-            }
+        try (StoreLock lock = lock_store()) {
+            synchronized (monitor()) {
+                if (isNil()) {
+                    return 0;
+                }
 
-            return value_hash_code();
+                return value_hash_code();
+            }
         }
     }
 
@@ -2741,12 +2868,14 @@ public abstract class XmlObjectBase implements TypeStoreUser, Serializable, XmlO
      * the proxy is stripped when deserializing.
      */
     public Object writeReplace() {
-        synchronized (monitor()) {
-            if (isRootXmlObject()) {
-                return new SerializedRootObject(this);
-            }
+        try (StoreLock lock = lock_store()) {
+            synchronized (monitor()) {
+                if (isRootXmlObject()) {
+                    return new SerializedRootObject(this);
+                }
 
-            return new SerializedInteriorObject(this, getRootXmlObject());
+                return new SerializedInteriorObject(this, getRootXmlObject());
+            }
         }
     }
 
@@ -3113,204 +3242,248 @@ public abstract class XmlObjectBase implements TypeStoreUser, Serializable, XmlO
     }
 
     protected <T> T[] getObjectArray(QName elementName, Function<SimpleValue, T> fun, IntFunction<T[]> arrayCon) {
-        synchronized (monitor()) {
-            return getBaseArray(elementName).stream().map(fun).toArray(arrayCon);
+        try (StoreLock lock = lock_store()) {
+            synchronized (monitor()) {
+                return getBaseArray(elementName).stream().map(fun).toArray(arrayCon);
+            }
         }
     }
 
     protected <T> T[] getEnumArray(QName elementName, IntFunction<T[]> arrayCon) {
-        synchronized (monitor()) {
-            return getBaseArray(elementName).stream().map(SimpleValue::getEnumValue).toArray(arrayCon);
+        try (StoreLock lock = lock_store()) {
+            synchronized (monitor()) {
+                return getBaseArray(elementName).stream().map(SimpleValue::getEnumValue).toArray(arrayCon);
+            }
         }
     }
 
     protected boolean[] getBooleanArray(QName elementName) {
-        synchronized (monitor()) {
-            List<XmlObjectBase> targetList = getBaseArray(elementName);
-            boolean[] result = new boolean[targetList.size()];
-            for (int i = 0; i < result.length; i++) {
-                result[i] = ((org.apache.xmlbeans.SimpleValue) targetList.get(i)).getBooleanValue();
+        try (StoreLock lock = lock_store()) {
+            synchronized (monitor()) {
+                List<XmlObjectBase> targetList = getBaseArray(elementName);
+                boolean[] result = new boolean[targetList.size()];
+                for (int i = 0; i < result.length; i++) {
+                    result[i] = ((org.apache.xmlbeans.SimpleValue) targetList.get(i)).getBooleanValue();
+                }
+                return result;
             }
-            return result;
         }
     }
 
     protected float[] getFloatArray(QName elementName) {
-        synchronized (monitor()) {
-            List<XmlObjectBase> targetList = getBaseArray(elementName);
-            float[] result = new float[targetList.size()];
-            for (int i = 0; i < result.length; i++) {
-                result[i] = ((org.apache.xmlbeans.SimpleValue) targetList.get(i)).getFloatValue();
+        try (StoreLock lock = lock_store()) {
+            synchronized (monitor()) {
+                List<XmlObjectBase> targetList = getBaseArray(elementName);
+                float[] result = new float[targetList.size()];
+                for (int i = 0; i < result.length; i++) {
+                    result[i] = ((org.apache.xmlbeans.SimpleValue) targetList.get(i)).getFloatValue();
+                }
+                return result;
             }
-            return result;
         }
     }
 
     protected double[] getDoubleArray(QName elementName) {
-        synchronized (monitor()) {
-            List<XmlObjectBase> targetList = getBaseArray(elementName);
-            return targetList.stream()
-                .map(org.apache.xmlbeans.SimpleValue.class::cast)
-                .mapToDouble(org.apache.xmlbeans.SimpleValue::getDoubleValue)
-                .toArray();
+        try (StoreLock lock = lock_store()) {
+            synchronized (monitor()) {
+                List<XmlObjectBase> targetList = getBaseArray(elementName);
+                return targetList.stream()
+                    .map(org.apache.xmlbeans.SimpleValue.class::cast)
+                    .mapToDouble(org.apache.xmlbeans.SimpleValue::getDoubleValue)
+                    .toArray();
+            }
         }
     }
 
     protected byte[] getByteArray(QName elementName) {
-        synchronized (monitor()) {
-            List<XmlObjectBase> targetList = getBaseArray(elementName);
-            byte[] result = new byte[targetList.size()];
-            for (int i = 0; i < result.length; i++) {
-                result[i] = ((org.apache.xmlbeans.SimpleValue) targetList.get(i)).getByteValue();
+        try (StoreLock lock = lock_store()) {
+            synchronized (monitor()) {
+                List<XmlObjectBase> targetList = getBaseArray(elementName);
+                byte[] result = new byte[targetList.size()];
+                for (int i = 0; i < result.length; i++) {
+                    result[i] = ((org.apache.xmlbeans.SimpleValue) targetList.get(i)).getByteValue();
+                }
+                return result;
             }
-            return result;
         }
     }
 
     protected short[] getShortArray(QName elementName) {
-        synchronized (monitor()) {
-            List<XmlObjectBase> targetList = getBaseArray(elementName);
-            short[] result = new short[targetList.size()];
-            for (int i = 0; i < result.length; i++) {
-                result[i] = ((org.apache.xmlbeans.SimpleValue) targetList.get(i)).getShortValue();
+        try (StoreLock lock = lock_store()) {
+            synchronized (monitor()) {
+                List<XmlObjectBase> targetList = getBaseArray(elementName);
+                short[] result = new short[targetList.size()];
+                for (int i = 0; i < result.length; i++) {
+                    result[i] = ((org.apache.xmlbeans.SimpleValue) targetList.get(i)).getShortValue();
+                }
+                return result;
             }
-            return result;
         }
     }
 
     protected int[] getIntArray(QName elementName) {
-        synchronized (monitor()) {
-            List<XmlObjectBase> targetList = getBaseArray(elementName);
-            return targetList.stream()
-                .map(org.apache.xmlbeans.SimpleValue.class::cast)
-                .mapToInt(org.apache.xmlbeans.SimpleValue::getIntValue)
-                .toArray();
+        try (StoreLock lock = lock_store()) {
+            synchronized (monitor()) {
+                List<XmlObjectBase> targetList = getBaseArray(elementName);
+                return targetList.stream()
+                    .map(org.apache.xmlbeans.SimpleValue.class::cast)
+                    .mapToInt(org.apache.xmlbeans.SimpleValue::getIntValue)
+                    .toArray();
+            }
         }
     }
 
     protected long[] getLongArray(QName elementName) {
-        synchronized (monitor()) {
-            List<XmlObjectBase> targetList = getBaseArray(elementName);
-            return targetList.stream()
-                .map(org.apache.xmlbeans.SimpleValue.class::cast)
-                .mapToLong(org.apache.xmlbeans.SimpleValue::getLongValue)
-                .toArray();
+        try (StoreLock lock = lock_store()) {
+            synchronized (monitor()) {
+                List<XmlObjectBase> targetList = getBaseArray(elementName);
+                return targetList.stream()
+                    .map(org.apache.xmlbeans.SimpleValue.class::cast)
+                    .mapToLong(org.apache.xmlbeans.SimpleValue::getLongValue)
+                    .toArray();
+            }
         }
     }
 
     protected <T extends XmlObject> T[] getXmlObjectArray(QName elementName, T[] arrayCon) {
-        synchronized (monitor()) {
-            return getBaseArray(elementName).toArray(arrayCon);
+        try (StoreLock lock = lock_store()) {
+            synchronized (monitor()) {
+                return getBaseArray(elementName).toArray(arrayCon);
+            }
         }
     }
 
     protected <T> T[] getObjectArray(QNameSet elementSet, Function<SimpleValue, T> fun, IntFunction<T[]> arrayCon) {
-        synchronized (monitor()) {
-            return getBaseArray(elementSet).stream().map(fun).toArray(arrayCon);
+        try (StoreLock lock = lock_store()) {
+            synchronized (monitor()) {
+                return getBaseArray(elementSet).stream().map(fun).toArray(arrayCon);
+            }
         }
     }
 
     protected <T> T[] getEnumArray(QNameSet elementSet, IntFunction<T[]> arrayCon) {
-        synchronized (monitor()) {
-            return getBaseArray(elementSet).stream().map(SimpleValue::getEnumValue).toArray(arrayCon);
+        try (StoreLock lock = lock_store()) {
+            synchronized (monitor()) {
+                return getBaseArray(elementSet).stream().map(SimpleValue::getEnumValue).toArray(arrayCon);
+            }
         }
     }
 
     protected boolean[] getBooleanArray(QNameSet elementSet) {
-        synchronized (monitor()) {
-            List<XmlObjectBase> targetList = getBaseArray(elementSet);
-            boolean[] result = new boolean[targetList.size()];
-            for (int i = 0; i < result.length; i++) {
-                result[i] = ((org.apache.xmlbeans.SimpleValue) targetList.get(i)).getBooleanValue();
+        try (StoreLock lock = lock_store()) {
+            synchronized (monitor()) {
+                List<XmlObjectBase> targetList = getBaseArray(elementSet);
+                boolean[] result = new boolean[targetList.size()];
+                for (int i = 0; i < result.length; i++) {
+                    result[i] = ((org.apache.xmlbeans.SimpleValue) targetList.get(i)).getBooleanValue();
+                }
+                return result;
             }
-            return result;
         }
     }
 
     protected float[] getFloatArray(QNameSet elementSet) {
-        synchronized (monitor()) {
-            List<XmlObjectBase> targetList = getBaseArray(elementSet);
-            float[] result = new float[targetList.size()];
-            for (int i = 0; i < result.length; i++) {
-                result[i] = ((org.apache.xmlbeans.SimpleValue) targetList.get(i)).getFloatValue();
+        try (StoreLock lock = lock_store()) {
+            synchronized (monitor()) {
+                List<XmlObjectBase> targetList = getBaseArray(elementSet);
+                float[] result = new float[targetList.size()];
+                for (int i = 0; i < result.length; i++) {
+                    result[i] = ((org.apache.xmlbeans.SimpleValue) targetList.get(i)).getFloatValue();
+                }
+                return result;
             }
-            return result;
         }
     }
 
     protected double[] getDoubleArray(QNameSet elementSet) {
-        synchronized (monitor()) {
-            List<XmlObjectBase> targetList = getBaseArray(elementSet);
-            return targetList.stream()
-                .map(org.apache.xmlbeans.SimpleValue.class::cast)
-                .mapToDouble(org.apache.xmlbeans.SimpleValue::getDoubleValue)
-                .toArray();
+        try (StoreLock lock = lock_store()) {
+            synchronized (monitor()) {
+                List<XmlObjectBase> targetList = getBaseArray(elementSet);
+                return targetList.stream()
+                    .map(org.apache.xmlbeans.SimpleValue.class::cast)
+                    .mapToDouble(org.apache.xmlbeans.SimpleValue::getDoubleValue)
+                    .toArray();
+            }
         }
     }
 
     protected byte[] getByteArray(QNameSet elementSet) {
-        synchronized (monitor()) {
-            List<XmlObjectBase> targetList = getBaseArray(elementSet);
-            byte[] result = new byte[targetList.size()];
-            for (int i = 0; i < result.length; i++) {
-                result[i] = ((org.apache.xmlbeans.SimpleValue) targetList.get(i)).getByteValue();
+        try (StoreLock lock = lock_store()) {
+            synchronized (monitor()) {
+                List<XmlObjectBase> targetList = getBaseArray(elementSet);
+                byte[] result = new byte[targetList.size()];
+                for (int i = 0; i < result.length; i++) {
+                    result[i] = ((org.apache.xmlbeans.SimpleValue) targetList.get(i)).getByteValue();
+                }
+                return result;
             }
-            return result;
         }
     }
 
     protected short[] getShortArray(QNameSet elementSet) {
-        synchronized (monitor()) {
-            List<XmlObjectBase> targetList = getBaseArray(elementSet);
-            short[] result = new short[targetList.size()];
-            for (int i = 0; i < result.length; i++) {
-                result[i] = ((org.apache.xmlbeans.SimpleValue) targetList.get(i)).getShortValue();
+        try (StoreLock lock = lock_store()) {
+            synchronized (monitor()) {
+                List<XmlObjectBase> targetList = getBaseArray(elementSet);
+                short[] result = new short[targetList.size()];
+                for (int i = 0; i < result.length; i++) {
+                    result[i] = ((org.apache.xmlbeans.SimpleValue) targetList.get(i)).getShortValue();
+                }
+                return result;
             }
-            return result;
         }
     }
 
     protected int[] getIntArray(QNameSet elementSet) {
-        synchronized (monitor()) {
-            List<XmlObjectBase> targetList = getBaseArray(elementSet);
-            return targetList.stream()
-                .map(org.apache.xmlbeans.SimpleValue.class::cast)
-                .mapToInt(org.apache.xmlbeans.SimpleValue::getIntValue)
-                .toArray();
+        try (StoreLock lock = lock_store()) {
+            synchronized (monitor()) {
+                List<XmlObjectBase> targetList = getBaseArray(elementSet);
+                return targetList.stream()
+                    .map(org.apache.xmlbeans.SimpleValue.class::cast)
+                    .mapToInt(org.apache.xmlbeans.SimpleValue::getIntValue)
+                    .toArray();
+            }
         }
     }
 
     protected long[] getLongArray(QNameSet elementSet) {
-        synchronized (monitor()) {
-            List<XmlObjectBase> targetList = getBaseArray(elementSet);
-            return targetList.stream()
-                .map(org.apache.xmlbeans.SimpleValue.class::cast)
-                .mapToLong(org.apache.xmlbeans.SimpleValue::getLongValue)
-                .toArray();
+        try (StoreLock lock = lock_store()) {
+            synchronized (monitor()) {
+                List<XmlObjectBase> targetList = getBaseArray(elementSet);
+                return targetList.stream()
+                    .map(org.apache.xmlbeans.SimpleValue.class::cast)
+                    .mapToLong(org.apache.xmlbeans.SimpleValue::getLongValue)
+                    .toArray();
+            }
         }
     }
 
     protected <T extends XmlObject> T[] getXmlObjectArray(QNameSet elementSet, T[] arrayCon) {
-        synchronized (monitor()) {
-            return getBaseArray(elementSet).toArray(arrayCon);
+        try (StoreLock lock = lock_store()) {
+            synchronized (monitor()) {
+                return getBaseArray(elementSet).toArray(arrayCon);
+            }
         }
     }
 
     protected <T extends XmlObject> T[] xgetArray(QName elementName, IntFunction<T[]> arrayCon) {
-        synchronized (monitor()) {
-            check_orphaned();
-            java.util.List<T> targetList = new java.util.ArrayList<>();
-            get_store().find_all_element_users(elementName, targetList);
-            return targetList.stream().toArray(arrayCon);
+        try (StoreLock lock = lock_store()) {
+            synchronized (monitor()) {
+                check_orphaned();
+                java.util.List<T> targetList = new java.util.ArrayList<>();
+                get_store().find_all_element_users(elementName, targetList);
+                return targetList.stream().toArray(arrayCon);
+            }
         }
     }
 
     protected <T extends XmlObject> T[] xgetArray(QNameSet elementSet, IntFunction<T[]> arrayCon) {
-        synchronized (monitor()) {
-            check_orphaned();
-            java.util.List<T> targetList = new java.util.ArrayList<>();
-            get_store().find_all_element_users(elementSet, targetList);
-            return targetList.stream().toArray(arrayCon);
+        try (StoreLock lock = lock_store()) {
+            synchronized (monitor()) {
+                check_orphaned();
+                java.util.List<T> targetList = new java.util.ArrayList<>();
+                get_store().find_all_element_users(elementSet, targetList);
+                return targetList.stream().toArray(arrayCon);
+            }
         }
     }
 }
@@ -26,6 +26,9 @@ import net.sf.saxon.value.DateTimeValue;
 import net.sf.saxon.value.GDateValue;
 import org.apache.xmlbeans.XmlOptions;
 import org.apache.xmlbeans.impl.store.Cur;
+import org.apache.xmlbeans.impl.store.DomImpl;
+import org.apache.xmlbeans.impl.store.SaxonNodeInfo;
+import org.apache.xmlbeans.impl.store.SaxonTreeInfo;
 import org.apache.xmlbeans.impl.xpath.Path;
 import org.apache.xmlbeans.impl.xpath.XPath;
 import org.apache.xmlbeans.impl.xpath.XPathEngine;
@@ -86,9 +89,26 @@ public class SaxonXPath implements Path {
      * by this XPath expression.
      */
     public List selectNodes(Object node) {
+        if (node instanceof DomImpl.Dom) {
+            // nodes of the store are evaluated over the store itself
+            return SaxonTreeInfo.evaluate((DomImpl.Dom) node, new Configuration(), n -> evaluate(n, false));
+        }
+        Configuration config = new Configuration();
+        return evaluate(config.unravel(new DOMSource((Node) node)), false);
+    }
+
+    /**
+     * Select all nodes at the position of the cur. Must be called within the locale of the cur.
+     *
+     * @return the selected items - the nodes of the store are returned as {@link SaxonNodeInfo}
+     */
+    List<Object> selectPath(Cur c) {
+        return evaluate(SaxonTreeInfo.wrap(c, new Configuration()), true);
+    }
+
+    private List<Object> evaluate(NodeInfo contextItem, boolean storeNodes) {
         try {
-            Node contextNode = (Node) node;
-            Configuration config = new Configuration();
+            Configuration config = contextItem.getConfiguration();
             IndependentContext sc = new IndependentContext(config);
             // Declare ns bindings
             // also see https://saxonica.plan.io/issues/2130
@@ -99,8 +119,6 @@ public class SaxonXPath implements Path {
 
             namespaceMap.forEach(sc::declareNamespace);
 
-            NodeInfo contextItem = config.unravel(new DOMSource(contextNode));
-
             XPathEvaluator xpe = new XPathEvaluator(config);
             xpe.setStaticContext(sc);
             XPathVariable thisVar = sc.declareVariable("", contextVar);
@@ -112,7 +130,9 @@ public class SaxonXPath implements Path {
             List<Item> saxonNodes = xpath.evaluate(dc);
             List<Object> retNodes = new ArrayList<>(saxonNodes.size());
             for (Item o : saxonNodes) {
-                if (o instanceof DOMNodeWrapper) {
+                if (o instanceof SaxonNodeInfo) {
+                    retNodes.add(storeNodes ? o : ((SaxonNodeInfo) o).getUnderlyingNode());
+                } else if (o instanceof DOMNodeWrapper) {
                     Node n = getUnderlyingNode((DOMNodeWrapper) o);
                     retNodes.add(n);
                 } else if (o instanceof NodeInfo) {
@@ -19,11 +19,10 @@ import net.sf.saxon.value.DateTimeValue;
 import net.sf.saxon.value.GDateValue;
 import org.apache.xmlbeans.*;
 import org.apache.xmlbeans.impl.store.Cur;
-import org.apache.xmlbeans.impl.store.DomImpl;
 import org.apache.xmlbeans.impl.store.Locale;
+import org.apache.xmlbeans.impl.store.SaxonNodeInfo;
 import org.apache.xmlbeans.impl.xpath.XPathEngine;
 import org.apache.xmlbeans.impl.xpath.XPathExecutionContext;
-import org.w3c.dom.Node;
 
 import java.math.BigDecimal;
 import java.text.DateFormat;
@@ -59,14 +58,16 @@ public class SaxonXPathEngine extends XPathExecutionContext implements XPathEngi
             throw new ConcurrentModificationException("Document changed during select");
         }
 
-        List resultsList = _engine.selectPath(_cur.getDom());
+        List<Object> resultsList = _engine.selectPath(_cur);
 
         int i;
         for (i = 0; i < resultsList.size(); i++) {
-            //simple type function results
             Object node = resultsList.get(i);
             Cur pos = null;
-            if (!(node instanceof Node)) {
+            if (node instanceof SaxonNodeInfo) {
+                pos = ((SaxonNodeInfo) node).tempCur();
+            } else {
+                //simple type function results
                 Object obj = resultsList.get(i);
                 String value;
                 if (obj instanceof Date) {
@@ -95,11 +96,6 @@ public class SaxonXPathEngine extends XPathExecutionContext implements XPathEngi
                 } catch (Exception e) {
                     throw new RuntimeException(e);
                 }
-            } else {
-                assert (node instanceof DomImpl.Dom) :
-                    "New object created in XPATH!";
-                pos = ((DomImpl.Dom) node).tempCur();
-
             }
             c.addToSelection(pos);
             pos.release();
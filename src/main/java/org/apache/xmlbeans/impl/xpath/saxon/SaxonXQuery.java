@@ -34,6 +34,7 @@ import org.apache.xmlbeans.*;
 import org.apache.xmlbeans.impl.store.Cur;
 import org.apache.xmlbeans.impl.store.Cursor;
 import org.apache.xmlbeans.impl.store.Locale;
+import org.apache.xmlbeans.impl.store.SaxonTreeInfo;
 import org.apache.xmlbeans.impl.xpath.XQuery;
 import org.w3c.dom.Document;
 import org.w3c.dom.Node;
@@ -51,6 +52,7 @@ import java.util.Date;
 import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
+import java.util.function.Function;
 
 public class SaxonXQuery implements XQuery {
     private static final Logger LOG = LogManager.getLogger(SaxonXQuery.class);
@@ -101,7 +103,7 @@ public class SaxonXQuery implements XQuery {
         this._options = options;
 
         Map<String, Object> bindings = XmlOptions.maskNull(_options).getXqueryVariables();
-        List<Object> resultsList = execQuery(_cur.getDom(), bindings);
+        List<Object> resultsList = execQuery(_cur, bindings);
 
         XmlObject[] result = new XmlObject[resultsList.size()];
         for (int i = 0; i < resultsList.size(); i++) {
@@ -140,7 +142,7 @@ public class SaxonXQuery implements XQuery {
         this._options = options;
 
         Map<String, Object> bindings = XmlOptions.maskNull(_options).getXqueryVariables();
-        List<Object> resultsList = execQuery(_cur.getDom(), bindings);
+        List<Object> resultsList = execQuery(_cur, bindings);
 
         int i;
 
@@ -167,15 +169,31 @@ public class SaxonXQuery implements XQuery {
 
 
     public List<Object> execQuery(Object node, Map<String,Object> variableBindings) {
-        try {
-            Node contextNode = (Node) node;
+        return execQuery(wrapDom((Node) node), this::wrapDom, variableBindings);
+    }
+
+    /**
+     * Executes the query over the store - must be called within the locale of the cur
+     */
+    private List<Object> execQuery(Cur c, Map<String,Object> variableBindings) {
+        NodeInfo root = SaxonTreeInfo.wrap(c, config);
+        SaxonTreeInfo tree = (SaxonTreeInfo) root.getTreeInfo();
+        // nodes of other locales are bound via their DOM
+        return execQuery(root, n -> {
+            NodeInfo ni = tree.wrap(n);
+            return ni != null ? ni : wrapDom(n);
+        }, variableBindings);
+    }
 
-            Document dom = (contextNode.getNodeType() == Node.DOCUMENT_NODE)
-                ? (Document) contextNode : contextNode.getOwnerDocument();
+    private NodeInfo wrapDom(Node node) {
+        Document dom = (node.getNodeType() == Node.DOCUMENT_NODE)
+            ? (Document) node : node.getOwnerDocument();
 
-            DocumentWrapper docWrapper = new DocumentWrapper(dom, null, config);
-            NodeInfo root = docWrapper.wrap(contextNode);
+        return new DocumentWrapper(dom, null, config).wrap(node);
+    }
 
+    private List<Object> execQuery(NodeInfo root, Function<Node, NodeInfo> wrapper, Map<String,Object> variableBindings) {
+        try {
             DynamicQueryContext dc = new DynamicQueryContext(config);
             dc.setContextItem(root);
             dc.setParameter(new StructuredQName("", null, contextVar), root);
@@ -186,7 +204,7 @@ public class SaxonXQuery implements XQuery {
                     Object value = me.getValue();
                     if (value instanceof XmlTokenSource) {
                         Node paramObject = ((XmlTokenSource) value).getDomNode();
-                        dc.setParameter(key, docWrapper.wrap(paramObject));
+                        dc.setParameter(key, wrapper.apply(paramObject));
                     } else {
                         try {
                             dc.setParameter(key, objectToItem(value, config));
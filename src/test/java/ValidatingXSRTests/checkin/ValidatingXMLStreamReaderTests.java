@@ -34,7 +34,7 @@ import java.io.FileNotFoundException;
 import java.util.ArrayList;
 import java.util.Collection;
 
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.*;
 
 public class ValidatingXMLStreamReaderTests {
     private final static String URI_NUMERALS = "http://openuri.org/testNumerals";
@@ -383,4 +383,44 @@ public class ValidatingXMLStreamReaderTests {
 
         assertTrue(valXsr.isValid(), "Content2 validation is broken.");
     }
+
+    @Test
+    void testReusedElementStates() throws Exception {
+        // more attributes than the validator scans linearly
+        StringBuilder xsd = new StringBuilder(
+            "<xs:schema xmlns:xs='http://www.w3.org/2001/XMLSchema' targetNamespace='urn:attrs' elementFormDefault='qualified'>" +
+            "<xs:element name='root'><xs:complexType><xs:sequence>" +
+            "<xs:element name='item' maxOccurs='unbounded'><xs:complexType>");
+        for (int i = 0; i < 12; i++) {
+            xsd.append("<xs:attribute name='a").append(i).append("' type='xs:int'")
+                .append(i % 4 == 0 ? " use='required'" : "").append("/>");
+        }
+        xsd.append("</xs:complexType></xs:element></xs:sequence></xs:complexType></xs:element></xs:schema>");
+        SchemaTypeLoader loader = XmlBeans.compileXsd(new XmlObject[]{XmlObject.Factory.parse(xsd.toString())},
+            XmlBeans.getBuiltinTypeSystem(), null);
+
+        // every other item lacks the required attributes, which the previous item had
+        StringBuilder doc = new StringBuilder("<root xmlns='urn:attrs'>");
+        for (int n = 0; n < 10; n++) {
+            doc.append("<item");
+            for (int i = 0; i < 12; i++) {
+                if (n % 2 == 0 || i % 4 != 0) {
+                    doc.append(" a").append(i).append("='").append(i).append("'");
+                }
+            }
+            doc.append("/>");
+        }
+        doc.append("</root>");
+
+        Collection<XmlError> errors = new ArrayList<>();
+        ValidatingXMLStreamReader valXsr = new ValidatingXMLStreamReader();
+        valXsr.init(XmlObject.Factory.parse(doc.toString()).newXMLStreamReader(), false, null, loader, null, errors);
+        while (valXsr.hasNext()) {
+            valXsr.next();
+        }
+
+        assertFalse(valXsr.isValid());
+        // 5 items with 3 missing attributes each
+        assertEquals(15, errors.size(), errors.toString());
+    }
 }
@@ -18,6 +18,7 @@ package compile.scomp.checkin;
 import org.apache.xmlbeans.*;
 import org.apache.xmlbeans.XmlOptions.BeanMethod;
 import org.apache.xmlbeans.impl.common.QNameHelper;
+import org.apache.xmlbeans.impl.schema.FileResourceLoader;
 import org.apache.xmlbeans.impl.tool.*;
 import org.apache.xmlbeans.impl.util.FilerImpl;
 import org.apache.xmlbeans.impl.xb.xsdschema.SchemaDocument;
@@ -31,16 +32,21 @@ import org.junit.platform.launcher.core.LauncherFactory;
 import org.junit.platform.launcher.listeners.SummaryGeneratingListener;
 import org.junit.platform.launcher.listeners.TestExecutionSummary;
 
+import javax.xml.namespace.QName;
 import java.io.File;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.net.MalformedURLException;
+import java.net.URL;
+import java.net.URLClassLoader;
 import java.net.URISyntaxException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 import static common.Common.SCOMP_CASE_ROOT;
@@ -58,6 +64,9 @@ public class CompilationTests {
     //location of files under "cases folder"
     private static final File outputroot = new File(fwroot, "build/test/output");
 
+    // the complex types per namespace of the in-process compile, i.e. more than one batch of sources
+    private static final int SCHEMA_TYPES = 40;
+
 
     private static final String[] invalidSchemas = {
         "<xs:schema xmlns:xs='http://www.w3.org/2001/XMLSchema'>\n" +
@@ -489,6 +498,217 @@ public class CompilationTests {
         assertTrue(act.contains("* / heck, I'm smart"));
     }
 
+    @Test
+    void parallelAndIncrementalSourceGeneration() throws IOException {
+        deltree(xbeanOutput("compile/scomp/codegen"));
+        File seqdir = xbeanOutput("compile/scomp/codegen/seq");
+        File pardir = xbeanOutput("compile/scomp/codegen/par");
+        File classesdir = xbeanOutput("compile/scomp/codegen/classes");
+        Parameters params = new Parameters();
+        params.setXsdFiles(xbeanCase("pricequote/PriceQuote.xsd"));
+        params.setClassesDir(classesdir);
+        params.setName("codegen");
+        params.setNojavac(true);
+
+        params.setSrcDir(seqdir);
+        assertTrue(SchemaCompiler.compile(params), "Build failed");
+
+        // the concurrently generated sources are the same
+        params.setSrcDir(pardir);
+        params.setCodeGenThreads(4);
+        assertTrue(SchemaCompiler.compile(params), "Build failed");
+        assertEquals(sources(seqdir), sources(pardir));
+
+        // the first incremental run records the fingerprints ...
+        params.setIncrementalSrcGen(true);
+        assertTrue(SchemaCompiler.compile(params), "Build failed");
+        assertTrue(new File(pardir, ".xmlbeans-fingerprints").isFile());
+        assertEquals(sources(seqdir), sources(pardir));
+
+        // ... so the unchanged types aren't generated again
+        Path impl = sources(pardir).keySet().stream().filter(f -> f.endsWith("DocumentImpl.java"))
+            .findFirst().map(f -> new File(pardir, f).toPath()).orElseThrow(AssertionError::new);
+        Files.write(impl, "// unchanged".getBytes(StandardCharsets.UTF_8), StandardOpenOption.APPEND);
+        assertTrue(SchemaCompiler.compile(params), "Build failed");
+        assertTrue(new String(Files.readAllBytes(impl), StandardCharsets.UTF_8).endsWith("// unchanged"));
+
+        // but are generated again, when the generation options change
+        params.setCopyAnn(true);
+        assertTrue(SchemaCompiler.compile(params), "Build failed");
+        assertFalse(new String(Files.readAllBytes(impl), StandardCharsets.UTF_8).endsWith("// unchanged"));
+    }
+
+    @Test
+    void packedArchive() throws IOException, XmlException {
+        deltree(xbeanOutput("compile/scomp/packed"));
+        File srcdir = xbeanOutput("compile/scomp/packed/src");
+        File classesdir = xbeanOutput("compile/scomp/packed/classes");
+        Parameters params = new Parameters();
+        params.setXsdFiles(xbeanCase("pricequote/PriceQuote.xsd"));
+        params.setSrcDir(srcdir);
+        params.setClassesDir(classesdir);
+        params.setName("packed");
+        params.setNojavac(true);
+        params.setPackedArchive(true);
+        assertTrue(SchemaCompiler.compile(params), "Build failed");
+
+        // a single archive instead of the index and component files, but still the pointer files
+        List<String> binaries;
+        try (Stream<Path> paths = Files.walk(classesdir.toPath())) {
+            binaries = paths.map(p -> p.getFileName().toString()).collect(Collectors.toList());
+        }
+        assertTrue(binaries.contains("typesystem.xsba"));
+        assertFalse(binaries.contains("index.xsb"));
+        assertTrue(binaries.contains("price-quote.xsb"));
+
+        SchemaTypeLoader stl = XmlBeans.typeLoaderForResource(new FileResourceLoader(classesdir));
+        SchemaGlobalElement elt = stl.findElement(new QName("price-quote"));
+        assertNotNull(elt);
+        SchemaProperty[] props = elt.getType().getElementProperties();
+        assertEquals(2, props.length);
+        assertEquals("stock-symbol", props[0].getName().getLocalPart());
+
+        XmlObject doc = stl.parse("<price-quote><stock-symbol>XMLB</stock-symbol><stock-price>1.0</stock-price></price-quote>", null, null);
+        assertTrue(doc.validate());
+        assertFalse(stl.parse("<price-quote><stock-price>1.0</stock-price></price-quote>", null, null).validate());
+    }
+
+    @Test
+    void packedArchiveOnClasspath() throws Exception {
+        deltree(xbeanOutput("compile/scomp/packedcp"));
+        File srcdir = xbeanOutput("compile/scomp/packedcp/src");
+        File classesdir = xbeanOutput("compile/scomp/packedcp/classes");
+        File outputjar = xbeanOutput("compile/scomp/packedcp/packed.jar");
+        Parameters params = new Parameters();
+        params.setXsdFiles(xbeanCase("pricequote/PriceQuote.xsd"));
+        params.setSrcDir(srcdir);
+        params.setClassesDir(classesdir);
+        params.setOutputJar(outputjar);
+        params.setName("packedcp");
+        params.setPackedArchive(true);
+        assertTrue(SchemaCompiler.compile(params), "Build failed");
+
+        String archive;
+        try (Stream<Path> paths = Files.walk(classesdir.toPath())) {
+            archive = paths.filter(p -> p.endsWith("typesystem.xsba")).findFirst()
+                .map(p -> classesdir.toPath().relativize(p).toString().replace(File.separatorChar, '/'))
+                .orElseThrow(AssertionError::new);
+        }
+
+        // the memory mapped archive of the classes directory and the archive read from the jar
+        for (File root : new File[]{classesdir, outputjar}) {
+            try (URLClassLoader cl = new URLClassLoader(new URL[]{root.toURI().toURL()}, getClass().getClassLoader())) {
+                URL url = cl.getResource(archive);
+                assertNotNull(url);
+                assertEquals(root.isDirectory() ? "file" : "jar", url.getProtocol());
+
+                SchemaTypeLoader stl = XmlBeans.typeLoaderForClassLoader(cl);
+                SchemaGlobalElement elt = stl.findElement(new QName("price-quote"));
+                assertNotNull(elt);
+                assertSame(cl, elt.getType().getJavaClass().getClassLoader());
+                assertEquals(2, elt.getType().getElementProperties().length);
+
+                XmlObject doc = stl.parse("<price-quote><stock-symbol>XMLB</stock-symbol><stock-price>1.0</stock-price></price-quote>", null, null);
+                assertTrue(doc.validate());
+                assertFalse(stl.parse("<price-quote><stock-price>1.0</stock-price></price-quote>", null, null).validate());
+            }
+        }
+    }
+
+    @Test
+    void inProcessCompile() throws Exception {
+        deltree(xbeanOutput("compile/scomp/inprocess"));
+        File xsddir = xbeanOutput("compile/scomp/inprocess/xsd");
+        File srcdir = xbeanOutput("compile/scomp/inprocess/src");
+        File classesdir = xbeanOutput("compile/scomp/inprocess/classes");
+        xsddir.mkdirs();
+
+        // two namespaces, i.e. packages which refer to each other, with enough sources for several batches
+        Parameters params = new Parameters();
+        params.setXsdFiles(writeSchema(xsddir, "a", "b"), writeSchema(xsddir, "b", null));
+        params.setSrcDir(srcdir);
+        params.setClassesDir(classesdir);
+        params.setName("inprocess");
+        params.setCompileThreads(4);
+        assertTrue(CodeGenUtil.isInProcessCompile(params.getCompiler()));
+        assertTrue(SchemaCompiler.compile(params), "Build failed");
+
+        try (URLClassLoader cl = new URLClassLoader(new URL[]{classesdir.toURI().toURL()}, getClass().getClassLoader())) {
+            SchemaTypeLoader stl = XmlBeans.typeLoaderForClassLoader(cl);
+            for (String ns : new String[]{"a", "b"}) {
+                for (int i = 0; i < SCHEMA_TYPES; i++) {
+                    SchemaType type = stl.findType(new QName("urn:inprocess:" + ns, "T" + i));
+                    assertNotNull(type);
+                    assertSame(cl, type.getJavaClass().getClassLoader());
+                    assertNotNull(cl.loadClass(type.getFullJavaImplName()));
+                }
+            }
+
+            XmlObject doc = stl.parse("<a:e xmlns:a='urn:inprocess:a' xmlns:b='urn:inprocess:b'>" +
+                "<a:v>x</a:v><a:ref><b:v>y</b:v></a:ref></a:e>", null, null);
+            SchemaType docType = stl.findDocumentType(new QName("urn:inprocess:a", "e"));
+            assertTrue(docType.getJavaClass().isInstance(doc));
+            assertTrue(doc.validate());
+        }
+    }
+
+    @Test
+    void inProcessCompileFailure() throws IOException {
+        deltree(xbeanOutput("compile/scomp/inprocessfail"));
+        File srcdir = xbeanOutput("compile/scomp/inprocessfail/src");
+        File classesdir = xbeanOutput("compile/scomp/inprocessfail/classes");
+        File pkgdir = new File(srcdir, "failing");
+        pkgdir.mkdirs();
+        classesdir.mkdirs();
+        Files.write(new File(pkgdir, "Valid.java").toPath(),
+            "package failing; public class Valid {}".getBytes(StandardCharsets.UTF_8));
+        Files.write(new File(pkgdir, "Invalid.java").toPath(),
+            "package failing; public class Invalid { Missing missing; }".getBytes(StandardCharsets.UTF_8));
+
+        assertFalse(CodeGenUtil.internalCompile(singletonList(srcdir), classesdir, null, false, null, 1, false));
+        // not even the classes of the valid sources are written
+        String[] classes = classesdir.list();
+        assertNotNull(classes);
+        assertEquals(0, classes.length);
+    }
+
+    private static File writeSchema(File dir, String ns, String refNs) throws IOException {
+        StringBuilder sb = new StringBuilder(
+            "<xs:schema xmlns:xs='http://www.w3.org/2001/XMLSchema' elementFormDefault='qualified'" +
+            " targetNamespace='urn:inprocess:" + ns + "' xmlns:t='urn:inprocess:" + ns + "'");
+        if (refNs != null) {
+            sb.append(" xmlns:r='urn:inprocess:").append(refNs).append("'>")
+                .append("<xs:import namespace='urn:inprocess:").append(refNs).append("'/>");
+        } else {
+            sb.append(">");
+        }
+        sb.append("<xs:element name='e' type='t:T0'/>");
+        for (int i = 0; i < SCHEMA_TYPES; i++) {
+            sb.append("<xs:complexType name='T").append(i).append("'><xs:sequence>")
+                .append("<xs:element name='v' type='xs:string'/>");
+            if (refNs != null) {
+                sb.append("<xs:element name='ref' type='r:T").append(i).append("' minOccurs='0'/>");
+            }
+            sb.append("</xs:sequence></xs:complexType>");
+        }
+        sb.append("</xs:schema>");
+
+        File xsd = new File(dir, ns + ".xsd");
+        Files.write(xsd.toPath(), sb.toString().getBytes(StandardCharsets.UTF_8));
+        return xsd;
+    }
+
+    private static Map<String, String> sources(File srcdir) throws IOException {
+        Map<String, String> sources = new TreeMap<>();
+        try (Stream<Path> paths = Files.walk(srcdir.toPath())) {
+            for (Path p : (Iterable<Path>) paths.filter(p -> p.toString().endsWith(".java"))::iterator) {
+                sources.put(srcdir.toPath().relativize(p).toString(), new String(Files.readAllBytes(p), StandardCharsets.UTF_8));
+            }
+        }
+        assertFalse(sources.isEmpty());
+        return sources;
+    }
+
     //TESTENV:
 
     private static void dumpErrors(List<XmlError> errors, PrintWriter out) {
@@ -0,0 +1,127 @@
+/*   Copyright 2004 The Apache Software Foundation
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package misc.checkin;
+
+import org.apache.xmlbeans.SchemaTypeLoader;
+import org.apache.xmlbeans.XmlBeans;
+import org.apache.xmlbeans.XmlObject;
+import org.apache.xmlbeans.XmlOptions;
+import org.apache.xmlbeans.impl.tool.InstanceValidator;
+import org.apache.xmlbeans.impl.tool.StreamInstanceValidator;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+import static common.Common.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ParallelValidationTest {
+    private static final int FILES = 40;
+    private static final int INVALID = 7;
+
+    private static final File SCHEMA = xbeanCase("xbean/xmlobject/easypo.xsd");
+    private static final List<File> INSTANCES = new ArrayList<>();
+
+    @BeforeAll
+    static void writeInstances() throws IOException {
+        File dir = xbeanOutput("misc/parallelvalidation");
+        for (int i = 0; i < FILES; i++) {
+            String date = (i == INVALID) ? "" : "<po:date>2003-01-07T14:16:00-05:00</po:date>";
+            String doc = "<po:purchase-order xmlns:po='http://openuri.org/easypo'>" +
+                "<po:customer><po:name>customer " + i + "</po:name><po:address>address</po:address></po:customer>" +
+                date + "</po:purchase-order>";
+            File file = new File(dir, "po" + i + ".xml");
+            Files.write(file.toPath(), doc.getBytes(StandardCharsets.UTF_8));
+            INSTANCES.add(file);
+        }
+    }
+
+    @Test
+    void validate() {
+        List<String> args = new ArrayList<>();
+        args.add("-threads");
+        args.add("4");
+        args.add(SCHEMA.getPath());
+        INSTANCES.forEach(f -> args.add(f.getPath()));
+
+        int[] rc = new int[1];
+        String out = captureOut(() -> rc[0] = InstanceValidator.extraMain(args.toArray(new String[0])));
+
+        assertEquals(1, rc[0]);
+        assertOrderedResults(out, " NOT valid.");
+    }
+
+    @Test
+    void unknownAndUnloadableDocuments() throws IOException {
+        File dir = xbeanOutput("misc/parallelvalidation");
+        File unknown = new File(dir, "unknown.xml");
+        File unloadable = new File(dir, "unloadable.xml");
+        Files.write(unknown.toPath(), "<unknown/>".getBytes(StandardCharsets.UTF_8));
+        Files.write(unloadable.toPath(), "<po:purchase-order".getBytes(StandardCharsets.UTF_8));
+
+        String[] args = {"-threads", "2", SCHEMA.getPath(), unknown.getPath(), unloadable.getPath(), INSTANCES.get(0).getPath()};
+        int[] rc = new int[1];
+        String out = captureOut(() -> rc[0] = InstanceValidator.extraMain(args));
+
+        assertEquals(1, rc[0]);
+        assertTrue(out.contains(unknown.getPath() + " NOT valid."), out);
+        assertTrue(out.contains("3 files (2 invalid"), out);
+    }
+
+    @Test
+    void streamValidate() throws Exception {
+        SchemaTypeLoader loader = XmlBeans.compileXsd(new XmlObject[]{XmlObject.Factory.parse(SCHEMA)},
+            XmlBeans.getBuiltinTypeSystem(), null);
+        XmlOptions options = new XmlOptions().setLoadLineNumbers();
+
+        String out = captureOut(() ->
+            StreamInstanceValidator.validateFiles(INSTANCES.toArray(new File[0]), loader, options, 4));
+
+        assertOrderedResults(out, " NOT valid (");
+    }
+
+    private static void assertOrderedResults(String out, String invalidMarker) {
+        int pos = -1;
+        for (int i = 0; i < FILES; i++) {
+            int next = out.indexOf(INSTANCES.get(i).getPath() + (i == INVALID ? invalidMarker : " valid."));
+            assertTrue(next > pos, "result of file " + i + " isn't in order");
+            pos = next;
+        }
+        assertTrue(out.contains(FILES + " files (1 invalid"), out);
+        assertTrue(out.contains("files/s"), out);
+    }
+
+    private static String captureOut(Runnable r) {
+        PrintStream sysOut = System.out;
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        try (PrintStream out = new PrintStream(bos, true)) {
+            System.setOut(out);
+            r.run();
+        } finally {
+            System.setOut(sysOut);
+        }
+        return new String(bos.toByteArray());
+    }
+}
@@ -0,0 +1,102 @@
+/*   Copyright 2004 The Apache Software Foundation
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package misc.checkin;
+
+import org.apache.xmlbeans.QNameCache;
+import org.apache.xmlbeans.XmlBeans;
+import org.apache.xmlbeans.XmlCursor;
+import org.apache.xmlbeans.XmlObject;
+import org.junit.jupiter.api.Test;
+
+import javax.xml.namespace.QName;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QNameCacheTest {
+
+    @Test
+    void sameInstance() {
+        QNameCache cache = new QNameCache(32);
+        QName q1 = cache.getName("urn:a", "b", "p");
+        QName q2 = cache.getName("urn:a", "b", "p");
+        assertSame(q1, q2);
+        assertEquals("p", q1.getPrefix());
+
+        // the prefix is part of the key, even if QName.equals ignores it
+        QName q3 = cache.getName("urn:a", "b", "x");
+        assertNotSame(q1, q3);
+        assertEquals("x", q3.getPrefix());
+
+        assertSame(cache.getName(null, "c", null), cache.getName("", "c", ""));
+    }
+
+    @Test
+    void bounded() {
+        QNameCache cache = new QNameCache(32);
+        int capacity = cache.getCapacity();
+        for (int i = 0; i < capacity * 10; i++) {
+            QName q = cache.getName("urn:bounded", "n" + i, "");
+            assertEquals("n" + i, q.getLocalPart());
+        }
+        assertEquals(capacity, cache.getCapacity());
+    }
+
+    @Test
+    void sharedBetweenThreads() throws Exception {
+        final int threads = 4;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<QName>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(pool.submit(() -> {
+                    QName q = null;
+                    for (int j = 0; j < 1000; j++) {
+                        q = XmlBeans.getQName("urn:shared", "name");
+                    }
+                    return q;
+                }));
+            }
+            QName expected = XmlBeans.getQName("urn:shared", "name");
+            for (Future<QName> f : futures) {
+                assertSame(expected, f.get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void namesSharedAcrossDocuments() throws Exception {
+        String xml = "<po:order xmlns:po='urn:po'><po:item/><po:item/></po:order>";
+        XmlObject doc1 = XmlObject.Factory.parse(xml);
+        XmlObject doc2 = XmlObject.Factory.parse(xml);
+
+        try (XmlCursor c1 = doc1.newCursor(); XmlCursor c2 = doc2.newCursor()) {
+            assertTrue(c1.toFirstChild());
+            assertTrue(c2.toFirstChild());
+            assertSame(c1.getName(), c2.getName());
+
+            assertTrue(c1.toFirstChild());
+            assertTrue(c2.toFirstChild());
+            assertSame(c1.getName(), c2.getName());
+        }
+    }
+}
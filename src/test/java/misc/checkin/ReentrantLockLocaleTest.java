@@ -0,0 +1,197 @@
+/*   Copyright 2004 The Apache Software Foundation
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package misc.checkin;
+
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingFile;
+import org.apache.xmlbeans.XmlCursor;
+import org.apache.xmlbeans.XmlObject;
+import org.apache.xmlbeans.XmlOptions;
+import org.junit.jupiter.api.Test;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class ReentrantLockLocaleTest {
+    private static final String XML;
+
+    static {
+        StringBuilder sb = new StringBuilder("<order xmlns='urn:order'>");
+        for (int i = 0; i < 200; i++) {
+            sb.append("<item id='").append(i).append("'>item ").append(i).append("</item>");
+        }
+        XML = sb.append("</order>").toString();
+    }
+
+    @Test
+    void lockedDocument() throws Exception {
+        XmlOptions opts = new XmlOptions().setUseReentrantLock();
+        XmlObject doc = XmlObject.Factory.parse(XML, opts);
+        XmlObject other = XmlObject.Factory.parse("<copy/>", opts);
+
+        final int threads = 4;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 100; i++) {
+                        try (XmlCursor c = doc.newCursor(); XmlCursor d = other.newCursor()) {
+                            assertTrue(c.toFirstChild());
+                            assertTrue(c.toFirstChild());
+                            assertTrue(d.toFirstChild());
+                            d.toEndToken();
+                            assertTrue(c.copyXml(d));
+                        }
+                        try (XmlCursor r = other.newCursor()) {
+                            assertTrue(r.toFirstChild());
+                            assertTrue(r.toFirstChild());
+                            assertTrue(r.removeXml());
+                        }
+                        assertTrue(doc.xmlText().contains("item 199"));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals("<copy/>", other.xmlText());
+    }
+
+    @Test
+    void noPinning() throws Exception {
+        ExecutorService vts = newVirtualThreadExecutor();
+        assumeTrue(vts != null, "virtual threads are not available");
+        assumeTrue(FlightRecorder.isAvailable(), "JFR is not available");
+        vts.shutdown();
+
+        assertEquals(0, countPinnedEvents(new XmlOptions().setUseReentrantLock()));
+
+        // synchronized blocks don't pin virtual threads anymore since JDK 24 (JEP 491)
+        String spec = System.getProperty("java.specification.version");
+        if (Integer.parseInt(spec) < 24) {
+            assertNotEquals(0, countPinnedEvents(new XmlOptions()));
+        }
+    }
+
+    private static long countPinnedEvents(XmlOptions opts) throws Exception {
+        Path jfr = Files.createTempFile("xmlbeans-pinned", ".jfr");
+        try (Recording rec = new Recording()) {
+            rec.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ZERO).withStackTrace();
+            rec.start();
+
+            ExecutorService vts = newVirtualThreadExecutor();
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int i = 0; i < 50; i++) {
+                    futures.add(vts.submit(() -> {
+                        byte[] bytes = XML.getBytes(StandardCharsets.UTF_8);
+                        XmlObject doc = XmlObject.Factory.parse(new SlowInputStream(new ByteArrayInputStream(bytes)), opts);
+                        doc.save(new SlowOutputStream(), opts);
+                        return null;
+                    }));
+                }
+                for (Future<?> f : futures) {
+                    f.get(1, TimeUnit.MINUTES);
+                }
+            } finally {
+                vts.shutdown();
+            }
+
+            rec.stop();
+            rec.dump(jfr);
+
+            return RecordingFile.readAllEvents(jfr).stream()
+                .filter(ReentrantLockLocaleTest::isXmlBeansEvent)
+                .count();
+        } finally {
+            Files.deleteIfExists(jfr);
+        }
+    }
+
+    private static boolean isXmlBeansEvent(RecordedEvent event) {
+        return event.getStackTrace() != null && event.getStackTrace().getFrames().stream()
+            .map(RecordedFrame::getMethod)
+            .anyMatch(m -> m.getType().getName().startsWith("org.apache.xmlbeans."));
+    }
+
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private static void pause() throws IOException {
+        try {
+            // parks a virtual thread - if it holds a monitor, the carrier is pinned
+            Thread.sleep(1);
+        } catch (InterruptedException e) {
+            throw new InterruptedIOException();
+        }
+    }
+
+    private static class SlowInputStream extends FilterInputStream {
+        SlowInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            pause();
+            return super.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            pause();
+            return super.read(b, off, Math.min(len, 1024));
+        }
+    }
+
+    private static class SlowOutputStream extends OutputStream {
+        @Override
+        public void write(int b) throws IOException {
+            pause();
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            pause();
+        }
+    }
+}
@@ -18,8 +18,14 @@ package misc.checkin;
 import org.apache.xmlbeans.impl.regex.RegularExpression;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class RegularExpressionTest {
@@ -31,6 +37,33 @@ public class RegularExpressionTest {
         assertTrue(regex.matches(rnd));
     }
 
+    @Test
+    void testConcurrentMatching() throws Exception {
+        // shared like the pattern facets of a schema type, with a different number of closures
+        RegularExpression date = new RegularExpression("\\d{4}-\\d{2}-\\d{2}", "X");
+        RegularExpression words = new RegularExpression("\\p{Lu}\\p{Ll}*( \\p{Lu}\\p{Ll}*)*", "X");
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 2000; i++) {
+                        assertTrue(date.matches("2004-11-" + (10 + i % 20)));
+                        assertFalse(date.matches("2004-11-" + i % 10));
+                        assertTrue(words.matches("Apache Software Foundation"));
+                        assertFalse(words.matches("Apache software"));
+                    }
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
 
     private static final String AB = "0123456789ABCDEFGHIJKLMNOPQRSTUVWXYZ";
     private static final Random rnd = new Random();
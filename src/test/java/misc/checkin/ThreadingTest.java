@@ -15,6 +15,8 @@
 
 package misc.checkin;
 
+import com.easypo.XmlPurchaseOrderDocumentBean;
+import org.apache.xmlbeans.SchemaType;
 import org.apache.xmlbeans.SchemaTypeLoader;
 import org.apache.xmlbeans.XmlBeans;
 import org.apache.xmlbeans.XmlObject;
@@ -23,6 +25,11 @@ import tools.util.JarUtil;
 
 import javax.xml.namespace.QName;
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static xmlcursor.common.BasicCursorTestCase.jobj;
@@ -84,5 +91,59 @@ public class ThreadingTest {
             assertTrue(threads[i].getResult(), "Thread " + i + " didn't succeed");
         }
     }
-}
 
+    @Test
+    void testConcurrentLookups() throws Exception {
+        // a fresh loader, so the threads race for the first lookups
+        SchemaTypeLoader loader = XmlBeans.typeLoaderForClassLoader(XmlPurchaseOrderDocumentBean.class.getClassLoader());
+        QName po = new QName("http://openuri.org/easypo", "purchase-order");
+        QName unknown = new QName("http://openuri.org/easypo", "unknown");
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREAD_COUNT * 2);
+        try {
+            List<Future<SchemaType>> results = new ArrayList<>();
+            for (int t = 0; t < THREAD_COUNT * 4; t++) {
+                results.add(pool.submit(() -> {
+                    SchemaType type = null;
+                    for (int i = 0; i < 1000; i++) {
+                        type = loader.findDocumentType(po);
+                        assertNotNull(type);
+                        assertSame(type, loader.typeForClassname(XmlPurchaseOrderDocumentBean.class.getName()));
+                        assertNull(loader.findDocumentType(unknown));
+                        assertNull(loader.findType(new QName("urn:unknown", "type" + i)));
+                    }
+                    return type;
+                }));
+            }
+            for (Future<SchemaType> result : results) {
+                assertSame(XmlPurchaseOrderDocumentBean.type, result.get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void testSharedContextTypeLoader() throws Exception {
+        SchemaTypeLoader loader = XmlBeans.getContextTypeLoader();
+        assertSame(loader, XmlBeans.getContextTypeLoader());
+
+        // other threads with the same context class loader share the loader and its caches
+        ClassLoader cl = Thread.currentThread().getContextClassLoader();
+        ExecutorService pool = Executors.newFixedThreadPool(THREAD_COUNT);
+        try {
+            List<Future<SchemaTypeLoader>> results = new ArrayList<>();
+            for (int t = 0; t < THREAD_COUNT; t++) {
+                results.add(pool.submit(() -> {
+                    Thread.currentThread().setContextClassLoader(cl);
+                    return XmlBeans.getContextTypeLoader();
+                }));
+            }
+            for (Future<SchemaTypeLoader> result : results) {
+                assertSame(loader, result.get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*   Copyright 2004 The Apache Software Foundation
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package misc.checkin;
+
+import org.apache.xmlbeans.XmlException;
+import org.apache.xmlbeans.XmlObject;
+import org.apache.xmlbeans.XmlOptions;
+import org.apache.xmlbeans.impl.common.XMLReaderPool;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.xml.sax.XMLReader;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+public class XMLReaderPoolTest {
+    private static final String DOC = "<a xmlns='urn:pool'><b x='1'>text</b></a>";
+
+    private static final String DOCTYPE_DOC =
+        "<!DOCTYPE a [<!ENTITY e 'expanded'>]><a>&e;</a>";
+
+    private final XMLReaderPool pool = XMLReaderPool.getInstance();
+
+    @BeforeEach
+    void clearPool() {
+        pool.clear();
+    }
+
+    @Test
+    void readerIsReused() throws Exception {
+        assumePoolEnabled();
+
+        long reused = pool.getReusedCount();
+        long returned = pool.getReturnedCount();
+
+        XmlObject first = XmlObject.Factory.parse(DOC);
+        XmlObject second = XmlObject.Factory.parse(stream(DOC));
+
+        assertEquals(first.xmlText(), second.xmlText());
+        assertTrue(pool.getReusedCount() > reused);
+        assertTrue(pool.getReturnedCount() >= returned + 2);
+    }
+
+    @Test
+    void optOut() throws Exception {
+        long created = pool.getCreatedCount();
+        long reused = pool.getReusedCount();
+
+        XmlOptions opts = new XmlOptions().setLoadDisableXMLReaderPool();
+        XmlObject.Factory.parse(DOC, opts);
+        XmlObject.Factory.parse(DOC, opts);
+
+        assertEquals(created, pool.getCreatedCount());
+        assertEquals(reused, pool.getReusedCount());
+        assertEquals(0, pool.getIdleCount());
+    }
+
+    @Test
+    void failedParseDiscardsReader() throws Exception {
+        assumePoolEnabled();
+
+        long discarded = pool.getDiscardedCount();
+        assertThrows(XmlException.class, () -> XmlObject.Factory.parse("<a><b></a>"));
+        assertEquals(discarded + 1, pool.getDiscardedCount());
+        assertEquals(0, pool.getIdleCount());
+
+        // the next parse needs to work with a fresh reader
+        assertNotNull(XmlObject.Factory.parse(DOC));
+    }
+
+    @Test
+    void readersAreKeyedBySecurityOptions() throws Exception {
+        assumePoolEnabled();
+
+        // warm up the pool with a reader which allows doctype declarations
+        XmlObject.Factory.parse(DOCTYPE_DOC);
+
+        XmlOptions disallow = new XmlOptions().setDisallowDocTypeDeclaration(true);
+        assertThrows(XmlException.class, () -> XmlObject.Factory.parse(DOCTYPE_DOC, disallow));
+
+        // and the permissive reader is still working as before
+        XmlObject obj = XmlObject.Factory.parse(DOCTYPE_DOC);
+        assertTrue(obj.xmlText().contains("expanded"));
+    }
+
+    @Test
+    void borrowAndRelease() throws Exception {
+        assumePoolEnabled();
+
+        XmlOptions opts = new XmlOptions().setEntityExpansionLimit(17);
+        XMLReader xr = pool.borrow(opts);
+        pool.release(opts, xr);
+        assertEquals(1, pool.getIdleCount());
+
+        // other options don't get the same reader
+        assertNotSame(xr, pool.borrow(new XmlOptions()));
+        assertSame(xr, pool.borrow(opts));
+        assertEquals(0, pool.getIdleCount());
+    }
+
+    private void assumePoolEnabled() {
+        assumeTrue(pool.getMaxIdle() > 0);
+    }
+
+    private static ByteArrayInputStream stream(String xml) {
+        return new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8));
+    }
+}
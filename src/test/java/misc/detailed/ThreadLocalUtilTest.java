@@ -17,10 +17,14 @@ package misc.detailed;
 
 import org.apache.xmlbeans.ThreadLocalUtil;
 import org.apache.xmlbeans.impl.common.SystemCache;
+import org.apache.xmlbeans.impl.schema.SchemaTypeLoaderImpl;
 import org.apache.xmlbeans.impl.schema.StscState;
 import org.apache.xmlbeans.impl.store.CharUtil;
 import org.junit.jupiter.api.Test;
 
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
 public class ThreadLocalUtilTest {
     @Test
     void testClearThreadLocalsNoData() {
@@ -41,4 +45,14 @@ public class ThreadLocalUtilTest {
 
         ThreadLocalUtil.clearAllThreadLocals();
     }
+
+    @Test
+    void testClearTypeLoaderCache() {
+        SchemaTypeLoaderImpl stl = SchemaTypeLoaderImpl.getContextTypeLoader();
+        assertSame(stl, SchemaTypeLoaderImpl.getContextTypeLoader());
+
+        // the cached type loaders are released, so their ClassLoaders can be collected
+        ThreadLocalUtil.clearAllThreadLocals();
+        assertNotSame(stl, SchemaTypeLoaderImpl.getContextTypeLoader());
+    }
 }
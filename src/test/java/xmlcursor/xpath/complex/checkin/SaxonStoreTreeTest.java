@@ -0,0 +1,195 @@
+/*   Copyright 2004 The Apache Software Foundation
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package xmlcursor.xpath.complex.checkin;
+
+import com.easypo.XmlCustomerBean;
+import com.easypo.XmlPurchaseOrderDocumentBean;
+import org.apache.xmlbeans.XmlAnySimpleType;
+import org.apache.xmlbeans.XmlCursor;
+import org.apache.xmlbeans.XmlObject;
+import org.apache.xmlbeans.XmlOptions;
+import org.apache.xmlbeans.impl.xpath.saxon.SaxonXPath;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.w3c.dom.Node;
+import org.xml.sax.InputSource;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Saxon expressions evaluated directly over the store
+ */
+public class SaxonStoreTreeTest {
+    private static final String XML =
+        "<?pi before?><!--c0--><r xmlns='urn:d' xmlns:x='urn:x' a='1' x:b='2'>t0<e>t1</e>t2<!--c1-->" +
+        "<x:e x:c='3'>t3<f/>t4</x:e><?p d?>t5<e a='4'>t6<g>t7</g></e>t8</r><!--c2-->";
+
+    private static final String NS = "declare namespace d='urn:d'; declare namespace x='urn:x'; ";
+
+    private static final XmlOptions SAXON = new XmlOptions().setXPathUseSaxon();
+
+    /**
+     * The store returns the same results as the Saxon wrapper of a plain DOM
+     */
+    @ParameterizedTest
+    @ValueSource(strings = {
+        "//node()",
+        "//text()",
+        "//@*",
+        "//comment()",
+        "//processing-instruction()",
+        "/d:r/node()[3]/following-sibling::node()",
+        "//d:f/preceding-sibling::node()",
+        "//d:e/preceding-sibling::node()",
+        "//d:g/ancestor-or-self::node()",
+        "//d:f/preceding::node()",
+        "//d:f/following::node()",
+        "//d:g/preceding::text()",
+        "/d:r/*/following-sibling::*",
+        "/d:r/*[last()]/preceding-sibling::*",
+        "//x:e/@*",
+        "//*[@a]",
+        "//text() | //@* | //comment()",
+        "//d:e[last()]/..",
+        "//text()[. = 't4']/parent::*",
+        "//text()[. = 't5']/preceding-sibling::node()[1]",
+        "//node()[3]",
+        "//d:e/text()",
+        "//x:e/text()[1]/following-sibling::node()",
+        "count(//node())",
+        "string(/)",
+        "string(/d:r/x:e)",
+        "name(//*[@x:c])",
+        "local-name(/*)",
+        "namespace-uri(//x:e)",
+        "count(//namespace::*)",
+        "//d:f << //d:g",
+        "//d:g << //d:f",
+        "//text()[. = 't5'] >> /d:r/@a",
+        "/d:r/@x:b << /d:r/text()[1]",
+        "generate-id(//d:f) = generate-id(//x:e/d:f)",
+        "sum(//@a)"
+    })
+    void sameAsDom(String path) throws Exception {
+        Map<String, String> ns = new HashMap<>();
+        ns.put("d", "urn:d");
+        ns.put("x", "urn:x");
+        SaxonXPath xpath = new SaxonXPath(path, "this", ns);
+
+        Node store = XmlObject.Factory.parse(XML).getDomNode();
+
+        DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
+        dbf.setNamespaceAware(true);
+        Node dom = dbf.newDocumentBuilder().parse(new InputSource(new StringReader(XML)));
+
+        assertEquals(describe(xpath.selectNodes(dom)), describe(xpath.selectNodes(store)));
+    }
+
+    private static List<String> describe(List<?> results) {
+        List<String> list = new ArrayList<>();
+        for (Object o : results) {
+            if (o instanceof Node) {
+                Node n = (Node) o;
+                list.add(n.getNodeType() + " " + n.getNodeName() + " " + n.getNodeValue());
+            } else {
+                list.add(String.valueOf(o));
+            }
+        }
+        return list;
+    }
+
+    @Test
+    void cursorSelections() throws Exception {
+        XmlObject doc = XmlObject.Factory.parse(XML);
+
+        try (XmlCursor c = doc.newCursor()) {
+            c.selectPath(NS + "$this//text()[starts-with(., 't')]", SAXON);
+            List<String> texts = new ArrayList<>();
+            while (c.toNextSelection()) {
+                assertTrue(c.isText());
+                texts.add(c.getChars());
+            }
+            assertEquals(Arrays.asList("t0", "t1", "t2", "t3", "t4", "t5", "t6", "t7", "t8"), texts);
+        }
+
+        XmlObject[] attrs = doc.selectPath(NS + "$this//@*[. > 1]", SAXON);
+        assertEquals(3, attrs.length);
+        assertEquals("2", ((XmlAnySimpleType) attrs[0]).getStringValue());
+        assertEquals("4", ((XmlAnySimpleType) attrs[2]).getStringValue());
+
+        // a text node as the context node
+        try (XmlCursor c = doc.newCursor()) {
+            c.toFirstChild();
+            c.toFirstContentToken();
+            assertTrue(c.isText());
+            c.selectPath(NS + "$this/following-sibling::d:e[1]", SAXON);
+            assertEquals(1, c.getSelectionCount());
+            c.toNextSelection();
+            assertEquals("t1", c.getTextValue());
+        }
+    }
+
+    @Test
+    void changedAndTypedValues() throws Exception {
+        XmlPurchaseOrderDocumentBean doc = XmlPurchaseOrderDocumentBean.Factory.newInstance();
+        XmlCustomerBean customer = doc.addNewPurchaseOrder().addNewCustomer();
+        // the values of the setters are only materialized in the store on demand
+        customer.setName("Fred");
+        customer.setAge(42);
+
+        String path = "declare namespace po='http://openuri.org/easypo'; " +
+            "$this//po:customer[po:name = 'Fred' and @age > 40]";
+        assertEquals(1, doc.selectPath(path, SAXON).length);
+
+        customer.setName("Gladys");
+        assertEquals(0, doc.selectPath(path, SAXON).length);
+    }
+
+    @Test
+    void query() throws Exception {
+        XmlObject doc = XmlObject.Factory.parse(XML);
+
+        XmlObject[] res = doc.execQuery(NS + "for $e in $this//d:e return string($e)");
+        assertEquals(2, res.length);
+        assertEquals("t1", ((XmlAnySimpleType) res[0]).getStringValue());
+        assertEquals("t6t7", ((XmlAnySimpleType) res[1]).getStringValue());
+
+        res = doc.execQuery(NS + "$this//x:e");
+        assertEquals(1, res.length);
+        try (XmlCursor c = res[0].newCursor()) {
+            assertEquals("t3t4", c.getTextValue());
+        }
+
+        // variables of the same and of another document
+        Map<String, Object> vars = new HashMap<>();
+        vars.put("g", doc.selectPath(NS + "$this//d:g")[0]);
+        vars.put("other", XmlObject.Factory.parse("<o>t7</o>"));
+        res = doc.execQuery(NS + "declare variable $g external; declare variable $other external; " +
+            "$this//d:e[d:g is $g][d:g = $other/o]/string(@a)", new XmlOptions().setXqueryVariables(vars));
+        assertEquals(1, res.length);
+        assertEquals("4", ((XmlAnySimpleType) res[0]).getStringValue());
+    }
+}
@@ -0,0 +1,129 @@
+/*   Copyright 2004 The Apache Software Foundation
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package xmlobject.checkin;
+
+import org.apache.xmlbeans.XmlCursor;
+import org.apache.xmlbeans.XmlException;
+import org.apache.xmlbeans.XmlObject;
+import org.apache.xmlbeans.XmlOptions;
+import org.junit.jupiter.api.Test;
+
+import javax.xml.namespace.QName;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class AggressiveNamespacesSaveTest {
+    private static final XmlOptions AGGRESSIVE = new XmlOptions().setSaveAggressiveNamespaces();
+
+    @Test
+    void repeatedSaves() throws XmlException {
+        XmlObject doc = XmlObject.Factory.parse("<root xmlns='urn:a'><x>x</x></root>");
+        try (XmlCursor c = doc.newCursor()) {
+            // elements without namespace declarations, so the saver needs to synthesize them
+            c.toFirstChild();
+            c.toEndToken();
+            c.insertElementWithText(new QName("urn:b", "y"), "y");
+            c.insertElementWithText(new QName("urn:b", "y"), "y");
+        }
+
+        String saved = doc.xmlText(AGGRESSIVE);
+        assertEquals(1, count(saved, "urn:b"));
+        assertEquals(saved, doc.xmlText(AGGRESSIVE));
+        assertSameAsFresh(doc, AGGRESSIVE);
+
+        // text changes keep the namespaces
+        try (XmlCursor c = doc.newCursor()) {
+            c.toFirstChild();
+            c.toFirstChild();
+            c.setTextValue("changed");
+        }
+        assertEquals(saved.replace(">x<", ">changed<"), doc.xmlText(AGGRESSIVE));
+        assertSameAsFresh(doc, AGGRESSIVE);
+
+        // other options and structural changes don't
+        assertSameAsFresh(doc, new XmlOptions().setSaveAggressiveNamespaces().setUseDefaultNamespace());
+        try (XmlCursor c = doc.newCursor()) {
+            c.toFirstChild();
+            c.toEndToken();
+            c.insertElementWithText(new QName("urn:c", "z"), "z");
+            c.insertElementWithText(new QName("urn:c", "z"), "z");
+        }
+        assertEquals(1, count(doc.xmlText(AGGRESSIVE), "urn:c"));
+        assertSameAsFresh(doc, AGGRESSIVE);
+    }
+
+    @Test
+    void changedNamespaceDeclarations() throws XmlException {
+        XmlObject doc = XmlObject.Factory.parse(
+            "<root xmlns='urn:a'><x xmlns:p='urn:b'><p:y/><p:y/></x></root>");
+        assertSameAsFresh(doc, AGGRESSIVE);
+
+        // the elements keep their names, but the prefix has to be synthesized now
+        try (XmlCursor c = doc.newCursor()) {
+            c.toFirstChild();
+            c.toFirstChild();
+            c.toFirstAttribute();
+            c.setTextValue("urn:d");
+        }
+        assertSameAsFresh(doc, AGGRESSIVE);
+    }
+
+    @Test
+    void savesOfChildren() throws XmlException {
+        XmlObject doc = XmlObject.Factory.parse("<root xmlns='urn:a'><x/><y/></root>");
+
+        XmlObject x;
+        XmlObject y;
+        try (XmlCursor c = doc.newCursor()) {
+            c.toFirstChild();
+            c.toFirstChild();
+            x = c.getObject();
+            c.toNextSibling();
+            y = c.getObject();
+        }
+        try (XmlCursor c = x.newCursor()) {
+            c.toEndToken();
+            c.insertElement(new QName("urn:b", "x1"));
+        }
+        try (XmlCursor c = y.newCursor()) {
+            c.toEndToken();
+            c.insertElement(new QName("urn:c", "y1"));
+        }
+
+        // the namespaces of one container must not be used for another one
+        String savedX = x.xmlText(AGGRESSIVE);
+        String savedY = y.xmlText(AGGRESSIVE);
+        assertEquals(1, count(savedX, "urn:b"));
+        assertEquals(0, count(savedX, "urn:c"));
+        assertEquals(0, count(savedY, "urn:b"));
+        assertEquals(1, count(savedY, "urn:c"));
+        assertEquals(savedX, x.xmlText(AGGRESSIVE));
+        assertSameAsFresh(doc, AGGRESSIVE);
+    }
+
+    private static void assertSameAsFresh(XmlObject doc, XmlOptions options) throws XmlException {
+        XmlObject fresh = XmlObject.Factory.parse(doc.xmlText());
+        assertEquals(fresh.xmlText(options), doc.xmlText(options));
+    }
+
+    private static int count(String s, String part) {
+        int n = 0;
+        for (int i = s.indexOf(part); i >= 0; i = s.indexOf(part, i + 1)) {
+            n++;
+        }
+        return n;
+    }
+}
@@ -0,0 +1,104 @@
+/*   Copyright 2004 The Apache Software Foundation
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package xmlobject.checkin;
+
+import com.easypo.XmlLineItemBean;
+import com.easypo.XmlPurchaseOrderDocumentBean;
+import com.easypo.XmlPurchaseOrderDocumentBean.PurchaseOrder;
+import org.apache.xmlbeans.XmlCursor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.xml.namespace.QName;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ChildElementIndexTest {
+    private static final int ITEMS = 500;
+    private static final QName LINE_ITEM = new QName("http://openuri.org/easypo", "line-item");
+
+    private PurchaseOrder order;
+
+    @BeforeEach
+    void setUp() {
+        XmlPurchaseOrderDocumentBean doc = XmlPurchaseOrderDocumentBean.Factory.newInstance();
+        order = doc.addNewPurchaseOrder();
+        order.addNewCustomer().setName("customer");
+        for (int i = 0; i < ITEMS; i++) {
+            order.addNewLineItem().setDescription(Integer.toString(i));
+        }
+        order.addNewShipper().setName("shipper");
+    }
+
+    @Test
+    void reverseAndRandomAccess() {
+        assertEquals(ITEMS, order.sizeOfLineItemArray());
+
+        for (int i = ITEMS - 1; i >= 0; i--) {
+            assertEquals(Integer.toString(i), order.getLineItemArray(i).getDescription());
+        }
+
+        Random rnd = new Random(4711);
+        for (int i = 0; i < 1000; i++) {
+            int idx = rnd.nextInt(ITEMS);
+            assertEquals(Integer.toString(idx), order.getLineItemArray(idx).getDescription());
+        }
+
+        assertThrows(IndexOutOfBoundsException.class, () -> order.getLineItemArray(ITEMS));
+    }
+
+    @Test
+    void mutationsInvalidateIndex() {
+        // build the index
+        assertEquals("300", order.getLineItemArray(300).getDescription());
+
+        order.insertNewLineItem(300).setDescription("inserted");
+        assertEquals(ITEMS + 1, order.sizeOfLineItemArray());
+        assertEquals("inserted", order.getLineItemArray(300).getDescription());
+        assertEquals("300", order.getLineItemArray(301).getDescription());
+
+        order.removeLineItem(0);
+        assertEquals(ITEMS, order.sizeOfLineItemArray());
+        assertEquals("1", order.getLineItemArray(0).getDescription());
+        assertEquals("inserted", order.getLineItemArray(299).getDescription());
+
+        // text changes don't alter the structure
+        order.getLineItemArray(450).setDescription("changed");
+        assertEquals("changed", order.getLineItemArray(450).getDescription());
+        assertEquals("449", order.getLineItemArray(449).getDescription());
+        assertEquals("451", order.getLineItemArray(451).getDescription());
+
+        XmlLineItemBean[] items = order.getLineItemArray();
+        assertEquals(ITEMS, items.length);
+        for (int i = 0; i < items.length; i++) {
+            assertSame(items[i], order.getLineItemArray(i));
+        }
+    }
+
+    @Test
+    void cursorToChild() {
+        try (XmlCursor c = order.newCursor()) {
+            assertTrue(c.toChild(LINE_ITEM, 400));
+            try (XmlCursor d = c.newCursor()) {
+                assertTrue(d.toFirstChild());
+                assertEquals("400", d.getTextValue());
+            }
+            assertTrue(c.toParent());
+            assertFalse(c.toChild(LINE_ITEM, ITEMS));
+        }
+    }
+}
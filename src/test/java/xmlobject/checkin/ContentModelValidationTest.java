@@ -0,0 +1,165 @@
+/*   Copyright 2004 The Apache Software Foundation
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package xmlobject.checkin;
+
+import org.apache.xmlbeans.*;
+import org.apache.xmlbeans.impl.schema.SchemaParticleImpl;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import javax.xml.namespace.QName;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Validation of content models, which are compiled into automata, and of the ones which
+ * are left to the interpreter (wildcards, all groups and large occurrence counters).
+ */
+public class ContentModelValidationTest {
+    private static final String NS = "urn:contentmodel";
+
+    private static final String SCHEMA =
+        "<xs:schema xmlns:xs='http://www.w3.org/2001/XMLSchema' xmlns:c='" + NS + "' " +
+        "targetNamespace='" + NS + "' elementFormDefault='qualified'>" +
+        // sequence with counters and a nested choice
+        "<xs:element name='seq'><xs:complexType><xs:sequence>" +
+        "<xs:element name='a' type='xs:int' minOccurs='2' maxOccurs='3'/>" +
+        "<xs:choice minOccurs='0' maxOccurs='unbounded'>" +
+        "<xs:element name='b' type='xs:string'/><xs:element name='c' type='xs:date'/></xs:choice>" +
+        "<xs:element name='d' type='xs:boolean' minOccurs='0'/>" +
+        "</xs:sequence></xs:complexType></xs:element>" +
+        // wide choice with nested sequence and a substitution group
+        "<xs:element name='head' type='xs:string'/>" +
+        "<xs:element name='member' type='xs:string' substitutionGroup='c:head'/>" +
+        "<xs:element name='choice'><xs:complexType><xs:choice maxOccurs='unbounded'>" +
+        "<xs:element name='e1' type='xs:int'/><xs:element name='e2' type='xs:string'/>" +
+        "<xs:element ref='c:head'/>" +
+        "<xs:sequence><xs:element name='s1' type='xs:int'/><xs:element name='s2' type='xs:int' minOccurs='0'/></xs:sequence>" +
+        "</xs:choice></xs:complexType></xs:element>" +
+        // interpreted
+        "<xs:element name='wild'><xs:complexType><xs:sequence>" +
+        "<xs:element name='a' type='xs:int'/><xs:any namespace='##other' processContents='skip' maxOccurs='2'/>" +
+        "</xs:sequence></xs:complexType></xs:element>" +
+        "<xs:element name='all'><xs:complexType><xs:all>" +
+        "<xs:element name='a' type='xs:int'/><xs:element name='b' type='xs:string' minOccurs='0'/>" +
+        "</xs:all></xs:complexType></xs:element>" +
+        "<xs:element name='many'><xs:complexType><xs:sequence>" +
+        "<xs:element name='a' type='xs:int' minOccurs='1' maxOccurs='100'/>" +
+        "</xs:sequence></xs:complexType></xs:element>" +
+        "</xs:schema>";
+
+    private static SchemaTypeLoader loader;
+
+    @BeforeAll
+    static void compileSchema() throws XmlException {
+        loader = XmlBeans.compileXsd(new XmlObject[]{XmlObject.Factory.parse(SCHEMA)},
+            XmlBeans.getBuiltinTypeSystem(), null);
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+        "seq    | a a                 | true",
+        "seq    | a a a b c b d       | true",
+        "seq    | a c d               | false",
+        "seq    | a a a a             | false",
+        "seq    | a a d b             | false",
+        "seq    |                     | false",
+        "choice | e1 e2 head member   | true",
+        "choice | s1 s2 s1 e1 s1      | true",
+        "choice | s2                  | false",
+        "choice | s1 s2 s2            | false",
+        "choice |                     | false",
+        "wild   | a x:o x:o           | true",
+        "wild   | a x:o x:o x:o       | false",
+        "wild   | x:o                 | false",
+        "all    | b a                 | true",
+        "all    | b                   | false",
+        "many   | a a a a a a a a a a | true",
+        "many   |                     | false",
+    })
+    void validate(String root, String children, boolean valid) throws XmlException {
+        XmlObject doc = parse(root, children);
+        List<XmlError> errors = new ArrayList<>();
+        boolean result = doc.validate(new XmlOptions().setErrorListener(errors));
+        assertEquals(valid, result, errors.toString());
+        assertEquals(valid, errors.isEmpty(), errors.toString());
+    }
+
+    @ParameterizedTest
+    @CsvSource({"seq, true", "choice, true", "wild, false", "all, false", "many, false"})
+    void compiledAutomaton(String root, boolean compiled) throws Exception {
+        // the automaton is cached by the particle, the other models are left to the interpreter
+        SchemaParticle model = loader.findElement(new QName(NS, root)).getType().getContentModel();
+        Method m = SchemaParticleImpl.class.getDeclaredMethod("getContentModelAutomaton");
+        m.setAccessible(true);
+        assertEquals(compiled, m.invoke(model) != null);
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+        "seq    | a a b c d     | a=int, b=string, c=date, d=boolean",
+        "choice | member s1 e2  | member=string, s1=int, e2=string",
+        "all    | b a           | b=string, a=int",
+    })
+    void childTypes(String root, String children, String expected) throws XmlException {
+        // the types of the children are assigned by the visitor of the content model
+        XmlObject doc = parse(root, children);
+        List<String> actual = new ArrayList<>();
+        try (XmlCursor c = doc.newCursor()) {
+            c.toFirstChild();
+            for (boolean more = c.toFirstChild(); more; more = c.toNextSibling()) {
+                String name = c.getName().getLocalPart();
+                String entry = name + "=" + c.getObject().schemaType().getName().getLocalPart();
+                if (!actual.contains(entry)) {
+                    actual.add(entry);
+                }
+            }
+        }
+        assertEquals(expected, String.join(", ", actual));
+    }
+
+    private static XmlObject parse(String root, String children) throws XmlException {
+        StringBuilder sb = new StringBuilder("<c:" + root + " xmlns:c='" + NS + "' xmlns:x='urn:other'>");
+        if (children != null) {
+            for (String child : children.split(" +")) {
+                String name = child.contains(":") ? child : "c:" + child;
+                sb.append('<').append(name).append('>').append(value(child)).append("</").append(name).append('>');
+            }
+        }
+        sb.append("</c:").append(root).append('>');
+        return loader.parse(sb.toString(), null, null);
+    }
+
+    private static String value(String child) {
+        switch (child) {
+            case "c":
+                return "2024-01-31";
+            case "d":
+                return "true";
+            case "a":
+            case "e1":
+            case "s1":
+            case "s2":
+                return "1";
+            default:
+                return "text";
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*   Copyright 2004 The Apache Software Foundation
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package xmlobject.checkin;
+
+import com.easypo.XmlPurchaseOrderDocumentBean;
+import com.easypo.XmlPurchaseOrderDocumentBean.PurchaseOrder;
+import org.apache.xmlbeans.XmlCursor;
+import org.apache.xmlbeans.XmlString;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Copies between two synchronized documents in both directions at the same time,
+ * which deadlocks if the locale monitors aren't acquired in a stable order.
+ */
+public class CrossDocumentCopyTest {
+    private static final int THREADS = 8;
+    private static final int ITERATIONS = 2000;
+
+    @Test
+    void oppositeDirections() throws Exception {
+        final PurchaseOrder po1 = newOrder("one");
+        final PurchaseOrder po2 = newOrder("two");
+
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                final boolean forward = (i % 2 == 0);
+                final PurchaseOrder src = forward ? po1 : po2;
+                final PurchaseOrder dst = forward ? po2 : po1;
+                futures.add(pool.submit(() -> {
+                    for (int j = 0; j < ITERATIONS; j++) {
+                        // XmlObjectBase.set
+                        dst.getLineItemArray(0).set(src.getLineItemArray(1));
+                        // generatedSetterHelperImpl
+                        dst.setShipper(src.getShipper());
+                        // valueEquals / compareValue
+                        XmlString s1 = src.getLineItemArray(1).xgetDescription();
+                        XmlString s2 = dst.getLineItemArray(1).xgetDescription();
+                        assertFalse(s1.valueEquals(s2));
+                        assertNotEquals(0, s1.compareValue(s2));
+                        // Cursor.copyXml / removeXml
+                        try (XmlCursor sc = src.getCustomer().newCursor();
+                             XmlCursor dc = dst.getCustomer().newCursor()) {
+                            assertTrue(sc.toFirstChild());
+                            dc.toEndToken();
+                            assertTrue(sc.copyXml(dc));
+                        }
+                        try (XmlCursor rc = dst.getCustomer().newCursor()) {
+                            assertTrue(rc.toLastChild());
+                            assertTrue(rc.removeXml());
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> f : futures) {
+                f.get(2, TimeUnit.MINUTES);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals("one1", po2.getLineItemArray(0).getDescription());
+        assertEquals("two1", po1.getLineItemArray(0).getDescription());
+        assertNotNull(po1.getShipper().getName());
+        assertNotNull(po2.getShipper().getName());
+        assertEquals("one", po1.getCustomer().getName());
+        assertEquals("two", po2.getCustomer().getName());
+    }
+
+    private static PurchaseOrder newOrder(String name) {
+        PurchaseOrder po = XmlPurchaseOrderDocumentBean.Factory.newInstance().addNewPurchaseOrder();
+        po.addNewCustomer().setName(name);
+        for (int i = 0; i < 2; i++) {
+            po.addNewLineItem().setDescription(name + i);
+        }
+        po.addNewShipper().setName(name);
+        return po;
+    }
+}
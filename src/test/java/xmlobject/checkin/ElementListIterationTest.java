@@ -0,0 +1,99 @@
+/*   Copyright 2004 The Apache Software Foundation
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package xmlobject.checkin;
+
+import com.easypo.XmlLineItemBean;
+import com.easypo.XmlPurchaseOrderDocumentBean;
+import com.easypo.XmlPurchaseOrderDocumentBean.PurchaseOrder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ElementListIterationTest {
+    // more than one batch of the iterator
+    private static final int ITEMS = 500;
+
+    private PurchaseOrder order;
+
+    @BeforeEach
+    void setUp() {
+        XmlPurchaseOrderDocumentBean doc = XmlPurchaseOrderDocumentBean.Factory.newInstance();
+        order = doc.addNewPurchaseOrder();
+        order.addNewCustomer().setName("customer");
+        for (int i = 0; i < ITEMS; i++) {
+            order.addNewLineItem().setDescription(Integer.toString(i));
+        }
+        order.addNewShipper().setName("shipper");
+    }
+
+    @Test
+    void iterateInOrder() {
+        int i = 0;
+        for (XmlLineItemBean item : order.getLineItemList()) {
+            assertSame(order.getLineItemArray(i), item);
+            // text changes don't affect the iteration
+            item.setDescription("item " + i++);
+        }
+        assertEquals(ITEMS, i);
+        assertEquals("item 499", order.getLineItemArray(ITEMS - 1).getDescription());
+    }
+
+    @Test
+    void streams() {
+        List<String> sequential = order.getLineItemList().stream()
+            .map(XmlLineItemBean::getDescription).collect(Collectors.toList());
+        List<String> parallel = order.getLineItemList().parallelStream()
+            .map(XmlLineItemBean::getDescription).collect(Collectors.toList());
+
+        assertEquals(ITEMS, sequential.size());
+        assertEquals("0", sequential.get(0));
+        assertEquals("499", sequential.get(ITEMS - 1));
+        assertEquals(sequential, parallel);
+    }
+
+    @Test
+    void failFast() {
+        Iterator<XmlLineItemBean> it = order.getLineItemList().iterator();
+        it.next();
+        order.addNewLineItem();
+        assertThrows(ConcurrentModificationException.class, it::next);
+    }
+
+    @Test
+    void iteratorRemove() {
+        Iterator<XmlLineItemBean> it = order.getLineItemList().iterator();
+        int i = 0;
+        while (it.hasNext()) {
+            it.next();
+            // remove every other item, including the last ones of the batches
+            if (i++ % 2 == 1) {
+                it.remove();
+            }
+        }
+        assertThrows(IllegalStateException.class, it::remove);
+
+        assertEquals(ITEMS / 2, order.sizeOfLineItemArray());
+        for (int j = 0; j < ITEMS / 2; j++) {
+            assertEquals(Integer.toString(j * 2), order.getLineItemArray(j).getDescription());
+        }
+    }
+}
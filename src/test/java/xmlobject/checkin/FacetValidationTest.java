@@ -0,0 +1,111 @@
+/*   Copyright 2004 The Apache Software Foundation
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package xmlobject.checkin;
+
+import org.apache.xmlbeans.*;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class FacetValidationTest {
+    private static final String SCHEMA =
+        "<xs:schema xmlns:xs='http://www.w3.org/2001/XMLSchema' xmlns:t='urn:facets'" +
+        "    targetNamespace='urn:facets' elementFormDefault='qualified'>" +
+        "  <xs:simpleType name='code'>" +
+        "    <xs:restriction base='xs:string'><xs:pattern value='[A-Z]+\\d*'/><xs:maxLength value='6'/></xs:restriction>" +
+        "  </xs:simpleType>" +
+        "  <xs:simpleType name='shortCode'>" +
+        "    <xs:restriction base='t:code'><xs:pattern value='.{2,3}'/></xs:restriction>" +
+        "  </xs:simpleType>" +
+        "  <xs:simpleType name='color'>" +
+        "    <xs:restriction base='xs:string'>" +
+        "      <xs:enumeration value='red'/><xs:enumeration value='green'/><xs:enumeration value='blue'/>" +
+        "    </xs:restriction>" +
+        "  </xs:simpleType>" +
+        "  <xs:simpleType name='size'>" +
+        "    <xs:restriction base='xs:int'>" +
+        "      <xs:enumeration value='36'/><xs:enumeration value='-4'/><xs:enumeration value='1000'/>" +
+        "    </xs:restriction>" +
+        "  </xs:simpleType>" +
+        "  <xs:simpleType name='amount'>" +
+        "    <xs:restriction base='xs:long'><xs:minExclusive value='0'/><xs:maxInclusive value='10000000000'/></xs:restriction>" +
+        "  </xs:simpleType>" +
+        "  <xs:simpleType name='price'>" +
+        "    <xs:restriction base='xs:decimal'>" +
+        "      <xs:totalDigits value='5'/><xs:fractionDigits value='2'/>" +
+        "      <xs:enumeration value='1.5'/><xs:enumeration value='99.99'/><xs:enumeration value='0.1'/>" +
+        "    </xs:restriction>" +
+        "  </xs:simpleType>" +
+        "  <xs:element name='code' type='t:code'/>" +
+        "  <xs:element name='shortCode' type='t:shortCode'/>" +
+        "  <xs:element name='color' type='t:color'/>" +
+        "  <xs:element name='size' type='t:size'/>" +
+        "  <xs:element name='amount' type='t:amount'/>" +
+        "  <xs:element name='price' type='t:price'/>" +
+        "</xs:schema>";
+
+    private static SchemaTypeLoader stl;
+
+    @BeforeAll
+    static void compileSchema() throws XmlException {
+        stl = XmlBeans.loadXsd(XmlObject.Factory.parse(SCHEMA));
+    }
+
+    @ParameterizedTest
+    @CsvSource({
+        "code, ABC12, ",
+        "code, abc, " + XmlErrorCodes.DATATYPE_VALID$PATTERN_VALID,
+        "code, ABCDEFG, " + XmlErrorCodes.DATATYPE_MAX_LENGTH_VALID$STRING,
+        "shortCode, AB, ",
+        "shortCode, ABCD, " + XmlErrorCodes.DATATYPE_VALID$PATTERN_VALID,
+        "shortCode, a1, " + XmlErrorCodes.DATATYPE_VALID$PATTERN_VALID,
+        "color, green, ",
+        "color, Green, " + XmlErrorCodes.DATATYPE_ENUM_VALID,
+        "size, -4, ",
+        "size, 1000, ",
+        "size, 37, " + XmlErrorCodes.DATATYPE_ENUM_VALID,
+        "amount, 10000000000, ",
+        "amount, 0, " + XmlErrorCodes.DATATYPE_MIN_EXCLUSIVE_VALID,
+        "amount, 10000000001, " + XmlErrorCodes.DATATYPE_MAX_INCLUSIVE_VALID,
+        "price, 99.99, ",
+        "price, 1.50, ",
+        "price, 0.10, ",
+        "price, 1.55, " + XmlErrorCodes.DATATYPE_ENUM_VALID,
+        "price, 1.555, " + XmlErrorCodes.DATATYPE_FRACTION_DIGITS_VALID,
+        "price, 12345.6, " + XmlErrorCodes.DATATYPE_TOTAL_DIGITS_VALID,
+    })
+    void facets(String element, String value, String expectedCode) throws XmlException {
+        XmlObject doc = stl.parse("<t:" + element + " xmlns:t='urn:facets'>" + value + "</t:" + element + ">", null, null);
+
+        // twice, to validate against the facets cached by the type as well
+        for (int i = 0; i < 2; i++) {
+            List<XmlError> errors = new ArrayList<>();
+            doc.validate(new XmlOptions().setErrorListener(errors));
+
+            if (expectedCode == null) {
+                assertEquals(0, errors.size(), errors.toString());
+            } else {
+                assertEquals(1, errors.size(), errors.toString());
+                assertEquals(expectedCode, errors.get(0).getErrorCode());
+            }
+        }
+    }
+}
@@ -0,0 +1,211 @@
+/*   Copyright 2004 The Apache Software Foundation
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package xmlobject.checkin;
+
+import com.easypo.XmlLineItemBean;
+import com.easypo.XmlPurchaseOrderDocumentBean;
+import com.easypo.XmlPurchaseOrderDocumentBean.PurchaseOrder;
+import org.apache.xmlbeans.XmlCursor;
+import org.apache.xmlbeans.XmlError;
+import org.apache.xmlbeans.XmlException;
+import org.apache.xmlbeans.XmlObject;
+import org.apache.xmlbeans.XmlOptions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Field;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IncrementalValidateTest {
+    private static final String PO_NS = "declare namespace po='http://openuri.org/easypo' ";
+    private static final int ITEMS = 50;
+
+    private XmlPurchaseOrderDocumentBean doc;
+
+    @BeforeEach
+    void setUp() throws XmlException {
+        StringBuilder sb = new StringBuilder(
+            "<purchase-order xmlns='http://openuri.org/easypo'>" +
+            "<customer age='42'><name>Gladys</name><address>Anytown</address></customer>" +
+            "<date>2003-01-07T14:16:00-05:00</date>");
+        for (int i = 0; i < ITEMS; i++) {
+            sb.append("<line-item><description>item ").append(i).append("</description>")
+                .append("<per-unit-ounces>").append(i).append(".5</per-unit-ounces>")
+                .append("<price>").append(i).append(".25</price>")
+                .append("<quantity>").append(i).append("</quantity></line-item>");
+        }
+        sb.append("<shipper><name>ZipShip</name><per-ounce-rate>0.74</per-ounce-rate></shipper></purchase-order>");
+
+        doc = XmlPurchaseOrderDocumentBean.Factory.parse(sb.toString());
+        assertSameResult(doc);
+    }
+
+    @Test
+    void changedText() {
+        PurchaseOrder po = doc.getPurchaseOrder();
+        try (XmlCursor c = po.getLineItemArray(7).xgetPrice().newCursor()) {
+            c.setTextValue("cheap");
+        }
+        assertFalse(assertSameResult(doc));
+
+        try (XmlCursor c = po.getLineItemArray(7).xgetPrice().newCursor()) {
+            c.setTextValue("1.00");
+        }
+        assertTrue(assertSameResult(doc));
+    }
+
+    @Test
+    void unchangedSubtreesSkipped() throws Exception {
+        Map<Object, Object> records = validSubtrees(doc);
+        assertTrue(records.size() > ITEMS, records.toString());
+        Map<Object, Object> valid = new HashMap<>(records);
+
+        // the change drops the records of the price and its ancestors ...
+        try (XmlCursor c = doc.getPurchaseOrder().getLineItemArray(7).xgetPrice().newCursor()) {
+            c.setTextValue("cheap");
+        }
+        assertTrue(records.size() < valid.size());
+        assertFalse(doc.validate(new XmlOptions().setValidateIncremental()));
+
+        // ... so the subtrees are validated again - with the old records, they are skipped
+        records.putAll(valid);
+        assertTrue(doc.validate(new XmlOptions().setValidateIncremental()));
+        assertFalse(doc.validate());
+    }
+
+    @Test
+    void changedAttribute() {
+        XmlObject age = doc.getPurchaseOrder().getCustomer().xgetAge();
+        try (XmlCursor c = age.newCursor()) {
+            c.setTextValue("old");
+        }
+        assertFalse(assertSameResult(doc));
+
+        doc.getPurchaseOrder().getCustomer().setAge(43);
+        assertTrue(assertSameResult(doc));
+        assertEquals(43, doc.getPurchaseOrder().getCustomer().getAge());
+    }
+
+    @Test
+    void changedStructure() {
+        PurchaseOrder po = doc.getPurchaseOrder();
+
+        // a line item in the wrong place
+        try (XmlCursor c = po.getShipper().newCursor()) {
+            c.toEndToken();
+            c.toNextToken();
+            c.insertElement("line-item", "http://openuri.org/easypo");
+        }
+        assertFalse(assertSameResult(doc));
+
+        XmlObject[] items = po.selectPath(PO_NS + "po:line-item");
+        assertEquals(ITEMS + 1, items.length);
+        try (XmlCursor c = items[ITEMS].newCursor()) {
+            c.removeXml();
+        }
+        assertTrue(assertSameResult(doc));
+
+        // a missing required element
+        po.unsetShipper();
+        po.getCustomer().setNil();
+        assertFalse(assertSameResult(doc));
+    }
+
+    @Test
+    void movedSubtree() {
+        PurchaseOrder po = doc.getPurchaseOrder();
+
+        // a line item before the customer
+        try (XmlCursor from = po.getLineItemArray(3).newCursor();
+             XmlCursor to = po.getCustomer().newCursor()) {
+            from.moveXml(to);
+        }
+        assertFalse(assertSameResult(doc));
+
+        // and back behind the date
+        try (XmlCursor from = po.newCursor();
+             XmlCursor to = po.xgetDate().newCursor()) {
+            assertTrue(from.toFirstChild());
+            to.toEndToken();
+            to.toNextToken();
+            from.moveXml(to);
+        }
+        assertTrue(assertSameResult(doc));
+        assertEquals("item 3", po.getLineItemArray(0).getDescription());
+    }
+
+    @Test
+    void subtreeValidation() {
+        PurchaseOrder po = doc.getPurchaseOrder();
+        XmlLineItemBean item = po.getLineItemArray(10);
+
+        // the records of the document are not used for the validation of a subtree and vice versa
+        assertTrue(assertSameResult(item));
+        item.setQuantity(BigInteger.valueOf(-1));
+        assertTrue(assertSameResult(item));
+        try (XmlCursor c = item.xgetQuantity().newCursor()) {
+            c.setTextValue("many");
+        }
+        assertFalse(assertSameResult(item));
+        assertFalse(assertSameResult(po));
+        assertFalse(assertSameResult(doc));
+    }
+
+    /**
+     * Validates the object incrementally twice and compares the errors with the ones of a full validation
+     *
+     * @return the result of the validation
+     */
+    private static boolean assertSameResult(XmlObject xo) {
+        List<XmlError> expected = new ArrayList<>();
+        boolean valid = xo.validate(new XmlOptions().setErrorListener(expected));
+
+        for (int i = 0; i < 2; i++) {
+            List<XmlError> errors = new ArrayList<>();
+            assertEquals(valid, xo.validate(new XmlOptions().setValidateIncremental().setErrorListener(errors)));
+            assertEquals(messages(expected), messages(errors));
+        }
+
+        return valid;
+    }
+
+    /**
+     * @return the elements, which subtrees have been found valid by an incremental validation
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<Object, Object> validSubtrees(XmlObject xo) throws ReflectiveOperationException {
+        Object locale = xo.monitor();
+        Field subtreesField = locale.getClass().getDeclaredField("_validSubtrees");
+        subtreesField.setAccessible(true);
+        Object subtrees = subtreesField.get(locale);
+        assertNotNull(subtrees);
+        Field validField = subtrees.getClass().getDeclaredField("_valid");
+        validField.setAccessible(true);
+        return (Map<Object, Object>) validField.get(subtrees);
+    }
+
+    private static List<String> messages(List<XmlError> errors) {
+        return errors.stream().map(e -> e.getMessage() + " @ " + e.getCursorLocation().xmlText())
+            .collect(Collectors.toList());
+    }
+}
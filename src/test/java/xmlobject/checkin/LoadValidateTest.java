@@ -0,0 +1,139 @@
+/*   Copyright 2004 The Apache Software Foundation
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package xmlobject.checkin;
+
+import com.easypo.XmlPurchaseOrderDocumentBean;
+import org.apache.xmlbeans.XmlError;
+import org.apache.xmlbeans.XmlException;
+import org.apache.xmlbeans.XmlObject;
+import org.apache.xmlbeans.XmlOptions;
+import org.junit.jupiter.api.Test;
+
+import javax.xml.stream.XMLInputFactory;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LoadValidateTest {
+    private static final String VALID =
+        "<purchase-order xmlns='http://openuri.org/easypo'>" +
+        "<customer age='42'><name>Gladys</name><address>Anytown</address></customer>" +
+        "<date>2003-01-07T14:16:00-05:00</date>" +
+        "<line-item><description>item</description><per-unit-ounces>1.5</per-unit-ounces>" +
+        "<price>2.25</price><quantity>3</quantity></line-item>" +
+        "<!-- comment --><shipper><name>ZipShip</name><per-ounce-rate>0.74</per-ounce-rate></shipper>" +
+        "</purchase-order>";
+
+    private static final String INVALID =
+        "<purchase-order xmlns='http://openuri.org/easypo'>" +
+        "<customer age='x' poo='300'>junk<name>Gladys</name></customer>" +
+        "<date>yesterday</date>" +
+        "<line-item><description>item</description><per-unit-ounces>1.5</per-unit-ounces>" +
+        "<price>a<!-- split -->bc</price><quantity>3</quantity></line-item>" +
+        "<shipper><name>ZipShip</name><per-ounce-rate>0.74</per-ounce-rate></shipper>" +
+        "<bogus/></purchase-order>";
+
+    @Test
+    void validDocument() throws XmlException {
+        List<XmlError> errors = new ArrayList<>();
+        XmlObject doc = XmlObject.Factory.parse(VALID, new XmlOptions().setLoadValidate().setErrorListener(errors));
+        assertTrue(doc instanceof XmlPurchaseOrderDocumentBean);
+        assertTrue(errors.isEmpty(), errors.toString());
+    }
+
+    @Test
+    void sameErrorsAsValidate() throws Exception {
+        List<String> expected = validateAfterLoad(INVALID);
+        assertTrue(expected.size() >= 5, expected.toString());
+
+        List<XmlError> errors = new ArrayList<>();
+        XmlException e = assertThrows(XmlException.class, () ->
+            XmlObject.Factory.parse(INVALID, new XmlOptions().setLoadValidate().setErrorListener(errors)));
+        assertEquals(expected, messages(errors));
+        assertEquals(expected, messages(e.getErrors()));
+
+        // the same for the stream reader
+        List<XmlError> streamErrors = new ArrayList<>();
+        assertThrows(XmlException.class, () ->
+            XmlObject.Factory.parse(XMLInputFactory.newInstance().createXMLStreamReader(new StringReader(INVALID)),
+                new XmlOptions().setLoadValidate().setErrorListener(streamErrors)));
+        assertEquals(expected, messages(streamErrors));
+    }
+
+    @Test
+    void errorLimit() throws Exception {
+        List<String> expected = validateAfterLoad(INVALID);
+
+        List<XmlError> errors = new ArrayList<>();
+        XmlException e = assertThrows(XmlException.class, () ->
+            XmlObject.Factory.parse(INVALID, new XmlOptions().setLoadValidate().setLoadValidateErrorLimit(1)
+                .setErrorListener(errors)));
+        assertEquals(1, errors.size());
+        assertEquals(expected.get(0), errors.get(0).getMessage());
+        assertEquals(1, e.getErrors().size());
+    }
+
+    @Test
+    void validatedWhileLoading() throws Exception {
+        // the error at the end is reported before the parser reaches the missing end tag, so
+        // the whole document has been validated while it was loaded
+        String invalid = VALID.replace("<per-ounce-rate>0.74<", "<per-ounce-rate>x<");
+        List<String> expected = validateAfterLoad(invalid);
+        assertEquals(1, expected.size());
+
+        String truncated = invalid.substring(0, invalid.lastIndexOf("</purchase-order>"));
+        XmlException e = assertThrows(XmlException.class, () ->
+            XmlObject.Factory.parse(truncated, new XmlOptions().setLoadValidate().setLoadValidateErrorLimit(1)));
+        assertEquals(expected, messages(e.getErrors()));
+
+        // without the validation, it's the parse error
+        XmlException parseError = assertThrows(XmlException.class, () -> XmlObject.Factory.parse(truncated));
+        assertNotEquals(expected, messages(parseError.getErrors()));
+    }
+
+    @Test
+    void validatedAfterLoad() throws Exception {
+        // whitespace stripping changes the text after it's loaded, so it's validated afterwards
+        List<String> expected = validateAfterLoad(INVALID);
+
+        List<XmlError> errors = new ArrayList<>();
+        assertThrows(XmlException.class, () ->
+            XmlObject.Factory.parse(INVALID, new XmlOptions().setLoadValidate().setLoadStripWhitespace()
+                .setErrorListener(errors)));
+        assertEquals(expected, messages(errors));
+
+        // with the same error limit
+        List<XmlError> limitedErrors = new ArrayList<>();
+        assertThrows(XmlException.class, () ->
+            XmlObject.Factory.parse(INVALID, new XmlOptions().setLoadValidate().setLoadStripWhitespace()
+                .setLoadValidateErrorLimit(1).setErrorListener(limitedErrors)));
+        assertEquals(expected.subList(0, 1), messages(limitedErrors));
+    }
+
+    private static List<String> validateAfterLoad(String xml) throws XmlException {
+        List<XmlError> errors = new ArrayList<>();
+        assertFalse(XmlObject.Factory.parse(xml).validate(new XmlOptions().setErrorListener(errors)));
+        return messages(errors);
+    }
+
+    private static List<String> messages(Collection<XmlError> errors) {
+        return errors.stream().map(XmlError::getMessage).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,160 @@
+/*   Copyright 2004 The Apache Software Foundation
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package xmlobject.checkin;
+
+import org.apache.xmlbeans.*;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ParallelValidationTest {
+    private static final String SCHEMA =
+        "<xs:schema xmlns:xs='http://www.w3.org/2001/XMLSchema' xmlns:t='urn:parallel'" +
+        "    targetNamespace='urn:parallel' elementFormDefault='qualified'>" +
+        "  <xs:element name='items'>" +
+        "    <xs:complexType><xs:sequence>" +
+        "      <xs:element name='item' type='t:item' maxOccurs='unbounded'/>" +
+        "      <xs:element name='total' type='xs:int'/>" +
+        "    </xs:sequence></xs:complexType>" +
+        "  </xs:element>" +
+        "  <xs:element name='keyed'>" +
+        "    <xs:complexType><xs:sequence>" +
+        "      <xs:element name='item' type='t:item' maxOccurs='unbounded'/>" +
+        "    </xs:sequence></xs:complexType>" +
+        "    <xs:key name='itemKey'><xs:selector xpath='t:item'/><xs:field xpath='t:qty'/></xs:key>" +
+        "  </xs:element>" +
+        "  <xs:complexType name='item'>" +
+        "    <xs:sequence>" +
+        "      <xs:element name='qty' type='xs:int'/>" +
+        "      <xs:element name='note' type='xs:string' minOccurs='0'/>" +
+        "    </xs:sequence>" +
+        "    <xs:attribute name='id' type='xs:ID'/>" +
+        "    <xs:attribute name='ref' type='xs:IDREF'/>" +
+        "  </xs:complexType>" +
+        "</xs:schema>";
+
+    private static final int ITEMS = 500;
+
+    private static SchemaTypeLoader stl;
+
+    @BeforeAll
+    static void compileSchema() throws XmlException {
+        stl = XmlBeans.loadXsd(XmlObject.Factory.parse(SCHEMA));
+    }
+
+    @Test
+    void validDocument() throws XmlException {
+        XmlObject doc = parse(items(i -> "<t:item id='i" + i + "' ref='i" + (ITEMS - 1 - i) + "'><t:qty>" + i + "</t:qty></t:item>"));
+
+        assertTrue(doc.validate(new XmlOptions().setValidateParallel()));
+        assertTrue(validate(doc, true).isEmpty());
+    }
+
+    @Test
+    void sameErrorsAsSequential() throws XmlException {
+        XmlObject doc = parse(items(i -> {
+            switch (i % 97) {
+                case 3:
+                    return "<t:item><t:qty>no number</t:qty></t:item>";
+                case 10:
+                    return "<t:item unknown='x'><t:qty>1</t:qty></t:item>";
+                case 20:
+                    return "<t:item><t:note>missing qty</t:note></t:item>";
+                case 30:
+                    return "<t:item><t:qty>1</t:qty>text<t:note/></t:item>";
+                case 40:
+                    return "<t:unknown/>";
+                case 50:
+                    return "<t:item xmlns:p='urn:parallel' xsi:type='p:undefined'><t:qty>1</t:qty></t:item>";
+                case 60:
+                    return "<t:item ref='nowhere'><t:qty>1</t:qty></t:item>";
+                case 70:
+                    // duplicate within the same chunk
+                    return "<t:item id='dup" + i + "'><t:qty>1</t:qty></t:item><t:item id='dup" + i + "'><t:qty>2</t:qty></t:item>";
+                default:
+                    return "<t:item id='i" + i + "'><t:qty>" + i + "</t:qty></t:item>";
+            }
+        }));
+
+        List<XmlError> sequential = validate(doc, false);
+        List<XmlError> parallel = validate(doc, true);
+
+        assertFalse(doc.validate(new XmlOptions().setValidateParallel()));
+        assertFalse(sequential.isEmpty());
+        assertEquals(describe(sequential), describe(parallel));
+    }
+
+    @Test
+    void duplicateIdsAcrossChildren() throws XmlException {
+        XmlObject doc = parse(items(i -> "<t:item id='" + (i == 0 || i == ITEMS - 1 ? "dup" : "i" + i) + "'><t:qty>1</t:qty></t:item>"));
+
+        List<XmlError> errors = validate(doc, true);
+        assertEquals(1, errors.size());
+        assertEquals(XmlErrorCodes.ID_VALID$DUPLICATE, errors.get(0).getErrorCode());
+        assertNotNull(errors.get(0).getCursorLocation());
+    }
+
+    @Test
+    void identityConstraintsValidatedSequentially() throws XmlException {
+        StringBuilder sb = new StringBuilder("<t:keyed xmlns:t='urn:parallel'>\n");
+        for (int i = 0; i < ITEMS; i++) {
+            sb.append("<t:item><t:qty>").append(i == 400 ? 7 : i).append("</t:qty></t:item>\n");
+        }
+        sb.append("</t:keyed>");
+        XmlObject doc = parse(sb.toString());
+
+        List<XmlError> sequential = validate(doc, false);
+        assertEquals(1, sequential.size());
+        assertEquals(XmlErrorCodes.IDENTITY_CONSTRAINT_VALID$DUPLICATE_KEY, sequential.get(0).getErrorCode());
+        assertEquals(describe(sequential), describe(validate(doc, true)));
+    }
+
+    private interface ItemFactory {
+        String item(int i);
+    }
+
+    private static String items(ItemFactory items) {
+        StringBuilder sb = new StringBuilder(
+            "<t:items xmlns:t='urn:parallel' xmlns:xsi='http://www.w3.org/2001/XMLSchema-instance'>\n");
+        for (int i = 0; i < ITEMS; i++) {
+            sb.append(items.item(i)).append('\n');
+        }
+        sb.append("<t:total>").append(ITEMS).append("</t:total>\n</t:items>");
+        return sb.toString();
+    }
+
+    private static XmlObject parse(String xml) throws XmlException {
+        return stl.parse(xml, null, new XmlOptions().setLoadLineNumbers());
+    }
+
+    private static List<XmlError> validate(XmlObject doc, boolean parallel) {
+        List<XmlError> errors = new ArrayList<>();
+        doc.validate(new XmlOptions().setErrorListener(errors).setValidateParallel(parallel));
+        return errors;
+    }
+
+    private static List<String> describe(List<XmlError> errors) {
+        List<String> list = new ArrayList<>();
+        for (XmlError e : errors) {
+            list.add(e.getLine() + ":" + e.getColumn() + " " + e.getErrorCode() + " " + e.getMessage());
+        }
+        return list;
+    }
+}
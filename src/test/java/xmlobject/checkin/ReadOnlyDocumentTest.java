@@ -0,0 +1,178 @@
+/*   Copyright 2004 The Apache Software Foundation
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package xmlobject.checkin;
+
+import com.easypo.XmlCustomerBean;
+import com.easypo.XmlLineItemBean;
+import com.easypo.XmlPurchaseOrderDocumentBean;
+import com.easypo.XmlPurchaseOrderDocumentBean.PurchaseOrder;
+import org.apache.xmlbeans.XmlCursor;
+import org.apache.xmlbeans.XmlException;
+import org.apache.xmlbeans.XmlObject;
+import org.apache.xmlbeans.XmlOptions;
+import org.apache.xmlbeans.impl.values.XmlValueOutOfRangeException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReadOnlyDocumentTest {
+    // more than the threshold of the child element index
+    private static final int ITEMS = 200;
+
+    private XmlPurchaseOrderDocumentBean doc;
+
+    @BeforeEach
+    void setUp() throws XmlException {
+        StringBuilder sb = new StringBuilder(
+            "<purchase-order xmlns='http://openuri.org/easypo'>" +
+            "<customer age='42'><name>Gladys</name><address>Anytown</address></customer>" +
+            "<date>2003-01-07T14:16:00-05:00</date>");
+        for (int i = 0; i < ITEMS; i++) {
+            sb.append("<line-item><description>item ").append(i).append("</description>")
+                .append("<per-unit-ounces>").append(i).append(".5</per-unit-ounces>")
+                .append("<price>").append(i).append(".25</price>")
+                .append("<quantity>").append(i).append("</quantity></line-item>");
+        }
+        sb.append("<shipper><name>ZipShip</name><per-ounce-rate>0.74</per-ounce-rate></shipper></purchase-order>");
+
+        doc = XmlPurchaseOrderDocumentBean.Factory.parse(sb.toString(), new XmlOptions().setLoadReadOnly());
+    }
+
+    @Test
+    void typedGetters() {
+        PurchaseOrder po = doc.getPurchaseOrder();
+        XmlCustomerBean customer = po.getCustomer();
+        assertEquals("Gladys", customer.getName());
+        assertEquals(42, customer.getAge());
+        // default and fixed attribute values
+        assertEquals(100, customer.getMoo());
+        assertEquals(200, customer.getPoo());
+        assertEquals(ITEMS, po.sizeOfLineItemArray());
+        assertEquals(new BigDecimal("199.25"), po.getLineItemArray(ITEMS - 1).getPrice());
+        assertEquals(ITEMS, po.getLineItemList().size());
+        assertEquals("ZipShip", po.getShipper().getName());
+    }
+
+    @Test
+    void concurrentReads() throws Exception {
+        PurchaseOrder po = doc.getPurchaseOrder();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<BigInteger>> results = new ArrayList<>();
+            for (int t = 0; t < 16; t++) {
+                final int offset = t;
+                results.add(pool.submit(() -> {
+                    BigInteger sum = BigInteger.ZERO;
+                    for (int n = 0; n < 20; n++) {
+                        // random access from different positions, so the threads share the child index
+                        for (int i = 0; i < ITEMS; i++) {
+                            XmlLineItemBean item = po.getLineItemArray((i + offset * 13) % ITEMS);
+                            assertEquals("item " + item.getQuantity(), item.getDescription());
+                            sum = sum.add(item.getQuantity());
+                        }
+                        assertEquals(ITEMS, po.getLineItemArray().length);
+                        assertEquals("Gladys", po.getCustomer().getName());
+                    }
+                    return sum;
+                }));
+            }
+            BigInteger expected = BigInteger.valueOf(20L * ITEMS * (ITEMS - 1) / 2);
+            for (Future<BigInteger> result : results) {
+                assertEquals(expected, result.get());
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void mutatorsThrow() {
+        PurchaseOrder po = doc.getPurchaseOrder();
+        XmlCustomerBean customer = po.getCustomer();
+
+        assertThrows(IllegalStateException.class, () -> customer.setName("Fred"));
+        assertThrows(IllegalStateException.class, () -> customer.setAge(7));
+        assertThrows(IllegalStateException.class, customer::unsetAge);
+        assertThrows(IllegalStateException.class, po::addNewLineItem);
+        assertThrows(IllegalStateException.class, () -> po.removeLineItem(0));
+        assertThrows(IllegalStateException.class, po::unsetShipper);
+
+        try (XmlCursor c = customer.newCursor()) {
+            assertTrue(c.toFirstChild());
+            assertThrows(IllegalStateException.class, () -> c.insertElement("foo"));
+            assertThrows(IllegalStateException.class, c::removeXml);
+            assertThrows(IllegalStateException.class, () -> c.setTextValue("Fred"));
+        }
+
+        // nothing has been changed
+        assertEquals("Gladys", customer.getName());
+        assertEquals(42, customer.getAge());
+        assertEquals(ITEMS, po.sizeOfLineItemArray());
+        assertTrue(doc.validate());
+    }
+
+    @Test
+    void readsWithCursorsAndCopies() {
+        PurchaseOrder po = doc.getPurchaseOrder();
+
+        try (XmlCursor c = po.newCursor()) {
+            assertTrue(c.toChild(2));
+            assertEquals("item 0", ((XmlLineItemBean) c.getObject()).getDescription());
+        }
+        XmlObject[] prices = po.selectPath("declare namespace po='http://openuri.org/easypo' po:line-item/po:price");
+        assertEquals(ITEMS, prices.length);
+        assertTrue(doc.xmlText().contains("ZipShip"));
+
+        // copies can be changed
+        XmlPurchaseOrderDocumentBean copy = (XmlPurchaseOrderDocumentBean) doc.copy();
+        copy.getPurchaseOrder().getCustomer().setName("Fred");
+        copy.getPurchaseOrder().addNewLineItem().setDescription("new");
+        assertEquals("Fred", copy.getPurchaseOrder().getCustomer().getName());
+        assertEquals(ITEMS + 1, copy.getPurchaseOrder().sizeOfLineItemArray());
+        assertEquals("Gladys", po.getCustomer().getName());
+    }
+
+    @Test
+    void invalidValueFailsLoad() throws XmlException {
+        String xml = "<purchase-order xmlns='http://openuri.org/easypo'><customer age='old'/></purchase-order>";
+        XmlPurchaseOrderDocumentBean.Factory.parse(xml);
+        assertThrows(XmlValueOutOfRangeException.class, () ->
+            XmlPurchaseOrderDocumentBean.Factory.parse(xml, new XmlOptions().setLoadReadOnly()));
+    }
+
+    @Test
+    void sharedLocaleNeedsLock() throws XmlException {
+        String xml = "<purchase-order xmlns='http://openuri.org/easypo'/>";
+
+        XmlObject synced = XmlObject.Factory.parse("<a/>");
+        assertThrows(IllegalArgumentException.class, () -> XmlPurchaseOrderDocumentBean.Factory.parse(xml,
+            new XmlOptions().setLoadReadOnly().setUseSameLocale(synced)));
+
+        XmlObject locked = XmlObject.Factory.parse("<a/>", new XmlOptions().setUseReentrantLock());
+        XmlPurchaseOrderDocumentBean shared = XmlPurchaseOrderDocumentBean.Factory.parse(xml,
+            new XmlOptions().setLoadReadOnly().setUseSameLocale(locked));
+        assertThrows(IllegalStateException.class, shared.getPurchaseOrder()::addNewCustomer);
+    }
+}
@@ -0,0 +1,124 @@
+/*   Copyright 2004 The Apache Software Foundation
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package xmlobject.checkin;
+
+import com.easypo.XmlLineItemBean;
+import com.easypo.XmlPurchaseOrderDocumentBean;
+import org.apache.xmlbeans.XmlBeans;
+import org.apache.xmlbeans.XmlCursor;
+import org.apache.xmlbeans.XmlObject;
+import org.junit.jupiter.api.Test;
+
+import javax.xml.namespace.QName;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class StreamElementsTest {
+    private static final String PO_NS = "http://openuri.org/easypo";
+    private static final QName LINE_ITEM = new QName(PO_NS, "line-item");
+    private static final QName PURCHASE_ORDER = new QName(PO_NS, "purchase-order");
+
+    private static InputStream lineItems(int count) {
+        StringBuilder sb = new StringBuilder();
+        // the prefix is declared on the ancestors of the streamed elements
+        sb.append("<batch xmlns:po='" + PO_NS + "'><orders><po:purchase-order>");
+        sb.append("<po:customer><po:name>Gladys Kravitz</po:name><po:address>Anytown, PA</po:address></po:customer>");
+        sb.append("<po:date>2003-01-07T14:16:00-05:00</po:date>");
+        for (int i = 0; i < count; i++) {
+            sb.append("<po:line-item><po:description>item ").append(i).append("</po:description>");
+            sb.append("<po:per-unit-ounces>1.5</po:per-unit-ounces><po:price>2.5</po:price>");
+            sb.append("<po:quantity>").append(i).append("</po:quantity></po:line-item>");
+        }
+        sb.append("</po:purchase-order></orders></batch>");
+        return new ByteArrayInputStream(sb.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void typedFragments() throws Exception {
+        try (Stream<XmlObject> items = XmlBeans.streamElements(lineItems(100), LINE_ITEM, XmlLineItemBean.type)) {
+            Iterator<XmlObject> it = items.iterator();
+            for (int i = 0; i < 100; i++) {
+                assertTrue(it.hasNext());
+                XmlObject xo = it.next();
+                assertInstanceOf(XmlLineItemBean.class, xo);
+                XmlLineItemBean li = (XmlLineItemBean) xo;
+                assertEquals("item " + i, li.getDescription());
+                assertEquals(BigInteger.valueOf(i), li.getQuantity());
+                assertTrue(li.validate());
+            }
+            assertFalse(it.hasNext());
+        }
+    }
+
+    @Test
+    void documentType() throws Exception {
+        String batch =
+            "<batch xmlns='" + PO_NS + "'>" +
+            "<purchase-order><customer><name>a</name><address>x</address></customer><date>2003-01-07T14:16:00-05:00</date></purchase-order>" +
+            "<purchase-order><customer><name>b</name><address>y</address></customer><date>2003-01-07T14:16:00-05:00</date></purchase-order>" +
+            "</batch>";
+        InputStream is = new ByteArrayInputStream(batch.getBytes(StandardCharsets.UTF_8));
+        try (Stream<XmlObject> docs = XmlBeans.streamElements(is, PURCHASE_ORDER, XmlPurchaseOrderDocumentBean.type)) {
+            List<String> names = docs
+                .map(xo -> ((XmlPurchaseOrderDocumentBean) xo).getPurchaseOrder().getCustomer().getName())
+                .collect(Collectors.toList());
+            assertEquals(2, names.size());
+            assertEquals("a", names.get(0));
+            assertEquals("b", names.get(1));
+        }
+    }
+
+    @Test
+    void untypedAndIndependent() throws Exception {
+        try (Stream<XmlObject> items = XmlBeans.streamElements(lineItems(3), LINE_ITEM, null)) {
+            List<XmlObject> list = items.collect(Collectors.toList());
+            assertEquals(3, list.size());
+
+            try (XmlCursor c = list.get(1).newCursor()) {
+                assertTrue(c.toFirstChild());
+                assertEquals(LINE_ITEM, c.getName());
+                // the prefix of the ancestors is available in the fragment
+                assertEquals(PO_NS, c.namespaceForPrefix("po"));
+                assertFalse(c.toNextSibling());
+            }
+
+            // each element is a document on its own
+            try (XmlCursor c = list.get(0).newCursor()) {
+                assertTrue(c.toFirstChild());
+                c.removeXml();
+            }
+            try (XmlCursor c = list.get(2).newCursor()) {
+                assertTrue(c.toFirstChild());
+                assertEquals(LINE_ITEM, c.getName());
+            }
+        }
+    }
+
+    @Test
+    void noMatch() throws Exception {
+        try (Stream<XmlObject> items = XmlBeans.streamElements(lineItems(3), new QName("urn:none", "x"), null)) {
+            assertEquals(0, items.count());
+        }
+    }
+}
@@ -0,0 +1,85 @@
+/*   Copyright 2004 The Apache Software Foundation
+ *
+ *   Licensed under the Apache License, Version 2.0 (the "License");
+ *   you may not use this file except in compliance with the License.
+ *   You may obtain a copy of the License at
+ *
+ *       http://www.apache.org/licenses/LICENSE-2.0
+ *
+ *   Unless required by applicable law or agreed to in writing, software
+ *   distributed under the License is distributed on an "AS IS" BASIS,
+ *   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ *   See the License for the specific language governing permissions and
+ *  limitations under the License.
+ */
+
+package xmlobject.checkin;
+
+import org.apache.xmlbeans.XmlException;
+import org.apache.xmlbeans.XmlObject;
+import org.apache.xmlbeans.XmlOptions;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class Utf8SaveTest {
+    private static XmlObject document() throws XmlException {
+        StringBuilder sb = new StringBuilder("<root xmlns='urn:utf8' a='&lt;&quot;\u00e4&quot;&gt;'>");
+        for (int i = 0; i < 2000; i++) {
+            // ASCII, 2 and 3 byte chars and a surrogate pair, spread over several chunks
+            sb.append("<item n='").append(i).append("'>text &amp; \u00fcml\u00e4ut \u20ac \ud83d\ude00 ")
+                .append(i).append("</item><!-- \u00e9 --><?pi \u4e2d?>");
+        }
+        sb.append("<![CDATA[<cdata>]]></root>");
+        return XmlObject.Factory.parse(sb.toString());
+    }
+
+    @Test
+    void sameBytesAsInputStream() throws Exception {
+        XmlObject doc = document();
+
+        for (XmlOptions options : new XmlOptions[]{
+            null,
+            new XmlOptions().setSavePrettyPrint(),
+            new XmlOptions().setSaveNoXmlDecl().setSaveAggressiveNamespaces(),
+            new XmlOptions().setCharacterEncoding("UTF-8")
+        }) {
+            byte[] expected = readAll(doc.newInputStream(options));
+
+            ByteArrayOutputStream os = new ByteArrayOutputStream();
+            doc.save(os, options);
+            assertArrayEquals(expected, os.toByteArray());
+
+            ByteArrayOutputStream channelOs = new ByteArrayOutputStream();
+            doc.save(Channels.newChannel(channelOs), options);
+            assertArrayEquals(expected, channelOs.toByteArray());
+        }
+    }
+
+    @Test
+    void otherEncodings() throws Exception {
+        XmlObject doc = XmlObject.Factory.parse("<root>\u00e4</root>");
+        XmlOptions options = new XmlOptions().setCharacterEncoding("ISO-8859-1");
+
+        ByteArrayOutputStream os = new ByteArrayOutputStream();
+        doc.save(Channels.newChannel(os), options);
+        assertArrayEquals(readAll(doc.newInputStream(options)), os.toByteArray());
+        assertTrue(new String(os.toByteArray(), StandardCharsets.ISO_8859_1).contains("<root>\u00e4</root>"));
+    }
+
+    private static byte[] readAll(InputStream is) throws IOException {
+        ByteArrayOutputStream bos = new ByteArrayOutputStream();
+        byte[] buf = new byte[4096];
+        for (int n; (n = is.read(buf)) >= 0; ) {
+            bos.write(buf, 0, n);
+        }
+        return bos.toByteArray();
+    }
+}
@@ -35,11 +35,13 @@ public class RootDocumentImpl extends org.apache.xmlbeans.impl.values.XmlComplex
      */
     @Override
     public partials.RootDocument.Root getRoot() {
-        synchronized (monitor()) {
-            check_orphaned();
-            partials.RootDocument.Root target = null;
-            target = (partials.RootDocument.Root)get_store().find_element_user(PROPERTY_QNAME[0], 0);
-            return (target == null) ? null : target;
+        try (org.apache.xmlbeans.impl.values.XmlObjectBase.StoreLock lock = lock_store()) {
+            synchronized (monitor()) {
+                check_orphaned();
+                partials.RootDocument.Root target = null;
+                target = (partials.RootDocument.Root)get_store().find_element_user(PROPERTY_QNAME[0], 0);
+                return (target == null) ? null : target;
+            }
         }
     }
 // </GET>
@@ -60,11 +62,13 @@ public class RootDocumentImpl extends org.apache.xmlbeans.impl.values.XmlComplex
      */
     @Override
     public partials.RootDocument.Root addNewRoot() {
-        synchronized (monitor()) {
-            check_orphaned();
-            partials.RootDocument.Root target = null;
-            target = (partials.RootDocument.Root)get_store().add_element_user(PROPERTY_QNAME[0]);
-            return target;
+        try (org.apache.xmlbeans.impl.values.XmlObjectBase.StoreLock lock = lock_store()) {
+            synchronized (monitor()) {
+                check_orphaned();
+                partials.RootDocument.Root target = null;
+                target = (partials.RootDocument.Root)get_store().add_element_user(PROPERTY_QNAME[0]);
+                return target;
+            }
         }
     }
 // </ADD_NEW>
@@ -94,11 +98,13 @@ public class RootDocumentImpl extends org.apache.xmlbeans.impl.values.XmlComplex
          */
         @Override
         public java.math.BigDecimal getSingle() {
-            synchronized (monitor()) {
-                check_orphaned();
-                org.apache.xmlbeans.SimpleValue target = null;
-                target = (org.apache.xmlbeans.SimpleValue)get_store().find_element_user(PROPERTY_QNAME[0], 0);
-                return (target == null) ? null : target.getBigDecimalValue();
+            try (org.apache.xmlbeans.impl.values.XmlObjectBase.StoreLock lock = lock_store()) {
+                synchronized (monitor()) {
+                    check_orphaned();
+                    org.apache.xmlbeans.SimpleValue target = null;
+                    target = (org.apache.xmlbeans.SimpleValue)get_store().find_element_user(PROPERTY_QNAME[0], 0);
+                    return (target == null) ? null : target.getBigDecimalValue();
+                }
             }
         }
 // </GET>
@@ -109,11 +115,13 @@ public class RootDocumentImpl extends org.apache.xmlbeans.impl.values.XmlComplex
          */
         @Override
         public org.apache.xmlbeans.XmlDecimal xgetSingle() {
-            synchronized (monitor()) {
-                check_orphaned();
-                org.apache.xmlbeans.XmlDecimal target = null;
-                target = (org.apache.xmlbeans.XmlDecimal)get_store().find_element_user(PROPERTY_QNAME[0], 0);
-                return target;
+            try (org.apache.xmlbeans.impl.values.XmlObjectBase.StoreLock lock = lock_store()) {
+                synchronized (monitor()) {
+                    check_orphaned();
+                    org.apache.xmlbeans.XmlDecimal target = null;
+                    target = (org.apache.xmlbeans.XmlDecimal)get_store().find_element_user(PROPERTY_QNAME[0], 0);
+                    return target;
+                }
             }
         }
 // </XGET>
@@ -124,11 +132,13 @@ public class RootDocumentImpl extends org.apache.xmlbeans.impl.values.XmlComplex
          */
         @Override
         public boolean isNilSingle() {
-            synchronized (monitor()) {
-                check_orphaned();
-                org.apache.xmlbeans.XmlDecimal target = null;
-                target = (org.apache.xmlbeans.XmlDecimal)get_store().find_element_user(PROPERTY_QNAME[0], 0);
-                return target != null && target.isNil();
+            try (org.apache.xmlbeans.impl.values.XmlObjectBase.StoreLock lock = lock_store()) {
+                synchronized (monitor()) {
+                    check_orphaned();
+                    org.apache.xmlbeans.XmlDecimal target = null;
+                    target = (org.apache.xmlbeans.XmlDecimal)get_store().find_element_user(PROPERTY_QNAME[0], 0);
+                    return target != null && target.isNil();
+                }
             }
         }
 // </IS_NIL>
@@ -139,9 +149,11 @@ public class RootDocumentImpl extends org.apache.xmlbeans.impl.values.XmlComplex
          */
         @Override
         public boolean isSetSingle() {
-            synchronized (monitor()) {
-                check_orphaned();
-                return get_store().count_elements(PROPERTY_QNAME[0]) != 0;
+            try (org.apache.xmlbeans.impl.values.XmlObjectBase.StoreLock lock = lock_store()) {
+                synchronized (monitor()) {
+                    check_orphaned();
+                    return get_store().count_elements(PROPERTY_QNAME[0]) != 0;
+                }
             }
         }
 // </IS_SET>
@@ -152,14 +164,16 @@ public class RootDocumentImpl extends org.apache.xmlbeans.impl.values.XmlComplex
          */
         @Override
         public void setSingle(java.math.BigDecimal single) {
-            synchronized (monitor()) {
-                check_orphaned();
-                org.apache.xmlbeans.SimpleValue target = null;
-                target = (org.apache.xmlbeans.SimpleValue)get_store().find_element_user(PROPERTY_QNAME[0], 0);
-                if (target == null) {
-                    target = (org.apache.xmlbeans.SimpleValue)get_store().add_element_user(PROPERTY_QNAME[0]);
+            try (org.apache.xmlbeans.impl.values.XmlObjectBase.StoreLock lock = lock_store()) {
+                synchronized (monitor()) {
+                    check_orphaned();
+                    org.apache.xmlbeans.SimpleValue target = null;
+                    target = (org.apache.xmlbeans.SimpleValue)get_store().find_element_user(PROPERTY_QNAME[0], 0);
+                    if (target == null) {
+                        target = (org.apache.xmlbeans.SimpleValue)get_store().add_element_user(PROPERTY_QNAME[0]);
+                    }
+                    target.setBigDecimalValue(single);
                 }
-                target.setBigDecimalValue(single);
             }
         }
 // </SET>
@@ -170,14 +184,16 @@ public class RootDocumentImpl extends org.apache.xmlbeans.impl.values.XmlComplex
          */
         @Override
         public void xsetSingle(org.apache.xmlbeans.XmlDecimal single) {
-            synchronized (monitor()) {
-                check_orphaned();
-                org.apache.xmlbeans.XmlDecimal target = null;
-                target = (org.apache.xmlbeans.XmlDecimal)get_store().find_element_user(PROPERTY_QNAME[0], 0);
-                if (target == null) {
-                    target = (org.apache.xmlbeans.XmlDecimal)get_store().add_element_user(PROPERTY_QNAME[0]);
+            try (org.apache.xmlbeans.impl.values.XmlObjectBase.StoreLock lock = lock_store()) {
+                synchronized (monitor()) {
+                    check_orphaned();
+                    org.apache.xmlbeans.XmlDecimal target = null;
+                    target = (org.apache.xmlbeans.XmlDecimal)get_store().find_element_user(PROPERTY_QNAME[0], 0);
+                    if (target == null) {
+                        target = (org.apache.xmlbeans.XmlDecimal)get_store().add_element_user(PROPERTY_QNAME[0]);
+                    }
+                    target.set(single);
                 }
-                target.set(single);
             }
         }
 // </XSET>
@@ -188,14 +204,16 @@ public class RootDocumentImpl extends org.apache.xmlbeans.impl.values.XmlComplex
          */
         @Override
         public void setNilSingle() {
-            synchronized (monitor()) {
-                check_orphaned();
-                org.apache.xmlbeans.XmlDecimal target = null;
-                target = (org.apache.xmlbeans.XmlDecimal)get_store().find_element_user(PROPERTY_QNAME[0], 0);
-                if (target == null) {
-                    target = (org.apache.xmlbeans.XmlDecimal)get_store().add_element_user(PROPERTY_QNAME[0]);
+            try (org.apache.xmlbeans.impl.values.XmlObjectBase.StoreLock lock = lock_store()) {
+                synchronized (monitor()) {
+                    check_orphaned();
+                    org.apache.xmlbeans.XmlDecimal target = null;
+                    target = (org.apache.xmlbeans.XmlDecimal)get_store().find_element_user(PROPERTY_QNAME[0], 0);
+                    if (target == null) {
+                        target = (org.apache.xmlbeans.XmlDecimal)get_store().add_element_user(PROPERTY_QNAME[0]);
+                    }
+                    target.setNil();
                 }
-                target.setNil();
             }
         }
 // </SET_NIL>
@@ -206,9 +224,11 @@ public class RootDocumentImpl extends org.apache.xmlbeans.impl.values.XmlComplex
          */
         @Override
         public void unsetSingle() {
-            synchronized (monitor()) {
-                check_orphaned();
-                get_store().remove_element(PROPERTY_QNAME[0], 0);
+            try (org.apache.xmlbeans.impl.values.XmlObjectBase.StoreLock lock = lock_store()) {
+                synchronized (monitor()) {
+                    check_orphaned();
+                    get_store().remove_element(PROPERTY_QNAME[0], 0);
+                }
             }
         }
 // </UNSET>
@@ -219,11 +239,13 @@ public class RootDocumentImpl extends org.apache.xmlbeans.impl.values.XmlComplex
          */
         @Override
         public partials.XmlBeanchen getComplex() {
-            synchronized (monitor()) {
-                check_orphaned();
-                partials.XmlBeanchen target = null;
-                target = (partials.XmlBeanchen)get_store().find_element_user(PROPERTY_QNAME[1], 0);
-                return (target == null) ? null : target;
+            try (org.apache.xmlbeans.impl.values.XmlObjectBase.StoreLock lock = lock_store()) {
+                synchronized (monitor()) {
+                    check_orphaned();
+                    partials.XmlBeanchen target = null;
+                    target = (partials.XmlBeanchen)get_store().find_element_user(PROPERTY_QNAME[1], 0);
+                    return (target == null) ? null : target;
+                }
             }
         }
 // </GET>
@@ -234,9 +256,11 @@ public class RootDocumentImpl extends org.apache.xmlbeans.impl.values.XmlComplex
          */
         @Override
         public boolean isSetComplex() {
-            synchronized (monitor()) {
-                check_orphaned();
-                return get_store().count_elements(PROPERTY_QNAME[1]) != 0;
+            try (org.apache.xmlbeans.impl.values.XmlObjectBase.StoreLock lock = lock_store()) {
+                synchronized (monitor()) {
+                    check_orphaned();
+                    return get_store().count_elements(PROPERTY_QNAME[1]) != 0;
+                }
             }
         }
 // </IS_SET>
@@ -257,11 +281,13 @@ public class RootDocumentImpl extends org.apache.xmlbeans.impl.values.XmlComplex
          */
         @Override
         public partials.XmlBeanchen addNewComplex() {
-            synchronized (monitor()) {
-                check_orphaned();
-                partials.XmlBeanchen target = null;
-                target = (partials.XmlBeanchen)get_store().add_element_user(PROPERTY_QNAME[1]);
-                return target;
+            try (org.apache.xmlbeans.impl.values.XmlObjectBase.StoreLock lock = lock_store()) {
+                synchronized (monitor()) {
+                    check_orphaned();
+                    partials.XmlBeanchen target = null;
+                    target = (partials.XmlBeanchen)get_store().add_element_user(PROPERTY_QNAME[1]);
+                    return target;
+                }
             }
         }
 // </ADD_NEW>
@@ -272,9 +298,11 @@ public class RootDocumentImpl extends org.apache.xmlbeans.impl.values.XmlComplex
          */
         @Override
         public void unsetComplex() {
-            synchronized (monitor()) {
-                check_orphaned();
-                get_store().remove_element(PROPERTY_QNAME[1], 0);
+            try (org.apache.xmlbeans.impl.values.XmlObjectBase.StoreLock lock = lock_store()) {
+                synchronized (monitor()) {
+                    check_orphaned();
+                    get_store().remove_element(PROPERTY_QNAME[1], 0);
+                }
             }
         }
 // </UNSET>
@@ -285,40 +313,42 @@ public class RootDocumentImpl extends org.apache.xmlbeans.impl.values.XmlComplex
          */
         @Override
         public java.util.List<java.math.BigDecimal> getPrimitiveListList() {
-            synchronized (monitor()) {
-                check_orphaned();
-                return new org.apache.xmlbeans.impl.values.JavaListObject<>(
+            try (org.apache.xmlbeans.impl.values.XmlObjectBase.StoreLock lock = lock_store()) {
+                synchronized (monitor()) {
+                    check_orphaned();
+                    return new org.apache.xmlbeans.impl.values.JavaListObject<>(
 // <GET_IDX>
-                    this::getPrimitiveListArray,
+                        this::getPrimitiveListArray,
 // </GET_IDX>
 // <GET_IDX_ELSE>
-                    null,
+                        null,
 // </GET_IDX_ELSE>
 // <SET_IDX>
-                    this::setPrimitiveListArray,
+                        this::setPrimitiveListArray,
 // </SET_IDX>
 // <SET_IDX_ELSE>
-                    null,
+                        null,
 // </SET_IDX_ELSE>
 // <INSERT_IDX>
-                    this::insertPrimitiveList,
+                        this::insertPrimitiveList,
 // </INSERT_IDX>
 // <INSERT_IDX_ELSE>
-                    null,
+                        null,
 // </INSERT_IDX_ELSE>
 // <REMOVE_IDX>
-                    this::removePrimitiveList,
+                        this::removePrimitiveList,
 // </REMOVE_IDX>
 // <REMOVE_IDX_ELSE>
-                    null,
+                        null,
 // </REMOVE_IDX_ELSE>
 // <SIZE_OF_ARRAY>
-                    this::sizeOfPrimitiveListArray
+                        this::sizeOfPrimitiveListArray
 // </SIZE_OF_ARRAY>
 // <SIZE_OF_ARRAY_ELSE>
-                    null
+                        null
 // </SIZE_OF_ARRAY_ELSE>
-                );
+                    );
+                }
             }
         }
 // </GET_LIST>
@@ -339,14 +369,16 @@ public class RootDocumentImpl extends org.apache.xmlbeans.impl.values.XmlComplex
          */
         @Override
         public java.math.BigDecimal getPrimitiveListArray(int i) {
-            synchronized (monitor()) {
-                check_orphaned();
-                org.apache.xmlbeans.SimpleValue target = null;
-                target = (org.apache.xmlbeans.SimpleValue)get_store().find_element_user(PROPERTY_QNAME[2], i);
-                if (target == null) {
-                    throw new IndexOutOfBoundsException();
+            try (org.apache.xmlbeans.impl.values.XmlObjectBase.StoreLock lock = lock_store()) {
+                synchronized (monitor()) {
+                    check_orphaned();
+                    org.apache.xmlbeans.SimpleValue target = null;
+                    target = (org.apache.xmlbeans.SimpleValue)get_store().find_element_user(PROPERTY_QNAME[2], i);
+                    if (target == null) {
+                        throw new IndexOutOfBoundsException();
+                    }
+                    return target.getBigDecimalValue();
                 }
-                return target.getBigDecimalValue();
             }
         }
 // </GET_IDX>
@@ -357,40 +389,43 @@ public class RootDocumentImpl extends org.apache.xmlbeans.impl.values.XmlComplex
          */
         @Override
         public java.util.List<org.apache.xmlbeans.XmlDecimal> xgetPrimitiveListList() {
-            synchronized (monitor()) {
-                check_orphaned();
-                return new org.apache.xmlbeans.impl.values.JavaListXmlObject<>(
+            try (org.apache.xmlbeans.impl.values.XmlObjectBase.StoreLock lock = lock_store()) {
+                synchronized (monitor()) {
+                    check_orphaned();
+                    return new org.apache.xmlbeans.impl.values.JavaListXmlObject<>(
+                        this, PROPERTY_QNAME[2],
 // <XGET_IDX>
-                    this::xgetPrimitiveListArray,
+                        this::xgetPrimitiveListArray,
 // </XGET_IDX>
 // <XGET_IDX_ELSE>
-                    null,
+                        null,
 // </XGET_IDX_ELSE>
 // <XSET_IDX>
-                    this::xsetPrimitiveListArray,
+                        this::xsetPrimitiveListArray,
 // </XSET_IDX>
 // <XSET_IDX_ELSE>
-                    null,
+                        null,
 // </XSET_IDX_ELSE>
 // <INSERT_NEW_IDX>
-                    this::insertNewPrimitiveList,
+                        this::insertNewPrimitiveList,
 // </INSERT_NEW_IDX>
 // <INSERT_NEW_IDX_ELSE>
-                    null,
+                        null,
 // </INSERT_NEW_IDX_ELSE>
 // <REMOVE_IDX>
-                    this::removePrimitiveList,
+                        this::removePrimitiveList,
 // </REMOVE_IDX>
 // <REMOVE_IDX_ELSE>
-                    null,
+                        null,
 // </REMOVE_IDX_ELSE>
 // <SIZE_OF_ARRAY>
-                    this::sizeOfPrimitiveListArray
+                        this::sizeOfPrimitiveListArray
 // </SIZE_OF_ARRAY>
 // <SIZE_OF_ARRAY_ELSE>
-                    null
+                        null
 // </SIZE_OF_ARRAY_ELSE>
-                );
+                    );
+                }
             }
         }
 // </XGET_LIST>
@@ -411,14 +446,16 @@ public class RootDocumentImpl extends org.apache.xmlbeans.impl.values.XmlComplex
          */
         @Override
         public org.apache.xmlbeans.XmlDecimal xgetPrimitiveListArray(int i) {
-            synchronized (monitor()) {
-                check_orphaned();
-                org.apache.xmlbeans.XmlDecimal target = null;
-                target = (org.apache.xmlbeans.XmlDecimal)get_store().find_element_user(PROPERTY_QNAME[2], i);
-                if (target == null) {
-                    throw new IndexOutOfBoundsException();
+            try (org.apache.xmlbeans.impl.values.XmlObjectBase.StoreLock lock = lock_store()) {
+                synchronized (monitor()) {
+                    check_orphaned();
+                    org.apache.xmlbeans.XmlDecimal target = null;
+                    target = (org.apache.xmlbeans.XmlDecimal)get_store().find_element_user(PROPERTY_QNAME[2], i);
+                    if (target == null) {
+                        throw new IndexOutOfBoundsException();
+                    }
+                    return target;
                 }
-                return target;
             }
         }
 // </XGET_IDX>
@@ -429,14 +466,16 @@ public class RootDocumentImpl extends org.apache.xmlbeans.impl.values.XmlComplex
          */
         @Override
         public boolean isNilPrimitiveListArray(int i) {
-            synchronized (monitor()) {
-                check_orphaned();
-                org.apache.xmlbeans.XmlDecimal target = null;
-                target = (org.apache.xmlbeans.XmlDecimal)get_store().find_element_user(PROPERTY_QNAME[2], i);
-                if (target == null) {
-                    throw new IndexOutOfBoundsException();
+            try (org.apache.xmlbeans.impl.values.XmlObjectBase.StoreLock lock = lock_store()) {
+                synchronized (monitor()) {
+                    check_orphaned();
+                    org.apache.xmlbeans.XmlDecimal target = null;
+                    target = (org.apache.xmlbeans.XmlDecimal)get_store().find_element_user(PROPERTY_QNAME[2], i);
+                    if (target == null) {
+                        throw new IndexOutOfBoundsException();
+                    }
+                    return target.isNil();
                 }
-                return target.isNil();
             }
         }
 // </IS_NIL_IDX>
@@ -447,9 +486,11 @@ public class RootDocumentImpl extends org.apache.xmlbeans.impl.values.XmlComplex
          */
         @Override
         public int sizeOfPrimitiveListArray() {
-            synchronized (monitor()) {
-                check_orphaned();
-                return get_store().count_elements(PROPERTY_QNAME[2]);
+            try (org.apache.xmlbeans.impl.values.XmlObjectBase.StoreLock lock = lock_store()) {
+                synchronized (monitor()) {
+                    check_orphaned();
+                    return get_store().count_elements(PROPERTY_QNAME[2]);
+                }
             }
         }
 // </SIZE_OF_ARRAY>
@@ -460,9 +501,11 @@ public class RootDocumentImpl extends org.apache.xmlbeans.impl.values.XmlComplex
          */
         @Override
         public void setPrimitiveListArray(java.math.BigDecimal[] primitiveListArray) {
-            synchronized (monitor()) {
-                check_orphaned();
-                arraySetterHelper(primitiveListArray, PROPERTY_QNAME[2]);
+            try (org.apache.xmlbeans.impl.values.XmlObjectBase.StoreLock lock = lock_store()) {
+                synchronized (monitor()) {
+                    check_orphaned();
+                    arraySetterHelper(primitiveListArray, PROPERTY_QNAME[2]);
+                }
             }
         }
 // </SET_ARRAY>
@@ -473,14 +516,16 @@ public class RootDocumentImpl extends org.apache.xmlbeans.impl.values.XmlComplex
          */
         @Override
         public void setPrimitiveListArray(int i, java.math.BigDecimal primitiveList) {
-            synchronized (monitor()) {
-                check_orphaned();
-                org.apache.xmlbeans.SimpleValue target = null;
-                target = (org.apache.xmlbeans.SimpleValue)get_store().find_element_user(PROPERTY_QNAME[2], i);
-                if (target == null) {
-                    throw new IndexOutOfBoundsException();
+            try (org.apache.xmlbeans.impl.values.XmlObjectBase.StoreLock lock = lock_store()) {
+                synchronized (monitor()) {
+                    check_orphaned();
+                    org.apache.xmlbeans.SimpleValue target = null;
+                    target = (org.apache.xmlbeans.SimpleValue)get_store().find_element_user(PROPERTY_QNAME[2], i);
+                    if (target == null) {
+                        throw new IndexOutOfBoundsException();
+                    }
+                    target.setBigDecimalValue(primitiveList);
                 }
-                target.setBigDecimalValue(primitiveList);
             }
         }
 // </SET_IDX>
@@ -491,9 +536,11 @@ public class RootDocumentImpl extends org.apache.xmlbeans.impl.values.XmlComplex
          */
         @Override
         public void xsetPrimitiveListArray(org.apache.xmlbeans.XmlDecimal[]primitiveListArray) {
-            synchronized (monitor()) {
-                check_orphaned();
-                arraySetterHelper(primitiveListArray, PROPERTY_QNAME[2]);
+            try (org.apache.xmlbeans.impl.values.XmlObjectBase.StoreLock lock = lock_store()) {
+                synchronized (monitor()) {
+                    check_orphaned();
+                    arraySetterHelper(primitiveListArray, PROPERTY_QNAME[2]);
+                }
             }
         }
 // </XSET_ARRAY>
@@ -504,14 +551,16 @@ public class RootDocumentImpl extends org.apache.xmlbeans.impl.values.XmlComplex
          */
         @Override
         public void xsetPrimitiveListArray(int i, org.apache.xmlbeans.XmlDecimal primitiveList) {
-            synchronized (monitor()) {
-                check_orphaned();
-                org.apache.xmlbeans.XmlDecimal target = null;
-                target = (org.apache.xmlbeans.XmlDecimal)get_store().find_element_user(PROPERTY_QNAME[2], i);
-                if (target == null) {
-                    throw new IndexOutOfBoundsException();
+            try (org.apache.xmlbeans.impl.values.XmlObjectBase.StoreLock lock = lock_store()) {
+                synchronized (monitor()) {
+                    check_orphaned();
+                    org.apache.xmlbeans.XmlDecimal target = null;
+                    target = (org.apache.xmlbeans.XmlDecimal)get_store().find_element_user(PROPERTY_QNAME[2], i);
+                    if (target == null) {
+                        throw new IndexOutOfBoundsException();
+                    }
+                    target.set(primitiveList);
                 }
-                target.set(primitiveList);
             }
         }
 // </XSET_IDX>
@@ -522,14 +571,16 @@ public class RootDocumentImpl extends org.apache.xmlbeans.impl.values.XmlComplex
          */
         @Override
         public void setNilPrimitiveListArray(int i) {
-            synchronized (monitor()) {
-                check_orphaned();
-                org.apache.xmlbeans.XmlDecimal target = null;
-                target = (org.apache.xmlbeans.XmlDecimal)get_store().find_element_user(PROPERTY_QNAME[2], i);
-                if (target == null) {
-                    throw new IndexOutOfBoundsException();
+            try (org.apache.xmlbeans.impl.values.XmlObjectBase.StoreLock lock = lock_store()) {
+                synchronized (monitor()) {
+                    check_orphaned();
+                    org.apache.xmlbeans.XmlDecimal target = null;
+                    target = (org.apache.xmlbeans.XmlDecimal)get_store().find_element_user(PROPERTY_QNAME[2], i);
+                    if (target == null) {
+                        throw new IndexOutOfBoundsException();
+                    }
+                    target.setNil();
                 }
-                target.setNil();
             }
         }
 // </SET_NIL_IDX>
@@ -540,11 +591,13 @@ public class RootDocumentImpl extends org.apache.xmlbeans.impl.values.XmlComplex
          */
         @Override
         public void insertPrimitiveList(int i, java.math.BigDecimal primitiveList) {
-            synchronized (monitor()) {
-                check_orphaned();
-                org.apache.xmlbeans.SimpleValue target =
-                    (org.apache.xmlbeans.SimpleValue)get_store().insert_element_user(PROPERTY_QNAME[2], i);
-                target.setBigDecimalValue(primitiveList);
+            try (org.apache.xmlbeans.impl.values.XmlObjectBase.StoreLock lock = lock_store()) {
+                synchronized (monitor()) {
+                    check_orphaned();
+                    org.apache.xmlbeans.SimpleValue target =
+                        (org.apache.xmlbeans.SimpleValue)get_store().insert_element_user(PROPERTY_QNAME[2], i);
+                    target.setBigDecimalValue(primitiveList);
+                }
             }
         }
 // </INSERT_IDX>
@@ -555,11 +608,13 @@ public class RootDocumentImpl extends org.apache.xmlbeans.impl.values.XmlComplex
          */
         @Override
         public void addPrimitiveList(java.math.BigDecimal primitiveList) {
-            synchronized (monitor()) {
-                check_orphaned();
-                org.apache.xmlbeans.SimpleValue target = null;
-                target = (org.apache.xmlbeans.SimpleValue)get_store().add_element_user(PROPERTY_QNAME[2]);
-                target.setBigDecimalValue(primitiveList);
+            try (org.apache.xmlbeans.impl.values.XmlObjectBase.StoreLock lock = lock_store()) {
+                synchronized (monitor()) {
+                    check_orphaned();
+                    org.apache.xmlbeans.SimpleValue target = null;
+                    target = (org.apache.xmlbeans.SimpleValue)get_store().add_element_user(PROPERTY_QNAME[2]);
+                    target.setBigDecimalValue(primitiveList);
+                }
             }
         }
 // </ADD>
@@ -570,11 +625,13 @@ public class RootDocumentImpl extends org.apache.xmlbeans.impl.values.XmlComplex
          */
         @Override
         public org.apache.xmlbeans.XmlDecimal insertNewPrimitiveList(int i) {
-            synchronized (monitor()) {
-                check_orphaned();
-                org.apache.xmlbeans.XmlDecimal target = null;
-                target = (org.apache.xmlbeans.XmlDecimal)get_store().insert_element_user(PROPERTY_QNAME[2], i);
-                return target;
+            try (org.apache.xmlbeans.impl.values.XmlObjectBase.StoreLock lock = lock_store()) {
+                synchronized (monitor()) {
+                    check_orphaned();
+                    org.apache.xmlbeans.XmlDecimal target = null;
+                    target = (org.apache.xmlbeans.XmlDecimal)get_store().insert_element_user(PROPERTY_QNAME[2], i);
+                    return target;
+                }
             }
         }
 // </INSERT_NEW_IDX>
@@ -585,11 +642,13 @@ public class RootDocumentImpl extends org.apache.xmlbeans.impl.values.XmlComplex
          */
         @Override
         public org.apache.xmlbeans.XmlDecimal addNewPrimitiveList() {
-            synchronized (monitor()) {
-                check_orphaned();
-                org.apache.xmlbeans.XmlDecimal target = null;
-                target = (org.apache.xmlbeans.XmlDecimal)get_store().add_element_user(PROPERTY_QNAME[2]);
-                return target;
+            try (org.apache.xmlbeans.impl.values.XmlObjectBase.StoreLock lock = lock_store()) {
+                synchronized (monitor()) {
+                    check_orphaned();
+                    org.apache.xmlbeans.XmlDecimal target = null;
+                    target = (org.apache.xmlbeans.XmlDecimal)get_store().add_element_user(PROPERTY_QNAME[2]);
+                    return target;
+                }
             }
         }
 // </ADD_NEW>
@@ -600,9 +659,11 @@ public class RootDocumentImpl extends org.apache.xmlbeans.impl.values.XmlComplex
          */
         @Override
         public void removePrimitiveList(int i) {
-            synchronized (monitor()) {
-                check_orphaned();
-                get_store().remove_element(PROPERTY_QNAME[2], i);
+            try (org.apache.xmlbeans.impl.values.XmlObjectBase.StoreLock lock = lock_store()) {
+                synchronized (monitor()) {
+                    check_orphaned();
+                    get_store().remove_element(PROPERTY_QNAME[2], i);
+                }
             }
         }
 // </REMOVE_IDX>
@@ -613,40 +674,43 @@ public class RootDocumentImpl extends org.apache.xmlbeans.impl.values.XmlComplex
          */
         @Override
         public java.util.List<partials.XmlBeanchen> getComplexListList() {
-            synchronized (monitor()) {
-                check_orphaned();
-                return new org.apache.xmlbeans.impl.values.JavaListXmlObject<>(
+            try (org.apache.xmlbeans.impl.values.XmlObjectBase.StoreLock lock = lock_store()) {
+                synchronized (monitor()) {
+                    check_orphaned();
+                    return new org.apache.xmlbeans.impl.values.JavaListXmlObject<>(
+                        this, PROPERTY_QNAME[3],
 // <GET_IDX>
-                    this::getComplexListArray,
+                        this::getComplexListArray,
 // </GET_IDX>
 // <GET_IDX_ELSE>
-                    null,
+                        null,
 // </GET_IDX_ELSE>
 // <SET_IDX>
-                    this::setComplexListArray,
+                        this::setComplexListArray,
 // </SET_IDX>
 // <SET_IDX_ELSE>
-                    null,
+                        null,
 // </SET_IDX_ELSE>
 // <INSERT_NEW_IDX>
-                    this::insertNewComplexList,
+                        this::insertNewComplexList,
 // </INSERT_NEW_IDX>
 // <INSERT_NEW_IDX_ELSE>
-                    null,
+                        null,
 // </INSERT_NEW_IDX_ELSE>
 // <REMOVE_IDX>
-                    this::removeComplexList,
+                        this::removeComplexList,
 // </REMOVE_IDX>
 // <REMOVE_IDX_ELSE>
-                    null,
+                        null,
 // </REMOVE_IDX_ELSE>
 // <SIZE_OF_ARRAY>
-                    this::sizeOfComplexListArray
+                        this::sizeOfComplexListArray
 // </SIZE_OF_ARRAY>
 // <SIZE_OF_ARRAY_ELSE>
-                    null
+                        null
 // </SIZE_OF_ARRAY_ELSE>
-                );
+                    );
+                }
             }
         }
 // </GET_LIST>
@@ -667,14 +731,16 @@ public class RootDocumentImpl extends org.apache.xmlbeans.impl.values.XmlComplex
          */
         @Override
         public partials.XmlBeanchen getComplexListArray(int i) {
-            synchronized (monitor()) {
-                check_orphaned();
-                partials.XmlBeanchen target = null;
-                target = (partials.XmlBeanchen)get_store().find_element_user(PROPERTY_QNAME[3], i);
-                if (target == null) {
-                    throw new IndexOutOfBoundsException();
+            try (org.apache.xmlbeans.impl.values.XmlObjectBase.StoreLock lock = lock_store()) {
+                synchronized (monitor()) {
+                    check_orphaned();
+                    partials.XmlBeanchen target = null;
+                    target = (partials.XmlBeanchen)get_store().find_element_user(PROPERTY_QNAME[3], i);
+                    if (target == null) {
+                        throw new IndexOutOfBoundsException();
+                    }
+                    return target;
                 }
-                return target;
             }
         }
 // </GET_IDX>
@@ -685,9 +751,11 @@ public class RootDocumentImpl extends org.apache.xmlbeans.impl.values.XmlComplex
          */
         @Override
         public int sizeOfComplexListArray() {
-            synchronized (monitor()) {
-                check_orphaned();
-                return get_store().count_elements(PROPERTY_QNAME[3]);
+            try (org.apache.xmlbeans.impl.values.XmlObjectBase.StoreLock lock = lock_store()) {
+                synchronized (monitor()) {
+                    check_orphaned();
+                    return get_store().count_elements(PROPERTY_QNAME[3]);
+                }
             }
         }
 // </SIZE_OF_ARRAY>
@@ -719,11 +787,13 @@ public class RootDocumentImpl extends org.apache.xmlbeans.impl.values.XmlComplex
          */
         @Override
         public partials.XmlBeanchen insertNewComplexList(int i) {
-            synchronized (monitor()) {
-                check_orphaned();
-                partials.XmlBeanchen target = null;
-                target = (partials.XmlBeanchen)get_store().insert_element_user(PROPERTY_QNAME[3], i);
-                return target;
+            try (org.apache.xmlbeans.impl.values.XmlObjectBase.StoreLock lock = lock_store()) {
+                synchronized (monitor()) {
+                    check_orphaned();
+                    partials.XmlBeanchen target = null;
+                    target = (partials.XmlBeanchen)get_store().insert_element_user(PROPERTY_QNAME[3], i);
+                    return target;
+                }
             }
         }
 // </INSERT_NEW_IDX>
@@ -734,11 +804,13 @@ public class RootDocumentImpl extends org.apache.xmlbeans.impl.values.XmlComplex
          */
         @Override
         public partials.XmlBeanchen addNewComplexList() {
-            synchronized (monitor()) {
-                check_orphaned();
-                partials.XmlBeanchen target = null;
-                target = (partials.XmlBeanchen)get_store().add_element_user(PROPERTY_QNAME[3]);
-                return target;
+            try (org.apache.xmlbeans.impl.values.XmlObjectBase.StoreLock lock = lock_store()) {
+                synchronized (monitor()) {
+                    check_orphaned();
+                    partials.XmlBeanchen target = null;
+                    target = (partials.XmlBeanchen)get_store().add_element_user(PROPERTY_QNAME[3]);
+                    return target;
+                }
             }
         }
 // </ADD_NEW>
@@ -749,9 +821,11 @@ public class RootDocumentImpl extends org.apache.xmlbeans.impl.values.XmlComplex
          */
         @Override
         public void removeComplexList(int i) {
-            synchronized (monitor()) {
-                check_orphaned();
-                get_store().remove_element(PROPERTY_QNAME[3], i);
+            try (org.apache.xmlbeans.impl.values.XmlObjectBase.StoreLock lock = lock_store()) {
+                synchronized (monitor()) {
+                    check_orphaned();
+                    get_store().remove_element(PROPERTY_QNAME[3], i);
+                }
             }
         }
 // </REMOVE_IDX>
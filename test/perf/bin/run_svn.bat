@@ -61,6 +61,11 @@ call svn.bat BisLoadSVN flavor deep-elements
 call svn.bat BisLoadSVN flavor wide-attributes
 call svn.bat BisLoadSVN flavor wide-elements
 call svn.bat BisLoadSVN flavor wide-text
+call svn.bat SmallDocLoadSVN flavor pooled
+call svn.bat SmallDocLoadSVN flavor unpooled
+call svn.bat POLoadAllocSVN memory 256
+call svn.bat CrossDocCopySVN flavor 1
+call svn.bat CrossDocCopySVN flavor 8
 call svn.bat DomWalkSVN flavor deep-attributes
 call svn.bat DomWalkSVN flavor deep-elements
 call svn.bat DomWalkSVN flavor wide-attributes
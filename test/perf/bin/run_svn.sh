@@ -61,6 +61,11 @@ sh ./svn.sh BisLoadSVN deep-elements
 sh ./svn.sh BisLoadSVN wide-attributes
 sh ./svn.sh BisLoadSVN wide-elements
 sh ./svn.sh BisLoadSVN wide-text
+sh ./svn.sh SmallDocLoadSVN flavor pooled
+sh ./svn.sh SmallDocLoadSVN flavor unpooled
+sh ./svn.sh POLoadAllocSVN memory 256
+sh ./svn.sh CrossDocCopySVN flavor 1
+sh ./svn.sh CrossDocCopySVN flavor 8
 sh ./svn.sh DomWalkSVN deep-attributes
 sh ./svn.sh DomWalkSVN deep-elements
 sh ./svn.sh DomWalkSVN wide-attributes
@@ -0,0 +1,101 @@
+/*   Copyright 2004 The Apache Software Foundation
+*
+*   Licensed under the Apache License, Version 2.0 (the "License");
+*   you may not use this file except in compliance with the License.
+*   You may obtain a copy of the License at
+*
+*       http://www.apache.org/licenses/LICENSE-2.0
+*
+*   Unless required by applicable law or agreed to in writing, software
+*   distributed under the License is distributed on an "AS IS" BASIS,
+*   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+*   See the License for the specific language governing permissions and
+*  limitations under the License.
+*/
+package org.apache.xmlbeans.test.performance.svn;
+
+import java.io.CharArrayReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.apache.xmlbeans.test.performance.utils.Constants;
+import org.apache.xmlbeans.test.performance.utils.PerfUtil;
+import org.openuri.easypo.PurchaseOrderDocument;
+import org.openuri.easypo.PurchaseOrderDocument.PurchaseOrder;
+
+/**
+ * Runs a number of threads (flavor, default 8), each copying line items between its own
+ * pair of synchronized documents, to measure the contention of cross-document setters.
+ */
+public class CrossDocCopySVN
+{
+  public static void main(String[] args) throws Exception
+  {
+    final int iterations = Constants.ITERATIONS * 10;
+    int threads;
+
+    if(args.length == 0)
+      threads = 8;
+    else
+      threads = Integer.parseInt(args[0]);
+
+    CrossDocCopySVN test = new CrossDocCopySVN();
+    PerfUtil util = new PerfUtil();
+    long cputime;
+    int hash = 0;
+
+    // get the xmlinstance
+    char[] chars = util.fileToChars(Constants.PO_INSTANCE_1);
+
+    // warm up the vm
+    hash += test.run(chars, threads, iterations);
+
+    // run it again for the real measurement
+    cputime = System.currentTimeMillis();
+    hash += test.run(chars, threads, iterations);
+    cputime = System.currentTimeMillis() - cputime;
+
+    // print the results
+    System.out.print(Constants.DELIM+test.getClass().getSimpleName()+" threads="+threads+" ");
+    System.out.print("hash "+hash+" ");
+    System.out.print("time "+cputime+"\n");
+  }
+
+  private int run(char[] chars, int threads, final int iterations) throws Exception
+  {
+    ExecutorService pool = Executors.newFixedThreadPool(threads);
+    try {
+      List<Future<Integer>> futures = new ArrayList<Future<Integer>>();
+      for(int t=0; t<threads; t++){
+        final PurchaseOrder src = parse(chars);
+        final PurchaseOrder dst = parse(chars);
+        futures.add(pool.submit(new Callable<Integer>() {
+          public Integer call() {
+            int hash = 0;
+            for(int i=0; i<iterations; i++){
+              dst.getLineItemArray(0).set(src.getLineItemArray(i % src.sizeOfLineItemArray()));
+              hash += dst.getLineItemArray(0).getQuantity();
+            }
+            return hash;
+          }
+        }));
+      }
+      int hash = 0;
+      for(Future<Integer> f : futures){
+        hash += f.get();
+      }
+      return hash;
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  private static PurchaseOrder parse(char[] chars) throws Exception
+  {
+    return PurchaseOrderDocument.Factory.parse(new CharArrayReader(chars)).getPurchaseOrder();
+  }
+}
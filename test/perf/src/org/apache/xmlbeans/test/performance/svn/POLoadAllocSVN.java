@@ -0,0 +1,80 @@
+/*   Copyright 2004 The Apache Software Foundation
+*
+*   Licensed under the Apache License, Version 2.0 (the "License");
+*   you may not use this file except in compliance with the License.
+*   You may obtain a copy of the License at
+*
+*       http://www.apache.org/licenses/LICENSE-2.0
+*
+*   Unless required by applicable law or agreed to in writing, software
+*   distributed under the License is distributed on an "AS IS" BASIS,
+*   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+*   See the License for the specific language governing permissions and
+*  limitations under the License.
+*/
+package org.apache.xmlbeans.test.performance.svn;
+
+import java.io.CharArrayReader;
+import java.lang.management.ManagementFactory;
+
+import org.apache.xmlbeans.test.performance.utils.Constants;
+import org.apache.xmlbeans.test.performance.utils.PerfUtil;
+import org.openuri.easypo.PurchaseOrderDocument;
+
+/**
+ * Measures the bytes allocated per load of a purchase-order instance,
+ * e.g. to compare the effect of the QName cache on the allocation rate.
+ */
+public class POLoadAllocSVN
+{
+  public static void main(String[] args) throws Exception
+  {
+    final int iterations = Constants.ITERATIONS / 10;
+    String filename;
+
+    if(args.length == 0){
+      filename = Constants.PO_INSTANCE_7;
+    }
+    else{
+      filename = Constants.XSD_DIR+Constants.P+args[0];
+    }
+
+    POLoadAllocSVN test = new POLoadAllocSVN();
+    PerfUtil util = new PerfUtil();
+    long cputime, allocated;
+    int hash = 0;
+
+    com.sun.management.ThreadMXBean mx =
+      (com.sun.management.ThreadMXBean)ManagementFactory.getThreadMXBean();
+    long tid = Thread.currentThread().getId();
+
+    // get the xmlinstance
+    char[] chars = util.fileToChars(filename);
+
+    // warm up the vm
+    for(int i=0; i<iterations; i++){
+      hash += test.run(new CharArrayReader(chars));
+    }
+
+    // run it again for the real measurement
+    allocated = mx.getThreadAllocatedBytes(tid);
+    cputime = System.currentTimeMillis();
+    for(int i=0; i<iterations; i++){
+      hash += test.run(new CharArrayReader(chars));
+    }
+    cputime = System.currentTimeMillis() - cputime;
+    allocated = mx.getThreadAllocatedBytes(tid) - allocated;
+
+    // print the results
+    System.out.print(Constants.DELIM+test.getClass().getSimpleName()+" filesize="+chars.length+" ");
+    System.out.print("hash "+hash+" ");
+    System.out.print("time "+cputime+" ");
+    System.out.print("bytes/op "+(allocated/iterations)+"\n");
+  }
+
+  private int run(CharArrayReader reader) throws Exception
+  {
+    PurchaseOrderDocument poDoc = PurchaseOrderDocument.Factory.parse(reader);
+    return poDoc.getPurchaseOrder().sizeOfLineItemArray();
+  }
+}
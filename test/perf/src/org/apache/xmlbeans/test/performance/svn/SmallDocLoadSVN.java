@@ -0,0 +1,92 @@
+/*   Copyright 2004 The Apache Software Foundation
+*
+*   Licensed under the Apache License, Version 2.0 (the "License");
+*   you may not use this file except in compliance with the License.
+*   You may obtain a copy of the License at
+*
+*       http://www.apache.org/licenses/LICENSE-2.0
+*
+*   Unless required by applicable law or agreed to in writing, software
+*   distributed under the License is distributed on an "AS IS" BASIS,
+*   WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+*   See the License for the specific language governing permissions and
+*  limitations under the License.
+*/
+package org.apache.xmlbeans.test.performance.svn;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.apache.xmlbeans.XmlCursor;
+import org.apache.xmlbeans.XmlObject;
+import org.apache.xmlbeans.XmlOptions;
+import org.apache.xmlbeans.impl.common.XMLReaderPool;
+import org.apache.xmlbeans.test.performance.utils.Constants;
+
+/**
+ * Parses a small SOAP like payload over and over again,
+ * with flavor "pooled" (default) or "unpooled" to compare the XMLReader pool
+ * against creating a new SAX parser per document.
+ */
+public class SmallDocLoadSVN
+{
+  private static final String SMALL_DOC =
+    "<soap:Envelope xmlns:soap=\"http://schemas.xmlsoap.org/soap/envelope/\">" +
+    "<soap:Header><wsa:To xmlns:wsa=\"http://www.w3.org/2005/08/addressing\">urn:gateway</wsa:To></soap:Header>" +
+    "<soap:Body><po:getOrder xmlns:po=\"http://openuri.org/easypo\"><po:id>4711</po:id></po:getOrder></soap:Body>" +
+    "</soap:Envelope>";
+
+  public static void main(String[] args) throws Exception
+  {
+    final int iterations = Constants.ITERATIONS * 10;
+    String flavor;
+
+    if(args.length == 0)
+      flavor = "pooled";
+    else
+      flavor = args[0];
+
+    SmallDocLoadSVN test = new SmallDocLoadSVN();
+    long cputime;
+    int hash = 0;
+
+    XmlOptions options = new XmlOptions();
+    if ("unpooled".equals(flavor))
+      options.setLoadDisableXMLReaderPool();
+
+    byte[] bytes = SMALL_DOC.getBytes(StandardCharsets.UTF_8);
+
+    // warm up the vm
+    cputime = System.currentTimeMillis();
+    for(int i=0; i<iterations; i++){
+      hash += test.run(new ByteArrayInputStream(bytes), options);
+    }
+    cputime = System.currentTimeMillis() - cputime;
+
+    // run it again for the real measurement
+    cputime = System.currentTimeMillis();
+    for(int i=0; i<iterations; i++){
+      hash += test.run(new ByteArrayInputStream(bytes), options);
+    }
+    cputime = System.currentTimeMillis() - cputime;
+
+    XMLReaderPool pool = XMLReaderPool.getInstance();
+
+    // print the results
+    System.out.print(Constants.DELIM+test.getClass().getSimpleName()+" flavor="+flavor+" ");
+    System.out.print("hash "+hash+" ");
+    System.out.print("time "+cputime+" ");
+    System.out.print("created "+pool.getCreatedCount()+" reused "+pool.getReusedCount()+"\n");
+  }
+
+  private int run(ByteArrayInputStream p_bis, XmlOptions options) throws Exception
+  {
+    XmlObject xobj = XmlObject.Factory.parse(p_bis, options);
+
+    XmlCursor cursor = xobj.newCursor();
+    cursor.toFirstContentToken();
+    int hash = cursor.getName().toString().length() * 17;
+    cursor.dispose();
+    return hash;
+  }
+}